@@ -50,7 +50,6 @@ import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.ConformanceClasses;
 import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.request.AbstractServiceRequest;
-import org.n52.sos.response.AbstractServiceResponse;
 import org.n52.sos.util.KvpHelper;
 import org.n52.sos.util.http.MediaType;
 import org.n52.sos.util.http.MediaTypes;
@@ -96,8 +95,7 @@ public class KvpBinding extends SimpleBinding {
             serviceRequest = parseRequest(req);
             // add request context information
             serviceRequest.setRequestContext(getRequestContext(req));
-            AbstractServiceResponse response = getServiceOperator(serviceRequest).receiveRequest(serviceRequest);
-            writeResponse(req, res, response);
+            receiveAndWriteResponse(req, res, serviceRequest);
         } catch (OwsExceptionReport oer) {
             oer.setVersion(serviceRequest != null ? serviceRequest.getVersion() : null);
             writeOwsExceptionReport(req, res, oer);
@@ -48,6 +48,7 @@ import org.n52.sos.ogc.sos.Sos2Constants;
 import org.n52.sos.ogc.sos.Sos2Constants.Extensions;
 import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.ogc.swe.simpleType.SweBoolean;
+import org.n52.sos.ogc.swe.simpleType.SweText;
 import org.n52.sos.ogc.swes.SwesExtension;
 import org.n52.sos.ogc.swes.SwesExtensionImpl;
 import org.n52.sos.ogc.swes.SwesExtensions;
@@ -143,6 +144,16 @@ public class GetObservationKvpDecoderv20 extends AbstractKvpDecoder {
                             .equalsIgnoreCase(Sos2Constants.Extensions.MergeObservationsIntoDataArray.name())) {
                         request.setExtensions(parseExtension(Sos2Constants.Extensions.MergeObservationsIntoDataArray,
                                 parameterValues, request.getExtensions()));
+                    }
+                    // Aggregation
+                    else if (parameterName.equalsIgnoreCase(Sos2Constants.Extensions.Aggregation.name())) {
+                        request.setExtensions(parseExtension(Sos2Constants.Extensions.Aggregation, parameterValues,
+                                request.getExtensions()));
+                    }
+                    // Downsampling
+                    else if (parameterName.equalsIgnoreCase(Sos2Constants.Extensions.Downsampling.name())) {
+                        request.setExtensions(parseExtension(Sos2Constants.Extensions.Downsampling, parameterValues,
+                                request.getExtensions()));
                     } else {
                         exceptions.add(new ParameterNotSupportedException(parameterName));
                     }
@@ -198,6 +209,11 @@ public class GetObservationKvpDecoderv20 extends AbstractKvpDecoder {
             				.setValue(Boolean.parseBoolean(parameterValues))
             		.setDefinition(extension.name())));
             break;
+        case Aggregation:
+        case Downsampling:
+            extensions.addSwesExtension(new SwesExtensionImpl<SweText>().setDefinition(extension.name())
+                    .setValue((SweText) new SweText().setValue(parameterValues).setDefinition(extension.name())));
+            break;
         default:
             break;
         }
@@ -38,6 +38,7 @@ import java.util.Map;
 import org.junit.Test;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.swe.simpleType.SweText;
 import org.n52.sos.request.GetObservationRequest;
 
 import com.google.common.collect.Maps;
@@ -78,4 +79,21 @@ public class GetObservationKvpDecoderv20Test {
                         Sos2Constants.Extensions.MergeObservationsIntoDataArray.name()), is(FALSE));
     }
 
+    @Test
+    public void should_decode_extension_parameters_Aggregation_and_Downsampling() throws OwsExceptionReport {
+        final Map<String, String> map = Maps.newHashMap();
+        map.put("aggregation", "avg,PT1H");
+        map.put("downsampling", "1000");
+        map.put("service", "SOS");
+        map.put("version", "2.0.0");
+        map.put("request", "GetObservation");
+        final GetObservationRequest request = new GetObservationKvpDecoderv20().decode(map);
+
+        assertThat(request.isSetExtensions(), is(TRUE));
+        assertThat(((SweText) request.getExtensions().getExtension(Sos2Constants.Extensions.Aggregation).getValue())
+                .getValue(), is("avg,PT1H"));
+        assertThat(((SweText) request.getExtensions().getExtension(Sos2Constants.Extensions.Downsampling).getValue())
+                .getValue(), is("1000"));
+    }
+
 }
@@ -28,7 +28,10 @@
  */
 package org.n52.sos.binding;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.Collections;
 import java.util.Set;
 
@@ -37,30 +40,64 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.coding.OperationKey;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
 import org.n52.sos.decode.Decoder;
+import org.n52.sos.decode.xml.stream.InsertObservationStreamReader;
+import org.n52.sos.exception.CodedException;
+import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.exception.HTTPException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.ows.OWSConstants.RequestParams;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.ConformanceClasses;
 import org.n52.sos.request.AbstractServiceRequest;
+import org.n52.sos.request.InsertObservationRequest;
 import org.n52.sos.response.AbstractServiceResponse;
+import org.n52.sos.service.RequestProcessingSettings;
+import org.n52.sos.service.operator.ServiceOperator;
 import org.n52.sos.util.CodingHelper;
+import org.n52.sos.util.Validation;
 import org.n52.sos.util.XmlHelper;
+import org.n52.sos.util.http.HTTPUtils;
 import org.n52.sos.util.http.MediaType;
 import org.n52.sos.util.http.MediaTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 
 /**
  * @since 4.0.0
  *
  */
+@Configurable
 public class PoxBinding extends SimpleBinding {
     private static final Logger LOGGER = LoggerFactory
             .getLogger(PoxBinding.class);
     private static final Set<String> CONFORMANCE_CLASSES = Collections
             .singleton(ConformanceClasses.SOS_V2_POX_BINDING);
+    /**
+     * Number of bytes read to detect the root element of a request
+     */
+    private static final int HEAD_SIZE = 16 * 1024;
+
+    private boolean streamingInsertObservation;
+
+    private int streamingGroupSize = 500;
+
+    @Setting(RequestProcessingSettings.STREAMING_INSERT_OBSERVATION)
+    public void setStreamingInsertObservation(boolean streamingInsertObservation) {
+        this.streamingInsertObservation = streamingInsertObservation;
+    }
+
+    @Setting(RequestProcessingSettings.STREAMING_INSERT_OBSERVATION_GROUP_SIZE)
+    public void setStreamingGroupSize(int streamingGroupSize) throws ConfigurationException {
+        Validation.greaterZero("InsertObservation group size", streamingGroupSize);
+        this.streamingGroupSize = streamingGroupSize;
+    }
 
     @Override
     public void doPostOperation(HttpServletRequest req,
@@ -68,10 +105,32 @@ public class PoxBinding extends SimpleBinding {
             throws HTTPException, IOException {
         AbstractServiceRequest<?> sosRequest = null;
         try {
-            sosRequest = parseRequest(req);
-            AbstractServiceResponse sosResponse = getServiceOperator(sosRequest)
-                    .receiveRequest(sosRequest);
-            writeResponse(req, res, sosResponse);
+            if (isStreamingInsertObservation(req)) {
+                String encoding = req.getCharacterEncoding();
+                InputStream in = getInputStream(req);
+                byte[] head = new byte[HEAD_SIZE];
+                int length = read(in, head);
+                InputStream body = new SequenceInputStream(new ByteArrayInputStream(head, 0, length), in);
+                if (InsertObservationStreamReader.isInsertObservation(head, length, encoding)) {
+                    AbstractServiceResponse sosResponse;
+                    InsertObservationStreamReader reader = new InsertObservationStreamReader(body, encoding);
+                    try {
+                        InsertObservationRequest request = reader.readRequest();
+                        request.setRequestContext(getRequestContext(req));
+                        sosRequest = request;
+                        sosResponse = insertObservations(request, reader);
+                    } finally {
+                        reader.close();
+                    }
+                    writeResponse(req, res, sosResponse);
+                } else {
+                    sosRequest = parseRequest(req, XmlHelper.parseXmlSosRequest(body, encoding));
+                    receiveAndWriteResponse(req, res, sosRequest);
+                }
+            } else {
+                sosRequest = parseRequest(req);
+                receiveAndWriteResponse(req, res, sosRequest);
+            }
         } catch (OwsExceptionReport oer) {
             oer.setVersion(sosRequest != null ? sosRequest.getVersion() : null);
             writeOwsExceptionReport(req, res, oer);
@@ -80,7 +139,11 @@ public class PoxBinding extends SimpleBinding {
 
     protected AbstractServiceRequest<?> parseRequest(HttpServletRequest request)
             throws OwsExceptionReport {
-        XmlObject doc = XmlHelper.parseXmlSosRequest(request);
+        return parseRequest(request, XmlHelper.parseXmlSosRequest(request));
+    }
+
+    protected AbstractServiceRequest<?> parseRequest(HttpServletRequest request, XmlObject doc)
+            throws OwsExceptionReport {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("XML-REQUEST: {}", doc.xmlText());
         }
@@ -89,6 +152,83 @@ public class PoxBinding extends SimpleBinding {
         return decoder.decode(doc).setRequestContext(getRequestContext(request));
     }
 
+    /**
+     * Insert the observations of a streamed InsertObservation request in groups
+     * of at most {@link #streamingGroupSize} observations. Each group is
+     * inserted in a transaction of its own. If a group can not be decoded or
+     * inserted, the exception states how many observations of the request
+     * were inserted before, so the client can resume the insertion after them.
+     *
+     * @param request
+     *            the decoded request containing the first observation
+     * @param reader
+     *            the reader of the remaining observations
+     * @return the response to the whole request
+     * @throws OwsExceptionReport
+     *             If an observation is invalid or could not be inserted
+     */
+    private AbstractServiceResponse insertObservations(InsertObservationRequest request,
+            InsertObservationStreamReader reader) throws OwsExceptionReport {
+        ServiceOperator operator = getServiceOperator(request);
+        InsertObservationRequest parameters = request.copyWithoutObservations();
+        InsertObservationRequest group = request;
+        int inserted = 0;
+        int groups = 1;
+        try {
+            OmObservation observation;
+            while ((observation = reader.nextObservation()) != null) {
+                if (group.isSetObservation() && group.getObservations().size() >= streamingGroupSize) {
+                    operator.receiveRequest(group);
+                    inserted += group.getObservations().size();
+                    group = parameters.copyWithoutObservations();
+                    ++groups;
+                }
+                group.addObservation(observation);
+            }
+            operator.receiveRequest(group);
+        } catch (OwsExceptionReport owse) {
+            if (inserted > 0) {
+                addInsertedObservations(owse, inserted);
+            }
+            throw owse;
+        }
+        LOGGER.debug("Inserted streamed observations in {} group(s)", groups);
+        return parameters.getResponse();
+    }
+
+    private void addInsertedObservations(OwsExceptionReport owse, int inserted) {
+        for (CodedException ce : owse.getExceptions()) {
+            String message = ce.hasMessage() ? ce.getMessage() + " " : "";
+            ce.withMessage("%sThe first %d observation(s) of the request were inserted, the following "
+                    + "observations were not inserted.", message, inserted);
+        }
+    }
+
+    private boolean isStreamingInsertObservation(HttpServletRequest request) {
+        return streamingInsertObservation && !request.getParameterMap().containsKey(RequestParams.request.name());
+    }
+
+    private InputStream getInputStream(HttpServletRequest request) throws OwsExceptionReport {
+        try {
+            return HTTPUtils.getInputStream(request);
+        } catch (IOException ioe) {
+            throw createReadException(ioe);
+        }
+    }
+
+    private int read(InputStream in, byte[] buffer) throws OwsExceptionReport {
+        try {
+            return ByteStreams.read(in, buffer, 0, buffer.length);
+        } catch (IOException ioe) {
+            throw createReadException(ioe);
+        }
+    }
+
+    private OwsExceptionReport createReadException(IOException ioe) {
+        return new NoApplicableCodeException().causedBy(ioe).withMessage(
+                "Error while reading request! Message: %s", ioe.getMessage());
+    }
+
     @Override
     public Set<String> getConformanceClasses() {
         return Collections.unmodifiableSet(CONFORMANCE_CLASSES);
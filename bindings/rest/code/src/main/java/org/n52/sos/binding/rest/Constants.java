@@ -79,6 +79,9 @@ public final class Constants {
 	private String httpGetParameternameProcedures;
 	private String httpGetParameternameSpatialfilter;
 	private String httpGetParameternameTemporalfilter;
+	private String httpGetParameternameLimit;
+	private String httpGetParameternameOffset;
+	private String httpGetParameternameCursor;
 	private String httpHeaderIdentifierXDeletedResourceId;
 	private String httpOperationNotAllowedForResourceTypeMessageStart;
 	private String kvpEncodingValuesplitter;
@@ -98,6 +101,8 @@ public final class Constants {
 	private String resourceRelationOfferingGet;
 	private String resourceRelationOfferingsGet;
 	private String resourceRelationSelf;
+	private String resourceRelationNext;
+	private String resourceRelationPrev;
 	private String resourceRelationSensorCreate;
 	private String resourceRelationSensorDelete;
 	private String resourceRelationSensorGet;
@@ -120,6 +125,8 @@ public final class Constants {
 	private String urlEncoding;
 	private String urlpattern;
 	private URI encodingSchemaUrl;
+	private int pagingLimitDefault;
+	private int pagingLimitMax;
     
 	private Constants() {
     }
@@ -258,6 +265,34 @@ public final class Constants {
     	return httpGetParameternameTemporalfilter;
     }
 
+	public String getHttpGetParameterNameLimit()
+    {
+    	return httpGetParameternameLimit;
+    }
+
+	public String getHttpGetParameterNameOffset()
+    {
+    	return httpGetParameternameOffset;
+    }
+
+	public String getHttpGetParameterNameCursor()
+    {
+    	return httpGetParameternameCursor;
+    }
+
+    /**
+     * @param parameter
+     *            name of a query parameter
+     * @return <code>true</code>, if the parameter selects the page of a
+     *         collection resource
+     */
+    public boolean isPagingParameter(String parameter)
+    {
+        return parameter.equalsIgnoreCase(getHttpGetParameterNameLimit())
+                || parameter.equalsIgnoreCase(getHttpGetParameterNameOffset())
+                || parameter.equalsIgnoreCase(getHttpGetParameterNameCursor());
+    }
+
 	public String getHttpHeaderIdentifierXDeletedResourceId()
     {
 //        return properties.getProperty("http.header.identifier.XDeletedResourceId","X-Deleted-Resource-Id");
@@ -366,6 +401,16 @@ public final class Constants {
     	return resourceRelationSelf;
     }
 
+    public String getResourceRelationNext()
+    {
+    	return resourceRelationNext;
+    }
+
+    public String getResourceRelationPrev()
+    {
+    	return resourceRelationPrev;
+    }
+
     public String getResourceRelationSensorCreate()
     {
 //        return properties.getProperty("resource.relation.sensor.create", "sensor-create");
@@ -638,6 +683,27 @@ public final class Constants {
 		this.httpGetParameternameTemporalfilter = httpGetParameternameTemporalfilter;
 	}
 
+	@Setting(REST_HTTP_GET_PARAMETERNAME_LIMIT)
+	public void setHttpGetParameternameLimit(final String httpGetParameternameLimit)
+	{
+		Validation.notNullOrEmpty(REST_HTTP_GET_PARAMETERNAME_LIMIT, httpGetParameternameLimit);
+		this.httpGetParameternameLimit = httpGetParameternameLimit;
+	}
+
+	@Setting(REST_HTTP_GET_PARAMETERNAME_OFFSET)
+	public void setHttpGetParameternameOffset(final String httpGetParameternameOffset)
+	{
+		Validation.notNullOrEmpty(REST_HTTP_GET_PARAMETERNAME_OFFSET, httpGetParameternameOffset);
+		this.httpGetParameternameOffset = httpGetParameternameOffset;
+	}
+
+	@Setting(REST_HTTP_GET_PARAMETERNAME_CURSOR)
+	public void setHttpGetParameternameCursor(final String httpGetParameternameCursor)
+	{
+		Validation.notNullOrEmpty(REST_HTTP_GET_PARAMETERNAME_CURSOR, httpGetParameternameCursor);
+		this.httpGetParameternameCursor = httpGetParameternameCursor;
+	}
+
 	@Setting(REST_HTTP_HEADER_IDENTIFIER_XDELETEDRESOURCEID)
 	public void setHttpHeaderIdentifierXDeletedResourceId(final String httpHeaderIdentifierXDeletedResourceId)
 	{
@@ -764,6 +830,20 @@ public final class Constants {
 		this.resourceRelationSelf = resourceRelationSelf;
 	}
 
+	@Setting(REST_RESOURCE_RELATION_NEXT)
+	public void setResourceRelationNext(final String resourceRelationNext)
+	{
+		Validation.notNullOrEmpty(REST_RESOURCE_RELATION_NEXT, resourceRelationNext);
+		this.resourceRelationNext = resourceRelationNext;
+	}
+
+	@Setting(REST_RESOURCE_RELATION_PREV)
+	public void setResourceRelationPrev(final String resourceRelationPrev)
+	{
+		Validation.notNullOrEmpty(REST_RESOURCE_RELATION_PREV, resourceRelationPrev);
+		this.resourceRelationPrev = resourceRelationPrev;
+	}
+
 	@Setting(REST_RESOURCE_RELATION_SENSOR_CREATE)
 	public void setResourceRelationSensorCreate(final String resourceRelationSensorCreate)
 	{
@@ -928,4 +1008,28 @@ public final class Constants {
 		return encodingSchemaUrl;
 	}
 
+	@Setting(REST_PAGING_LIMIT_DEFAULT)
+	public void setPagingLimitDefault(final int pagingLimitDefault)
+	{
+		Validation.greaterZero(REST_PAGING_LIMIT_DEFAULT, pagingLimitDefault);
+		this.pagingLimitDefault = pagingLimitDefault;
+	}
+
+	public int getPagingLimitDefault()
+	{
+		return pagingLimitDefault;
+	}
+
+	@Setting(REST_PAGING_LIMIT_MAX)
+	public void setPagingLimitMax(final int pagingLimitMax)
+	{
+		Validation.greaterZero(REST_PAGING_LIMIT_MAX, pagingLimitMax);
+		this.pagingLimitMax = pagingLimitMax;
+	}
+
+	public int getPagingLimitMax()
+	{
+		return pagingLimitMax;
+	}
+
 }
@@ -75,6 +75,9 @@ public class RestSettings implements SettingDefinitionProvider {
 	public static final String REST_HTTP_GET_PARAMETERNAME_PROCEDURES = "rest.http.get.parametername.procedures";
 	public static final String REST_HTTP_GET_PARAMETERNAME_SPATIALFILTER = "rest.http.get.parametername.spatialfilter";
 	public static final String REST_HTTP_GET_PARAMETERNAME_TEMPORALFILTER = "rest.http.get.parametername.temporalfilter";
+	public static final String REST_HTTP_GET_PARAMETERNAME_LIMIT = "rest.http.get.parametername.limit";
+	public static final String REST_HTTP_GET_PARAMETERNAME_OFFSET = "rest.http.get.parametername.offset";
+	public static final String REST_HTTP_GET_PARAMETERNAME_CURSOR = "rest.http.get.parametername.cursor";
 	public static final String REST_HTTP_HEADER_IDENTIFIER_XDELETEDRESOURCEID = "rest.http.header.identifier.XDeletedResourceId";
 	public static final String REST_HTTP_OPERATIONNOTALLOWEDFORRESOURCETYPE_MESSAGE_START = "rest.http.operationNotAllowedForResourceType.message.start";
 	public static final String REST_KVP_ENCODING_VALUESPLITTER = "rest.kvp.encoding.valuesplitter";
@@ -93,6 +96,8 @@ public class RestSettings implements SettingDefinitionProvider {
 	public static final String REST_RESOURCE_RELATION_OFFERING_GET = "rest.resource.relation.offering.get";
 	public static final String REST_RESOURCE_RELATION_OFFERINGS_GET = "rest.resource.relation.offerings.get";
 	public static final String REST_RESOURCE_RELATION_SELF = "rest.resource.relation.self";
+	public static final String REST_RESOURCE_RELATION_NEXT = "rest.resource.relation.next";
+	public static final String REST_RESOURCE_RELATION_PREV = "rest.resource.relation.prev";
 	public static final String REST_RESOURCE_RELATION_SENSOR_CREATE = "rest.resource.relation.sensor.create";
 	public static final String REST_RESOURCE_RELATION_SENSOR_DELETE = "rest.resource.relation.sensor.delete";
 	public static final String REST_RESOURCE_RELATION_SENSOR_GET = "rest.resource.relation.sensor.get";
@@ -111,6 +116,8 @@ public class RestSettings implements SettingDefinitionProvider {
 	public static final String REST_SOS_VERSION = "rest.sos.version";
 	public static final String REST_URLPATTERN = "rest.urlpattern";
 	public static final String REST_ENCODING_SCHEMA_URL = "rest.encodingSchemaUrl";
+	public static final String REST_PAGING_LIMIT_DEFAULT = "rest.paging.limit.default";
+	public static final String REST_PAGING_LIMIT_MAX = "rest.paging.limit.max";
 	
 	private static final Set<SettingDefinition<?, ?>> DEFINITIONS = ImmutableSet.<SettingDefinition<?,?>>of(
 			new StringSettingDefinition().
@@ -320,6 +327,33 @@ public class RestSettings implements SettingDefinitionProvider {
 			setOptional(false).
 			setOrder(24),
 
+			new StringSettingDefinition().
+			setGroup(SETTINGS_GROUP).
+			setKey(REST_HTTP_GET_PARAMETERNAME_LIMIT).
+			setDefaultValue("limit").
+			setTitle("Http Get Parametername Limit").
+			setDescription("The name of the parameter limiting the number of entries of a collection resource page.").
+			setOptional(false).
+			setOrder(25),
+
+			new StringSettingDefinition().
+			setGroup(SETTINGS_GROUP).
+			setKey(REST_HTTP_GET_PARAMETERNAME_OFFSET).
+			setDefaultValue("offset").
+			setTitle("Http Get Parametername Offset").
+			setDescription("The name of the parameter defining the number of entries of a collection resource to skip.").
+			setOptional(false).
+			setOrder(26),
+
+			new StringSettingDefinition().
+			setGroup(SETTINGS_GROUP).
+			setKey(REST_HTTP_GET_PARAMETERNAME_CURSOR).
+			setDefaultValue("cursor").
+			setTitle("Http Get Parametername Cursor").
+			setDescription("The name of the parameter containing the cursor of a collection resource page as given in the next link.").
+			setOptional(false).
+			setOrder(27),
+
 			new StringSettingDefinition().
 			setGroup(SETTINGS_GROUP).
 			setKey(REST_HTTP_HEADER_IDENTIFIER_XDELETEDRESOURCEID).
@@ -482,6 +516,24 @@ public class RestSettings implements SettingDefinitionProvider {
 			setOptional(false).
 			setOrder(49),
 
+			new StringSettingDefinition().
+			setGroup(SETTINGS_GROUP).
+			setKey(REST_RESOURCE_RELATION_NEXT).
+			setDefaultValue("next").
+			setTitle("Resource Relation Next").
+			setDescription("The relation of the link to the next page of a collection resource.").
+			setOptional(false).
+			setOrder(49.1f),
+
+			new StringSettingDefinition().
+			setGroup(SETTINGS_GROUP).
+			setKey(REST_RESOURCE_RELATION_PREV).
+			setDefaultValue("prev").
+			setTitle("Resource Relation Prev").
+			setDescription("The relation of the link to the previous page of a collection resource.").
+			setOptional(false).
+			setOrder(49.2f),
+
 			new StringSettingDefinition().
 			setGroup(SETTINGS_GROUP).
 			setKey(REST_RESOURCE_RELATION_SENSOR_CREATE).
@@ -642,7 +694,25 @@ public class RestSettings implements SettingDefinitionProvider {
 			setTitle("Encoding Schema URL").
 			setDescription("The URL to the encoding schema. Should be a web accessible URL returning a XSD file").
 			setOptional(false).
-			setOrder(67)
+			setOrder(67),
+
+			new IntegerSettingDefinition().
+			setGroup(SETTINGS_GROUP).
+			setKey(REST_PAGING_LIMIT_DEFAULT).
+			setDefaultValue(100).
+			setTitle("Paging limit - default").
+			setDescription("The number of entries of a collection resource page if a page is requested without limit.").
+			setOptional(false).
+			setOrder(68),
+
+			new IntegerSettingDefinition().
+			setGroup(SETTINGS_GROUP).
+			setKey(REST_PAGING_LIMIT_MAX).
+			setDefaultValue(1000).
+			setTitle("Paging limit - maximum").
+			setDescription("The maximum number of entries of a collection resource page a client may request.").
+			setOptional(false).
+			setOrder(69)
 			
 			);
 
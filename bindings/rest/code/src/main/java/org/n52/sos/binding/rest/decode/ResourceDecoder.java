@@ -41,6 +41,7 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.joda.time.DateTime;
 import org.n52.sos.binding.rest.Constants;
+import org.n52.sos.binding.rest.requests.PagingCursor;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.exception.ows.MissingParameterValueException;
@@ -54,6 +55,7 @@ import org.n52.sos.ogc.gml.time.TimeInstant;
 import org.n52.sos.ogc.gml.time.TimePeriod;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants.SosIndeterminateTime;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.GetCapabilitiesRequest;
 import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.util.DateTimeHelper;
@@ -193,6 +195,82 @@ public abstract class ResourceDecoder extends RestDecoder {
         }
     }
 
+    /**
+     * Parse the page of a collection resource requested by the limit and
+     * either the offset or the cursor parameter.
+     *
+     * @return the requested page or <code>null</code> if no paging parameter
+     *         is present
+     */
+    protected ResultPaging parsePaging(final Map<String, String> parameterMap) throws OwsExceptionReport
+    {
+        final String limitName = bindingConstants.getHttpGetParameterNameLimit();
+        final String offsetName = bindingConstants.getHttpGetParameterNameOffset();
+        final String cursorName = bindingConstants.getHttpGetParameterNameCursor();
+        final String limitValue = getParameterValue(parameterMap, limitName);
+        final String offsetValue = getParameterValue(parameterMap, offsetName);
+        final String cursorValue = getParameterValue(parameterMap, cursorName);
+        if (limitValue == null && offsetValue == null && cursorValue == null) {
+            return null;
+        }
+        final int limitMax = bindingConstants.getPagingLimitMax();
+        int limit = Math.min(bindingConstants.getPagingLimitDefault(), limitMax);
+        if (limitValue != null) {
+            limit = parseNonNegativeInteger(limitName, limitValue);
+            if (limit == 0 || limit > limitMax) {
+                throw new InvalidParameterValueException(limitName, limitValue)
+                        .withMessage("The value of the parameter '%s' has to be between 1 and %d.", limitName, limitMax);
+            }
+        }
+        if (cursorValue != null) {
+            if (offsetValue != null) {
+                throw new InvalidParameterValueException(cursorName, cursorValue)
+                        .withMessage("The parameters '%s' and '%s' are mutually exclusive.", offsetName, cursorName);
+            }
+            try {
+                return ResultPaging.after(limit, PagingCursor.decode(cursorValue));
+            } catch (final IllegalArgumentException iae) {
+                throw new InvalidParameterValueException(cursorName, cursorValue).causedBy(iae);
+            }
+        }
+        return ResultPaging.offset(limit, offsetValue == null ? 0 : parseNonNegativeInteger(offsetName, offsetValue));
+    }
+
+    protected boolean hasOnlyPagingParameters(final HttpServletRequest httpRequest)
+    {
+        final Map<String, String> parameterMap = getKvPEncodedParameters(httpRequest);
+        for (final String parameter : parameterMap.keySet()) {
+            if (!bindingConstants.isPagingParameter(parameter)) {
+                return false;
+            }
+        }
+        return !parameterMap.isEmpty();
+    }
+
+    private String getParameterValue(final Map<String, String> parameterMap, final String parameterName)
+    {
+        for (final Map.Entry<String, String> parameter : parameterMap.entrySet()) {
+            if (parameter.getKey().equalsIgnoreCase(parameterName)) {
+                return parameter.getValue();
+            }
+        }
+        return null;
+    }
+
+    private int parseNonNegativeInteger(final String parameterName, final String parameterValue)
+            throws InvalidParameterValueException
+    {
+        try {
+            final int value = Integer.parseInt(parameterValue);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (final NumberFormatException nfe) {
+            LOGGER.debug("Invalid value of parameter '{}': {}", parameterName, parameterValue);
+        }
+        throw new InvalidParameterValueException(parameterName, parameterValue);
+    }
+
     protected List<String> splitKvpParameterValueToList(final String value)
     {
         return Arrays.asList(value.split(bindingConstants.getKvPEncodingValueSplitter()));
@@ -38,10 +38,13 @@ import net.opengis.sosREST.x10.ResourceCollectionType;
 
 import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.XmlOptions;
+import org.n52.sos.binding.rest.requests.PagedRestResponse;
+import org.n52.sos.binding.rest.requests.PagingCursor;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.exception.ows.concrete.EncoderResponseUnsupportedException;
 import org.n52.sos.exception.ows.concrete.ErrorWhileSavingResponseToOutputStreamException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.response.ServiceResponse;
 import org.n52.sos.util.XmlOptionsHelper;
 import org.n52.sos.util.http.HTTPHeaders;
@@ -86,6 +89,61 @@ public abstract class ResourceEncoder extends RestEncoder {
                 bindingConstants.getContentTypeDefault().toString());
     }
     
+    /**
+     * Adds the links to the pages neighbouring the page of a collection
+     * resource.
+     * 
+     * @param queryString
+     *            the query string of the current page, may be <code>null</code>
+     */
+    protected void setPageLinks(ResourceCollectionType xb_ResourceCollection,
+            PagedRestResponse response,
+            String queryString,
+            String resourceType)
+    {
+        if (response.isSetPreviousPage()) {
+            setValuesOfLinkToPage(xb_ResourceCollection.addNewLink(), queryString, response.getPreviousPage(),
+                    bindingConstants.getResourceRelationPrev(), resourceType);
+        }
+        if (response.isSetNextPage()) {
+            setValuesOfLinkToPage(xb_ResourceCollection.addNewLink(), queryString, response.getNextPage(),
+                    bindingConstants.getResourceRelationNext(), resourceType);
+        }
+    }
+
+    protected void setValuesOfLinkToPage(LinkType xb_RestLink,
+            String queryString,
+            ResultPaging page,
+            String relation,
+            String resourceType)
+    {
+        setValuesOfLinkToDynamicResource(xb_RestLink, createQueryStringForPage(queryString, page), relation, resourceType);
+    }
+
+    /**
+     * Replaces the paging parameters of a query string by the ones of a page.
+     */
+    protected String createQueryStringForPage(String queryString, ResultPaging page)
+    {
+        StringBuilder pageQueryString = new StringBuilder();
+        if (queryString != null) {
+            for (String parameter : queryString.split("&")) {
+                if (!parameter.isEmpty() && !bindingConstants.isPagingParameter(parameter.split("=", 2)[0])) {
+                    pageQueryString.append(parameter).append('&');
+                }
+            }
+        }
+        pageQueryString.append(bindingConstants.getHttpGetParameterNameLimit()).append('=').append(page.getLimit());
+        if (page.isSetAfter()) {
+            pageQueryString.append('&').append(bindingConstants.getHttpGetParameterNameCursor())
+                    .append('=').append(PagingCursor.encode(page.getAfter()));
+        } else if (page.getOffset() > 0) {
+            pageQueryString.append('&').append(bindingConstants.getHttpGetParameterNameOffset())
+                    .append('=').append(page.getOffset());
+        }
+        return pageQueryString.toString();
+    }
+
     protected void setValuesOfLinkToGlobalResource(LinkType xb_Link,
             String relationIdentifier,
             String resourceType)
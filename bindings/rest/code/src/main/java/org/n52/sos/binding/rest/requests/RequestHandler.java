@@ -29,9 +29,9 @@
 package org.n52.sos.binding.rest.requests;
 
 import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
 
-import net.opengis.sos.x20.CapabilitiesDocument;
-import net.opengis.sos.x20.CapabilitiesType;
 import net.opengis.sos.x20.ObservationOfferingDocument;
 import net.opengis.sos.x20.ObservationOfferingType;
 import net.opengis.swes.x20.AbstractContentsType.Offering;
@@ -39,17 +39,22 @@ import net.opengis.swes.x20.AbstractContentsType.Offering;
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.Constants;
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.coding.CodingRepository;
 import org.n52.sos.encode.Encoder;
 import org.n52.sos.encode.OperationEncoderKey;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.EncoderResponseUnsupportedException;
 import org.n52.sos.exception.ows.concrete.NoEncoderForKeyException;
 import org.n52.sos.exception.ows.concrete.ServiceOperatorNotFoundException;
+import org.n52.sos.ogc.om.AbstractStreaming;
+import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.AbstractServiceRequest;
-import org.n52.sos.request.GetCapabilitiesRequest;
+import org.n52.sos.response.AbstractObservationResponse;
 import org.n52.sos.response.AbstractServiceResponse;
-import org.n52.sos.coding.CodingRepository;
+import org.n52.sos.service.Configurator;
 import org.n52.sos.service.operator.ServiceOperator;
 import org.n52.sos.service.operator.ServiceOperatorKey;
 import org.n52.sos.service.operator.ServiceOperatorRepository;
@@ -58,6 +63,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Base class of the handlers of the resources. The SOS core operations are
+ * executed without encoding their responses, handlers work on the internal
+ * response model and the content cache. Only the parts embedded in the
+ * RESTful resources are encoded.
+ *
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
  */
 public abstract class RequestHandler {
@@ -76,58 +86,65 @@ public abstract class RequestHandler {
         LOGGER.debug(exceptionText);
         return new EncoderResponseUnsupportedException().withMessage(exceptionText);
     }
-    
-    protected ObservationOfferingType getOfferingForProcedureFromSos(final GetCapabilitiesRequest getCapabilitiesRequest, final String procedureId) throws OwsExceptionReport, XmlException, IOException
+
+    protected ContentCache getCache()
     {
-        final Offering[] xb_offerings = getOfferingsFromSosCore(getCapabilitiesRequest);
-        if (xb_offerings != null) {
-            for (final Offering xb_offering : xb_offerings) {
-                final ObservationOfferingType xb_observationOffering = ObservationOfferingDocument.Factory.parse(xb_offering.newInputStream()).getObservationOffering();
-                if (xb_observationOffering.getProcedure() != null &&
-                        xb_observationOffering.getProcedure().equals(procedureId) ) {
-                    return xb_observationOffering;
-                }
-            }
-        }
-        return null;
+        return Configurator.getInstance().getCache();
     }
-    
-    protected Offering[] getOfferingsFromSosCore(GetCapabilitiesRequest req) throws OwsExceptionReport, XmlException
-    {
-        // if response is an OWSException report -> cancel whole process and throw it
 
-        final XmlObject xb_getCapabilitiesResponse = executeSosRequest(req);
+    protected ObservationOfferingType getObservationOfferingFromOffering(final Offering xb_offering) throws XmlException, IOException
+    {
+        return ObservationOfferingDocument.Factory.parse(xb_offering.newInputStream()).getObservationOffering();
+    }
 
-        if (xb_getCapabilitiesResponse instanceof CapabilitiesDocument)
-        {
-            final CapabilitiesDocument xb_capabilitiesDocument = (CapabilitiesDocument) xb_getCapabilitiesResponse;
-            final CapabilitiesType xb_capabilities = xb_capabilitiesDocument.getCapabilities();
-            
-            if (isOfferingArrayAvailable(xb_capabilities))
-            {
-                return xb_capabilities.getContents().getContents().getOfferingArray();
+    /**
+     * Collects the observations of a response. Observations with streaming
+     * values are resolved to the observations of their values.
+     * 
+     * @param response
+     *            the response of the SOS core operation
+     * @return the observations, never <code>null</code>
+     * @throws OwsExceptionReport
+     *             if querying the values fails
+     */
+    protected List<OmObservation> getObservations(AbstractObservationResponse response) throws OwsExceptionReport
+    {
+        List<OmObservation> observations = new LinkedList<OmObservation>();
+        if (response.getObservationCollection() != null) {
+            for (OmObservation observation : response.getObservationCollection()) {
+                if (observation.getValue() instanceof AbstractStreaming) {
+                    AbstractStreaming streaming = (AbstractStreaming) observation.getValue();
+                    if (streaming.hasNextValue()) {
+                        observations.addAll(streaming.mergeObservation());
+                    } else if (streaming.getValue() != null) {
+                        observations.add(streaming.getValue().getValue());
+                    }
+                } else {
+                    observations.add(observation);
+                }
             }
-            return new Offering[0];
-        }
-        else
-        {
-            final String exceptionText = String.format("Processing of SOS core operation \"GetCapabilities\" response failed. Type of could not be handled: \"%s\"",
-                    xb_getCapabilitiesResponse.getClass().getName());
-            LOGGER.debug(exceptionText);
-            throw new NoApplicableCodeException().withMessage(exceptionText);
         }
+        return observations;
     }
-
-	private boolean isOfferingArrayAvailable(final CapabilitiesType xb_capabilities)
-	{
-		return xb_capabilities.getContents() != null &&
-				xb_capabilities.getContents().getContents() != null &&
-				xb_capabilities.getContents().getContents().getOfferingArray() != null;
-	}
     
-    protected ObservationOfferingType getObservationOfferingFromOffering(final Offering xb_offering) throws XmlException, IOException
+    /**
+     * Links the pages neighbouring a page of identifiers held in memory, e.g.
+     * by the content cache.
+     * 
+     * @param response
+     *            the response containing the page
+     * @param paging
+     *            the requested page
+     * @param selected
+     *            the identifiers selected by {@link ResultPaging#select(java.util.Collection)}
+     */
+    protected void setPages(PagedRestResponse response, ResultPaging paging, List<String> selected)
     {
-        return ObservationOfferingDocument.Factory.parse(xb_offering.newInputStream()).getObservationOffering();
+        ResultPaging next = null;
+        if (paging.hasNext(selected)) {
+            next = paging.next(selected.get(paging.getLimit() - 1));
+        }
+        response.setPages(paging.previous(), next);
     }
     
     private ServiceOperator getServiceOperator(AbstractServiceRequest<?> req) throws OwsExceptionReport
@@ -141,11 +158,24 @@ public abstract class RequestHandler {
         throw new ServiceOperatorNotFoundException(req);
     }
 
-    protected XmlObject executeSosRequest(AbstractServiceRequest<?> request) throws OwsExceptionReport {
-        return encodeResponse(getServiceOperator(request).receiveRequest(request));
+    protected AbstractServiceResponse executeSosRequest(AbstractServiceRequest<?> request) throws OwsExceptionReport {
+        return getServiceOperator(request).receiveRequest(request);
+    }
+
+    protected <T extends AbstractServiceResponse> T executeSosRequest(AbstractServiceRequest<?> request,
+            Class<T> responseType) throws OwsExceptionReport {
+        AbstractServiceResponse response = executeSosRequest(request);
+        if (responseType.isInstance(response)) {
+            return responseType.cast(response);
+        }
+        final String exceptionText = String.format("Processing of SOS core operation \"%s\" response failed. Type of could not be handled: \"%s\"",
+                request.getOperationName(),
+                response.getClass().getName());
+        LOGGER.debug(exceptionText);
+        throw new NoApplicableCodeException().withMessage(exceptionText);
     }
 
-    private XmlObject encodeResponse(AbstractServiceResponse response)
+    protected XmlObject encodeResponse(AbstractServiceResponse response)
             throws OwsExceptionReport {
         OperationEncoderKey key = new OperationEncoderKey(
                 response.getOperationKey(), MediaTypes.TEXT_XML);
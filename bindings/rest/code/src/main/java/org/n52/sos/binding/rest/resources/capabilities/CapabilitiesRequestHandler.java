@@ -30,11 +30,11 @@ package org.n52.sos.binding.rest.resources.capabilities;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import net.opengis.sos.x20.CapabilitiesDocument;
 import net.opengis.sos.x20.CapabilitiesType;
-import net.opengis.sos.x20.ObservationOfferingDocument;
 import net.opengis.sos.x20.ObservationOfferingType;
 import net.opengis.swes.x20.AbstractContentsType.Offering;
 
@@ -45,6 +45,9 @@ import org.n52.sos.binding.rest.requests.RequestHandler;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.SosCapabilities;
+import org.n52.sos.ogc.sos.SosObservationOffering;
+import org.n52.sos.response.GetCapabilitiesResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -59,30 +62,33 @@ public class CapabilitiesRequestHandler extends RequestHandler {
             List<String> offeringIdentifiers = null;
             CapabilitiesType xb_sosCapabilities = null;
 
-            // 0 submit GetCapabilities DeleteObservationRequest
-            XmlObject xb_getCapabilitiesResponse = executeSosRequest(((CapabilitiesRequest) request).getGetCapabilitiesRequest());
+            // 0 submit GetCapabilities request
+            GetCapabilitiesResponse getCapabilitiesResponse = executeSosRequest(
+                    ((CapabilitiesRequest) request).getGetCapabilitiesRequest(), GetCapabilitiesResponse.class);
             
             // 1 get offerings
-            if (xb_getCapabilitiesResponse instanceof CapabilitiesDocument) {
-                CapabilitiesDocument xb_capaCapabilitiesDocument = (CapabilitiesDocument) xb_getCapabilitiesResponse;
-                xb_sosCapabilities = xb_capaCapabilitiesDocument.getCapabilities();
-
-                if(xb_sosCapabilities.isSetContents()) {
-
+            if (getCapabilitiesResponse.isStatic()) {
+                XmlObject xb_getCapabilitiesResponse = encodeResponse(getCapabilitiesResponse);
+                if (xb_getCapabilitiesResponse instanceof CapabilitiesDocument) {
+                    xb_sosCapabilities = ((CapabilitiesDocument) xb_getCapabilitiesResponse).getCapabilities();
+                    offeringIdentifiers = getOfferingIdentifiersAndRemoveContents(xb_sosCapabilities);
+                }
+            } else if (getCapabilitiesResponse.getCapabilities() != null) {
+                SosCapabilities sosCapabilities = getCapabilitiesResponse.getCapabilities();
+                if (sosCapabilities.isSetContents()) {
                     // 1.1 save offering identifier
-                    Offering[] xb_offerings = xb_sosCapabilities.getContents().getContents().getOfferingArray();
-                    offeringIdentifiers = new ArrayList<String>(xb_offerings.length);
-                    for (Offering xb_offering : xb_offerings) {
-                        ObservationOfferingType xb_observationOffering = ObservationOfferingDocument.Factory.parse(xb_offering.newInputStream()).getObservationOffering();
-                        if (xb_observationOffering.isSetIdentifier()) {
-                            offeringIdentifiers.add(xb_observationOffering.getIdentifier());
+                    offeringIdentifiers = new ArrayList<String>(sosCapabilities.getContents().size());
+                    for (SosObservationOffering observationOffering : sosCapabilities.getContents()) {
+                        if (observationOffering.isSetOffering()) {
+                            offeringIdentifiers.add(observationOffering.getOffering().getIdentifier());
                         }
                     }
-                    // 2 remove offerings from capabilities
-                    XmlCursor c = xb_sosCapabilities.newCursor();
-                    c.toLastChild();
-                    c.removeXml();
-                    c.dispose();
+                    // 2 remove offerings from capabilities before encoding them
+                    sosCapabilities.setContents(Collections.<SosObservationOffering>emptySet());
+                }
+                XmlObject xb_getCapabilitiesResponse = encodeResponse(getCapabilitiesResponse);
+                if (xb_getCapabilitiesResponse instanceof CapabilitiesDocument) {
+                    xb_sosCapabilities = ((CapabilitiesDocument) xb_getCapabilitiesResponse).getCapabilities();
                 }
             }
 
@@ -92,4 +98,27 @@ public class CapabilitiesRequestHandler extends RequestHandler {
         }
         throw logRequestTypeNotSupportedByThisHandlerAndCreateException(request,this.getClass().getName());
     }
+
+    private List<String> getOfferingIdentifiersAndRemoveContents(CapabilitiesType xb_sosCapabilities) throws XmlException, IOException
+    {
+        if(xb_sosCapabilities.isSetContents()) {
+
+            // 1.1 save offering identifier
+            Offering[] xb_offerings = xb_sosCapabilities.getContents().getContents().getOfferingArray();
+            List<String> offeringIdentifiers = new ArrayList<String>(xb_offerings.length);
+            for (Offering xb_offering : xb_offerings) {
+                ObservationOfferingType xb_observationOffering = getObservationOfferingFromOffering(xb_offering);
+                if (xb_observationOffering.isSetIdentifier()) {
+                    offeringIdentifiers.add(xb_observationOffering.getIdentifier());
+                }
+            }
+            // 2 remove offerings from capabilities
+            XmlCursor c = xb_sosCapabilities.newCursor();
+            c.toLastChild();
+            c.removeXml();
+            c.dispose();
+            return offeringIdentifiers;
+        }
+        return null;
+    }
 }
@@ -28,9 +28,8 @@
  */
 package org.n52.sos.binding.rest.resources.features;
 
-import net.opengis.gml.x32.FeaturePropertyType;
-
 import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.ogc.gml.AbstractFeature;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -40,11 +39,11 @@ public class FeatureByIdResponse implements RestResponse {
     
     private String featureResourceIdentifier;
     
-    private FeaturePropertyType featurePropertyType;
+    private AbstractFeature feature;
 
-    public FeatureByIdResponse(String featureResourceIdentifier, FeaturePropertyType featurePropertyType) {
+    public FeatureByIdResponse(String featureResourceIdentifier, AbstractFeature feature) {
         this.featureResourceIdentifier = featureResourceIdentifier;
-        this.featurePropertyType = featurePropertyType;
+        this.feature = feature;
     }
 
     public String getFeatureResourceIdentifier()
@@ -52,9 +51,9 @@ public class FeatureByIdResponse implements RestResponse {
         return featureResourceIdentifier;
     }
 
-    public FeaturePropertyType getAbstractFeature()
+    public AbstractFeature getAbstractFeature()
     {
-        return featurePropertyType;
+        return feature;
     }
 
 }
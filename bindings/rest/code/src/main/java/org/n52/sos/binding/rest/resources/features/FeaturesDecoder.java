@@ -43,6 +43,7 @@ import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.DateTimeException;
 import org.n52.sos.ogc.filter.SpatialFilter;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.GetFeatureOfInterestRequest;
 import org.n52.sos.util.http.HTTPMethods;
 import org.slf4j.Logger;
@@ -151,6 +152,11 @@ public class FeaturesDecoder extends ResourceDecoder {
                 featureOfInterestRequest.setNamespaces(parseNamespaces(value));
                 parameterMapValid = true;
             }
+            else if (bindingConstants.isPagingParameter(parameter))
+            {
+                // a page of all features is a valid search, too
+                parameterMapValid = true;
+            }
             else 
             {
                 throw new InvalidParameterValueException(parameter, value);
@@ -162,6 +168,12 @@ public class FeaturesDecoder extends ResourceDecoder {
         	throw new InvalidParameterValueException().withMessage(bindingConstants.getErrorMessageBadGetRequestNoValidKvpParameter());
         }
         
+        ResultPaging paging = parsePaging(parameterMap);
+        if (paging != null)
+        {
+            featureOfInterestRequest.addExtension(paging.toExtension());
+        }
+        
         return new FeaturesSearchRequest(featureOfInterestRequest,httpRequest.getQueryString());
 
     }
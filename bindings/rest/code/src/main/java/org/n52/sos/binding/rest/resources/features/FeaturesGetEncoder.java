@@ -28,16 +28,25 @@
  */
 package org.n52.sos.binding.rest.resources.features;
 
+import java.util.EnumMap;
+import java.util.Map;
 
 import net.opengis.sosREST.x10.FeatureCollectionDocument;
 import net.opengis.sosREST.x10.FeatureDocument;
 import net.opengis.sosREST.x10.FeatureType;
 import net.opengis.sosREST.x10.ResourceCollectionType;
 
+import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.encode.ResourceEncoder;
 import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.gml.GmlConstants;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.SosConstants.HelperValues;
 import org.n52.sos.response.ServiceResponse;
+import org.n52.sos.service.Configurator;
+import org.n52.sos.service.profile.Profile;
+import org.n52.sos.util.CodingHelper;
 import org.n52.sos.util.http.HTTPStatus;
 
 /**
@@ -80,6 +89,10 @@ public class FeaturesGetEncoder extends ResourceEncoder {
                         ((FeaturesSearchResponse)featuresResponse).getQueryString(),
                         bindingConstants.getResourceRelationSelf(),
                         bindingConstants.getResourceFeatures());
+                setPageLinks(xb_FeatureCollection,
+                        featuresResponse,
+                        ((FeaturesSearchResponse)featuresResponse).getQueryString(),
+                        bindingConstants.getResourceFeatures());
             } else {
                 // Case B: global resource
                 setValuesOfLinkToGlobalResource(xb_FeatureCollection.addNewLink(),
@@ -111,8 +124,8 @@ public class FeaturesGetEncoder extends ResourceEncoder {
         FeatureDocument xb_feature = FeatureDocument.Factory.newInstance();
         FeatureType xb_RestFeature = xb_feature.addNewFeature();
         
-        // add Feature from DeleteObservationResponse
-        xb_RestFeature.set(featureByIdResponse.getAbstractFeature());
+        // add Feature from GetFeatureOfInterestResponse
+        xb_RestFeature.set(encodeFeature(featureByIdResponse.getAbstractFeature()));
         
         // add selflink
         setValuesOfLinkToUniqueResource(xb_RestFeature.addNewLink(),
@@ -125,4 +138,15 @@ public class FeaturesGetEncoder extends ResourceEncoder {
                 HTTPStatus.OK, false, false);
     }
 
+    private XmlObject encodeFeature(AbstractFeature feature) throws OwsExceptionReport
+    {
+        Map<HelperValues, String> additionalValues = new EnumMap<HelperValues, String>(HelperValues.class);
+        Profile activeProfile = Configurator.getInstance().getProfileHandler().getActiveProfile();
+        if (activeProfile.isSetEncodeFeatureOfInterestNamespace()) {
+            additionalValues.put(HelperValues.ENCODE_NAMESPACE,
+                    activeProfile.getEncodingNamespaceForFeatureOfInterest());
+        }
+        return CodingHelper.encodeObjectToXml(GmlConstants.NS_GML_32, feature, additionalValues);
+    }
+
 }
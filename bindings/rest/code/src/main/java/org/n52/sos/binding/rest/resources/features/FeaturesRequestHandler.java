@@ -29,24 +29,25 @@
 package org.n52.sos.binding.rest.resources.features;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-
-import net.opengis.gml.x32.FeaturePropertyType;
-import net.opengis.sampling.x20.SFSamplingFeatureDocument;
-import net.opengis.sampling.x20.SFSamplingFeatureType;
-import net.opengis.sos.x20.GetFeatureOfInterestResponseDocument;
+import java.util.TreeSet;
 
 import org.apache.xmlbeans.XmlException;
-import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.requests.RequestHandler;
 import org.n52.sos.binding.rest.requests.ResourceNotFoundResponse;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.exception.ows.OwsExceptionCode;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.features.FeatureCollection;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.paging.ResultPaging;
+import org.n52.sos.request.GetFeatureOfInterestRequest;
+import org.n52.sos.response.GetFeatureOfInterestResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -80,38 +81,82 @@ public class FeaturesRequestHandler extends RequestHandler {
     {
         FeaturesResponse featuresResponse = handleFeaturesRequest(request);
         if (featuresResponse != null && featuresResponse.getFeatureIds() != null) {
-            return new FeaturesSearchResponse(featuresResponse.getFeatureIds(), request.getQueryString());
+            FeaturesSearchResponse featuresSearchResponse =
+                    new FeaturesSearchResponse(featuresResponse.getFeatureIds(), request.getQueryString());
+            featuresSearchResponse.setPages(featuresResponse.getPreviousPage(), featuresResponse.getNextPage());
+            return featuresSearchResponse;
         }
         return null;
     }
 
-    private FeaturesResponse handleFeaturesRequest(FeaturesRequest request) throws OwsExceptionReport, XmlException, IOException
+    private FeaturesResponse handleFeaturesRequest(FeaturesRequest request) throws OwsExceptionReport
     {
-        GetFeatureOfInterestResponseDocument xb_FeatureOfInterestResponseDoc = getFeatureOfInterestFromSosCore(request);
-        Set<String> featureIds = new HashSet<String>();
+        GetFeatureOfInterestRequest getFeatureOfInterestRequest = request.getGetFeatureOfInterestRequest();
+        if (getFeatureOfInterestRequest.hasNoParameter() && !getFeatureOfInterestRequest.isSetSpatialFilters()) {
+            // all features are listed, the identifiers are known to the cache
+            return handleFeaturesRequestFromCache(getFeatureOfInterestRequest);
+        }
+        GetFeatureOfInterestResponse getFeatureOfInterestResponse = getFeatureOfInterestResponseFromSosCore(request);
+        AbstractFeature feature = getFeatureOfInterestResponse.getAbstractFeature();
+        // sorted like the pages of the SOS core
+        Set<String> featureIds = new TreeSet<String>();
         
-        if (isFOIMemberArrayAvailable(xb_FeatureOfInterestResponseDoc)) {
-            for (FeaturePropertyType xb_feature : xb_FeatureOfInterestResponseDoc.getGetFeatureOfInterestResponse().getFeatureMemberArray()) {
-                SFSamplingFeatureType xb_SFFeature = SFSamplingFeatureDocument.Factory.parse(xb_feature.newInputStream()).getSFSamplingFeature();
-                if (xb_SFFeature.isSetIdentifier() && 
-                        xb_SFFeature.getIdentifier().getStringValue() != null && 
-                        !xb_SFFeature.getIdentifier().getStringValue().isEmpty()) {
-                    featureIds.add(xb_SFFeature.getIdentifier().getStringValue());
-                }
+        if (feature instanceof StreamingFeatureCollection) {
+            // only the identifiers are kept
+            StreamingFeatureCollection features = (StreamingFeatureCollection) feature;
+            while (features.hasNextFeature()) {
+                addFeatureId(featureIds, features.nextFeature());
             }
+        } else if (feature instanceof FeatureCollection) {
+            for (AbstractFeature member : (FeatureCollection) feature) {
+                addFeatureId(featureIds, member);
+            }
+        } else if (feature != null) {
+            addFeatureId(featureIds, feature);
         }
         
-        return new FeaturesResponse(featureIds.toArray(new String[featureIds.size()]));
+        FeaturesResponse featuresResponse = new FeaturesResponse(featureIds.toArray(new String[featureIds.size()]));
+        ResultPaging paging = ResultPaging.fromExtensions(request.getGetFeatureOfInterestRequest().getExtensions());
+        if (paging != null) {
+            featuresResponse.setPages(paging.previous(),
+                    ResultPaging.fromExtensions(getFeatureOfInterestResponse.getExtensions()));
+        }
+        return featuresResponse;
+    }
+
+    private FeaturesResponse handleFeaturesRequestFromCache(GetFeatureOfInterestRequest request)
+            throws OwsExceptionReport
+    {
+        Set<String> featureIds = getCache().getFeaturesOfInterest();
+        ResultPaging paging = ResultPaging.fromExtensions(request.getExtensions());
+        if (paging != null) {
+            List<String> selected = paging.select(featureIds);
+            List<String> page = paging.trim(selected);
+            FeaturesResponse featuresResponse = new FeaturesResponse(page.toArray(new String[page.size()]));
+            setPages(featuresResponse, paging, selected);
+            return featuresResponse;
+        }
+        // sorted like the pages
+        Set<String> sortedFeatureIds = new TreeSet<String>(featureIds);
+        return new FeaturesResponse(sortedFeatureIds.toArray(new String[sortedFeatureIds.size()]));
+    }
+
+    private void addFeatureId(Set<String> featureIds, AbstractFeature feature)
+    {
+        if (feature.isSetIdentifier() && !feature.getIdentifierCodeWithAuthority().getValue().isEmpty()) {
+            featureIds.add(feature.getIdentifierCodeWithAuthority().getValue());
+        }
     }
 
-    private RestResponse handleFeatureByIdRequest(FeatureByIdRequest request) throws OwsExceptionReport, XmlException
+    private RestResponse handleFeatureByIdRequest(FeatureByIdRequest request) throws OwsExceptionReport
     {
         String featureId = request.getFeatureResourceIdentifier();
         try {
-            GetFeatureOfInterestResponseDocument xb_getFeatureOfInterestResponseDoc = getFeatureOfInterestFromSosCore(request);
-            FeaturePropertyType xb_feature = getFeatureFromSosCoreResponse(xb_getFeatureOfInterestResponseDoc);
-
-            return new FeatureByIdResponse(featureId,xb_feature);
+            AbstractFeature feature = getFeatureFromSosCoreResponse(getFeatureOfInterestFromSosCore(request));
+            if (feature == null) {
+                return new ResourceNotFoundResponse(bindingConstants.getResourceFeatures(), featureId);
+            }
+            return new FeatureByIdResponse(featureId,feature);
         } catch (OwsExceptionReport owsER) {
             if (!owsER.getExceptions().isEmpty())
             {
@@ -128,34 +173,37 @@ public class FeaturesRequestHandler extends RequestHandler {
         }
     }
 
-    private boolean isFeatureArrayAvailableAndContains1Feature(GetFeatureOfInterestResponseDocument xb_getFeatureOfInterestResponseDoc)
+    private AbstractFeature getFeatureOfInterestFromSosCore(FeaturesRequest request) throws OwsExceptionReport
     {
-        return isFOIMemberArrayAvailable(xb_getFeatureOfInterestResponseDoc) &&
-                xb_getFeatureOfInterestResponseDoc.getGetFeatureOfInterestResponse().getFeatureMemberArray().length == 1;
+        return getFeatureOfInterestResponseFromSosCore(request).getAbstractFeature();
     }
 
-    private boolean isFOIMemberArrayAvailable(GetFeatureOfInterestResponseDocument xb_getFeatureOfInterestResponseDoc)
+    private GetFeatureOfInterestResponse getFeatureOfInterestResponseFromSosCore(FeaturesRequest request)
+            throws OwsExceptionReport
     {
-        return xb_getFeatureOfInterestResponseDoc != null && 
-                xb_getFeatureOfInterestResponseDoc.getGetFeatureOfInterestResponse() != null &&
-                xb_getFeatureOfInterestResponseDoc.getGetFeatureOfInterestResponse().getFeatureMemberArray() != null;
+        return executeSosRequest(request.getGetFeatureOfInterestRequest(), GetFeatureOfInterestResponse.class);
     }
 
-    private GetFeatureOfInterestResponseDocument getFeatureOfInterestFromSosCore(FeaturesRequest request) throws OwsExceptionReport, XmlException 
+    private AbstractFeature getFeatureFromSosCoreResponse(AbstractFeature feature) throws OwsExceptionReport
     {
-        XmlObject xb_getFeatureOfInterestResponse =executeSosRequest(request.getGetFeatureOfInterestRequest());
-        if (xb_getFeatureOfInterestResponse instanceof GetFeatureOfInterestResponseDocument) {
-            return (GetFeatureOfInterestResponseDocument) xb_getFeatureOfInterestResponse;
+        if (feature instanceof StreamingFeatureCollection) {
+            // read at most two features to check for a single member
+            StreamingFeatureCollection features = (StreamingFeatureCollection) feature;
+            if (features.hasNextFeature()) {
+                AbstractFeature member = features.nextFeature();
+                if (!features.hasNextFeature()) {
+                    return member;
+                }
+            }
+            return null;
+        } else if (feature instanceof FeatureCollection) {
+            FeatureCollection featureCollection = (FeatureCollection) feature;
+            if (featureCollection.getMembers().size() == 1) {
+                return featureCollection.getMembers().values().iterator().next();
+            }
+            return null;
         }
-
-        return null;
-    }
-
-    private FeaturePropertyType getFeatureFromSosCoreResponse(GetFeatureOfInterestResponseDocument xb_getFeatureOfInterestResponseDoc)
-    {
-        if (isFeatureArrayAvailableAndContains1Feature(xb_getFeatureOfInterestResponseDoc))
-            return xb_getFeatureOfInterestResponseDoc.getGetFeatureOfInterestResponse().getFeatureMemberArray(0);
-        return null;
+        return feature;
     }
 
 }
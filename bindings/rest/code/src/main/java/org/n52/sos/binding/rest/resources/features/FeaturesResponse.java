@@ -28,13 +28,13 @@
  */
 package org.n52.sos.binding.rest.resources.features;
 
-import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.binding.rest.requests.PagedRestResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
  *
  */
-public class FeaturesResponse implements RestResponse {
+public class FeaturesResponse extends PagedRestResponse {
     
     private String[] featureIds;
 
@@ -28,22 +28,28 @@
  */
 package org.n52.sos.binding.rest.resources.observations;
 
-import java.util.Map;
-
 import net.opengis.om.x20.OMObservationType;
-import net.opengis.sampling.x20.SFSamplingFeatureDocument;
-import net.opengis.sampling.x20.SFSamplingFeatureType;
 import net.opengis.sosREST.x10.LinkType;
 import net.opengis.sosREST.x10.ObservationDocument;
 import net.opengis.sosREST.x10.ObservationType;
 
+import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.encode.ResourceEncoder;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.OmConstants;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.util.CodingHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Creates the RESTful observation resources. Links are created from the
+ * {@link OmObservation}, the O&amp;M 2.0 encoding of the observation is only
+ * created for embedding it.
+ * 
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
  *
  */
@@ -51,22 +57,35 @@ public abstract class AObservationsEncoder extends ResourceEncoder {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(AObservationsEncoder.class);
 
-    protected ObservationDocument createRestObservationDocumentFrom(OMObservationType xb_OMObservation) throws OwsExceptionReport
+    protected ObservationDocument createRestObservationDocumentFrom(OmObservation observation,
+            OMObservationType xb_OMObservation) throws OwsExceptionReport
     {
         ObservationDocument xb_ObservationRestDoc = ObservationDocument.Factory.newInstance();
         ObservationType xb_ObservationRest = xb_ObservationRestDoc.addNewObservation();
         
-        createRestObservationFromOMObservation(xb_ObservationRest, xb_OMObservation,null);
+        createRestObservationFromOmObservation(xb_ObservationRest, observation, xb_OMObservation);
         
         return xb_ObservationRestDoc;
     }
 
-    protected ObservationType createRestObservationFromOMObservation(
+    /**
+     * @param xb_restObservation
+     *            the RESTful observation to fill
+     * @param observation
+     *            the observation
+     * @param xb_observation
+     *            the already encoded observation or <code>null</code> to
+     *            encode the observation
+     * @return the filled RESTful observation
+     * @throws OwsExceptionReport
+     *             if the encoding of the observation fails
+     */
+    protected ObservationType createRestObservationFromOmObservation(
             ObservationType xb_restObservation,
-            OMObservationType xb_observation,
-            Map<String,String> inDocumentReferenceToFeatureId) throws OwsExceptionReport
+            OmObservation observation,
+            OMObservationType xb_observation) throws OwsExceptionReport
     {
-        String observationId = getObservationId(xb_observation);
+        String observationId = getObservationId(observation);
         if (observationId != null && !observationId.isEmpty())
         {
             // rel:self
@@ -75,18 +94,31 @@ public abstract class AObservationsEncoder extends ResourceEncoder {
             addDeleteLink(observationId, xb_restObservation);
         }
         // ref:features
-        addFeatureLink(xb_observation,xb_restObservation,inDocumentReferenceToFeatureId);
+        addFeatureLink(observation,xb_restObservation);
 
         // rel:sensors
-        addSensorLink(xb_observation,xb_restObservation);
-        xb_restObservation.setOMObservation(xb_observation);
+        addSensorLink(observation,xb_restObservation);
+        xb_restObservation.setOMObservation(xb_observation != null ? xb_observation : encodeObservation(observation));
         return xb_restObservation;
     }
+
+    private OMObservationType encodeObservation(OmObservation observation) throws OwsExceptionReport
+    {
+        XmlObject xb_observation = CodingHelper.encodeObjectToXml(OmConstants.NS_OM_2, observation);
+        if (xb_observation instanceof OMObservationType) {
+            return (OMObservationType) xb_observation;
+        }
+        String exceptionText = String.format("Encoding of observation failed. Expected '%s' and received '%s'.",
+                OMObservationType.class.getName(),
+                xb_observation != null ? xb_observation.getClass().getName() : "null");
+        LOGGER.debug(exceptionText);
+        throw new NoApplicableCodeException().withMessage(exceptionText);
+    }
     
-    private void addSensorLink(OMObservationType xb_observation,
+    private void addSensorLink(OmObservation observation,
             ObservationType xb_restObservation)
     {
-        String sensorId = getSensorId(xb_observation);
+        String sensorId = getSensorId(observation);
         if (sensorId != null && !sensorId.isEmpty())
         {
             setValuesOfLinkToUniqueResource(xb_restObservation.addNewLink(),
@@ -96,17 +128,14 @@ public abstract class AObservationsEncoder extends ResourceEncoder {
         }
     }
 
-    private String getSensorId(OMObservationType xb_observation)
+    private String getSensorId(OmObservation observation)
     {
-        if (isProcedureHrefSet(xb_observation))
+        if (observation.getObservationConstellation() != null &&
+                observation.getObservationConstellation().getProcedure() != null)
         {
-            return xb_observation.getProcedure().getHref();
+            return observation.getObservationConstellation().getProcedure().getIdentifier();
         }
-        else 
-        {
-            // XXX continue implementation here! How to parse it correct and generic?
-        }
-        throw new RuntimeException("NOT_YET_IMPLEMENTED");
+        return null;
     }
 
     private void addDeleteLink(String observationId,
@@ -127,98 +156,45 @@ public abstract class AObservationsEncoder extends ResourceEncoder {
                     bindingConstants.getResourceObservations());
     }
     
-    private String getObservationId(OMObservationType xb_observation)
+    private String getObservationId(OmObservation observation)
     {
-        return xb_observation.isSetIdentifier()?xb_observation.getIdentifier().getStringValue():null;
+        return observation.isSetIdentifier()?observation.getIdentifierCodeWithAuthority().getValue():null;
     }
 
-    private void addFeatureLink(OMObservationType xb_observation,
-            ObservationType xb_restObservation,
-            Map<String, String> inDocumentReferenceToFeatureId) throws OwsExceptionReport
+    private void addFeatureLink(OmObservation observation,
+            ObservationType xb_restObservation)
     {
-        String featureId = getFeatureId(xb_observation,inDocumentReferenceToFeatureId);
-        if (featureId != null && !featureId.isEmpty())
-        {
-            setValuesOfLinkToUniqueResource(
-                    xb_restObservation.addNewLink(),
-                    featureId,
-                    bindingConstants.getResourceRelationFeatureGet(),
-                    bindingConstants.getResourceFeatures());
+        AbstractFeature feature = getFeature(observation);
+        if (feature == null) {
+            return;
         }
-        else if (isFeatureHrefSet(xb_observation))
+        if (isExternalFeature(feature))
         {
             // Feature links points to external service
             LinkType externalFoiLink = xb_restObservation.addNewLink();
             externalFoiLink.setRel(createRelationWithNamespace(bindingConstants.getResourceRelationFeatureGet()));
-            externalFoiLink.setHref(xb_observation.getFeatureOfInterest().getHref());
+            externalFoiLink.setHref(((SamplingFeature) feature).getUrl());
             externalFoiLink.setType(bindingConstants.getContentTypeUndefined().toString());
         }
-    }
-
-    private String getFeatureId(OMObservationType xb_observation,
-            Map<String, String> inDocumentReferenceToFeatureId) throws OwsExceptionReport
-    {
-        if (isFeatureHrefSetAndNotAnUrlOrInDocumentReference(xb_observation))
-        {
-            return xb_observation.getFeatureOfInterest().getHref();
-        }
-        else if (isFeatureHrefSetAndInDocumentReference(xb_observation))
-        {
-            return inDocumentReferenceToFeatureId.get(xb_observation.getFeatureOfInterest().getHref());
-        }
-        else if (!isFeatureHrefSet(xb_observation) && xb_observation.getFeatureOfInterest() != null)
+        else if (feature.isSetIdentifier())
         {
-            SFSamplingFeatureType xb_SFFeature;
-            try {
-                xb_SFFeature = SFSamplingFeatureDocument.Factory.parse(xb_observation.getFeatureOfInterest().newInputStream()).getSFSamplingFeature();
-            } catch (Exception e) {
-                String exceptionText = String.format("Encoding of SOS core response failed while processing XML encoded feature. Exception: %s",
-                        e);
-                LOGGER.debug(exceptionText);
-                throw new NoApplicableCodeException().causedBy(e).withMessage(exceptionText);
-            }
-            if (xb_SFFeature.isSetIdentifier() && 
-                    xb_SFFeature.getIdentifier().getStringValue() != null && 
-                    !xb_SFFeature.getIdentifier().getStringValue().isEmpty()) {
-                String featureId = xb_SFFeature.getIdentifier().getStringValue();
-                String inDocumentReference = xb_SFFeature.getId();
-                if (inDocumentReferenceToFeatureId != null &&
-                        inDocumentReference != null
-                        && !inDocumentReference.isEmpty())
-                {
-                    // Need to prepend the "#" for internal links
-                    inDocumentReferenceToFeatureId.put("#"+inDocumentReference, featureId);
-                }
-                return featureId;
-            }
+            setValuesOfLinkToUniqueResource(
+                    xb_restObservation.addNewLink(),
+                    feature.getIdentifierCodeWithAuthority().getValue(),
+                    bindingConstants.getResourceRelationFeatureGet(),
+                    bindingConstants.getResourceFeatures());
         }
-        return null;
-    }
-
-    private boolean isFeatureHrefSetAndNotAnUrlOrInDocumentReference(OMObservationType xb_observation)
-    {
-        return isFeatureHrefSet(xb_observation)
-                && xb_observation.getFeatureOfInterest().getHref().indexOf("#") == -1
-                && xb_observation.getFeatureOfInterest().getHref().indexOf("http://") == -1;
-    }
-
-    private boolean isFeatureHrefSetAndInDocumentReference(OMObservationType xb_observation)
-    {
-        return isFeatureHrefSet(xb_observation) 
-                && xb_observation.getFeatureOfInterest().getHref().indexOf("#") > -1;
     }
 
-    private boolean isFeatureHrefSet(OMObservationType xb_observation)
+    private AbstractFeature getFeature(OmObservation observation)
     {
-        return xb_observation.getFeatureOfInterest() != null 
-                && xb_observation.getFeatureOfInterest().isSetHref()
-                && !xb_observation.getFeatureOfInterest().getHref().isEmpty();
+        return observation.getObservationConstellation() != null ?
+                observation.getObservationConstellation().getFeatureOfInterest() : null;
     }
 
-    private boolean isProcedureHrefSet(OMObservationType xb_observation)
+    private boolean isExternalFeature(AbstractFeature feature)
     {
-        return xb_observation.getProcedure().isSetHref() 
-                && !xb_observation.getProcedure().getHref().isEmpty();
+        return feature instanceof SamplingFeature && ((SamplingFeature) feature).isSetUrl();
     }
 
 }
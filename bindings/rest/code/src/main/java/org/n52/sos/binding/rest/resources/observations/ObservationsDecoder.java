@@ -59,6 +59,7 @@ import org.n52.sos.ogc.sos.Sos2Constants;
 import org.n52.sos.ogc.swes.SwesExtension;
 import org.n52.sos.ogc.swes.SwesExtensionImpl;
 import org.n52.sos.ogc.swes.SwesExtensions;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.GetCapabilitiesRequest;
 import org.n52.sos.request.GetObservationByIdRequest;
 import org.n52.sos.request.GetObservationRequest;
@@ -313,6 +314,11 @@ public class ObservationsDecoder extends ResourceDecoder {
                 request.setNamespaces(parseNamespaces(value));
                 parameterMapValid = true;
             }
+            else if (bindingConstants.isPagingParameter(parameter))
+            {
+                // parsed below, not sufficient to search observations
+                continue;
+            }
             else 
             {
                 throw new InvalidParameterValueException(parameter, value);
@@ -322,6 +328,11 @@ public class ObservationsDecoder extends ResourceDecoder {
         {
         	throw new InvalidParameterValueException().withMessage(bindingConstants.getErrorMessageBadGetRequestNoValidKvpParameter());
         }
+        ResultPaging paging = parsePaging(parameterMap);
+        if (paging != null)
+        {
+            request.addExtension(paging.toExtension());
+        }
         return request;
     }
     
@@ -30,17 +30,14 @@ package org.n52.sos.binding.rest.resources.observations;
 
 import java.io.IOException;
 
-import net.opengis.sosdo.x10.DeleteObservationResponseDocument;
-import net.opengis.sosdo.x10.DeleteObservationResponseType;
-
 import org.apache.xmlbeans.XmlException;
-import org.apache.xmlbeans.XmlObject;
-
 import org.n52.sos.binding.rest.requests.RequestHandler;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.ext.deleteobservation.DeleteObservationRequest;
+import org.n52.sos.ext.deleteobservation.DeleteObservationResponse;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.AbstractServiceResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -53,11 +50,11 @@ public class ObservationsDeleteRequestHandler extends RequestHandler {
     {
         if (req instanceof ObservationsDeleteRequest) {
             DeleteObservationRequest doReq = ((ObservationsDeleteRequest) req).getDeleteObservationRequest();
-            XmlObject xb_deleteObservationResponse = executeSosRequest(doReq);
-            if (xb_deleteObservationResponse instanceof DeleteObservationResponseDocument) {
-                DeleteObservationResponseType xb_delObsResponse = ((DeleteObservationResponseDocument) xb_deleteObservationResponse).getDeleteObservationResponse();
-                if (xb_delObsResponse.getDeletedObservation().equalsIgnoreCase(doReq.getObservationIdentifiers().iterator().next())) {
-                    return new ObservationsDeleteRespone(xb_delObsResponse.getDeletedObservation());
+            AbstractServiceResponse deleteObservationResponse = executeSosRequest(doReq);
+            if (deleteObservationResponse instanceof DeleteObservationResponse) {
+                String deletedObservation = ((DeleteObservationResponse) deleteObservationResponse).getObservationId();
+                if (deletedObservation != null && deletedObservation.equalsIgnoreCase(doReq.getObservationIdentifiers().iterator().next())) {
+                    return new ObservationsDeleteRespone(deletedObservation);
                 }
             }
         }
@@ -28,9 +28,8 @@
  */
 package org.n52.sos.binding.rest.resources.observations;
 
-import net.opengis.om.x20.OMObservationType;
-
 import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.ogc.om.OmObservation;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -38,15 +37,15 @@ import org.n52.sos.binding.rest.requests.RestResponse;
  */
 public class ObservationsGetByIdResponse implements RestResponse {
 
-    private OMObservationType xb_observation;
+    private OmObservation observation;
 
-    public ObservationsGetByIdResponse(OMObservationType xb_observation) {
-       this.xb_observation = xb_observation;
+    public ObservationsGetByIdResponse(OmObservation observation) {
+       this.observation = observation;
     }
 
-    public OMObservationType getObservationXB()
+    public OmObservation getObservation()
     {
-        return xb_observation;
+        return observation;
     }
 
 }
@@ -29,12 +29,7 @@
 package org.n52.sos.binding.rest.resources.observations;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
-
-import net.opengis.om.x20.OMObservationType;
-import net.opengis.sos.x20.GetObservationResponseType.ObservationData;
 import net.opengis.sosREST.x10.ObservationCollectionDocument;
 import net.opengis.sosREST.x10.ObservationCollectionType;
 import net.opengis.sosREST.x10.ObservationDocument;
@@ -42,6 +37,7 @@ import net.opengis.sosREST.x10.ObservationType;
 
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.exception.ows.concrete.NoEncoderForResponseException;
+import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.response.ServiceResponse;
 import org.n52.sos.util.SosHelper;
@@ -83,7 +79,7 @@ public class ObservationsGetEncoder extends AObservationsEncoder {
     {
         ObservationsSearchResponse observationsSearchResponse = (ObservationsSearchResponse) objectToEncode;
         ServiceResponse response;
-        if (observationsSearchResponse.getObservationDataArrayXB() == null) {
+        if (observationsSearchResponse.getObservations() == null) {
             response = createNoContentResponse(bindingConstants.getResourceObservations(),true,false);
         } else {
             ObservationCollectionDocument xb_ObservationCollectionDoc = ObservationCollectionDocument.Factory.newInstance();
@@ -101,6 +97,22 @@ public class ObservationsGetEncoder extends AObservationsEncoder {
                     bindingConstants.getResourceRelationSelf(),
                     bindingConstants.getResourceObservations());
 
+            // rel:prev and rel:next
+            if (observationsSearchResponse.isSetPreviousPage()) {
+                setValuesOfLinkToPage(xb_ObservationCollection.addNewLink(),
+                        observationsSearchResponse.getResourceIdentifier(),
+                        observationsSearchResponse.getPreviousPage(),
+                        bindingConstants.getResourceRelationPrev(),
+                        bindingConstants.getResourceObservations());
+            }
+            if (observationsSearchResponse.isSetNextPage()) {
+                setValuesOfLinkToPage(xb_ObservationCollection.addNewLink(),
+                        observationsSearchResponse.getResourceIdentifier(),
+                        observationsSearchResponse.getNextPage(),
+                        bindingConstants.getResourceRelationNext(),
+                        bindingConstants.getResourceObservations());
+            }
+
             response = createServiceResponseFromXBDocument(
                     xb_ObservationCollectionDoc,
                     bindingConstants.getResourceObservations(),
@@ -112,7 +124,7 @@ public class ObservationsGetEncoder extends AObservationsEncoder {
     private ServiceResponse encodeObservationsGetById(RestResponse restResponse) throws OwsExceptionReport
     {
         ObservationsGetByIdResponse observationsGetResponse = (ObservationsGetByIdResponse) restResponse;
-        ObservationDocument xb_ObservationRestDoc = createRestObservationDocumentFrom( observationsGetResponse.getObservationXB() );
+        ObservationDocument xb_ObservationRestDoc = createRestObservationDocumentFrom( observationsGetResponse.getObservation(), null );
         
         return createServiceResponseFromXBDocument(
                 xb_ObservationRestDoc,
@@ -123,13 +135,11 @@ public class ObservationsGetEncoder extends AObservationsEncoder {
     private void collectAndUpdateOMObservationFromSOSCore(ObservationsSearchResponse observationsSearchResponse,
             ArrayList<ObservationType> xb_observationList) throws OwsExceptionReport
     {
-        Map<String,String> inDocumentReferenceToFeatureId = new HashMap<String, String>();
-        for (ObservationData xb_obsData : observationsSearchResponse.getObservationDataArrayXB())
+        for (OmObservation observation : observationsSearchResponse.getObservations())
         {
             SosHelper.checkFreeMemory();
-            OMObservationType xb_observation = xb_obsData.getOMObservation();
-            ObservationType xb_restObservation = createRestObservationFromOMObservation(ObservationType.Factory.newInstance(),
-                    xb_observation, inDocumentReferenceToFeatureId);
+            ObservationType xb_restObservation = createRestObservationFromOmObservation(ObservationType.Factory.newInstance(),
+                    observation, null);
             xb_observationList.add(xb_restObservation);
         }
     }
@@ -29,20 +29,18 @@
 package org.n52.sos.binding.rest.resources.observations;
 
 import java.io.IOException;
-
-import net.opengis.om.x20.OMObservationType;
-import net.opengis.sos.x20.GetObservationByIdResponseDocument;
-import net.opengis.sos.x20.GetObservationByIdResponseType.Observation;
-import net.opengis.sos.x20.GetObservationResponseDocument;
+import java.util.List;
 
 import org.apache.xmlbeans.XmlException;
-import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.requests.RequestHandler;
 import org.n52.sos.binding.rest.requests.ResourceNotFoundResponse;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
-import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.paging.ResultPaging;
+import org.n52.sos.response.GetObservationByIdResponse;
+import org.n52.sos.response.GetObservationResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,82 +73,41 @@ public class ObservationsGetRequestHandler extends RequestHandler {
         throw logRequestTypeNotSupportedByThisHandlerAndCreateException(observationsHttpGetRequest,this.getClass().getName());
     }
 
-    private RestResponse handleObservationsGetRequest(ObservationsGetRequest req) throws OwsExceptionReport, XmlException, IOException
+    private RestResponse handleObservationsGetRequest(ObservationsGetRequest req) throws OwsExceptionReport
     {
-        String procedureId = null;
-        OMObservationType xb_observation = null;
-
         // 0 submit GetObservationById (if response is an OWSException report -> cancel whole process and throw it)
-        XmlObject xb_getObservationByIdResponse = executeSosRequest(req.getGetObservationByIdRequest());
-
-        if (xb_getObservationByIdResponse instanceof GetObservationByIdResponseDocument) {
-            // 1 Get Offering from Capabilities
-            GetObservationByIdResponseDocument xb_ByIdResponseDocument = (GetObservationByIdResponseDocument) xb_getObservationByIdResponse;
-            Observation[] xb_observations = xb_ByIdResponseDocument.getGetObservationByIdResponse().getObservationArray();
-
-            // 1.1 Get Procedure Id from GetObservationByIdResponse
-            if (xb_observations.length > 0){ // TODO should be one
-                if (xb_observations[0].getOMObservation() != null){
+        GetObservationByIdResponse getObservationByIdResponse =
+                executeSosRequest(req.getGetObservationByIdRequest(), GetObservationByIdResponse.class);
 
-                    xb_observation = xb_observations[0].getOMObservation();
+        // 1 get observation from response
+        List<OmObservation> observations = getObservations(getObservationByIdResponse);
 
-                    if (xb_observation.getProcedure() != null &&
-                            xb_observation.getProcedure().isSetHref()) {
-                        procedureId = xb_observations[0].getOMObservation().getProcedure().getHref();
-                    }
-                }
-            }
-            
-            LOGGER.debug("xb_observation == null? {}; procedureId? {}",xb_observation==null,procedureId);
-            
-            if (xb_observation == null)
-            {
-                return new ResourceNotFoundResponse(bindingConstants.getResourceObservations(),
-                        req.getGetObservationByIdRequest().getObservationIdentifier().get(0)); // TODO NPE handling?
-            }
+        LOGGER.debug("Number of observations: {}", observations.size());
 
-            // 2 collect results
-            return new ObservationsGetByIdResponse( xb_observation );
-
-        } else {
-            String exceptionText = String.format("Processing of SOS core operation \"GetObservationById\" response failed. Type of could not be handled: \"%s\"",
-                    xb_getObservationByIdResponse.getClass().getName());
-            LOGGER.debug(exceptionText);
-            throw new NoApplicableCodeException().withMessage(exceptionText);
+        if (observations.isEmpty())
+        {
+            return new ResourceNotFoundResponse(bindingConstants.getResourceObservations(),
+                    req.getGetObservationByIdRequest().getObservationIdentifier().get(0)); // TODO NPE handling?
         }
+
+        // 2 collect results
+        return new ObservationsGetByIdResponse(observations.get(0)); // TODO should be one
     }
 
-    private RestResponse handleObservationsSearchRequest(ObservationsSearchRequest req) throws OwsExceptionReport, XmlException
+    private RestResponse handleObservationsSearchRequest(ObservationsSearchRequest req) throws OwsExceptionReport
     {
         // 0 submit request to core
-        XmlObject xb_getObservationResponse = executeSosRequest(req.getGetObservationRequest());
-        if (xb_getObservationResponse instanceof GetObservationResponseDocument) {
-            GetObservationResponseDocument xb_getObservationResponseDoc = (GetObservationResponseDocument) xb_getObservationResponse;
-            
-            ObservationsSearchResponse response;
-            
-            if (xb_getObservationResponseDoc.getGetObservationResponse().getObservationDataArray() != null &&
-                    xb_getObservationResponseDoc.getGetObservationResponse().getObservationDataArray().length > 0){
-
-                response = new ObservationsSearchResponse(xb_getObservationResponseDoc.getGetObservationResponse().getObservationDataArray(),
-                        req.getQueryString());
-
-            } else {
-                response = new ObservationsSearchResponse(null, req.getQueryString());
-            }
-            
-            return response;
+        GetObservationResponse getObservationResponse =
+                executeSosRequest(req.getGetObservationRequest(), GetObservationResponse.class);
+        List<OmObservation> observations = getObservations(getObservationResponse);
+        ObservationsSearchResponse response =
+                new ObservationsSearchResponse(observations.isEmpty() ? null : observations, req.getQueryString());
+        // 1 link the neighbouring pages, if paged
+        ResultPaging paging = ResultPaging.fromExtensions(req.getGetObservationRequest().getExtensions());
+        if (paging != null) {
+            response.setPages(paging.previous(), ResultPaging.fromExtensions(getObservationResponse.getExtensions()));
         }
-        throw createHandlingOfSosCoreResponseFailedException(xb_getObservationResponse,
-                GetObservationResponseDocument.class.getName());
-    }
-
-    private OwsExceptionReport createHandlingOfSosCoreResponseFailedException(XmlObject xb_getObservationResponse,
-            String nameOfExpectedType)
-    {
-        return new NoApplicableCodeException().withMessage("Handling of internal response failed. Expected '%s' and received '%s'.",
-                nameOfExpectedType,
-                xb_getObservationResponse.getClass().getName());
+        return response;
     }
 
 }
@@ -48,7 +48,8 @@ public class ObservationsPostEncoder extends AObservationsEncoder {
     {
         if (restResponse != null && restResponse instanceof ObservationsPostResponse) {
             ObservationsPostResponse observationsPostResponse = (ObservationsPostResponse) restResponse;
-            ObservationDocument xb_ObservationRestDoc = createRestObservationDocumentFrom(observationsPostResponse.getXb_OMObservation());
+            ObservationDocument xb_ObservationRestDoc = createRestObservationDocumentFrom(observationsPostResponse.getObservation(),
+                    observationsPostResponse.getXb_OMObservation());
             
             
             ServiceResponse response = createServiceResponseFromXBDocument(
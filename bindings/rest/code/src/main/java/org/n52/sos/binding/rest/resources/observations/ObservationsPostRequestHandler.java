@@ -28,15 +28,14 @@
  */
 package org.n52.sos.binding.rest.resources.observations;
 
-import net.opengis.sos.x20.InsertObservationResponseDocument;
-
 import org.apache.xmlbeans.XmlException;
-import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.requests.RequestHandler;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.request.InsertObservationRequest;
+import org.n52.sos.response.AbstractServiceResponse;
+import org.n52.sos.response.InsertObservationResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -51,15 +50,16 @@ public class ObservationsPostRequestHandler extends RequestHandler {
             InsertObservationRequest ioReq = ((ObservationsPostRequest) req).getInsertObservationRequest();
             
             // 2 handle core response
-            XmlObject xb_InsertObservationResponse = executeSosRequest(ioReq);
+            AbstractServiceResponse insertObservationResponse = executeSosRequest(ioReq);
             
-            if (xb_InsertObservationResponse instanceof InsertObservationResponseDocument) {
+            if (insertObservationResponse instanceof InsertObservationResponse) {
                 // 3 return response
                 // no interesting content, just check the class to be sure that the insertion was successful
                 // the restful response requires the link to the newly created observation
             	// FIXME we are always using only the first observation in the list without checking
                 return new ObservationsPostResponse(
                         ioReq.getObservations().get(0).getIdentifierCodeWithAuthority().getValue(),
+                        ioReq.getObservations().get(0),
                         ((ObservationsPostRequest) req).getXb_OMObservation());
             } 
         }
@@ -31,6 +31,7 @@ package org.n52.sos.binding.rest.resources.observations;
 import net.opengis.om.x20.OMObservationType;
 
 import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.ogc.om.OmObservation;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -40,11 +41,15 @@ public class ObservationsPostResponse implements RestResponse {
 
     private String observationIdentifier;
     
+    private OmObservation observation;
+    
     private OMObservationType xb_OMObservation;
 
     public ObservationsPostResponse(String identifier,
+            OmObservation observation,
             OMObservationType xb_OMObservation) {
         this.observationIdentifier = identifier;
+        this.observation = observation;
         this.xb_OMObservation = xb_OMObservation;
     }
 
@@ -53,6 +58,11 @@ public class ObservationsPostResponse implements RestResponse {
         return observationIdentifier;
     }
 
+    public OmObservation getObservation()
+    {
+        return observation;
+    }
+
     public OMObservationType getXb_OMObservation()
     {
         return xb_OMObservation;
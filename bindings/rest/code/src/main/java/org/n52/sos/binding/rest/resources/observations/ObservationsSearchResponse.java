@@ -28,30 +28,31 @@
  */
 package org.n52.sos.binding.rest.resources.observations;
 
-import net.opengis.sos.x20.GetObservationResponseType.ObservationData;
+import java.util.List;
 
-import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.binding.rest.requests.PagedRestResponse;
+import org.n52.sos.ogc.om.OmObservation;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
  *
  */
-public class ObservationsSearchResponse implements RestResponse {
+public class ObservationsSearchResponse extends PagedRestResponse {
 
-    private ObservationData[] observationDataArray;
+    private List<OmObservation> observations;
     
     private String resourceIdentifier;
 
-    public ObservationsSearchResponse(ObservationData[] observationDataArray,
+    public ObservationsSearchResponse(List<OmObservation> observations,
             String resourceIdentifier)
     {
-        this.observationDataArray = observationDataArray;
+        this.observations = observations;
         this.resourceIdentifier = resourceIdentifier;
     }
 
-    public ObservationData[] getObservationDataArrayXB()
+    public List<OmObservation> getObservations()
     {
-        return observationDataArray;
+        return observations;
     }
 
     public String getResourceIdentifier()
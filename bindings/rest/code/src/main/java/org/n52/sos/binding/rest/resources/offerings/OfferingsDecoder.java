@@ -59,7 +59,8 @@ public class OfferingsDecoder extends ResourceDecoder {
         if (pathPayload != null && !pathPayload.isEmpty() && httpRequest.getQueryString() == null) {
              result = decodeOfferingByIdRequest(pathPayload);
             
-        } else if (pathPayload == null && Strings.isNullOrEmpty(httpRequest.getQueryString())) {
+        } else if (pathPayload == null && (Strings.isNullOrEmpty(httpRequest.getQueryString())
+                || hasOnlyPagingParameters(httpRequest))) {
             // 2.2 global resource
             result = decodeOfferingsGetRequest(httpRequest);
         } else {
@@ -72,11 +73,11 @@ public class OfferingsDecoder extends ResourceDecoder {
         return result;
     }
 
-    private RestRequest decodeOfferingsGetRequest(final HttpServletRequest httpRequest)
+    private RestRequest decodeOfferingsGetRequest(final HttpServletRequest httpRequest) throws OwsExceptionReport
     {
         final GetCapabilitiesRequest request = createGetCapabilitiesRequestWithContentSectionOnly();
         
-        return new OfferingsRequest(request);
+        return new OfferingsRequest(request, parsePaging(getKvPEncodedParameters(httpRequest)));
     }
 
     private RestRequest decodeOfferingByIdRequest(final String pathPayload)
@@ -101,6 +101,9 @@ public class OfferingsGetEncoder extends ResourceEncoder {
                 bindingConstants.getResourceRelationSelf(),
                 bindingConstants.getResourceOfferings());
         
+        // 1.1 add links to the neighbouring pages
+        setPageLinks(xb_OfferingCollection, response, null, bindingConstants.getResourceOfferings());
+        
         // 2 add offering links
         setOfferingLinks(xb_OfferingCollection, response.getOfferingIdentifiers());
         
@@ -29,6 +29,7 @@
 package org.n52.sos.binding.rest.resources.offerings;
 
 import org.n52.sos.binding.rest.requests.RestRequest;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.AbstractServiceRequest;
 import org.n52.sos.request.GetCapabilitiesRequest;
 
@@ -40,9 +41,26 @@ public class OfferingsRequest implements RestRequest {
     
     private GetCapabilitiesRequest getCapabilitiesRequest;
 
+    private ResultPaging paging;
+
     public OfferingsRequest(GetCapabilitiesRequest getCapabilitiesRequest)
+    {
+        this(getCapabilitiesRequest, null);
+    }
+
+    public OfferingsRequest(GetCapabilitiesRequest getCapabilitiesRequest, ResultPaging paging)
     {
         this.getCapabilitiesRequest = getCapabilitiesRequest;
+        this.paging = paging;
+    }
+
+    /**
+     * @return the requested page of offerings or <code>null</code> to list
+     *         all offerings
+     */
+    public ResultPaging getPaging()
+    {
+        return paging;
     }
 
     public GetCapabilitiesRequest getGetCapabilitiesRequest()
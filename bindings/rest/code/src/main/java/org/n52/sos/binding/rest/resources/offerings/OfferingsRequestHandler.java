@@ -30,7 +30,10 @@ package org.n52.sos.binding.rest.resources.offerings;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import net.opengis.sos.x20.CapabilitiesDocument;
 import net.opengis.sos.x20.CapabilitiesType;
@@ -44,7 +47,11 @@ import org.n52.sos.binding.rest.requests.ResourceNotFoundResponse;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.SosCapabilities;
+import org.n52.sos.ogc.sos.SosObservationOffering;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.GetCapabilitiesRequest;
+import org.n52.sos.response.GetCapabilitiesResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -55,57 +62,150 @@ public class OfferingsRequestHandler extends RequestHandler {
     @Override
     public RestResponse handleRequest(RestRequest request) throws OwsExceptionReport, XmlException, IOException
     {
-        if (request != null && request instanceof OfferingsRequest){
-            // 0 submit request to SOS core
+        if (request != null && request instanceof OfferingByIdRequest){
+            // 0 resolve the offering from the content cache
+            String offeringIdentifier = getOfferingIdentifierFromCache(((OfferingByIdRequest) request).getOfferingIdentifier());
+            if (offeringIdentifier == null)
+            {
+                return createResourceNotFoundResponse(request);
+            }
+            // 1 submit request to SOS core
             GetCapabilitiesRequest getCapabilitiesRequest = ((OfferingsRequest) request).getGetCapabilitiesRequest();
-            // 1 handle core response
-            XmlObject xb_getCapabilitiesResponse = executeSosRequest(getCapabilitiesRequest);
-            if (xb_getCapabilitiesResponse instanceof CapabilitiesDocument)
+            // 2 handle core response
+            GetCapabilitiesResponse getCapabilitiesResponse =
+                    executeSosRequest(getCapabilitiesRequest, GetCapabilitiesResponse.class);
+            if (getCapabilitiesResponse.isStatic())
+            {
+                XmlObject xb_getCapabilitiesResponse = encodeResponse(getCapabilitiesResponse);
+                if (xb_getCapabilitiesResponse instanceof CapabilitiesDocument)
+                {
+                    return handleCapabilitiesDocument(request, offeringIdentifier, (CapabilitiesDocument) xb_getCapabilitiesResponse);
+                }
+            }
+            else if (getCapabilitiesResponse.getCapabilities() != null)
             {
-                CapabilitiesDocument xb_capaCapabilitiesDocument = (CapabilitiesDocument) xb_getCapabilitiesResponse;
-                CapabilitiesType xb_sosCapabilities = xb_capaCapabilitiesDocument.getCapabilities();
-                boolean isByIdRequest = request instanceof OfferingByIdRequest;
-                List<String> offeringIdentifiers = new ArrayList<String>();
+                return handleCapabilities(request, offeringIdentifier, getCapabilitiesResponse);
+            }
+        }
+        else if (request != null && request instanceof OfferingsRequest)
+        {
+            // the listing only needs the identifiers, no capabilities are created
+            return createResponse((OfferingsRequest) request, getCache().getOfferings());
+        }
+        throw logRequestTypeNotSupportedByThisHandlerAndCreateException(request,this.getClass().getName());
+    }
 
-                if (isOfferingArrayAvailable(xb_sosCapabilities))
+    private String getOfferingIdentifierFromCache(String requestedIdentifier)
+    {
+        if (getCache().hasOffering(requestedIdentifier))
+        {
+            return requestedIdentifier;
+        }
+        for (String offeringIdentifier : getCache().getOfferings())
+        {
+            if (offeringIdentifier.equalsIgnoreCase(requestedIdentifier))
+            {
+                return offeringIdentifier;
+            }
+        }
+        return null;
+    }
+
+    private RestResponse handleCapabilities(RestRequest request,
+            String offeringIdentifier,
+            GetCapabilitiesResponse getCapabilitiesResponse) throws OwsExceptionReport, XmlException, IOException
+    {
+        SosCapabilities sosCapabilities = getCapabilitiesResponse.getCapabilities();
+        if (sosCapabilities.isSetContents())
+        {
+            for (SosObservationOffering observationOffering : sosCapabilities.getContents())
+            {
+                if (observationOffering.isSetOffering() &&
+                        offeringIdentifier.equalsIgnoreCase(observationOffering.getOffering().getIdentifier()))
                 {
-                    // 1.1 if by id: get observation offering for id
-                    Offering[] xb_offerings = xb_sosCapabilities.getContents().getContents().getOfferingArray();
-                    
-                    for (Offering xb_offering : xb_offerings)
+                    // encode only the observation offering for id
+                    ObservationOfferingType xb_observationOffering =
+                            encodeObservationOffering(getCapabilitiesResponse, sosCapabilities, observationOffering);
+                    if (xb_observationOffering != null)
                     {
-                        ObservationOfferingType xb_observationOffering = getObservationOfferingFromOffering(xb_offering);
-
-                        if (xb_observationOffering.isSetIdentifier())
-                        {
-
-                            if (isByIdRequest && hasOfferingTheCorrectIdForByIdRequest(request, xb_observationOffering))
-                            {
-                                return new OfferingByIdResponse(getObservationOfferingFromOffering(xb_offering));
-                            }
-                            else if (!isByIdRequest)
-                            {
-                                offeringIdentifiers.add(xb_observationOffering.getIdentifier());
-                            }
-                        }
+                        return new OfferingByIdResponse(xb_observationOffering);
                     }
                 }
-                // 2 return response
-                if (isByIdRequest && offeringIdentifiers.isEmpty())
+            }
+        }
+        return createResourceNotFoundResponse(request);
+    }
+
+    private ObservationOfferingType encodeObservationOffering(GetCapabilitiesResponse getCapabilitiesResponse,
+            SosCapabilities sosCapabilities,
+            SosObservationOffering observationOffering) throws OwsExceptionReport, XmlException, IOException
+    {
+        SosCapabilities offeringCapabilities = new SosCapabilities(sosCapabilities.getVersion());
+        offeringCapabilities.setContents(Collections.singleton(observationOffering));
+        getCapabilitiesResponse.setCapabilities(offeringCapabilities);
+        XmlObject xb_getCapabilitiesResponse = encodeResponse(getCapabilitiesResponse);
+        if (xb_getCapabilitiesResponse instanceof CapabilitiesDocument)
+        {
+            CapabilitiesType xb_sosCapabilities = ((CapabilitiesDocument) xb_getCapabilitiesResponse).getCapabilities();
+            if (isOfferingArrayAvailable(xb_sosCapabilities) &&
+                    xb_sosCapabilities.getContents().getContents().getOfferingArray().length == 1)
+            {
+                return getObservationOfferingFromOffering(xb_sosCapabilities.getContents().getContents().getOfferingArray(0));
+            }
+        }
+        return null;
+    }
+
+    private RestResponse handleCapabilitiesDocument(RestRequest request,
+            String offeringIdentifier,
+            CapabilitiesDocument xb_capaCapabilitiesDocument) throws XmlException, IOException
+    {
+        CapabilitiesType xb_sosCapabilities = xb_capaCapabilitiesDocument.getCapabilities();
+
+        if (isOfferingArrayAvailable(xb_sosCapabilities))
+        {
+            // get observation offering for id
+            Offering[] xb_offerings = xb_sosCapabilities.getContents().getContents().getOfferingArray();
+            
+            for (Offering xb_offering : xb_offerings)
+            {
+                ObservationOfferingType xb_observationOffering = getObservationOfferingFromOffering(xb_offering);
+
+                if (xb_observationOffering.isSetIdentifier() &&
+                        hasOfferingTheCorrectIdForByIdRequest(offeringIdentifier, xb_observationOffering))
                 {
-                    return new ResourceNotFoundResponse(bindingConstants.getResourceOfferings(),
-                            ((OfferingByIdRequest)request).getOfferingIdentifier());    
+                    return new OfferingByIdResponse(xb_observationOffering);
                 }
-                return new OfferingsResponse(offeringIdentifiers);
             }
         }
-        throw logRequestTypeNotSupportedByThisHandlerAndCreateException(request,this.getClass().getName());
+        return createResourceNotFoundResponse(request);
+    }
+
+    private RestResponse createResourceNotFoundResponse(RestRequest request)
+    {
+        return new ResourceNotFoundResponse(bindingConstants.getResourceOfferings(),
+                ((OfferingByIdRequest)request).getOfferingIdentifier());
+    }
+
+    private RestResponse createResponse(OfferingsRequest request,
+            Set<String> offeringIdentifiers)
+    {
+        // 2 return response
+        ResultPaging paging = request.getPaging();
+        if (paging != null)
+        {
+            List<String> selected = paging.select(offeringIdentifiers);
+            OfferingsResponse response = new OfferingsResponse(paging.trim(selected));
+            setPages(response, paging, selected);
+            return response;
+        }
+        return new OfferingsResponse(new ArrayList<String>(new TreeSet<String>(offeringIdentifiers)));
     }
 
-    private boolean hasOfferingTheCorrectIdForByIdRequest(RestRequest request,
+    private boolean hasOfferingTheCorrectIdForByIdRequest(String offeringIdentifier,
             ObservationOfferingType xb_observationOffering)
     {
-        return xb_observationOffering.getIdentifier().equalsIgnoreCase(((OfferingByIdRequest)request).getOfferingIdentifier());
+        return xb_observationOffering.getIdentifier().equalsIgnoreCase(offeringIdentifier);
     }
 
     private boolean isOfferingArrayAvailable(CapabilitiesType xb_sosCapabilities)
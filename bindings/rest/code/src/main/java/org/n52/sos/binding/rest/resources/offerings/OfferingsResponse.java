@@ -30,13 +30,13 @@ package org.n52.sos.binding.rest.resources.offerings;
 
 import java.util.List;
 
-import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.binding.rest.requests.PagedRestResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
  *
  */
-public class OfferingsResponse implements RestResponse {
+public class OfferingsResponse extends PagedRestResponse {
 
     private List<String> offeringIdentifiers;
     
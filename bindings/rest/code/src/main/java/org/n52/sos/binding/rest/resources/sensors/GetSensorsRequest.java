@@ -28,6 +28,7 @@
  */
 package org.n52.sos.binding.rest.resources.sensors;
 
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.AbstractServiceRequest;
 import org.n52.sos.request.GetCapabilitiesRequest;
 
@@ -38,9 +39,25 @@ import org.n52.sos.request.GetCapabilitiesRequest;
 public class GetSensorsRequest implements ISensorsRequest {
 
     private GetCapabilitiesRequest capabilitiesRequest;
+
+    private ResultPaging paging;
     
     public GetSensorsRequest(GetCapabilitiesRequest capabilitiesRequest) {
+        this(capabilitiesRequest, null);
+    }
+
+    public GetSensorsRequest(GetCapabilitiesRequest capabilitiesRequest, ResultPaging paging) {
         this.capabilitiesRequest = capabilitiesRequest;
+        this.paging = paging;
+    }
+
+    /**
+     * @return the requested page of sensors or <code>null</code> to list all
+     *         sensors
+     */
+    public ResultPaging getPaging()
+    {
+        return paging;
     }
 
     public GetCapabilitiesRequest getCapabilitiesRequest()
@@ -88,11 +88,11 @@ public class SensorsDecoder extends ResourceDecoder {
 
             return new GetSensorByIdRequest(describeSensorRequest);
 
-        } else if (pathPayload == null && httpRequest.getQueryString() == null) {
+        } else if (pathPayload == null && (httpRequest.getQueryString() == null || hasOnlyPagingParameters(httpRequest))) {
             
             GetCapabilitiesRequest capabilitiesRequest = createGetCapabilitiesRequestWithContentSectionOnly();
             
-            return new GetSensorsRequest(capabilitiesRequest);
+            return new GetSensorsRequest(capabilitiesRequest, parsePaging(getKvPEncodedParameters(httpRequest)));
             
         } else {
             String errorMsg = createBadGetRequestMessage(bindingConstants.getResourceSensors(),true,true,false);
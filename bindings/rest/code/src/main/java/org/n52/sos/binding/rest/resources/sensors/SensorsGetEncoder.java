@@ -73,6 +73,9 @@ public class SensorsGetEncoder extends ASensorsEncoder {
                 bindingConstants.getResourceRelationSelf(),
                 bindingConstants.getResourceSensors());
         
+        // 0.1 add links to the neighbouring pages
+        setPageLinks(xb_Sensors, restResponse, null, bindingConstants.getResourceSensors());
+        
         // 1 add sensor links
         for (String sensorId : restResponse.getSensorIds()) {
             setValuesOfLinkToUniqueResource(xb_Sensors.addNewLink(),
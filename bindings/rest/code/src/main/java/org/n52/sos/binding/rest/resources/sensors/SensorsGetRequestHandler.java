@@ -30,13 +30,11 @@ package org.n52.sos.binding.rest.resources.sensors;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 import net.opengis.sensorML.x101.SensorMLDocument;
 import net.opengis.sensorML.x101.SystemType;
-import net.opengis.swes.x20.DescribeSensorResponseDocument;
-import net.opengis.swes.x20.DescribeSensorResponseType.Description;
-import net.opengis.swes.x20.SensorDescriptionType;
 
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
@@ -49,7 +47,13 @@ import org.n52.sos.exception.ows.OwsExceptionCode;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sensorML.SensorMLConstants;
 import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.ogc.sos.SosProcedureDescription;
+import org.n52.sos.ogc.sos.SosProcedureDescriptionUnknowType;
+import org.n52.sos.paging.ResultPaging;
+import org.n52.sos.response.DescribeSensorResponse;
 import org.n52.sos.service.Configurator;
+import org.n52.sos.util.CodingHelper;
+import org.n52.sos.util.XmlHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +85,14 @@ public class SensorsGetRequestHandler extends SensorsRequestHandler {
     private SensorsGetResponse handleGetSensorsRequest(final GetSensorsRequest getSensorsRequest) throws OwsExceptionReport, XmlException, IOException
     {
         final Set<String> sensorIds = Configurator.getInstance().getCache().getProcedures();
+        final ResultPaging paging = getSensorsRequest.getPaging();
+        if (paging != null) {
+            final List<String> selected = paging.select(sensorIds);
+            final List<String> page = paging.trim(selected);
+            final SensorsGetResponse response = new SensorsGetResponse(page.toArray(new String[page.size()]));
+            setPages(response, paging, selected);
+            return response;
+        }
         String[] sensorIDs = sensorIds.toArray(new String[sensorIds.size()]);
         Arrays.sort(sensorIDs);
         return new SensorsGetResponse(sensorIDs);
@@ -90,13 +102,13 @@ public class SensorsGetRequestHandler extends SensorsRequestHandler {
     {
         SystemType xb_system;
         String procedureId;
-        final XmlObject xb_describeSensorResponse;
+        final DescribeSensorResponse describeSensorResponse;
 
         // 0 submit DescribeSensor (if response is an OWSException report -> cancel whole process and throw it)
         procedureId = req.getDescribeSensorRequest().getProcedure();
         try
         {
-            xb_describeSensorResponse = executeSosRequest(req.getDescribeSensorRequest());
+            describeSensorResponse = executeSosRequest(req.getDescribeSensorRequest(), DescribeSensorResponse.class);
         }
         catch (final OwsExceptionReport oer) {
             if (!oer.getExceptions().isEmpty())
@@ -115,28 +127,26 @@ public class SensorsGetRequestHandler extends SensorsRequestHandler {
 
 
 
-        if (xb_describeSensorResponse instanceof DescribeSensorResponseDocument) {
+        if (describeSensorResponse.isSetProcedureDescriptions()) {
 
-            final DescribeSensorResponseDocument xb_describeSensorResponseDoc = (DescribeSensorResponseDocument) xb_describeSensorResponse;
-            final Description xb_descriptionDoc = xb_describeSensorResponseDoc.getDescribeSensorResponse().getDescriptionArray()[0];
-            final SensorDescriptionType xb_description = xb_descriptionDoc.getSensorDescription();
-            xb_system = getSmlSystemFromSensorDescription(xb_description);
+            xb_system = getSmlSystemFromSensorDescription(describeSensorResponse.getOutputFormat(),
+                    describeSensorResponse.getProcedureDescriptions().get(0));
             
             // 1 return result 
             return new GetSensorByIdResponse(xb_system,procedureId);
 
         } else {
-            final String exceptionText = String.format("Processing of SOS core operation 'DescribeSensor' response failed. Type of could not be handled: '%s'",
-                    xb_describeSensorResponse.getClass().getName());
+            final String exceptionText = "Processing of SOS core operation 'DescribeSensor' response failed. Response contains no sensor description.";
             LOGGER.debug(exceptionText);
             throw new NoApplicableCodeException().withMessage(exceptionText);
         }
     }
     
-    private SystemType getSmlSystemFromSensorDescription(final SensorDescriptionType sensorDescription) throws OwsExceptionReport
+    private SystemType getSmlSystemFromSensorDescription(final String outputFormat,
+            final SosProcedureDescription sensorDescription) throws OwsExceptionReport
     {
         try {
-            final SensorMLDocument xb_sensorML = SensorMLDocument.Factory.parse(sensorDescription.getData().newInputStream());
+            final SensorMLDocument xb_sensorML = getSensorMLDocument(encodeSensorDescription(outputFormat, sensorDescription));
 
             final SystemType xb_system = (SystemType) xb_sensorML.getSensorML().getMemberArray()[0].getProcess().substitute(SensorMLConstants.SYSTEM_QNAME,SystemType.type);
             return xb_system;
@@ -149,6 +159,23 @@ public class SensorsGetRequestHandler extends SensorsRequestHandler {
         }
     }
 
+    private XmlObject encodeSensorDescription(final String outputFormat,
+            final SosProcedureDescription sensorDescription) throws OwsExceptionReport
+    {
+        if (sensorDescription instanceof SosProcedureDescriptionUnknowType && sensorDescription.isSetSensorDescriptionXmlString()) {
+            return XmlHelper.parseXmlString(sensorDescription.getSensorDescriptionXmlString());
+        }
+        return CodingHelper.encodeObjectToXml(outputFormat, sensorDescription);
+    }
+
+    private SensorMLDocument getSensorMLDocument(final XmlObject xb_sensorDescription) throws XmlException, IOException
+    {
+        if (xb_sensorDescription instanceof SensorMLDocument) {
+            return (SensorMLDocument) xb_sensorDescription;
+        }
+        return SensorMLDocument.Factory.parse(xb_sensorDescription.newInputStream());
+    }
+
 	private CodedException logAndCreateException(final Exception e, final String exceptionText) throws CodedException
 	{
 		LOGGER.debug(exceptionText);
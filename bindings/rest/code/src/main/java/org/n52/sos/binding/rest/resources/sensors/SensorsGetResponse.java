@@ -28,13 +28,13 @@
  */
 package org.n52.sos.binding.rest.resources.sensors;
 
-import org.n52.sos.binding.rest.requests.RestResponse;
+import org.n52.sos.binding.rest.requests.PagedRestResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
  *
  */
-public class SensorsGetResponse implements RestResponse{
+public class SensorsGetResponse extends PagedRestResponse {
     
     private String[] sensorIds;
     
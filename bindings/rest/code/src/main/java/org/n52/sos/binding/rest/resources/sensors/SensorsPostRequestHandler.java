@@ -31,14 +31,13 @@ package org.n52.sos.binding.rest.resources.sensors;
 import java.io.IOException;
 
 import net.opengis.sensorML.x101.SystemType;
-import net.opengis.swes.x20.InsertSensorResponseDocument;
-import net.opengis.swes.x20.InsertSensorResponseType;
 
 import org.apache.xmlbeans.XmlException;
-import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.AbstractServiceResponse;
+import org.n52.sos.response.InsertSensorResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -51,12 +50,10 @@ public class SensorsPostRequestHandler extends SensorsRequestHandler {
     {
         if (request != null && request instanceof SensorsPostRequest) {
             // submit request to core
-            XmlObject xb_ServiceResponse = executeSosRequest(((SensorsPostRequest)request).getInsertSensorRequest());
+            AbstractServiceResponse serviceResponse = executeSosRequest(((SensorsPostRequest)request).getInsertSensorRequest());
             
-            if(xb_ServiceResponse instanceof InsertSensorResponseDocument) {
-                InsertSensorResponseDocument xb_InsertSensorResponseDoc = (InsertSensorResponseDocument) xb_ServiceResponse;
-                InsertSensorResponseType xb_InsertSensorResponse = xb_InsertSensorResponseDoc.getInsertSensorResponse();
-                String procedureId = xb_InsertSensorResponse.getAssignedProcedure();
+            if(serviceResponse instanceof InsertSensorResponse) {
+                String procedureId = ((InsertSensorResponse) serviceResponse).getAssignedProcedure();
                 SystemType xb_SensorDescription = ((TransactionalSensorRequest)request).getXb_smlSystem();
                 
                 return new SensorsPostResponse(procedureId, xb_SensorDescription);
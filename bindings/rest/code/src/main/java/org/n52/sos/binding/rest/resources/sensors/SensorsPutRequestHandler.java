@@ -30,14 +30,12 @@ package org.n52.sos.binding.rest.resources.sensors;
 
 import java.io.IOException;
 
-import net.opengis.swes.x20.UpdateSensorDescriptionResponseDocument;
-import net.opengis.swes.x20.UpdateSensorDescriptionResponseType;
-
 import org.apache.xmlbeans.XmlException;
-import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.binding.rest.requests.RestRequest;
 import org.n52.sos.binding.rest.requests.RestResponse;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.AbstractServiceResponse;
+import org.n52.sos.response.UpdateSensorResponse;
 
 /**
  * @author <a href="mailto:e.h.juerrens@52north.org">Eike Hinderk J&uuml;rrens</a>
@@ -51,12 +49,10 @@ public class SensorsPutRequestHandler extends SensorsRequestHandler {
         if (request != null && request instanceof SensorsPutRequest) {
             // submit request to core
             SensorsPutRequest putRequest = (SensorsPutRequest)request;
-            XmlObject xb_ServiceResponse = executeSosRequest(putRequest.getUpdateSensorRequest());
+            AbstractServiceResponse serviceResponse = executeSosRequest(putRequest.getUpdateSensorRequest());
             
-            if(xb_ServiceResponse instanceof UpdateSensorDescriptionResponseDocument) {
-                UpdateSensorDescriptionResponseDocument xb_InsertSensorResponseDoc = (UpdateSensorDescriptionResponseDocument) xb_ServiceResponse;
-                UpdateSensorDescriptionResponseType xb_InsertSensorResponse = xb_InsertSensorResponseDoc.getUpdateSensorDescriptionResponse();
-                String procedureId = xb_InsertSensorResponse.getUpdatedProcedure();
+            if(serviceResponse instanceof UpdateSensorResponse) {
+                String procedureId = ((UpdateSensorResponse) serviceResponse).getUpdatedProcedure();
                 
                 return new SensorsPutResponse(procedureId,putRequest.getXb_smlSystem());
             }
@@ -131,7 +131,9 @@ public class SoapBinding extends SimpleBinding {
     private void parseSoapRequest(SoapChain soapChain) throws OwsExceptionReport {
         String soapAction = SoapHelper.checkSoapHeader(soapChain.getHttpRequest());
         XmlObject doc = XmlHelper.parseXmlSosRequest(soapChain.getHttpRequest());
-        LOGGER.debug("SOAP-REQUEST: {}", doc.xmlText());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SOAP-REQUEST: {}", doc.xmlText());
+        }
         Decoder<SoapRequest, XmlObject> decoder = getDecoder(CodingHelper.getDecoderKey(doc));
         SoapRequest soapRequest = decoder.decode(doc);
         if (soapRequest.getSoapAction() == null && soapAction != null) {
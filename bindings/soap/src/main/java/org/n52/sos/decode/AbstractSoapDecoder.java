@@ -29,37 +29,41 @@
 package org.n52.sos.decode;
 
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
-import javax.xml.soap.SOAPException;
-import javax.xml.soap.SOAPHeader;
-import javax.xml.soap.SOAPHeaderElement;
-import javax.xml.soap.SOAPMessage;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.SchemaType;
+import org.apache.xmlbeans.SchemaTypeLoader;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.XmlOptions;
 import org.n52.sos.coding.CodingRepository;
 import org.n52.sos.exception.swes.InvalidRequestException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.swe.SweConstants;
 import org.n52.sos.service.ServiceConstants.SupportedTypeKey;
 import org.n52.sos.service.SoapHeader;
+import org.n52.sos.soap.SoapConstants;
 import org.n52.sos.soap.SoapRequest;
 import org.n52.sos.util.CollectionHelper;
-import org.n52.sos.util.LinkedListMultiMap;
-import org.n52.sos.util.ListMultiMap;
-import org.n52.sos.util.W3cHelper;
+import org.n52.sos.util.XmlHelper;
 import org.n52.sos.util.XmlOptionsHelper;
 import org.n52.sos.wsa.WsaActionHeader;
 import org.n52.sos.wsa.WsaConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * @author Christian Autermann <c.autermann@52north.org>
@@ -70,7 +74,10 @@ public abstract class AbstractSoapDecoder implements Decoder<SoapRequest, XmlObj
 
     private final Set<DecoderKey> decoderKeys;
 
+    private final String namespace;
+
     public AbstractSoapDecoder(String namespace) {
+        this.namespace = namespace;
         this.decoderKeys = Collections.<DecoderKey> singleton(new XmlNamespaceDecoderKey(namespace, XmlObject.class));
     }
 
@@ -103,48 +110,138 @@ public abstract class AbstractSoapDecoder implements Decoder<SoapRequest, XmlObj
     protected abstract SoapRequest createFault(OwsExceptionReport xml);
 
     /**
-     * Parses the SOAPBody content to a text representation
+     * Reads the SOAP header and body from the already parsed envelope. The
+     * header elements are passed as {@link XMLStreamReader} to the header
+     * decoders and the body content is copied to a document of its own
+     * without serializing and parsing it again.
      * 
-     * @param message
-     *            SOAP message
+     * @param doc
+     *            the parsed SOAP envelope
+     * @param soapRequest
+     *            the SOAP request to fill
+     * @param soapAction
+     *            the SOAPAction of the request, may be <code>null</code>
      * 
-     * @return SOAPBody content as text
+     * @throws OwsExceptionReport
+     *             if the envelope contains no body
+     */
+    protected void decodeEnvelope(XmlObject doc, SoapRequest soapRequest, String soapAction)
+            throws OwsExceptionReport {
+        XmlCursor cursor = doc.newCursor();
+        try {
+            if (cursor.isStartdoc()) {
+                cursor.toFirstChild();
+            }
+            if (!isSoapElement(cursor, SoapConstants.EN_SOAP_ENVELOPE)) {
+                throw new InvalidRequestException().withMessage("The request is not a SOAP envelope!");
+            }
+            XmlObject bodyContent = null;
+            if (cursor.toFirstChild()) {
+                do {
+                    if (isSoapElement(cursor, SoapConstants.EN_SOAP_HEADER)) {
+                        soapRequest.setSoapHeader(getSoapHeader(cursor.getObject()));
+                    } else if (isSoapElement(cursor, SoapConstants.EN_SOAP_BODY)) {
+                        bodyContent = getBodyContent(cursor.getObject());
+                    }
+                } while (cursor.toNextSibling());
+            }
+            if (bodyContent == null) {
+                throw new InvalidRequestException().withMessage("The SOAP envelope does not contain a body!");
+            }
+            soapRequest.setAction(checkSoapAction(soapAction, soapRequest.getSoapHeader()));
+            soapRequest.setSoapBodyContent(bodyContent);
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    private boolean isSoapElement(XmlCursor cursor, String localName) {
+        return cursor.isStart() && namespace.equals(cursor.getName().getNamespaceURI())
+                && localName.equals(cursor.getName().getLocalPart());
+    }
+
+    /**
+     * Copies the first element of the SOAP body to a document typed by the
+     * element name. The namespaces declared in the envelope are added to the
+     * copy, so that prefixes in attribute values, e.g. xsi:type, still
+     * resolve.
      * 
+     * @param body
+     *            SOAP body
      * 
-     * @throws OwsExceptionReport
-     *             * if an error occurs.
+     * @return SOAP body content or the body, if it has no element content
      */
-    protected XmlObject getSOAPBodyContent(SOAPMessage message) throws OwsExceptionReport {
+    private XmlObject getBodyContent(XmlObject body) {
+        XmlCursor cursor = body.newCursor();
         try {
-            Document bodyRequestDoc = message.getSOAPBody().extractContentAsDocument();
-            XmlOptions options = XmlOptionsHelper.getInstance().getXmlOptions();
-            String xmlString = W3cHelper.nodeToXmlString(bodyRequestDoc.getDocumentElement());
-            return XmlObject.Factory.parse(xmlString, options);
-        } catch (SOAPException soape) {
-            throw new InvalidRequestException().causedBy(soape).withMessage(
-                    "Error while parsing SOAPMessage body content!");
-        } catch (XmlException xmle) {
-            throw new InvalidRequestException().causedBy(xmle).withMessage(
-                    "Error while parsing SOAPMessage body content!");
+            if (!cursor.toFirstChild()) {
+                return body;
+            }
+            Map<String, String> namespaces = Maps.newHashMap();
+            cursor.getAllNamespaces(namespaces);
+            XmlObject content = createDocument(cursor.getName());
+            XmlCursor target = content.newCursor();
+            try {
+                target.toEndToken();
+                cursor.copyXml(target);
+                target.toStartDoc();
+                target.toFirstChild();
+                declareNamespaces(target, namespaces);
+            } finally {
+                target.dispose();
+            }
+            // fix problem with invalid prefix in xsi:type value for
+            // om:result, e.g. OM_SWEArrayObservation or gml:ReferenceType
+            XmlHelper.fixNamespaceForXsiType(content, namespaces);
+            XmlHelper.fixNamespaceForXsiType(content, SweConstants.QN_DATA_ARRAY_PROPERTY_TYPE_SWE_200);
+            return content;
+        } finally {
+            cursor.dispose();
         }
     }
 
-    protected List<SoapHeader> getSoapHeader(SOAPHeader soapHeader) {
-        ListMultiMap<String, SOAPHeaderElement> headersByNamespace =
-                new LinkedListMultiMap<String, SOAPHeaderElement>();
-        Iterator<?> headerElements = soapHeader.extractAllHeaderElements();
-        while (headerElements.hasNext()) {
-            SOAPHeaderElement element = (SOAPHeaderElement) headerElements.next();
-            headersByNamespace.add(element.getNamespaceURI(), element);
+    private XmlObject createDocument(QName name) {
+        XmlOptions options = XmlOptionsHelper.getInstance().getXmlOptions();
+        SchemaTypeLoader typeLoader = XmlBeans.getContextTypeLoader();
+        SchemaType documentType = typeLoader.findDocumentType(name);
+        if (documentType == null) {
+            return XmlObject.Factory.newInstance(options);
+        }
+        return typeLoader.newInstance(documentType, options);
+    }
+
+    private void declareNamespaces(XmlCursor element, Map<String, String> namespaces) {
+        Map<String, String> declared = Maps.newHashMap();
+        element.getAllNamespaces(declared);
+        element.toNextToken();
+        for (Entry<String, String> entry : namespaces.entrySet()) {
+            String prefix = entry.getKey();
+            if (!prefix.isEmpty() && !XMLConstants.XML_NS_PREFIX.equals(prefix) && !declared.containsKey(prefix)) {
+                element.insertNamespace(prefix, entry.getValue());
+            }
+        }
+    }
+
+    protected List<SoapHeader> getSoapHeader(XmlObject soapHeader) {
+        Set<String> namespaces = Sets.newLinkedHashSet();
+        XmlCursor cursor = soapHeader.newCursor();
+        try {
+            if (cursor.toFirstChild()) {
+                do {
+                    namespaces.add(cursor.getName().getNamespaceURI());
+                } while (cursor.toNextSibling());
+            }
+        } finally {
+            cursor.dispose();
         }
         List<SoapHeader> soapHeaders = Lists.newArrayList();
-        for (String namespace : headersByNamespace.keySet()) {
+        for (String headerNamespace : namespaces) {
             try {
-                Decoder<?, List<SOAPHeaderElement>> decoder =
+                Decoder<?, XMLStreamReader> decoder =
                         CodingRepository.getInstance().getDecoder(
-                                new XmlNamespaceDecoderKey(namespace, SOAPHeaderElement.class));
+                                new XmlNamespaceDecoderKey(headerNamespace, XMLStreamReader.class));
                 if (decoder != null) {
-                    Object object = decoder.decode(headersByNamespace.get(namespace));
+                    Object object = decodeHeader(decoder, soapHeader);
                     if (object instanceof SoapHeader) {
                         soapHeaders.add((SoapHeader) object);
                     } else if (object instanceof List<?>) {
@@ -156,7 +253,7 @@ public abstract class AbstractSoapDecoder implements Decoder<SoapRequest, XmlObj
                     }
                 } else {
                     LOGGER.info("The SOAP-Header elements for namespace '{}' are not supported by this server!",
-                            namespace);
+                            headerNamespace);
                 }
             } catch (OwsExceptionReport owse) {
                 LOGGER.debug("Requested SOAPHeader element is not supported", owse);
@@ -165,6 +262,20 @@ public abstract class AbstractSoapDecoder implements Decoder<SoapRequest, XmlObj
         return soapHeaders;
     }
 
+    private Object decodeHeader(Decoder<?, XMLStreamReader> decoder, XmlObject soapHeader)
+            throws OwsExceptionReport {
+        XMLStreamReader reader = soapHeader.newXMLStreamReader();
+        try {
+            return decoder.decode(reader);
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException xmlse) {
+                LOGGER.debug("Error while closing the SOAP header reader", xmlse);
+            }
+        }
+    }
+
     protected String checkSoapAction(String soapAction, List<SoapHeader> soapHeaders) {
         if (soapAction != null && !soapAction.isEmpty()) {
             return soapAction;
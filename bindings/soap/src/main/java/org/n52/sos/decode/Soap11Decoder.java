@@ -28,19 +28,14 @@
  */
 package org.n52.sos.decode;
 
-import java.io.IOException;
 import java.util.Locale;
 
 import javax.xml.namespace.QName;
 import javax.xml.soap.SOAPConstants;
-import javax.xml.soap.SOAPException;
-import javax.xml.soap.SOAPMessage;
 
 import org.apache.xmlbeans.XmlObject;
-import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.soap.SoapFault;
-import org.n52.sos.soap.SoapHelper;
 import org.n52.sos.soap.SoapRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,46 +71,21 @@ public class Soap11Decoder extends AbstractSoapDecoder {
         SoapRequest soapRequest =
                 new SoapRequest(SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE, SOAPConstants.SOAP_1_1_PROTOCOL);
         String soapAction = "";
-
-        try {
-            SOAPMessage soapMessageRequest;
-            try {
-                soapMessageRequest =
-                        SoapHelper.getSoapMessageForProtocol(SOAPConstants.SOAP_1_1_PROTOCOL, doc.newInputStream());
-            } catch (IOException ioe) {
-                throw new NoApplicableCodeException().causedBy(ioe).withMessage(
-                        "Error while parsing SOAPMessage from request string!");
-            } catch (SOAPException soape) {
-                throw new NoApplicableCodeException().causedBy(soape).withMessage(
-                        "Error while parsing SOAPMessage from request string!");
-            }
-            // if SOAPAction is not spec conform, create SOAPFault
-            if (soapAction.isEmpty() || !soapAction.startsWith("SOAPAction:")) {
-                SoapFault fault = new SoapFault();
-                fault.setFaultCode(new QName(SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE, "Client"));
-                fault.setFaultReason("The SOAPAction parameter in the HTTP-Header is missing or not valid!");
-                fault.setLocale(Locale.ENGLISH);
-                soapRequest.setSoapFault(fault);
-                soapRequest.setSoapFault(fault);
-            } // trim SOAPAction value
-            else {
-                soapAction = soapAction.replace("\"", "");
-                soapAction = soapAction.replace(" ", "");
-                soapAction = soapAction.replace("SOAPAction:", "");
-                soapAction = soapAction.trim();
-            }
-            try {
-                if (soapMessageRequest.getSOAPHeader() != null) {
-                    soapRequest.setSoapHeader(getSoapHeader(soapMessageRequest.getSOAPHeader()));
-                }
-                soapRequest.setAction(checkSoapAction(soapAction, soapRequest.getSoapHeader()));
-                soapRequest.setSoapBodyContent(getSOAPBodyContent(soapMessageRequest));
-            } catch (SOAPException soape) {
-                throw new NoApplicableCodeException().causedBy(soape).withMessage("Error while parsing SOAPMessage!");
-            }
-        } catch (OwsExceptionReport owse) {
-            throw owse;
+        // if SOAPAction is not spec conform, create SOAPFault
+        if (soapAction.isEmpty() || !soapAction.startsWith("SOAPAction:")) {
+            SoapFault fault = new SoapFault();
+            fault.setFaultCode(new QName(SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE, "Client"));
+            fault.setFaultReason("The SOAPAction parameter in the HTTP-Header is missing or not valid!");
+            fault.setLocale(Locale.ENGLISH);
+            soapRequest.setSoapFault(fault);
+        } // trim SOAPAction value
+        else {
+            soapAction = soapAction.replace("\"", "");
+            soapAction = soapAction.replace(" ", "");
+            soapAction = soapAction.replace("SOAPAction:", "");
+            soapAction = soapAction.trim();
         }
+        decodeEnvelope(doc, soapRequest, soapAction);
         return soapRequest;
     }
 
@@ -29,14 +29,16 @@
 package org.n52.sos.decode;
 
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.soap.Node;
-import javax.xml.soap.SOAPHeaderElement;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.service.ServiceConstants.SupportedTypeKey;
 import org.n52.sos.wsa.WsaActionHeader;
 import org.n52.sos.wsa.WsaConstants;
@@ -54,12 +56,12 @@ import com.google.common.collect.Lists;
  * @since 4.0.0
  * 
  */
-public class WsaDecoder implements Decoder<List<WsaHeader>, List<SOAPHeaderElement>> {
+public class WsaDecoder implements Decoder<List<WsaHeader>, XMLStreamReader> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WsaDecoder.class);
 
     private static final Set<DecoderKey> DECODER_KEYS = Collections.<DecoderKey> singleton(new XmlNamespaceDecoderKey(
-            WsaConstants.NS_WSA, SOAPHeaderElement.class));
+            WsaConstants.NS_WSA, XMLStreamReader.class));
 
     public WsaDecoder() {
         LOGGER.debug("Decoder for the following keys initialized successfully: {}!", Joiner.on(", ")
@@ -81,37 +83,60 @@ public class WsaDecoder implements Decoder<List<WsaHeader>, List<SOAPHeaderEleme
         return Collections.emptySet();
     }
 
+    /**
+     * Reads the WS-Addressing elements from a SOAP header.
+     * 
+     * @param reader
+     *            reader positioned before the SOAP header element
+     * 
+     * @return the WS-Addressing headers
+     * 
+     * @throws OwsExceptionReport
+     *             if the header can not be read
+     */
     @Override
-    public List<WsaHeader> decode(List<SOAPHeaderElement> list) {
-        List<WsaHeader> wsaHeaders = Lists.newArrayListWithCapacity(list.size());
+    public List<WsaHeader> decode(XMLStreamReader reader) throws OwsExceptionReport {
+        List<WsaHeader> wsaHeaders = Lists.newLinkedList();
         boolean to = false;
         boolean replyTo = false;
         boolean messageId = false;
         boolean action = false;
-        for (SOAPHeaderElement soapHeaderElement : list) {
-            if (soapHeaderElement.getLocalName().equals(WsaConstants.EN_TO)) {
-                wsaHeaders.add(new WsaToHeader(soapHeaderElement.getValue()));
-                to = true;
-            } else if (soapHeaderElement.getLocalName().equals(WsaConstants.EN_ACTION)) {
-                wsaHeaders.add(new WsaActionHeader(soapHeaderElement.getValue()));
-                action = true;
-            } else if (soapHeaderElement.getLocalName().equals(WsaConstants.EN_REPLY_TO)) {
-                Iterator<?> iter = soapHeaderElement.getChildElements();
-                while (iter.hasNext()) {
-                    Node node = (Node) iter.next();
-                    if (node.getLocalName() != null && node.getLocalName().equals(WsaConstants.EN_ADDRESS)) {
-                        wsaHeaders.add(new WsaReplyToHeader(node.getValue()));
-                        replyTo = true;
-                    }
+        boolean inReplyTo = false;
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT && isWsaElement(reader, WsaConstants.EN_REPLY_TO)) {
+                    inReplyTo = false;
+                } else if (event != XMLStreamConstants.START_ELEMENT
+                        || !WsaConstants.NS_WSA.equals(reader.getNamespaceURI())) {
+                    continue;
+                } else if (isWsaElement(reader, WsaConstants.EN_TO)) {
+                    wsaHeaders.add(new WsaToHeader(reader.getElementText().trim()));
+                    to = true;
+                } else if (isWsaElement(reader, WsaConstants.EN_ACTION)) {
+                    wsaHeaders.add(new WsaActionHeader(reader.getElementText().trim()));
+                    action = true;
+                } else if (isWsaElement(reader, WsaConstants.EN_REPLY_TO)) {
+                    inReplyTo = true;
+                } else if (inReplyTo && isWsaElement(reader, WsaConstants.EN_ADDRESS)) {
+                    wsaHeaders.add(new WsaReplyToHeader(reader.getElementText().trim()));
+                    replyTo = true;
+                } else if (isWsaElement(reader, WsaConstants.EN_MESSAGE_ID)) {
+                    wsaHeaders.add(new WsaMessageIDHeader(reader.getElementText().trim()));
+                    messageId = true;
                 }
-            } else if (soapHeaderElement.getLocalName().equals(WsaConstants.EN_MESSAGE_ID)) {
-                wsaHeaders.add(new WsaMessageIDHeader(soapHeaderElement.getValue()));
-                messageId = true;
             }
+        } catch (XMLStreamException xmlse) {
+            throw new NoApplicableCodeException().causedBy(xmlse).withMessage(
+                    "Error while reading the WS-Addressing SOAP header!");
         }
         if ((to || replyTo || messageId) && !action) {
             wsaHeaders.add(new WsaActionHeader(WsaConstants.WSA_FAULT_ACTION));
         }
         return wsaHeaders;
     }
+
+    private boolean isWsaElement(XMLStreamReader reader, String localName) {
+        return WsaConstants.NS_WSA.equals(reader.getNamespaceURI()) && localName.equals(reader.getLocalName());
+    }
 }
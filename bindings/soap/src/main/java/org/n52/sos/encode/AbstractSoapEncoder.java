@@ -47,8 +47,6 @@ import org.n52.sos.coding.CodingRepository;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.exception.ows.OwsExceptionCode;
 import org.n52.sos.exception.ows.concrete.NoEncoderForKeyException;
-import org.n52.sos.exception.sos.SosExceptionCode;
-import org.n52.sos.exception.swes.SwesExceptionCode;
 import org.n52.sos.ogc.ows.ExceptionCode;
 import org.n52.sos.ogc.ows.OWSConstants;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -309,15 +307,7 @@ public abstract class AbstractSoapEncoder<T, S> implements Encoder<T, S>, Consta
      * @return SOAP action URI
      */
     protected String getExceptionActionURI(ExceptionCode exceptionCode) {
-        if (exceptionCode instanceof OwsExceptionCode) {
-            return SosSoapConstants.RESP_ACTION_OWS;
-        } else if (exceptionCode instanceof SwesExceptionCode) {
-            return SosSoapConstants.RESP_ACTION_SWES;
-        } else if (exceptionCode instanceof SosExceptionCode) {
-            return SosSoapConstants.RESP_ACTION_SOS;
-        } else {
-            return SosSoapConstants.RESP_ACTION_OWS;
-        }
+        return SoapHelper.getExceptionActionURI(exceptionCode);
     }
 
     /**
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.encode;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,6 +40,8 @@ import javax.xml.soap.SOAPException;
 import javax.xml.soap.SOAPMessage;
 
 import org.n52.sos.coding.CodingRepository;
+import org.n52.sos.encode.streaming.Soap11XmlStreamWriter;
+import org.n52.sos.encode.streaming.StreamingEncoder;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.UnsupportedEncoderInputException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -63,7 +66,8 @@ import com.google.common.collect.Sets;
  * @author Christian Autermann <c.autermann@52north.org>
  * @since 4.0.0
  */
-public class Soap11Encoder extends AbstractSoapEncoder<SOAPMessage, SoapResponse> {
+public class Soap11Encoder extends AbstractSoapEncoder<SOAPMessage, SoapResponse> implements
+        StreamingEncoder<SOAPMessage, SoapResponse> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Soap11Encoder.class);
 
@@ -73,6 +77,15 @@ public class Soap11Encoder extends AbstractSoapEncoder<SOAPMessage, SoapResponse
                 Joiner.on(", ").join(getEncoderKeyType()));
     }
 
+    /**
+     * SOAP 1.1 responses are always streamed to avoid building the SAAJ
+     * {@link SOAPMessage} for the whole response.
+     */
+    @Override
+    public boolean forceStreaming() {
+        return true;
+    }
+
     @Override
     public Set<SchemaLocation> getSchemaLocations() {
         // TODO return valid schemaLocation
@@ -136,6 +149,20 @@ public class Soap11Encoder extends AbstractSoapEncoder<SOAPMessage, SoapResponse
         }
     }
 
+    @Override
+    public void encode(SoapResponse soapResponse, OutputStream outputStream) throws OwsExceptionReport {
+        encode(soapResponse, outputStream, new EncodingValues());
+    }
+
+    @Override
+    public void encode(SoapResponse soapResponse, OutputStream outputStream, EncodingValues encodingValues)
+            throws OwsExceptionReport {
+        if (soapResponse == null) {
+            throw new UnsupportedEncoderInputException(this, soapResponse);
+        }
+        new Soap11XmlStreamWriter().write(soapResponse, outputStream, encodingValues);
+    }
+
     private void addSchemaLocationForExceptionToSOAPMessage(SOAPMessage soapResponseMessage) throws SOAPException {
         SOAPEnvelope envelope = soapResponseMessage.getSOAPPart().getEnvelope();
         envelope.addNamespaceDeclaration(W3CConstants.NS_XSI_PREFIX, W3CConstants.NS_XSI);
@@ -76,7 +76,8 @@ public class SoapChainResponseWriter extends AbstractResponseWriter<SoapChain> {
                 CodingHelper.getEncoderKey(chain.getSoapResponse().getSoapNamespace(), chain.getSoapResponse());
         Encoder<?, SoapResponse> encoder = getEncoder(key);
         if (encoder != null) {
-            if (ServiceConfiguration.getInstance().isForceStreamingEncoding() && encoder instanceof StreamingEncoder) {
+            if (encoder instanceof StreamingEncoder && (ServiceConfiguration.getInstance().isForceStreamingEncoding()
+                    || ((StreamingEncoder) encoder).forceStreaming())) {
                 ((StreamingEncoder) encoder).encode(chain.getSoapResponse(), out);
                 return null;
             } else {
@@ -0,0 +1,330 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode.streaming;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.xmlbeans.XmlObject;
+import org.n52.sos.coding.CodingRepository;
+import org.n52.sos.encode.AbstractSoapEncoder;
+import org.n52.sos.encode.Encoder;
+import org.n52.sos.encode.XmlStreamWriter;
+import org.n52.sos.exception.CodedException;
+import org.n52.sos.ogc.ows.OWSConstants;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.ogc.sos.SosSoapConstants;
+import org.n52.sos.response.AbstractServiceResponse;
+import org.n52.sos.service.SoapHeader;
+import org.n52.sos.soap.SoapConstants;
+import org.n52.sos.soap.SoapFault;
+import org.n52.sos.soap.SoapHelper;
+import org.n52.sos.soap.SoapResponse;
+import org.n52.sos.util.CodingHelper;
+import org.n52.sos.util.CollectionHelper;
+import org.n52.sos.util.N52XmlHelper;
+import org.n52.sos.w3c.SchemaLocation;
+import org.n52.sos.wsa.WsaActionHeader;
+import org.n52.sos.wsa.WsaConstants;
+
+import com.google.common.collect.Sets;
+
+/**
+ * {@link XmlStreamWriter} implementation for SOAP 1.1. The envelope, the
+ * header and the body are written directly to the stream, the body content is
+ * written by the streaming encoders as for SOAP 1.2.
+ *
+ * @since 4.4.0
+ *
+ */
+public class Soap11XmlStreamWriter extends Soap12XmlStreamWriter {
+
+    private static final QName FAULT_CODE = new QName("faultcode");
+
+    private static final QName FAULT_STRING = new QName("faultstring");
+
+    private static final QName DETAIL = new QName("detail");
+
+    private static final QName XML_LANG = new QName(XMLConstants.XML_NS_URI, "lang", XMLConstants.XML_NS_PREFIX);
+
+    private static final QName CLIENT = new QName(SoapConstants.NS_SOAP_11, "Client", SoapConstants.NS_SOAP_PREFIX);
+
+    private static final QName SERVER = new QName(SoapConstants.NS_SOAP_11, "Server", SoapConstants.NS_SOAP_PREFIX);
+
+    private static final String DEFAULT_FAULT_CODE_PREFIX = "ns";
+
+    /**
+     * constructor
+     */
+    public Soap11XmlStreamWriter() {
+    }
+
+    /**
+     * constructor
+     *
+     * @param response
+     *            Service internal SOAP response to encode
+     */
+    public Soap11XmlStreamWriter(SoapResponse response) {
+        super(response);
+    }
+
+    /**
+     * Write the SOAP 1.1 envelope element
+     *
+     * @param response
+     *            The response element to encode and write to stream
+     * @throws XMLStreamException
+     *             If an error occurs when writing to stream
+     * @throws OwsExceptionReport
+     *             If an encoding error occurs
+     */
+    @Override
+    protected void writeSoapEnvelope(SoapResponse response) throws XMLStreamException, OwsExceptionReport {
+        start(SoapConstants.SOAP_11_ENVELOPE);
+        namespace(SoapConstants.NS_SOAP_PREFIX, SoapConstants.NS_SOAP_11);
+        schemaLocation(getSchemaLocation(response));
+        if (response.getHeader() != null) {
+            writeSoapHeader(response.getHeader(), getAction(response));
+        }
+        writeSoapBody(response);
+        writeNewLine();
+        end(SoapConstants.SOAP_11_ENVELOPE);
+    }
+
+    @Override
+    protected Set<SchemaLocation> getSchemaLocation(SoapResponse response) throws OwsExceptionReport,
+            XMLStreamException {
+        Set<SchemaLocation> schemaLocations = Sets.newHashSet();
+        schemaLocations.add(SoapConstants.SOAP_11_SCHEMA_LOCATION);
+        if (response.isSetSoapFault()) {
+            return schemaLocations;
+        } else if (response.hasException()) {
+            schemaLocations.add(N52XmlHelper.getSchemaLocationForOWS110Exception());
+        } else if (response.isSetBodyContent()) {
+            Encoder<Object, AbstractServiceResponse> encoder = getEncoder(response.getBodyContent());
+            if (encoder != null) {
+                schemaLocations.addAll(encoder.getSchemaLocations());
+            }
+        }
+        return schemaLocations;
+    }
+
+    /**
+     * Get the action of the response, depending on the exception if the
+     * response contains one.
+     *
+     * @param response
+     *            The response element to get the action for
+     * @return the action or <code>null</code> for SOAP faults
+     */
+    private String getAction(SoapResponse response) {
+        if (response.isSetSoapFault()) {
+            return null;
+        } else if (response.hasException()) {
+            List<CodedException> exceptions = response.getException().getExceptions();
+            if (exceptions.isEmpty()) {
+                return SosSoapConstants.RESP_ACTION_SOS;
+            }
+            return SoapHelper.getExceptionActionURI(exceptions.get(0).getCode());
+        } else if (response.isSetBodyContent() || response.isSetXmlBodyContent()) {
+            return response.getSoapAction();
+        }
+        return null;
+    }
+
+    /**
+     * Encode and write the SOAP 1.1 header element
+     *
+     * @param headers
+     *            The SOAP headers to write
+     * @param action
+     *            The action to set to the WS-Addressing action header
+     * @throws XMLStreamException
+     *             If an error occurs when writing to stream
+     * @throws OwsExceptionReport
+     *             If an encoding error occurs
+     */
+    protected void writeSoapHeader(List<SoapHeader> headers, String action) throws XMLStreamException,
+            OwsExceptionReport {
+        start(SoapConstants.SOAP_11_HEADER);
+        for (SoapHeader header : headers) {
+            if (WsaConstants.NS_WSA.equals(header.getNamespace()) && header instanceof WsaActionHeader) {
+                ((WsaActionHeader) header).setValue(action);
+            }
+            Encoder<XmlObject, SoapHeader> encoder =
+                    CodingRepository.getInstance().getEncoder(
+                            CodingHelper.getEncoderKey(header.getNamespace(), header));
+            if (encoder != null) {
+                XmlObject xmlObject = encoder.encode(header);
+                if (xmlObject != null) {
+                    writeIndent(indent);
+                    writeXmlObject(xmlObject, Collections.<String, String> emptyMap());
+                }
+            }
+        }
+        end(SoapConstants.SOAP_11_HEADER);
+    }
+
+    @Override
+    protected void writeSoapBody(SoapResponse response) throws XMLStreamException, OwsExceptionReport {
+        if (response != null && !response.isSetSoapFault() && !response.hasException()
+                && !response.isSetBodyContent()) {
+            int before = indent;
+            start(getSoapBodyName());
+            if (response.isSetXmlBodyContent()) {
+                writeIndent(indent);
+                writeXmlObject(response.getSoapBodyContent(), Collections.<String, String> emptyMap());
+            } else {
+                writeSoapFault(getMissingContentFault(AbstractSoapEncoder.MISSING_RESPONSE_DETAIL_TEXT));
+            }
+            indent = before;
+            writeNewLine();
+            end(getSoapBodyName());
+        } else {
+            super.writeSoapBody(response);
+        }
+    }
+
+    @Override
+    protected QName getSoapBodyName() {
+        return SoapConstants.SOAP_11_BODY;
+    }
+
+    /**
+     * Write SOAP 1.1 fault element to SOAP 1.1 body element
+     *
+     * @param fault
+     *            Service internal SOAP fault representation
+     * @throws XMLStreamException
+     *             If an error occurs when writing to stream
+     */
+    @Override
+    protected void writeSoapFault(SoapFault fault) throws XMLStreamException {
+        start(SoapConstants.SOAP_11_FAULT);
+        writeFaultCode(fault.getFaultCode());
+        writeFaultString(fault.getFaultReason(), fault.getLocale());
+        if (fault.getDetailText() != null) {
+            start(DETAIL);
+            chars(fault.getDetailText());
+            endInline(DETAIL);
+        }
+        end(SoapConstants.SOAP_11_FAULT);
+    }
+
+    /**
+     * Write {@link OwsExceptionReport} as SOAP 1.1 fault element with the
+     * encoded exceptions as detail
+     *
+     * @param exception
+     *            Service internal {@link OwsExceptionReport}
+     * @throws OwsExceptionReport
+     *             If an encoding error occurs
+     * @throws XMLStreamException
+     *             If an error occurs when writing to stream
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void writeSoapFaultFromException(OwsExceptionReport exception) throws OwsExceptionReport,
+            XMLStreamException {
+        if (exception.getExceptions().isEmpty()) {
+            writeSoapFault(getMissingContentFault(AbstractSoapEncoder.MISSING_EXCEPTION_DETAIL_TEXT));
+            return;
+        }
+        CodedException firstException = exception.getExceptions().get(0);
+        start(SoapConstants.SOAP_11_FAULT);
+        writeFaultCode(CLIENT);
+        writeFaultString(SoapHelper.getSoapFaultReasonText(firstException.getCode()), Locale.ENGLISH);
+        start(DETAIL);
+        for (CodedException codedException : exception.getExceptions()) {
+            writeIndent(indent);
+            writeXmlObject(CodingHelper.encodeObjectToXml(OWSConstants.NS_OWS, codedException, CollectionHelper
+                    .map(new AbstractMap.SimpleEntry<SosConstants.HelperValues, String>(
+                            SosConstants.HelperValues.ENCODE_OWS_EXCEPTION_ONLY, ""))),
+                    Collections.<String, String> emptyMap());
+        }
+        end(DETAIL);
+        end(SoapConstants.SOAP_11_FAULT);
+    }
+
+    private SoapFault getMissingContentFault(String detailText) {
+        SoapFault fault = new SoapFault();
+        fault.setFaultCode(SERVER);
+        fault.setFaultReason(AbstractSoapEncoder.DEFAULT_FAULT_REASON);
+        fault.setLocale(Locale.ENGLISH);
+        fault.setDetailText(detailText);
+        return fault;
+    }
+
+    /**
+     * Write the faultcode element. SOAP 1.2 fault codes are mapped to their
+     * SOAP 1.1 equivalents.
+     *
+     * @param faultCode
+     *            the fault code
+     * @throws XMLStreamException
+     *             If an error occurs when writing to stream
+     */
+    private void writeFaultCode(QName faultCode) throws XMLStreamException {
+        QName code = faultCode;
+        if (SOAPConstants.SOAP_SENDER_FAULT.equals(code)) {
+            code = CLIENT;
+        } else if (SOAPConstants.SOAP_RECEIVER_FAULT.equals(code)) {
+            code = SERVER;
+        } else if (SoapConstants.NS_SOAP_12.equals(code.getNamespaceURI())) {
+            code = new QName(SoapConstants.NS_SOAP_11, code.getLocalPart(), SoapConstants.NS_SOAP_PREFIX);
+        }
+        start(FAULT_CODE);
+        String prefix = SoapConstants.NS_SOAP_PREFIX;
+        if (!SoapConstants.NS_SOAP_11.equals(code.getNamespaceURI())) {
+            prefix = code.getPrefix().isEmpty() ? DEFAULT_FAULT_CODE_PREFIX : code.getPrefix();
+            getXmlWriter().writeNamespace(prefix, code.getNamespaceURI());
+        }
+        chars(prefix + ":" + code.getLocalPart());
+        endInline(FAULT_CODE);
+    }
+
+    private void writeFaultString(String reason, Locale locale) throws XMLStreamException {
+        start(FAULT_STRING);
+        if (locale != null) {
+            attr(XML_LANG, locale.getLanguage());
+        }
+        chars(reason);
+        endInline(FAULT_STRING);
+    }
+}
@@ -31,6 +31,7 @@ package org.n52.sos.encode.streaming;
 import java.io.OutputStream;
 import java.util.Set;
 
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 
 import org.apache.xmlbeans.XmlObject;
@@ -180,7 +181,7 @@ public class Soap12XmlStreamWriter extends XmlStreamWriter<SoapResponse> {
      */
     protected void writeSoapBody(SoapResponse response) throws XMLStreamException, OwsExceptionReport {
         int before = indent;
-        start(SoapConstants.SOAP_12_BODY);
+        start(getSoapBodyName());
         writeNewLine();
         if (response != null) {
             if (response.isSetSoapFault()) {
@@ -193,7 +194,16 @@ public class Soap12XmlStreamWriter extends XmlStreamWriter<SoapResponse> {
         }
         indent = before;
         writeNewLine();
-        end(SoapConstants.SOAP_12_BODY);
+        end(getSoapBodyName());
+    }
+
+    /**
+     * Get the name of the SOAP body element
+     *
+     * @return the SOAP 1.2 body element name
+     */
+    protected QName getSoapBodyName() {
+        return SoapConstants.SOAP_12_BODY;
     }
 
     /**
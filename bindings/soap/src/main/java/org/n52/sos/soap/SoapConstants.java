@@ -60,8 +60,24 @@ public interface SoapConstants {
     
     String EN_SOAP_ENVELOPE = "Envelope";
     
+    String EN_SOAP_HEADER = "Header";
+    
     String EN_SOAP_BODY = "Body";
     
+    String EN_SOAP_FAULT = "Fault";
+    
+    String NS_SOAP_11 = SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE;
+    
+    QName SOAP_11_ENVELOPE = new QName(NS_SOAP_11, EN_SOAP_ENVELOPE, NS_SOAP_PREFIX);
+    
+    QName SOAP_11_HEADER = new QName(NS_SOAP_11, EN_SOAP_HEADER, NS_SOAP_PREFIX);
+    
+    QName SOAP_11_BODY = new QName(NS_SOAP_11, EN_SOAP_BODY, NS_SOAP_PREFIX);
+    
+    QName SOAP_11_FAULT = new QName(NS_SOAP_11, EN_SOAP_FAULT, NS_SOAP_PREFIX);
+    
+    SchemaLocation SOAP_11_SCHEMA_LOCATION = new SchemaLocation(NS_SOAP_11, NS_SOAP_11);
+    
     QName SOAP_12_ENVELOPE = new QName(NS_SOAP_12, EN_SOAP_ENVELOPE, NS_SOAP_PREFIX);
     
     QName SOAP_12_BODY = new QName(NS_SOAP_12, EN_SOAP_BODY, NS_SOAP_PREFIX);
@@ -41,6 +41,9 @@ import javax.xml.soap.SOAPHeader;
 import javax.xml.soap.SOAPMessage;
 
 import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.exception.ows.OwsExceptionCode;
+import org.n52.sos.exception.sos.SosExceptionCode;
+import org.n52.sos.exception.swes.SwesExceptionCode;
 import org.n52.sos.ogc.ows.ExceptionCode;
 import org.n52.sos.ogc.ows.OWSConstants;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -142,6 +145,26 @@ public class SoapHelper {
         }
     }
 
+    /**
+     * Get SOAP action URI depending on Exception code
+     * 
+     * @param exceptionCode
+     *            Exception code
+     * 
+     * @return SOAP action URI
+     */
+    public static String getExceptionActionURI(ExceptionCode exceptionCode) {
+        if (exceptionCode instanceof OwsExceptionCode) {
+            return SosSoapConstants.RESP_ACTION_OWS;
+        } else if (exceptionCode instanceof SwesExceptionCode) {
+            return SosSoapConstants.RESP_ACTION_SWES;
+        } else if (exceptionCode instanceof SosExceptionCode) {
+            return SosSoapConstants.RESP_ACTION_SOS;
+        } else {
+            return SosSoapConstants.RESP_ACTION_OWS;
+        }
+    }
+
     public static String checkActionURIWithBodyContent(String soapAction, String operationName)
             throws OwsExceptionReport {
         if (soapAction != null && !soapAction.isEmpty()) {
@@ -28,12 +28,26 @@
  */
 package org.n52.sos.encode.json.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import org.n52.sos.coding.json.JSONConstants;
+import org.n52.sos.encode.EncodingValues;
 import org.n52.sos.encode.json.AbstractSosResponseEncoder;
+import org.n52.sos.encode.streaming.StreamingDataEncoder;
+import org.n52.sos.encode.streaming.StreamingEncoder;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.exception.ows.concrete.UnsupportedEncoderInputException;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.response.GetFeatureOfInterestResponse;
+import org.n52.sos.util.JSONUtils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -43,13 +57,63 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
  * 
  * @since 4.0.0
  */
-public class GetFeatureOfInterestResponseEncoder extends AbstractSosResponseEncoder<GetFeatureOfInterestResponse> {
+public class GetFeatureOfInterestResponseEncoder extends AbstractSosResponseEncoder<GetFeatureOfInterestResponse>
+        implements StreamingEncoder<JsonNode, GetFeatureOfInterestResponse>, StreamingDataEncoder {
     public GetFeatureOfInterestResponseEncoder() {
         super(GetFeatureOfInterestResponse.class, SosConstants.Operations.GetFeatureOfInterest);
     }
 
     @Override
     protected void encodeResponse(ObjectNode json, GetFeatureOfInterestResponse t) throws OwsExceptionReport {
-        json.put(JSONConstants.FEATURE_OF_INTEREST, encodeObjectToJson(t.getAbstractFeature()));
+        if (t.getAbstractFeature() instanceof StreamingFeatureCollection) {
+            StreamingFeatureCollection features = (StreamingFeatureCollection) t.getAbstractFeature();
+            ArrayNode a = json.putArray(JSONConstants.FEATURE_OF_INTEREST);
+            while (features.hasNextFeature()) {
+                a.add(encodeObjectToJson(features.nextFeature()));
+            }
+        } else {
+            json.put(JSONConstants.FEATURE_OF_INTEREST, encodeObjectToJson(t.getAbstractFeature()));
+        }
+    }
+
+    @Override
+    public void encode(GetFeatureOfInterestResponse t, OutputStream outputStream) throws OwsExceptionReport {
+        encode(t, outputStream, new EncodingValues());
+    }
+
+    @Override
+    public void encode(GetFeatureOfInterestResponse t, OutputStream outputStream, EncodingValues encodingValues)
+            throws OwsExceptionReport {
+        if (t == null) {
+            throw new UnsupportedEncoderInputException(this, t);
+        }
+        try {
+            JsonGenerator generator = JSONUtils.createGenerator(outputStream);
+            generator.writeStartObject();
+            generator.writeStringField(JSONConstants.REQUEST, t.getOperationName());
+            generator.writeStringField(JSONConstants.VERSION, t.getVersion());
+            generator.writeStringField(JSONConstants.SERVICE, t.getService());
+            generator.writeFieldName(JSONConstants.FEATURE_OF_INTEREST);
+            if (t.getAbstractFeature() instanceof StreamingFeatureCollection) {
+                StreamingFeatureCollection features = (StreamingFeatureCollection) t.getAbstractFeature();
+                generator.writeStartArray();
+                while (features.hasNextFeature()) {
+                    generator.writeTree(encodeObjectToJson(features.nextFeature()));
+                    generator.flush();
+                }
+                generator.writeEndArray();
+            } else {
+                generator.writeTree(encodeObjectToJson(t.getAbstractFeature()));
+            }
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException ioe) {
+            throw new NoApplicableCodeException().causedBy(ioe).withMessage("Error while writing element to stream!");
+        }
+    }
+
+    @Override
+    public boolean forceStreaming() {
+        return false;
     }
 }
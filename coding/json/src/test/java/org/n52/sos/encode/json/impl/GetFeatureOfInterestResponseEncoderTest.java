@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode.json.impl;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.n52.sos.coding.json.matchers.JSONMatchers.arrayOfLength;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.n52.sos.ConfiguredSettingsManager;
+import org.n52.sos.coding.json.JSONConstants;
+import org.n52.sos.encode.EncodingValues;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.gml.CodeWithAuthority;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.response.GetFeatureOfInterestResponse;
+import org.n52.sos.util.JSONUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Lists;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.PrecisionModel;
+
+/**
+ * @since 4.4.0
+ *
+ */
+public class GetFeatureOfInterestResponseEncoderTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @ClassRule
+    public static final ConfiguredSettingsManager csm = new ConfiguredSettingsManager();
+
+    private GetFeatureOfInterestResponseEncoder encoder;
+
+    @Before
+    public void setUp() {
+        encoder = new GetFeatureOfInterestResponseEncoder();
+    }
+
+    @Test
+    public void should_stream_same_json_as_encoded_node() throws OwsExceptionReport, IOException {
+        JsonNode encoded = encoder.encodeJSON(response(new TestStreamingFeatureCollection()));
+        TestStreamingFeatureCollection features = new TestStreamingFeatureCollection();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode(response(features), out, new EncodingValues());
+        JsonNode streamed = JSONUtils.loadString(out.toString("UTF-8"));
+
+        assertThat(features.getChunks(), is(2));
+        assertThat(streamed.path(JSONConstants.FEATURE_OF_INTEREST), is(arrayOfLength(3)));
+        assertThat(streamed, is(encoded));
+    }
+
+    private GetFeatureOfInterestResponse response(StreamingFeatureCollection features) {
+        GetFeatureOfInterestResponse response = new GetFeatureOfInterestResponse();
+        response.setService(SosConstants.SOS);
+        response.setVersion(Sos2Constants.SERVICEVERSION);
+        response.setAbstractFeature(features);
+        return response;
+    }
+
+    /**
+     * Streams three sampling points in chunks.
+     */
+    private static class TestStreamingFeatureCollection extends StreamingFeatureCollection {
+        private static final long serialVersionUID = 1L;
+
+        private final Iterator<String> identifiers = Arrays.asList("feature1", "feature2", "feature3").iterator();
+
+        private Iterator<AbstractFeature> chunk;
+
+        private int chunks;
+
+        @Override
+        public boolean hasNextFeature() throws OwsExceptionReport {
+            if ((chunk == null || !chunk.hasNext()) && identifiers.hasNext()) {
+                List<AbstractFeature> features = Lists.newArrayListWithCapacity(CHUNK_SIZE);
+                while (identifiers.hasNext() && features.size() < CHUNK_SIZE) {
+                    features.add(feature(identifiers.next()));
+                }
+                chunk = features.iterator();
+                chunks++;
+            }
+            return chunk != null && chunk.hasNext();
+        }
+
+        @Override
+        public AbstractFeature nextFeature() throws OwsExceptionReport {
+            return hasNextFeature() ? chunk.next() : null;
+        }
+
+        int getChunks() {
+            return chunks;
+        }
+
+        private AbstractFeature feature(String identifier) throws OwsExceptionReport {
+            SamplingFeature feature = new SamplingFeature(new CodeWithAuthority(identifier));
+            feature.setGeometry(new GeometryFactory(new PrecisionModel(), 4326).createPoint(new Coordinate(52.0,
+                    7.0)));
+            return feature;
+        }
+    }
+
+}
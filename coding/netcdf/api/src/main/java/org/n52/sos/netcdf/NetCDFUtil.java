@@ -51,6 +51,7 @@ import org.n52.sos.ogc.gml.AbstractFeature;
 import org.n52.sos.ogc.gml.time.Time;
 import org.n52.sos.ogc.gml.time.TimePeriod;
 import org.n52.sos.ogc.om.AbstractPhenomenon;
+import org.n52.sos.ogc.om.AbstractStreaming;
 import org.n52.sos.ogc.om.NamedValue;
 import org.n52.sos.ogc.om.ObservationValue;
 import org.n52.sos.ogc.om.OmCompositePhenomenon;
@@ -88,7 +89,8 @@ import com.vividsolutions.jts.geom.Point;
 public class NetCDFUtil {
     /**
      * Organizes OmObservation collection into a list of NetCDFObservation
-     * blocks, each of which contain a single feature type
+     * blocks, each of which contain a single feature type. Streamed
+     * observation values are read value by value.
      * 
      * @param omObservations
      *            The collection of observations to transform
@@ -113,152 +115,18 @@ public class NetCDFUtil {
         SetMultimap<String, Double> sensorLats = HashMultimap.create();
         SetMultimap<String, Double> sensorHeights = HashMultimap.create();
 
-        for (OmObservation sosObs : omObservations) {
-            OmObservationConstellation obsConst = sosObs.getObservationConstellation();
-
-            // first, resolve the procId to an asset type
-            String sensor = obsConst.getProcedure().getIdentifier();
-            if (!sensorProcedure.containsKey(sensor)) {
-                sensorProcedure.put(sensor, obsConst.getProcedure());
-            }
-
-            AbstractPhenomenon absPhen = obsConst.getObservableProperty();
-            Map<String, OmObservableProperty> phenomenaMap = new HashMap<String, OmObservableProperty>();
-            if (absPhen instanceof OmCompositePhenomenon) {
-                for (OmObservableProperty phen : ((OmCompositePhenomenon) absPhen).getPhenomenonComponents()) {
-                    // TODO should the unit be set like this? seems sketchy
-                    if (phen.getUnit() == null && sosObs.getValue() != null && sosObs.getValue().getValue() != null
-                            && sosObs.getValue().getValue().getUnit() != null) {
-                        phen.setUnit(sosObs.getValue().getValue().getUnit());
-                    }
-                    phenomenaMap.put(phen.getIdentifier(), phen);
+        for (OmObservation observation : omObservations) {
+            if (observation.getValue() instanceof AbstractStreaming) {
+                // read the values one by one instead of creating all
+                // observations before the dataset is assembled
+                AbstractStreaming values = (AbstractStreaming) observation.getValue();
+                while (values.hasNextValue()) {
+                    addObservation(values.nextSingleObservation(), obsValuesMap, sensorPhens, sensorProcedure,
+                            sensorLngs, sensorLats, sensorHeights);
                 }
             } else {
-                OmObservableProperty phen = (OmObservableProperty) absPhen;
-                // TODO should the unit be set like this? seems sketchy
-                if (phen.getUnit() == null && sosObs.getValue() != null && sosObs.getValue().getValue() != null
-                        && sosObs.getValue().getValue().getUnit() != null) {
-                    phen.setUnit(sosObs.getValue().getValue().getUnit());
-                }
-                phenomenaMap.put(phen.getIdentifier(), phen);
-            }
-            List<OmObservableProperty> phenomena = new ArrayList<OmObservableProperty>(phenomenaMap.values());
-            sensorPhens.putAll(sensor, phenomena);
-
-            // get foi
-            AbstractFeature aFoi = obsConst.getFeatureOfInterest();
-            if (!(aFoi instanceof SamplingFeature)) {
-                throw new NoApplicableCodeException()
-                        .withMessage("Encountered a feature which isn't a SamplingFeature");
-            }
-            SamplingFeature foi = (SamplingFeature) aFoi;
-
-            for (Point point : FeatureUtil.getFeaturePoints(foi)) {
-                try {
-                    // TODO is this correct?
-                    point = (Point) GeometryHandler.getInstance().switchCoordinateAxisFromToDatasourceIfNeeded(point);
-                } catch (OwsExceptionReport e) {
-                    throw new NoApplicableCodeException()
-                            .withMessage("Exception while normalizing feature coordinate axis order.");
-                }
-                sensorLngs.put(sensor, point.getX());
-                sensorLats.put(sensor, point.getY());
-            }
-            Set<Double> featureHeights = FeatureUtil.getFeatureHeights(foi);
-            sensorHeights.putAll(sensor, featureHeights);
-
-            String phenId = obsConst.getObservableProperty().getIdentifier();
-            ObservationValue<?> iObsValue = sosObs.getValue();
-            if (!(iObsValue instanceof SingleObservationValue)) {
-                throw new NoApplicableCodeException().withMessage("Only SingleObservationValues are supported.");
-            }
-            SingleObservationValue<?> singleObsValue = (SingleObservationValue<?>) iObsValue;
-            Time obsTime = singleObsValue.getPhenomenonTime();
-
-            // TODO Quality
-
-            Value<?> obsValue = singleObsValue.getValue();
-            if (!(obsValue instanceof QuantityValue)) {
-                throw new NoApplicableCodeException().withMessage("Only QuantityValues are supported.");
-            }
-            QuantityValue quantityValue = (QuantityValue) obsValue;
-
-            // axes shouldn't be composite phenomena
-            if (phenomena.size() == 1) {
-                OmObservableProperty phenomenon = phenomena.get(0);
-                // add dimensional values to procedure dimension tracking maps
-                if (isLng(phenomenon.getIdentifier())) {
-                    sensorLngs.get(sensor).add(quantityValue.getValue().doubleValue());
-                }
-
-                if (isLat(phenomenon.getIdentifier())) {
-                    sensorLats.get(sensor).add(quantityValue.getValue().doubleValue());
-                }
-
-                if (isZ(phenomenon.getIdentifier())) {
-                    Double zValue = quantityValue.getValue().doubleValue();
-//                    if (isDepth(phenomenon.getIdentifier())) {
-//                        zValue = 0 - zValue;
-//                    }
-                    sensorHeights.get(sensor).add(zValue);
-                }
-            }
-            
-            // check for samplingGeometry in observation
-            if (sosObs.isSetParameter()) {
-                if (sosObs.isSetHeightDepthParameter()) {
-                    if (sosObs.isSetHeightParameter()) {
-                        sensorHeights.get(sensor).add(sosObs.getHeightParameter().getValue().getValue().doubleValue());
-                    } else if (sosObs.isSetDepthParameter()) {
-                        sensorHeights.get(sensor).add(sosObs.getDepthParameter().getValue().getValue().doubleValue());
-                    }
-                }
-                if (hasSamplingGeometry(sosObs)) {
-                    Geometry geometry = getSamplingGeometryGeometry(sosObs);
-                    Set<Point> points = FeatureUtil.getPoints(geometry);
-                    for (Point point : points) {
-                        try {
-                            // TODO is this correct?
-                            point =
-                                    (Point) GeometryHandler.getInstance().switchCoordinateAxisFromToDatasourceIfNeeded(
-                                            point);
-                        } catch (OwsExceptionReport e) {
-                            throw new NoApplicableCodeException()
-                                    .withMessage("Exception while normalizing sampling geometry coordinate axis order.");
-                        }
-                        sensorLngs.put(sensor, point.getX());
-                        sensorLats.put(sensor, point.getY());
-                    }
-                    sensorHeights.putAll(sensor, FeatureUtil.getHeights(points));
-                }
-            }
-
-            // get the sensor's data map
-            Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>> sensorObsMap = obsValuesMap.get(sensor);
-            if (sensorObsMap == null) {
-                sensorObsMap = new HashMap<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>>();
-                obsValuesMap.put(sensor, sensorObsMap);
-            }
-
-            // get the map of the asset's phenomena by time
-            Map<OmObservableProperty, Map<SubSensor, Value<?>>> obsPropMap = sensorObsMap.get(obsTime);
-            if (obsPropMap == null) {
-                obsPropMap = new HashMap<OmObservableProperty, Map<SubSensor, Value<?>>>();
-                sensorObsMap.put(obsTime, obsPropMap);
-            }
-
-            OmObservableProperty phen = phenomenaMap.get(phenId);
-            Map<SubSensor, Value<?>> subSensorMap = obsPropMap.get(phen);
-            if (subSensorMap == null) {
-                subSensorMap = new HashMap<SubSensor, Value<?>>();
-                obsPropMap.put(phen, subSensorMap);
-            }
-
-            // add obs value to subsensor map (null subsensors are ok)
-            if (sosObs.isSetParameter() && hasSamplingGeometry(sosObs)) {
-                subSensorMap.put(createSubSensor(sensor, getSamplingGeometryGeometry(sosObs)), obsValue);
-            } else {
-                subSensorMap.put(createSubSensor(sensor, foi), obsValue);
+                addObservation(observation, obsValuesMap, sensorPhens, sensorProcedure, sensorLngs, sensorLats,
+                        sensorHeights);
             }
         }
 
@@ -425,6 +293,181 @@ public class NetCDFUtil {
         return iSosObsList;
     }
 
+    /**
+     * Add the observation value and the dimension values of a single
+     * observation to the dataset maps
+     * 
+     * @param sosObs
+     *            the observation to add
+     * @param obsValuesMap
+     *            the map of observation values by sensor, time, phenomenon
+     *            and subsensor
+     * @param sensorPhens
+     *            the phenomena by sensor
+     * @param sensorProcedure
+     *            the procedure descriptions by sensor
+     * @param sensorLngs
+     *            the longitudes by sensor
+     * @param sensorLats
+     *            the latitudes by sensor
+     * @param sensorHeights
+     *            the heights by sensor
+     * @throws OwsExceptionReport
+     *             If the observation is not supported
+     */
+    private static void addObservation(OmObservation sosObs,
+            Map<String, Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>>> obsValuesMap,
+            SetMultimap<String, OmObservableProperty> sensorPhens, Map<String, SosProcedureDescription> sensorProcedure,
+            SetMultimap<String, Double> sensorLngs, SetMultimap<String, Double> sensorLats,
+            SetMultimap<String, Double> sensorHeights) throws OwsExceptionReport {
+        OmObservationConstellation obsConst = sosObs.getObservationConstellation();
+
+        // first, resolve the procId to an asset type
+        String sensor = obsConst.getProcedure().getIdentifier();
+        if (!sensorProcedure.containsKey(sensor)) {
+            sensorProcedure.put(sensor, obsConst.getProcedure());
+        }
+
+        AbstractPhenomenon absPhen = obsConst.getObservableProperty();
+        Map<String, OmObservableProperty> phenomenaMap = new HashMap<String, OmObservableProperty>();
+        if (absPhen instanceof OmCompositePhenomenon) {
+            for (OmObservableProperty phen : ((OmCompositePhenomenon) absPhen).getPhenomenonComponents()) {
+                // TODO should the unit be set like this? seems sketchy
+                if (phen.getUnit() == null && sosObs.getValue() != null && sosObs.getValue().getValue() != null
+                        && sosObs.getValue().getValue().getUnit() != null) {
+                    phen.setUnit(sosObs.getValue().getValue().getUnit());
+                }
+                phenomenaMap.put(phen.getIdentifier(), phen);
+            }
+        } else {
+            OmObservableProperty phen = (OmObservableProperty) absPhen;
+            // TODO should the unit be set like this? seems sketchy
+            if (phen.getUnit() == null && sosObs.getValue() != null && sosObs.getValue().getValue() != null
+                    && sosObs.getValue().getValue().getUnit() != null) {
+                phen.setUnit(sosObs.getValue().getValue().getUnit());
+            }
+            phenomenaMap.put(phen.getIdentifier(), phen);
+        }
+        List<OmObservableProperty> phenomena = new ArrayList<OmObservableProperty>(phenomenaMap.values());
+        sensorPhens.putAll(sensor, phenomena);
+
+        // get foi
+        AbstractFeature aFoi = obsConst.getFeatureOfInterest();
+        if (!(aFoi instanceof SamplingFeature)) {
+            throw new NoApplicableCodeException()
+                    .withMessage("Encountered a feature which isn't a SamplingFeature");
+        }
+        SamplingFeature foi = (SamplingFeature) aFoi;
+
+        for (Point point : FeatureUtil.getFeaturePoints(foi)) {
+            try {
+                // TODO is this correct?
+                point = (Point) GeometryHandler.getInstance().switchCoordinateAxisFromToDatasourceIfNeeded(point);
+            } catch (OwsExceptionReport e) {
+                throw new NoApplicableCodeException()
+                        .withMessage("Exception while normalizing feature coordinate axis order.");
+            }
+            sensorLngs.put(sensor, point.getX());
+            sensorLats.put(sensor, point.getY());
+        }
+        Set<Double> featureHeights = FeatureUtil.getFeatureHeights(foi);
+        sensorHeights.putAll(sensor, featureHeights);
+
+        String phenId = obsConst.getObservableProperty().getIdentifier();
+        ObservationValue<?> iObsValue = sosObs.getValue();
+        if (!(iObsValue instanceof SingleObservationValue)) {
+            throw new NoApplicableCodeException().withMessage("Only SingleObservationValues are supported.");
+        }
+        SingleObservationValue<?> singleObsValue = (SingleObservationValue<?>) iObsValue;
+        Time obsTime = singleObsValue.getPhenomenonTime();
+
+        // TODO Quality
+
+        Value<?> obsValue = singleObsValue.getValue();
+        if (!(obsValue instanceof QuantityValue)) {
+            throw new NoApplicableCodeException().withMessage("Only QuantityValues are supported.");
+        }
+        QuantityValue quantityValue = (QuantityValue) obsValue;
+
+        // axes shouldn't be composite phenomena
+        if (phenomena.size() == 1) {
+            OmObservableProperty phenomenon = phenomena.get(0);
+            // add dimensional values to procedure dimension tracking maps
+            if (isLng(phenomenon.getIdentifier())) {
+                sensorLngs.get(sensor).add(quantityValue.getValue().doubleValue());
+            }
+
+            if (isLat(phenomenon.getIdentifier())) {
+                sensorLats.get(sensor).add(quantityValue.getValue().doubleValue());
+            }
+
+            if (isZ(phenomenon.getIdentifier())) {
+                Double zValue = quantityValue.getValue().doubleValue();
+//                    if (isDepth(phenomenon.getIdentifier())) {
+//                        zValue = 0 - zValue;
+//                    }
+                sensorHeights.get(sensor).add(zValue);
+            }
+        }
+        
+        // check for samplingGeometry in observation
+        if (sosObs.isSetParameter()) {
+            if (sosObs.isSetHeightDepthParameter()) {
+                if (sosObs.isSetHeightParameter()) {
+                    sensorHeights.get(sensor).add(sosObs.getHeightParameter().getValue().getValue().doubleValue());
+                } else if (sosObs.isSetDepthParameter()) {
+                    sensorHeights.get(sensor).add(sosObs.getDepthParameter().getValue().getValue().doubleValue());
+                }
+            }
+            if (hasSamplingGeometry(sosObs)) {
+                Geometry geometry = getSamplingGeometryGeometry(sosObs);
+                Set<Point> points = FeatureUtil.getPoints(geometry);
+                for (Point point : points) {
+                    try {
+                        // TODO is this correct?
+                        point =
+                                (Point) GeometryHandler.getInstance().switchCoordinateAxisFromToDatasourceIfNeeded(
+                                        point);
+                    } catch (OwsExceptionReport e) {
+                        throw new NoApplicableCodeException()
+                                .withMessage("Exception while normalizing sampling geometry coordinate axis order.");
+                    }
+                    sensorLngs.put(sensor, point.getX());
+                    sensorLats.put(sensor, point.getY());
+                }
+                sensorHeights.putAll(sensor, FeatureUtil.getHeights(points));
+            }
+        }
+
+        // get the sensor's data map
+        Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>> sensorObsMap = obsValuesMap.get(sensor);
+        if (sensorObsMap == null) {
+            sensorObsMap = new HashMap<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>>();
+            obsValuesMap.put(sensor, sensorObsMap);
+        }
+
+        // get the map of the asset's phenomena by time
+        Map<OmObservableProperty, Map<SubSensor, Value<?>>> obsPropMap = sensorObsMap.get(obsTime);
+        if (obsPropMap == null) {
+            obsPropMap = new HashMap<OmObservableProperty, Map<SubSensor, Value<?>>>();
+            sensorObsMap.put(obsTime, obsPropMap);
+        }
+
+        OmObservableProperty phen = phenomenaMap.get(phenId);
+        Map<SubSensor, Value<?>> subSensorMap = obsPropMap.get(phen);
+        if (subSensorMap == null) {
+            subSensorMap = new HashMap<SubSensor, Value<?>>();
+            obsPropMap.put(phen, subSensorMap);
+        }
+
+        // add obs value to subsensor map (null subsensors are ok)
+        if (sosObs.isSetParameter() && hasSamplingGeometry(sosObs)) {
+            subSensorMap.put(createSubSensor(sensor, getSamplingGeometryGeometry(sosObs)), obsValue);
+        } else {
+            subSensorMap.put(createSubSensor(sensor, foi), obsValue);
+        }
+    }
+
     // public static void checkSrid( int srid, Logger logger ) throws
     // InvalidParameterValueException{
     // if( !Ioos52nConstants.ALLOWED_EPSGS.contains( srid ) ){
@@ -29,6 +29,7 @@
 package org.n52.sos.encode;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -38,6 +39,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -45,6 +48,7 @@ import org.n52.sos.coding.CodingRepository;
 import org.n52.sos.ds.AbstractDescribeSensorDAO;
 import org.n52.sos.ds.OperationDAO;
 import org.n52.sos.ds.OperationDAORepository;
+import org.n52.sos.encode.streaming.StreamingDataEncoder;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.UnsupportedEncoderInputException;
@@ -107,6 +111,7 @@ import ucar.ma2.ArrayFloat;
 import ucar.ma2.DataType;
 import ucar.ma2.Index;
 import ucar.ma2.IndexIterator;
+import ucar.ma2.InvalidRangeException;
 import ucar.nc2.Attribute;
 import ucar.nc2.CDMNode;
 import ucar.nc2.Dimension;
@@ -128,21 +133,31 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.io.Files;
 
 /**
- * Abstract class of {@link ObservationEncoder} for netCDF encoding.
+ * Abstract class of {@link ObservationEncoder} for netCDF encoding. Streamed
+ * observation values are not merged before encoding but read value by value
+ * while the netCDF datasets are assembled.
  * 
  * @author <a href="mailto:shane@axiomdatascience.com">Shane StClair</a>
  * @author <a href="mailto:c.hollmann@52north.org">Carsten Hollmann</a>
  * @since 4.4.0
  *
  */
-public abstract class AbstractNetcdfEncoder implements ObservationEncoder<BinaryAttachmentResponse, Object> {
+public abstract class AbstractNetcdfEncoder implements ObservationEncoder<BinaryAttachmentResponse, Object>,
+        StreamingDataEncoder {
 
     private final Logger LOGGER = LoggerFactory.getLogger(AbstractNetcdfEncoder.class);
 
     // private final String DEFINITION = "definition";
 
+    private static final String TEMP_FILE_PREFIX = "52n-sos-netcdf";
+
+    private static final String NETCDF_TEMP_FILE_SUFFIX = ".nc";
+
+    private static final String ZIP_TEMP_FILE_SUFFIX = ".zip";
+
     private final Map<SupportedTypeKey, Set<String>> SUPPORTED_TYPES = Collections.singletonMap(
             SupportedTypeKey.ObservationType, Collections.singleton(OmConstants.OBS_TYPE_MEASUREMENT));
 
@@ -275,6 +290,90 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
     protected abstract BinaryAttachmentResponse encodeNetCDFObsToNetcdf(List<NetCDFObservation> netCDFSosObsList,
             Version version) throws OwsExceptionReport;
 
+    /**
+     * Encode a single sensor dataset into a temporary file that is streamed
+     * to the client and deleted afterwards.
+     * 
+     * @param sensorDataset
+     *            the dataset to encode
+     * @param version
+     *            the netCDF version
+     * @return file backed response
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    protected BinaryAttachmentResponse encodeSensorDatasetToFile(AbstractSensorDataset sensorDataset, Version version)
+            throws OwsExceptionReport {
+        String filename = getFilename(sensorDataset);
+        File netcdfFile = createTempFile(NETCDF_TEMP_FILE_SUFFIX);
+        try {
+            encodeSensorDataToNetcdf(netcdfFile, sensorDataset, version);
+        } catch (OwsExceptionReport owse) {
+            deleteTempFile(netcdfFile);
+            throw owse;
+        }
+        return new BinaryAttachmentResponse(netcdfFile, getContentType(), String.format(filename,
+                makeDateSafe(new DateTime(DateTimeZone.UTC))));
+    }
+
+    /**
+     * Encode all sensor datasets one after another into a temporary zip file
+     * that is streamed to the client and deleted afterwards. Only one
+     * uncompressed dataset exists on disk at any time.
+     * 
+     * @param netCDFObsList
+     *            the observations to encode
+     * @param version
+     *            the netCDF version
+     * @param downloadFilenameFormat
+     *            format of the download filename
+     * @return file backed response
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    protected BinaryAttachmentResponse encodeSensorDatasetsToZip(List<NetCDFObservation> netCDFObsList,
+            Version version, String downloadFilenameFormat) throws OwsExceptionReport {
+        File zipFile = createTempFile(ZIP_TEMP_FILE_SUFFIX);
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            for (NetCDFObservation netCDFObs : netCDFObsList) {
+                for (AbstractSensorDataset sensorDataset : netCDFObs.getSensorDatasets()) {
+                    File netcdfFile = createTempFile(NETCDF_TEMP_FILE_SUFFIX);
+                    try {
+                        encodeSensorDataToNetcdf(netcdfFile, sensorDataset, version);
+                        zip.putNextEntry(new ZipEntry(getFilename(sensorDataset)));
+                        Files.copy(netcdfFile, zip);
+                        zip.closeEntry();
+                    } finally {
+                        deleteTempFile(netcdfFile);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            deleteTempFile(zipFile);
+            throw new NoApplicableCodeException().causedBy(e).withMessage("Couldn't create netCDF zip file");
+        } catch (OwsExceptionReport owse) {
+            deleteTempFile(zipFile);
+            throw owse;
+        }
+        return new BinaryAttachmentResponse(zipFile, getContentType(), String.format(downloadFilenameFormat,
+                makeDateSafe(new DateTime(DateTimeZone.UTC))));
+    }
+
+    private File createTempFile(String suffix) throws CodedException {
+        try {
+            return File.createTempFile(TEMP_FILE_PREFIX, suffix);
+        } catch (IOException e) {
+            throw new NoApplicableCodeException().causedBy(e).withMessage("Error creating netCDF temp file.");
+        }
+    }
+
+    private void deleteTempFile(File file) {
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("Could not delete temporary file {}", file.getAbsolutePath());
+            file.deleteOnExit();
+        }
+    }
+
     protected abstract void addProfileSpecificGlobalAttributes(NetcdfFileWriter writer,
             AbstractSensorDataset sensorDataset) throws OwsExceptionReport;
 
@@ -362,8 +461,6 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
         if (numTimes > 1 && writer.getVersion().isNetdf4format()) {
             vTime.addAttribute(new Attribute(CDM.CHUNK_SIZE, NetcdfHelper.getInstance().getChunkSizeTime()));
         }
-        ArrayDouble timeArray = new ArrayDouble(getDimShapes(timeDims));
-        initArrayWithFillValue(timeArray, NetcdfHelper.getInstance().getFillValue());
 
         Array latArray = getLatitudeArray(sensorDataset);
         Array lonArray = getLongitudeArray(sensorDataset);
@@ -411,16 +508,10 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
                                 vHeightDepth.getFullName()));
 
         Map<OmObservableProperty, Variable> obsPropVarMap = Maps.newHashMap();
-        Map<Variable, Array> varDataArrayMap = Maps.newHashMap();
         for (OmObservableProperty obsProp : sensorDataset.getPhenomena()) {
             // obs prop var
             Variable vObsProp = addVariableForObservedProperty(writer, obsProp, obsPropDims, coordinateString);
             obsPropVarMap.put(obsProp, vObsProp);
-
-            // init obs prop data array
-            Array obsPropArray = getArray(obsPropDims);
-            initArrayWithFillValue(obsPropArray, NetcdfHelper.getInstance().getFillValue());
-            varDataArrayMap.put(vObsProp, obsPropArray);
         }
 
         // populate heights array for profile
@@ -441,18 +532,95 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
 
         }
 
-        // iterate through sensorDataset, set values
+        // create the empty netCDF with dims/vars/attributes defined
+        if (latArray != null) {
+            variableArrayMap.put(vLat, latArray);
+        }
+        if (lonArray != null) {
+            variableArrayMap.put(vLon, lonArray);
+        }
+        if (heightDephtArray != null) {
+            variableArrayMap.put(vHeightDepth, heightDephtArray);
+        }
+        try {
+            writeToFile(writer, variableArrayMap);
+            // write the time dependent variables section by section to keep
+            // the buffers independent of the dataset length
+            int sectionSize = Math.max(1, NetcdfHelper.getInstance().getChunkSizeTime());
+            List<Time> times = sensorDataset.getTimes();
+            for (int offset = 0; offset < numTimes; offset += sectionSize) {
+                writeTimeSection(writer, sensorDataset, times.subList(offset, Math.min(offset + sectionSize, numTimes)),
+                        offset, vTime, obsPropVarMap, obsPropDims, dTime, dZ);
+            }
+        } catch (OwsExceptionReport owse) {
+            try {
+                writer.abort();
+            } catch (IOException e) {
+                LOGGER.debug("Error aborting netCDF writer", e);
+            }
+            throw owse;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new NoApplicableCodeException().causedBy(e).withMessage(
+                    "Error closign netCDF data for sensor " + sensorDataset.getSensorIdentifier());
+        }
+    }
+
+    /**
+     * Fill and write the time and observed property variables for a section
+     * of the time dimension.
+     *
+     * @param writer
+     *            the netCDF writer, already in data mode
+     * @param sensorDataset
+     *            the dataset to write
+     * @param times
+     *            the times of this section
+     * @param offset
+     *            the index of the first time of this section in the time
+     *            dimension
+     * @param vTime
+     *            the time variable
+     * @param obsPropVarMap
+     *            the observed property variables
+     * @param obsPropDims
+     *            the dimensions of the observed property variables
+     * @param dTime
+     *            the time dimension
+     * @param dZ
+     *            the height/depth dimension
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    private void writeTimeSection(NetcdfFileWriter writer, AbstractSensorDataset sensorDataset, List<Time> times,
+            int offset, Variable vTime, Map<OmObservableProperty, Variable> obsPropVarMap,
+            List<Dimension> obsPropDims, Dimension dTime, Dimension dZ) throws OwsExceptionReport {
+        ArrayDouble timeArray = new ArrayDouble.D1(times.size());
+        int[] obsPropShape = new int[obsPropDims.size()];
+        int[] obsPropOrigin = new int[obsPropDims.size()];
+        for (int i = 0; i < obsPropDims.size(); i++) {
+            if (obsPropDims.get(i).equals(dTime)) {
+                obsPropShape[i] = times.size();
+                obsPropOrigin[i] = offset;
+            } else {
+                obsPropShape[i] = obsPropDims.get(i).getLength();
+            }
+        }
+        Map<Variable, Array> varDataArrayMap = Maps.newHashMap();
+        for (Variable variable : obsPropVarMap.values()) {
+            Array obsPropArray = getArray(obsPropShape);
+            initArrayWithFillValue(obsPropArray, NetcdfHelper.getInstance().getFillValue());
+            varDataArrayMap.put(variable, obsPropArray);
+        }
+
+        // iterate through the section, set values
         int timeCounter = 0;
-        for (Time time : sensorDataset.getTimes()) {
+        for (Time time : times) {
             // set time value
             Index timeIndex = timeArray.getIndex();
-            int timeIndexCounter = 0;
-            // if (hasDimension(timeDims, dFeatureTypeInstance)) {
-            // timeIndex.setDim(timeIndexCounter++, 0);
-            // }
-            if (hasDimension(timeDims, dTime)) {
-                timeIndex.setDim(timeIndexCounter++, timeCounter++);
-            }
+            timeIndex.setDim(0, timeCounter);
             timeArray.set(timeIndex, getTimeValue(time));
 
             // data values
@@ -471,13 +639,9 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
                     Index index = array.getIndex();
                     int obsPropDimCounter = 0;
                     for (Dimension dim : obsPropDims) {
-                        // if (dim.equals(dFeatureTypeInstance)){
-                        // feature type instance index
-                        // index.setDim(obsPropDimCounter++, 0);
-                        // } else if (dim.equals(dTime)){
                         if (dim.equals(dTime)) {
                             // time index dim
-                            index.setDim(obsPropDimCounter++, timeCounter - 1);
+                            index.setDim(obsPropDimCounter++, timeCounter);
                         } else if (dim.equals(dZ) && dim.getLength() > 1) {
                             // height/depth index dim
                             index.setDim(obsPropDimCounter++, sensorDataset.getSubSensors().indexOf(subSensor));
@@ -491,27 +655,18 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
                     }
                 }
             }
+            timeCounter++;
         }
 
-        // create the empty netCDF with dims/vars/attributes defined
-        variableArrayMap.put(vTime, timeArray);
-        if (latArray != null) {
-            variableArrayMap.put(vLat, latArray);
-        }
-        if (lonArray != null) {
-            variableArrayMap.put(vLon, lonArray);
-        }
-        if (heightDephtArray != null) {
-            variableArrayMap.put(vHeightDepth, heightDephtArray);
-        }
-        variableArrayMap.putAll(varDataArrayMap);
-        // create the empty netCDF with dims/vars/attributes defined
-        writeToFile(writer, variableArrayMap);
         try {
-            writer.close();
-        } catch (IOException e) {
+            writer.write(vTime, new int[] { offset }, timeArray);
+            for (Entry<Variable, Array> varEntry : varDataArrayMap.entrySet()) {
+                writer.write(varEntry.getKey(), obsPropOrigin, varEntry.getValue());
+            }
+            writer.flush();
+        } catch (IOException | InvalidRangeException e) {
             throw new NoApplicableCodeException().causedBy(e).withMessage(
-                    "Error closign netCDF data for sensor " + sensorDataset.getSensorIdentifier());
+                    "Error writing netCDF variable data for sensor " + sensorDataset.getSensorIdentifier());
         }
     }
 
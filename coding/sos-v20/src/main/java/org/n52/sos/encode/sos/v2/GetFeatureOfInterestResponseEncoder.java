@@ -28,16 +28,24 @@
  */
 package org.n52.sos.encode.sos.v2;
 
+import java.io.OutputStream;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamException;
+
 import net.opengis.sos.x20.GetFeatureOfInterestResponseDocument;
 import net.opengis.sos.x20.GetFeatureOfInterestResponseType;
 
 import org.apache.xmlbeans.XmlObject;
+import org.n52.sos.encode.EncodingValues;
+import org.n52.sos.encode.streaming.StreamingDataEncoder;
+import org.n52.sos.encode.streaming.sos.v2.GetFeatureOfInterestResponseXmlStreamWriter;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.gml.AbstractFeature;
 import org.n52.sos.ogc.om.features.FeatureCollection;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
 import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.Sos2Constants;
@@ -57,7 +65,8 @@ import com.google.common.collect.Sets;
  * 
  * @since 4.0.0
  */
-public class GetFeatureOfInterestResponseEncoder extends AbstractSosResponseEncoder<GetFeatureOfInterestResponse> {
+public class GetFeatureOfInterestResponseEncoder extends AbstractSosResponseEncoder<GetFeatureOfInterestResponse>
+        implements StreamingDataEncoder {
     public GetFeatureOfInterestResponseEncoder() {
         super(SosConstants.Operations.GetFeatureOfInterest.name(), GetFeatureOfInterestResponse.class);
     }
@@ -68,7 +77,12 @@ public class GetFeatureOfInterestResponseEncoder extends AbstractSosResponseEnco
                 GetFeatureOfInterestResponseDocument.Factory.newInstance(getXmlOptions());
         GetFeatureOfInterestResponseType xbGetFoiResponse = document.addNewGetFeatureOfInterestResponse();
         AbstractFeature feature = response.getAbstractFeature();
-        if (feature instanceof FeatureCollection) {
+        if (feature instanceof StreamingFeatureCollection) {
+            StreamingFeatureCollection streamingFeatureCollection = (StreamingFeatureCollection) feature;
+            while (streamingFeatureCollection.hasNextFeature()) {
+                addFeatureOfInterest(streamingFeatureCollection.nextFeature(), xbGetFoiResponse);
+            }
+        } else if (feature instanceof FeatureCollection) {
             for (AbstractFeature f : (FeatureCollection) feature) {
                 addFeatureOfInterest(f, xbGetFoiResponse);
             }
@@ -79,8 +93,25 @@ public class GetFeatureOfInterestResponseEncoder extends AbstractSosResponseEnco
         return document;
     }
 
+    @Override
+    protected void create(GetFeatureOfInterestResponse response, OutputStream outputStream,
+            EncodingValues encodingValues) throws OwsExceptionReport {
+        try {
+            encodingValues.setEncoder(this);
+            encodingValues.getAdditionalValues().putAll(getFeatureEncodingValues());
+            new GetFeatureOfInterestResponseXmlStreamWriter().write(response, outputStream, encodingValues);
+        } catch (XMLStreamException xmlse) {
+            throw new NoApplicableCodeException().causedBy(xmlse);
+        }
+    }
+
     private void addFeatureOfInterest(AbstractFeature feature, GetFeatureOfInterestResponseType response)
             throws OwsExceptionReport {
+        XmlObject encodeObjectToXml = encodeGml(getFeatureEncodingValues(), feature);
+        response.addNewFeatureMember().set(encodeObjectToXml);
+    }
+
+    private Map<HelperValues, String> getFeatureEncodingValues() {
         Map<HelperValues, String> additionalValues =
                 new EnumMap<SosConstants.HelperValues, String>(HelperValues.class);
         Profile activeProfile = getActiveProfile();
@@ -88,8 +119,7 @@ public class GetFeatureOfInterestResponseEncoder extends AbstractSosResponseEnco
             additionalValues.put(HelperValues.ENCODE_NAMESPACE,
                     activeProfile.getEncodingNamespaceForFeatureOfInterest());
         }
-        XmlObject encodeObjectToXml = encodeGml(additionalValues, feature);
-        response.addNewFeatureMember().set(encodeObjectToXml);
+        return additionalValues;
     }
 
     @Override
@@ -0,0 +1,230 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode.sos.v2;
+
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.Difference;
+import org.custommonkey.xmlunit.DifferenceListener;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.encode.EncodingValues;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.gml.CodeWithAuthority;
+import org.n52.sos.ogc.gml.GmlConstants;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.response.GetFeatureOfInterestResponse;
+import org.n52.sos.service.Configurator;
+import org.n52.sos.service.profile.DefaultProfileHandler;
+import org.n52.sos.w3c.W3CConstants;
+import org.w3c.dom.Attr;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.PrecisionModel;
+
+/**
+ * @since 4.4.0
+ *
+ */
+public class GetFeatureOfInterestResponseEncoderTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private static final String GML_ID = "ssf";
+
+    private GetFeatureOfInterestResponseEncoder encoder;
+
+    @Before
+    public void setUp() {
+        Configurator configurator = mock(Configurator.class);
+        when(configurator.getProfileHandler()).thenReturn(new DefaultProfileHandler());
+        Configurator.setInstance(configurator);
+        XMLUnit.setIgnoreWhitespace(true);
+        encoder = new GetFeatureOfInterestResponseEncoder();
+    }
+
+    @After
+    public void tearDown() {
+        XMLUnit.setIgnoreWhitespace(false);
+    }
+
+    @Test
+    public void should_stream_same_document_as_created_document() throws OwsExceptionReport, SAXException,
+            IOException {
+        XmlObject created = encoder.encode(response(new TestStreamingFeatureCollection()));
+        TestStreamingFeatureCollection features = new TestStreamingFeatureCollection();
+        String streamed = stream(response(features));
+
+        assertThat(features.getChunks(), is(2));
+        Diff diff = new Diff(created.xmlText(), streamed);
+        diff.overrideDifferenceListener(new SchemaLocationDifferenceListener());
+        assertThat(diff.toString(), diff.similar(), is(true));
+    }
+
+    @Test
+    public void should_stream_unique_gml_ids_across_chunks() throws OwsExceptionReport, XmlException, IOException {
+        XmlObject streamed = XmlObject.Factory.parse(stream(response(new TestStreamingFeatureCollection())));
+        List<String> gmlIds = Lists.newLinkedList();
+        collectGmlIds(streamed.getDomNode(), gmlIds);
+        assertThat(Sets.newHashSet(gmlIds).size(), is(gmlIds.size()));
+        assertThat(gmlIds, hasItems(GML_ID, "point_" + GML_ID, GML_ID + "1", "point_" + GML_ID + "1",
+                GML_ID + "2", "point_" + GML_ID + "2"));
+    }
+
+    private String stream(GetFeatureOfInterestResponse response) throws OwsExceptionReport, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode(response, out, new EncodingValues());
+        return out.toString("UTF-8");
+    }
+
+    private GetFeatureOfInterestResponse response(StreamingFeatureCollection features) {
+        GetFeatureOfInterestResponse response = new GetFeatureOfInterestResponse();
+        response.setService(SosConstants.SOS);
+        response.setVersion(Sos2Constants.SERVICEVERSION);
+        response.setAbstractFeature(features);
+        return response;
+    }
+
+    private void collectGmlIds(Node node, List<String> gmlIds) {
+        NamedNodeMap attributes = node.getAttributes();
+        if (attributes != null) {
+            Node id = attributes.getNamedItemNS(GmlConstants.NS_GML_32, GmlConstants.AN_ID);
+            if (id != null) {
+                gmlIds.add(id.getNodeValue());
+            }
+        }
+        NodeList children = node.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            collectGmlIds(children.item(i), gmlIds);
+        }
+    }
+
+    /**
+     * The created document references the schema locations of all contained
+     * namespaces while the streamed document only references the response
+     * schema location.
+     */
+    private static class SchemaLocationDifferenceListener implements DifferenceListener {
+        @Override
+        public int differenceFound(Difference difference) {
+            if (isSchemaLocation(difference.getControlNodeDetail().getNode())
+                    || isSchemaLocation(difference.getTestNodeDetail().getNode())) {
+                return RETURN_IGNORE_DIFFERENCE_NODES_IDENTICAL;
+            }
+            return RETURN_ACCEPT_DIFFERENCE;
+        }
+
+        @Override
+        public void skippedComparison(Node control, Node test) {
+        }
+
+        private boolean isSchemaLocation(Node node) {
+            return node instanceof Attr && W3CConstants.NS_XSI.equals(node.getNamespaceURI())
+                    && W3CConstants.AN_SCHEMA_LOCATION.equals(node.getLocalName());
+        }
+    }
+
+    /**
+     * Streams three sampling points in chunks. All features get the same
+     * gml:id, like features with stored descriptions of a datasource, so the
+     * ids collide across chunks.
+     */
+    private static class TestStreamingFeatureCollection extends StreamingFeatureCollection {
+        private static final long serialVersionUID = 1L;
+
+        private final Iterator<String> identifiers = Arrays.asList("feature1", "feature2", "feature3").iterator();
+
+        private Iterator<AbstractFeature> chunk;
+
+        private int chunks;
+
+        @Override
+        public boolean hasNextFeature() throws OwsExceptionReport {
+            if ((chunk == null || !chunk.hasNext()) && identifiers.hasNext()) {
+                List<AbstractFeature> features = Lists.newArrayListWithCapacity(CHUNK_SIZE);
+                while (identifiers.hasNext() && features.size() < CHUNK_SIZE) {
+                    features.add(feature(identifiers.next()));
+                }
+                chunk = features.iterator();
+                chunks++;
+            }
+            return chunk != null && chunk.hasNext();
+        }
+
+        @Override
+        public AbstractFeature nextFeature() throws OwsExceptionReport {
+            return hasNextFeature() ? chunk.next() : null;
+        }
+
+        int getChunks() {
+            return chunks;
+        }
+
+        private AbstractFeature feature(String identifier) throws OwsExceptionReport {
+            SamplingFeature feature = new SamplingFeature(new CodeWithAuthority(identifier)) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public void setGmlId(String gmlId) {
+                    super.setGmlId(GML_ID);
+                }
+            };
+            feature.setGeometry(new GeometryFactory(new PrecisionModel(), 4326).createPoint(new Coordinate(52.0,
+                    7.0)));
+            return feature;
+        }
+    }
+
+}
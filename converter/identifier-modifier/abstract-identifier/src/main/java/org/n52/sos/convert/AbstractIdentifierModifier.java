@@ -30,6 +30,7 @@ package org.n52.sos.convert;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +38,8 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 
 import org.n52.sos.cache.ContentCache;
+import org.n52.sos.convert.IdentifierMappings.Mapping;
+import org.n52.sos.convert.IdentifierMappings.Modification;
 import org.n52.sos.convert.RequestResponseModifier;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.gda.GetDataAvailabilityRequest;
@@ -48,6 +51,8 @@ import org.n52.sos.ogc.om.AbstractPhenomenon;
 import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.om.OmObservationConstellation;
 import org.n52.sos.ogc.om.features.FeatureCollection;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
+import org.n52.sos.ogc.ows.OWSConstants.AdditionalRequestParams;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.ows.OwsOperation;
 import org.n52.sos.ogc.ows.OwsParameterValue;
@@ -124,7 +129,171 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     protected abstract void checkAndChangeObservablePropertyIdentifier(AbstractFeature abstractFeature);
 
     protected abstract void checkAndChangOfferingIdentifier(SosOffering offering);
-    
+
+    private volatile IdentifierMappings identifierMappings;
+
+    private final Modification offeringModification = new Modification() {
+        @Override
+        public String modify(String identifier) {
+            return checkOfferingIdentifier(identifier);
+        }
+
+        @Override
+        public boolean isKnown(String identifier) {
+            return getCache().hasOffering(identifier);
+        }
+    };
+
+    private final Modification procedureModification = new Modification() {
+        @Override
+        public String modify(String identifier) {
+            return checkProcedureIdentifier(identifier);
+        }
+
+        @Override
+        public boolean isKnown(String identifier) {
+            return getCache().hasProcedure(identifier);
+        }
+    };
+
+    private final Modification featureOfInterestModification = new Modification() {
+        @Override
+        public String modify(String identifier) {
+            return checkFeatureOfInterestIdentifier(identifier);
+        }
+
+        @Override
+        public boolean isKnown(String identifier) {
+            return getCache().hasFeatureOfInterest(identifier);
+        }
+    };
+
+    private final Modification observablePropertyModification = new Modification() {
+        @Override
+        public String modify(String identifier) {
+            return checkObservablePropertyIdentifier(identifier);
+        }
+
+        @Override
+        public boolean isKnown(String identifier) {
+            return getCache().hasObservableProperty(identifier);
+        }
+    };
+
+    /**
+     * Get the settings the identifier modification depends on. If the
+     * returned value changes, the precomputed identifier mappings are
+     * recreated.
+     *
+     * @return the current modification settings, default <code>null</code>
+     */
+    protected Object getIdentifierMappingState() {
+        return null;
+    }
+
+    /**
+     * @return <code>true</code>, if the modified identifiers are derived from
+     *         the cache content and the identifier mappings have to be
+     *         recreated after each cache update
+     */
+    protected boolean isIdentifierMappingCacheDependent() {
+        return false;
+    }
+
+    /**
+     * Get the modified identifier from the precomputed offering mapping.
+     *
+     * @param identifier
+     *            the stored offering identifier
+     * @return the modified offering identifier
+     */
+    protected String lookupOfferingIdentifier(String identifier) {
+        return lookupModified(getIdentifierMappings().getOfferings(), identifier, offeringModification);
+    }
+
+    protected String lookupProcedureIdentifier(String identifier) {
+        return lookupModified(getIdentifierMappings().getProcedures(), identifier, procedureModification);
+    }
+
+    protected String lookupFeatureOfInterestIdentifier(String identifier) {
+        return lookupModified(getIdentifierMappings().getFeaturesOfInterest(), identifier,
+                featureOfInterestModification);
+    }
+
+    protected String lookupObservablePropertyIdentifier(String identifier) {
+        return lookupModified(getIdentifierMappings().getObservableProperties(), identifier,
+                observablePropertyModification);
+    }
+
+    /**
+     * Get the stored offering identifier for a request parameter value from
+     * the precomputed reverse mapping. Unknown values are passed to
+     * {@link #checkOfferingParameterValue(String)} and are not memoized.
+     *
+     * @param parameterValue
+     *            the requested offering
+     * @return the stored offering identifier
+     */
+    protected String lookupOfferingParameterValue(String parameterValue) {
+        String original = lookupOriginal(getIdentifierMappings().getOfferings(), parameterValue);
+        return original != null ? original : checkOfferingParameterValue(parameterValue);
+    }
+
+    protected String lookupProcedureParameterValue(String parameterValue) {
+        String original = lookupOriginal(getIdentifierMappings().getProcedures(), parameterValue);
+        return original != null ? original : checkProcedureParameterValue(parameterValue);
+    }
+
+    protected String lookupFeatureOfInterestParameterValue(String parameterValue) {
+        String original = lookupOriginal(getIdentifierMappings().getFeaturesOfInterest(), parameterValue);
+        return original != null ? original : checkFeatureOfInterestParameterValue(parameterValue);
+    }
+
+    protected String lookupObservablePropertyParameterValue(String parameterValue) {
+        String original = lookupOriginal(getIdentifierMappings().getObservableProperties(), parameterValue);
+        return original != null ? original : checkObservablePropertyParameterValue(parameterValue);
+    }
+
+    private String lookupModified(Mapping mapping, String identifier, Modification modification) {
+        if (identifier == null) {
+            return modification.modify(identifier);
+        }
+        String modified = mapping.getModified(identifier);
+        if (modified == null) {
+            modified = modification.modify(identifier);
+            // only identifiers of the cache are memoized, arbitrary strings
+            // like keywords or definitions would grow the maps without bound
+            if (modification.isKnown(identifier)) {
+                mapping.put(identifier, modified);
+            }
+        }
+        return modified;
+    }
+
+    private String lookupOriginal(Mapping mapping, String parameterValue) {
+        if (parameterValue == null) {
+            return null;
+        }
+        return mapping.getOriginal(parameterValue);
+    }
+
+    private IdentifierMappings getIdentifierMappings() {
+        ContentCache cache = getCache();
+        boolean cacheDependent = isIdentifierMappingCacheDependent();
+        Object state = getIdentifierMappingState();
+        IdentifierMappings mappings = identifierMappings;
+        if (mappings == null || !mappings.isValidFor(cache, cacheDependent, state)) {
+            mappings = new IdentifierMappings(cache, cacheDependent, state);
+            mappings.getOfferings().putAll(cache.getOfferings(), offeringModification);
+            mappings.getProcedures().putAll(cache.getProcedures(), procedureModification);
+            mappings.getFeaturesOfInterest().putAll(cache.getFeaturesOfInterest(), featureOfInterestModification);
+            mappings.getObservableProperties().putAll(cache.getObservableProperties(),
+                    observablePropertyModification);
+            identifierMappings = mappings;
+        }
+        return mappings;
+    }
+
     @Override
     public AbstractServiceRequest<?> modifyRequest(AbstractServiceRequest<?> request) throws OwsExceptionReport {
         if (request instanceof GetObservationRequest) {
@@ -174,7 +343,7 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     }
 
     protected AbstractServiceRequest<?> changeDescribeSensorRequestParameterValues(DescribeSensorRequest request) {
-        request.setProcedure(checkProcedureParameterValue(request.getProcedure()));
+        request.setProcedure(lookupProcedureParameterValue(request.getProcedure()));
         return request;
     }
 
@@ -197,20 +366,20 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
 
     protected AbstractServiceRequest<?> changeGetResultTemplateRequestParameterValues(GetResultTemplateRequest request) {
         if (request.isSetOffering()) {
-            request.setOffering(checkOfferingParameterValue(request.getOffering()));
+            request.setOffering(lookupOfferingParameterValue(request.getOffering()));
         }
         if (request.isSetObservedProperty()) {
-            request.setObservedProperty(checkObservablePropertyParameterValue(request.getObservedProperty()));
+            request.setObservedProperty(lookupObservablePropertyParameterValue(request.getObservedProperty()));
         }
         return request;
     }
 
     protected AbstractServiceRequest<?> changeGetResultRequestParameterValues(GetResultRequest request) {
         if (request.isSetOffering()) {
-            request.setOffering(checkOfferingParameterValue(request.getOffering()));
+            request.setOffering(lookupOfferingParameterValue(request.getOffering()));
         }
         if (request.isSetObservedProperty()) {
-            request.setObservedProperty(checkObservablePropertyParameterValue(request.getObservedProperty()));
+            request.setObservedProperty(lookupObservablePropertyParameterValue(request.getObservedProperty()));
         }
         if (request.isSetFeatureOfInterest()) {
             request.setFeatureIdentifiers(checkFeatureOfInterestParameterValues(request.getFeatureIdentifiers()));
@@ -273,10 +442,10 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
             for (SosObservationOffering observationOffering : capabilities.getContents()) {
                 if (!observationOffering.isEmpty()) {
                     checkAndChangOfferingIdentifier(observationOffering.getOffering());
-                    observationOffering.setFeatureOfInterest(checkFeatureOfInterestIdentifier(observationOffering
+                    observationOffering.setFeatureOfInterest(lookupFeatureOfInterestIdentifier(observationOffering
                             .getFeatureOfInterest()));
-                    observationOffering.setProcedures(checkProcedureIdentifier(observationOffering.getProcedures()));
-                    observationOffering.setObservableProperties(checkObservablePropertyIdentifier(observationOffering
+                    observationOffering.setProcedures(lookupProcedureIdentifier(observationOffering.getProcedures()));
+                    observationOffering.setObservableProperties(lookupObservablePropertyIdentifier(observationOffering
                             .getObservableProperties()));
                 }
             }
@@ -294,13 +463,13 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
                 SortedSet<String> checkedValues = Sets.<String> newTreeSet();
                 for (String identifier : pvpv.getValues()) {
                     if (SosConstants.GetObservationParams.offering.name().equals(name)) {
-                        checkedValues.add(checkOfferingIdentifier(identifier));
+                        checkedValues.add(lookupOfferingIdentifier(identifier));
                     } else if (SosConstants.GetObservationParams.featureOfInterest.name().equals(name)) {
-                        checkedValues.add(checkFeatureOfInterestIdentifier(identifier));
+                        checkedValues.add(lookupFeatureOfInterestIdentifier(identifier));
                     } else if (SosConstants.GetObservationParams.observedProperty.name().equals(name)) {
-                        checkedValues.add(checkObservablePropertyIdentifier(identifier));
+                        checkedValues.add(lookupObservablePropertyIdentifier(identifier));
                     } else if (SosConstants.GetObservationParams.procedure.name().equals(name)) {
-                        checkedValues.add(checkProcedureIdentifier(identifier));
+                        checkedValues.add(lookupProcedureIdentifier(identifier));
                     } else {
                         checkedValues.add(identifier);
                     }
@@ -319,20 +488,34 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     }
 
     protected AbstractServiceResponse changeAbstractObservationResponseIdentifier(AbstractObservationResponse response) {
+        // observations of the same series share their constellation, feature,
+        // property and procedure objects, change each of them only once
+        Set<Object> changed = Sets.newSetFromMap(new IdentityHashMap<Object, Boolean>());
         for (OmObservation omObservation : response.getObservationCollection()) {
             OmObservationConstellation observationConstellation = omObservation.getObservationConstellation();
-            checkAndChangeFeatureOfInterestIdentifier(observationConstellation.getFeatureOfInterest());
-            checkAndChangeObservablePropertyIdentifier(observationConstellation.getObservableProperty());
-            checkAndChangeProcedure(observationConstellation.getProcedure());
-            if (getActiveProfile().isEncodeProcedureInObservation()) {
+            if (!changed.add(observationConstellation)) {
+                continue;
+            }
+            if (changed.add(observationConstellation.getFeatureOfInterest())) {
+                checkAndChangeFeatureOfInterestIdentifier(observationConstellation.getFeatureOfInterest());
+            }
+            if (changed.add(observationConstellation.getObservableProperty())) {
+                checkAndChangeObservablePropertyIdentifier(observationConstellation.getObservableProperty());
+            }
+            if (changed.add(observationConstellation.getProcedure())) {
                 checkAndChangeProcedure(observationConstellation.getProcedure());
             }
         }
         return response;
     }
 
-    protected AbstractServiceResponse changeGetFeatureOfInterestResponseIdentifier(GetFeatureOfInterestResponse response) {
-        if (response.getAbstractFeature() instanceof FeatureCollection) {
+    protected AbstractServiceResponse changeGetFeatureOfInterestResponseIdentifier(GetFeatureOfInterestResponse response)
+            throws OwsExceptionReport {
+        if (response.getAbstractFeature() instanceof StreamingFeatureCollection) {
+            // change the identifiers while the features are streamed
+            response.setAbstractFeature(new IdentifierModifyingFeatureCollection(
+                    (StreamingFeatureCollection) response.getAbstractFeature()));
+        } else if (response.getAbstractFeature() instanceof FeatureCollection) {
             FeatureCollection featureCollection = (FeatureCollection) response.getAbstractFeature();
             // TODO check if new map with new identifier should be created
             for (AbstractFeature abstractFeature : featureCollection.getMembers().values()) {
@@ -372,11 +555,11 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     protected AbstractServiceResponse changeGetDataAvailabilityResponseIdentifier(GetDataAvailabilityResponse response) {
         for (DataAvailability dataAvailability : response.getDataAvailabilities()) {
             dataAvailability.getFeatureOfInterest().setHref(
-                    checkFeatureOfInterestIdentifier(dataAvailability.getFeatureOfInterest().getHref()));
+                    lookupFeatureOfInterestIdentifier(dataAvailability.getFeatureOfInterest().getHref()));
             dataAvailability.getProcedure().setHref(
-                    checkProcedureIdentifier(dataAvailability.getProcedure().getHref()));
+                    lookupProcedureIdentifier(dataAvailability.getProcedure().getHref()));
             dataAvailability.getObservedProperty().setHref(
-                    checkObservablePropertyIdentifier(dataAvailability.getObservedProperty().getHref()));
+                    lookupObservablePropertyIdentifier(dataAvailability.getObservedProperty().getHref()));
         }
         return response;
     }
@@ -384,7 +567,7 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     private void checkAndChangeProcedure(SosProcedureDescription procedure) {
         checkAndChangeProcedureIdentifier(procedure);
         if (procedure.isSetFeaturesOfInterest()) {
-            procedure.setFeaturesOfInterest(checkFeatureOfInterestIdentifier(procedure.getFeaturesOfInterest()));
+            procedure.setFeaturesOfInterest(lookupFeatureOfInterestIdentifier(procedure.getFeaturesOfInterest()));
         }
         if (procedure.isSetFeaturesOfInterestMap()) {
             Map<String, AbstractFeature> checkedFeatures = Maps.newHashMap();
@@ -408,7 +591,7 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
             procedure.setPhenomenon(checkedPhens);
         }
         if (procedure.isSetParentProcedures()) {
-            procedure.setParentProcedures(checkProcedureIdentifier(procedure.getParentProcedures()));
+            procedure.setParentProcedures(lookupProcedureIdentifier(procedure.getParentProcedures()));
         }
         if (procedure instanceof AbstractSensorML) {
             if (((AbstractSensorML) procedure).isSetKeywords()) {
@@ -433,10 +616,10 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     private List<String> checkKeywords(List<String> keywords) {
         List<String> checkedKeyword = Lists.newArrayListWithCapacity(keywords.size());
         for (String keyword : keywords) {
-            String checked = checkOfferingIdentifier(keyword);
-            checked = checkObservablePropertyIdentifier(checked);
-            checked = checkFeatureOfInterestIdentifier(checked);
-            checked = checkProcedureIdentifier(checked);
+            String checked = lookupOfferingIdentifier(keyword);
+            checked = lookupObservablePropertyIdentifier(checked);
+            checked = lookupFeatureOfInterestIdentifier(checked);
+            checked = lookupProcedureIdentifier(checked);
             checkedKeyword.add(checked);
         }
         return checkedKeyword;
@@ -469,9 +652,9 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
                 if (split.length == 5) {
                     StringBuilder builder = new StringBuilder();
                     builder.append(split[0]).append(Constants.INVERTED_COMMA_CHAR);
-                    builder.append(checkProcedureIdentifier(split[1])).append(Constants.INVERTED_COMMA_CHAR);
+                    builder.append(lookupProcedureIdentifier(split[1])).append(Constants.INVERTED_COMMA_CHAR);
                     builder.append(split[2]).append(Constants.INVERTED_COMMA_CHAR);
-                    Collection<String> obsProps = checkObservablePropertyIdentifier(Sets.newTreeSet(Arrays.asList(split[3].split(Constants.COMMA_STRING))));
+                    Collection<String> obsProps = lookupObservablePropertyIdentifier(Sets.newTreeSet(Arrays.asList(split[3].split(Constants.COMMA_STRING))));
                     builder.append(Joiner.on(Constants.COMMA_STRING).join(obsProps));
                     builder.append(Constants.INVERTED_COMMA_CHAR);
                     builder.append(split[4]);
@@ -483,10 +666,10 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
 
     private void checkAbstractDataComponentForObservableProperty(SweAbstractDataComponent value) {
         if (value.isSetDefinition()) {
-            value.setDefinition(checkObservablePropertyIdentifier(value.getDefinition()));
+            value.setDefinition(lookupObservablePropertyIdentifier(value.getDefinition()));
         }
         if (value.isSetIdentifier()) {
-            value.setIdentifier(checkObservablePropertyIdentifier(value.getIdentifier()));
+            value.setIdentifier(lookupObservablePropertyIdentifier(value.getIdentifier()));
         }
     }
 
@@ -494,7 +677,7 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
         if (procedure.isSetIdentifications()) {
             for (SmlIdentifier identifier : procedure.getIdentifications()) {
                 if (isIdentificationProcedureIdentifier(identifier)) {
-                    identifier.setValue(checkProcedureIdentifier(identifier.getValue()));
+                    identifier.setValue(lookupProcedureIdentifier(identifier.getValue()));
                 }
             }
         }
@@ -503,21 +686,21 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
                 if (SensorMLConstants.ELEMENT_NAME_OFFERINGS.equals(capabilities.getName())) {
                     for (SweField field : capabilities.getDataRecord().getFields()) {
                         if (field.getElement() instanceof SweText) {
-                            ((SweText) field.getElement()).setValue(checkOfferingIdentifier(((SweText) field
+                            ((SweText) field.getElement()).setValue(lookupOfferingIdentifier(((SweText) field
                                     .getElement()).getValue()));
                         }
                     }
                 } else if (SensorMLConstants.ELEMENT_NAME_PARENT_PROCEDURES.equals(capabilities.getName())) {
                     for (SweField field : capabilities.getDataRecord().getFields()) {
                         if (field.getElement() instanceof SweText) {
-                            ((SweText) field.getElement()).setValue(checkProcedureIdentifier(((SweText) field
+                            ((SweText) field.getElement()).setValue(lookupProcedureIdentifier(((SweText) field
                                     .getElement()).getValue()));
                         }
                     }
                 } else if (SensorMLConstants.ELEMENT_NAME_FEATURES_OF_INTEREST.equals(capabilities.getName())) {
                     for (SweField field : capabilities.getDataRecord().getFields()) {
                         if (field.getElement() instanceof SweText) {
-                            ((SweText) field.getElement()).setValue(checkFeatureOfInterestIdentifier(((SweText) field
+                            ((SweText) field.getElement()).setValue(lookupFeatureOfInterestIdentifier(((SweText) field
                                     .getElement()).getValue()));
                         }
                     }
@@ -552,7 +735,7 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     private List<String> checkOfferingParameterValues(Collection<String> requestedParameterValues) {
         List<String> checkedParameterValues = Lists.newArrayListWithCapacity(requestedParameterValues.size());
         for (String parameterValue : requestedParameterValues) {
-            checkedParameterValues.add(checkOfferingParameterValue(parameterValue));
+            checkedParameterValues.add(lookupOfferingParameterValue(parameterValue));
         }
         return checkedParameterValues;
     }
@@ -560,7 +743,7 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     private List<String> checkFeatureOfInterestParameterValues(Collection<String> requestedParameterValues) {
         List<String> checkedParameterValues = Lists.newArrayListWithCapacity(requestedParameterValues.size());
         for (String parameterValue : requestedParameterValues) {
-            checkedParameterValues.add(checkFeatureOfInterestParameterValue(parameterValue));
+            checkedParameterValues.add(lookupFeatureOfInterestParameterValue(parameterValue));
         }
         return checkedParameterValues;
     }
@@ -568,7 +751,7 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     private List<String> checkObservablePropertyParameterValues(Collection<String> requestedParameterValues) {
         List<String> checkedParameterValues = Lists.newArrayListWithCapacity(requestedParameterValues.size());
         for (String parameterValue : requestedParameterValues) {
-            checkedParameterValues.add(checkObservablePropertyParameterValue(parameterValue));
+            checkedParameterValues.add(lookupObservablePropertyParameterValue(parameterValue));
         }
         return checkedParameterValues;
     }
@@ -576,39 +759,39 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     private List<String> checkProcedureParameterValues(Collection<String> requestedParameterValues) {
         List<String> checkedParameterValues = Lists.newArrayListWithCapacity(requestedParameterValues.size());
         for (String parameterValue : requestedParameterValues) {
-            checkedParameterValues.add(checkProcedureParameterValue(parameterValue));
+            checkedParameterValues.add(lookupProcedureParameterValue(parameterValue));
         }
         return checkedParameterValues;
     }
     
-    private Collection<String> checkFeatureOfInterestIdentifier(Collection<String> identifiers) {
+    private Collection<String> lookupFeatureOfInterestIdentifier(Collection<String> identifiers) {
         List<String> checkedIdentifiers = Lists.newArrayListWithCapacity(identifiers.size());
         for (String identifier : identifiers) {
-            checkedIdentifiers.add(checkFeatureOfInterestIdentifier(identifier));
+            checkedIdentifiers.add(lookupFeatureOfInterestIdentifier(identifier));
         }
         return checkedIdentifiers;
     }
     
-    private Collection<String> checkObservablePropertyIdentifier(SortedSet<String> identifiers) {
+    private Collection<String> lookupObservablePropertyIdentifier(SortedSet<String> identifiers) {
         List<String> checkedIdentifiers = Lists.newArrayListWithCapacity(identifiers.size());
         for (String identifier : identifiers) {
-            checkedIdentifiers.add(checkObservablePropertyIdentifier(identifier));
+            checkedIdentifiers.add(lookupObservablePropertyIdentifier(identifier));
         }
         return checkedIdentifiers;
     }
     
-    private Collection<String> checkProcedureIdentifier(Set<String> identifiers) {
+    private Collection<String> lookupProcedureIdentifier(Set<String> identifiers) {
         List<String> checkedIdentifiers = Lists.newArrayListWithCapacity(identifiers.size());
         for (String identifier : identifiers) {
-            checkedIdentifiers.add(checkProcedureIdentifier(identifier));
+            checkedIdentifiers.add(lookupProcedureIdentifier(identifier));
         }
         return checkedIdentifiers;
     }
 
-    private Collection<String> checkProcedureIdentifier(SortedSet<String> identifiers) {
+    private Collection<String> lookupProcedureIdentifier(SortedSet<String> identifiers) {
         List<String> checkedIdentifiers = Lists.newArrayListWithCapacity(identifiers.size());
         for (String identifier : identifiers) {
-            checkedIdentifiers.add(checkProcedureIdentifier(identifier));
+            checkedIdentifiers.add(lookupProcedureIdentifier(identifier));
         }
         return checkedIdentifiers;
     }
@@ -625,5 +808,50 @@ public abstract class AbstractIdentifierModifier implements RequestResponseModif
     public RequestResponseModifierFacilitator getFacilitator() {
         return new RequestResponseModifierFacilitator().setAdderRemover(true);
     }
-    
+
+    /**
+     * {@link StreamingFeatureCollection} that changes the identifier of each
+     * feature of the wrapped collection when it is read
+     */
+    private class IdentifierModifyingFeatureCollection extends StreamingFeatureCollection {
+
+        private static final long serialVersionUID = -4795402925315712869L;
+
+        private final StreamingFeatureCollection features;
+
+        IdentifierModifyingFeatureCollection(StreamingFeatureCollection features) {
+            this.features = features;
+        }
+
+        @Override
+        public boolean hasNextFeature() throws OwsExceptionReport {
+            return features.hasNextFeature();
+        }
+
+        @Override
+        public AbstractFeature nextFeature() throws OwsExceptionReport {
+            AbstractFeature feature = features.nextFeature();
+            if (feature != null) {
+                checkAndChangeFeatureOfInterestIdentifier(feature);
+            }
+            return feature;
+        }
+
+        @Override
+        public void add(AdditionalRequestParams parameter, Object object) {
+            // e.g. the crs is applied by the wrapped collection
+            features.add(parameter, object);
+        }
+
+        @Override
+        public boolean contains(AdditionalRequestParams parameter) {
+            return features.contains(parameter);
+        }
+
+        @Override
+        public boolean isSetAdditionalRequestParams() {
+            return features.isSetAdditionalRequestParams();
+        }
+    }
+
 }
@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.convert;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.joda.time.DateTime;
+import org.n52.sos.cache.ContentCache;
+
+import com.google.common.base.Objects;
+
+/**
+ * Forward (stored to response) and reverse (request to stored) identifier
+ * maps of an {@link AbstractIdentifierModifier}. The maps are precomputed from
+ * the identifiers in the {@link ContentCache} and extended on first use with
+ * identifiers that were added to the cache afterwards, e.g. by an insertion.
+ * Identifiers that are unknown to the cache are never added, so the maps are
+ * bounded by the cache content.
+ *
+ * @since 4.4.0
+ */
+public class IdentifierMappings {
+
+    private final ContentCache cache;
+
+    private final DateTime cacheUpdateTime;
+
+    private final Object state;
+
+    private final Mapping offerings = new Mapping();
+
+    private final Mapping procedures = new Mapping();
+
+    private final Mapping featuresOfInterest = new Mapping();
+
+    private final Mapping observableProperties = new Mapping();
+
+    /**
+     * Create the mappings for the identifiers of the cache.
+     *
+     * @param cache
+     *            the content cache
+     * @param cacheDependent
+     *            if the mappings have to be recreated after cache updates
+     * @param state
+     *            the modifier settings the mappings are valid for
+     */
+    IdentifierMappings(ContentCache cache, boolean cacheDependent, Object state) {
+        this.cache = cache;
+        this.cacheUpdateTime = cacheDependent ? cache.getLastUpdateTime() : null;
+        this.state = state;
+    }
+
+    /**
+     * @param cache
+     *            the current content cache
+     * @param cacheDependent
+     *            if the mappings have to be recreated after cache updates
+     * @param state
+     *            the current modifier settings
+     * @return if these mappings are still valid
+     */
+    boolean isValidFor(ContentCache cache, boolean cacheDependent, Object state) {
+        return this.cache == cache && Objects.equal(this.state, state)
+                && (!cacheDependent || Objects.equal(this.cacheUpdateTime, cache.getLastUpdateTime()));
+    }
+
+    Mapping getOfferings() {
+        return offerings;
+    }
+
+    Mapping getProcedures() {
+        return procedures;
+    }
+
+    Mapping getFeaturesOfInterest() {
+        return featuresOfInterest;
+    }
+
+    Mapping getObservableProperties() {
+        return observableProperties;
+    }
+
+    /**
+     * Forward and reverse map for one identifier type. The reverse map only
+     * contains identifiers that are changed by the modifier.
+     */
+    static class Mapping {
+        private final Map<String, String> forward = new ConcurrentHashMap<>();
+
+        private final Map<String, String> reverse = new ConcurrentHashMap<>();
+
+        String getModified(String identifier) {
+            return forward.get(identifier);
+        }
+
+        String getOriginal(String modified) {
+            return reverse.get(modified);
+        }
+
+        void put(String identifier, String modified) {
+            if (identifier != null && modified != null) {
+                forward.put(identifier, modified);
+                if (!identifier.equals(modified)) {
+                    reverse.put(modified, identifier);
+                }
+            }
+        }
+
+        void putAll(Collection<String> identifiers, Modification modification) {
+            for (String identifier : identifiers) {
+                put(identifier, modification.modify(identifier));
+            }
+        }
+    }
+
+    /**
+     * Modification of a single identifier.
+     */
+    interface Modification {
+        String modify(String identifier);
+
+        /**
+         * @param identifier
+         *            the stored identifier
+         * @return if the identifier is contained in the cache and its
+         *         modification may be memoized
+         */
+        boolean isKnown(String identifier);
+    }
+}
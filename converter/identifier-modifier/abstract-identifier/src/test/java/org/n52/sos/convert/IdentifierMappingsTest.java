@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.convert;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.convert.IdentifierMappings.Mapping;
+import org.n52.sos.convert.IdentifierMappings.Modification;
+
+/**
+ * @since 4.4.0
+ */
+public class IdentifierMappingsTest {
+
+    private static final String PREFIX = "http://www.example.org/";
+
+    private ContentCache cache;
+
+    private Modification prefix;
+
+    @Before
+    public void setUp() {
+        cache = mock(ContentCache.class);
+        when(cache.getLastUpdateTime()).thenReturn(new DateTime(0));
+        prefix = new Modification() {
+            @Override
+            public String modify(String identifier) {
+                return PREFIX + identifier;
+            }
+
+            @Override
+            public boolean isKnown(String identifier) {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void shouldMapForwardAndReverse() {
+        Mapping mapping = new Mapping();
+        mapping.putAll(Arrays.asList("a", "b"), prefix);
+        assertThat(mapping.getModified("a"), is(PREFIX + "a"));
+        assertThat(mapping.getModified("b"), is(PREFIX + "b"));
+        assertThat(mapping.getOriginal(mapping.getModified("a")), is("a"));
+        assertThat(mapping.getOriginal(mapping.getModified("b")), is("b"));
+        assertThat(mapping.getModified("c"), is(nullValue()));
+        assertThat(mapping.getOriginal("a"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotMapUnchangedIdentifiersInReverse() {
+        Mapping mapping = new Mapping();
+        mapping.put("a", "a");
+        assertThat(mapping.getModified("a"), is("a"));
+        assertThat(mapping.getOriginal("a"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldIgnoreNullValues() {
+        Mapping mapping = new Mapping();
+        mapping.put(null, "a");
+        mapping.put("a", null);
+        assertThat(mapping.getModified("a"), is(nullValue()));
+        assertThat(mapping.getOriginal("a"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldBeValidForSameCacheAndState() {
+        IdentifierMappings mappings = new IdentifierMappings(cache, false, "state");
+        assertThat(mappings.isValidFor(cache, false, "state"), is(true));
+        assertThat(mappings.isValidFor(cache, false, "other"), is(false));
+        assertThat(mappings.isValidFor(mock(ContentCache.class), false, "state"), is(false));
+    }
+
+    @Test
+    public void shouldBeInvalidAfterCacheUpdateIfCacheDependent() {
+        IdentifierMappings dependent = new IdentifierMappings(cache, true, null);
+        IdentifierMappings independent = new IdentifierMappings(cache, false, null);
+        when(cache.getLastUpdateTime()).thenReturn(new DateTime(1));
+        assertThat(dependent.isValidFor(cache, true, null), is(false));
+        assertThat(independent.isValidFor(cache, false, null), is(true));
+    }
+}
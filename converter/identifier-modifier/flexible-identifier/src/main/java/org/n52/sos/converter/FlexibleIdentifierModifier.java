@@ -28,6 +28,7 @@
  */
 package org.n52.sos.converter;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -464,7 +465,7 @@ public class FlexibleIdentifierModifier extends AbstractIdentifierModifier {
     protected void checkAndChangeProcedureIdentifier(AbstractFeature abstractFeature) {
         if (getFlexibleIdentifierHelper().isSetIncludeProcedure()) {
             if (!abstractFeature.isSetHumanReadableIdentifier()) {
-                abstractFeature.setHumanReadableIdentifier(checkProcedureIdentifier(abstractFeature.getIdentifier()));
+                abstractFeature.setHumanReadableIdentifier(lookupProcedureIdentifier(abstractFeature.getIdentifier()));
             }
             abstractFeature.setHumanReadableIdentifierAsIdentifier();
         }
@@ -474,7 +475,7 @@ public class FlexibleIdentifierModifier extends AbstractIdentifierModifier {
     protected void checkAndChangeObservablePropertyIdentifier(AbstractFeature abstractFeature) {
         if (getFlexibleIdentifierHelper().isSetIncludeObservableProperty()) {
             if (!abstractFeature.isSetHumanReadableIdentifier()) {
-                abstractFeature.setHumanReadableIdentifier(checkObservablePropertyIdentifier(abstractFeature
+                abstractFeature.setHumanReadableIdentifier(lookupObservablePropertyIdentifier(abstractFeature
                         .getIdentifier()));
             }
             abstractFeature.setHumanReadableIdentifierAsIdentifier();
@@ -485,7 +486,7 @@ public class FlexibleIdentifierModifier extends AbstractIdentifierModifier {
     protected void checkAndChangOfferingIdentifier(SosOffering offering) {
         if (offering != null && getFlexibleIdentifierHelper().isSetIncludeOffering()) {
             if (!offering.isSetHumanReadableIdentifier()) {
-                offering.setHumanReadableIdentifier(checkOfferingIdentifier(offering.getIdentifier()));
+                offering.setHumanReadableIdentifier(lookupOfferingIdentifier(offering.getIdentifier()));
             }
             offering.setHumanReadableIdentifierAsIdentifier();
         }
@@ -493,7 +494,7 @@ public class FlexibleIdentifierModifier extends AbstractIdentifierModifier {
 
     private void checkAndChangeIdentifierOfAbstractFeature(AbstractFeature abstractFeature) {
         if (!abstractFeature.isSetHumanReadableIdentifier()) {
-            abstractFeature.setHumanReadableIdentifier(checkFeatureOfInterestIdentifier(abstractFeature
+            abstractFeature.setHumanReadableIdentifier(lookupFeatureOfInterestIdentifier(abstractFeature
                     .getIdentifier()));
         }
         abstractFeature.setHumanReadableIdentifierAsIdentifier();
@@ -503,6 +504,23 @@ public class FlexibleIdentifierModifier extends AbstractIdentifierModifier {
 
     }
 
+    @Override
+    protected Object getIdentifierMappingState() {
+        return Arrays.asList(getFlexibleIdentifierHelper().isSetIncludeOffering(),
+                getFlexibleIdentifierHelper().isSetIncludeProcedure(),
+                getFlexibleIdentifierHelper().isSetIncludeObservableProperty(),
+                getFlexibleIdentifierHelper().isSetIncludeFeatureOfInterest());
+    }
+
+    /**
+     * The human readable names are stored in the cache, so the identifier
+     * mappings have to be recreated after cache updates.
+     */
+    @Override
+    protected boolean isIdentifierMappingCacheDependent() {
+        return true;
+    }
+
     protected FlexibleIdentifierHelper getFlexibleIdentifierHelper() {
         return FlexibleIdentifierHelper.getInstance();
     }
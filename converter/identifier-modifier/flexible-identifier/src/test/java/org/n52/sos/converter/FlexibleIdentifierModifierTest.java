@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.converter;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.converter.util.FlexibleIdentifierHelper;
+
+import com.google.common.collect.Sets;
+
+/**
+ * @since 4.4.0
+ */
+public class FlexibleIdentifierModifierTest {
+
+    private static final String PROCEDURE = "http://www.example.org/procedure/1";
+
+    private static final String PROCEDURE_NAME = "procedure 1";
+
+    private static final String OFFERING = "http://www.example.org/offering/1";
+
+    private static final String OFFERING_NAME = "offering 1";
+
+    private ContentCache cache;
+
+    private FlexibleIdentifierHelper helper;
+
+    private TestModifier modifier;
+
+    @Before
+    public void setUp() {
+        cache = mock(ContentCache.class);
+        when(cache.getLastUpdateTime()).thenReturn(new DateTime(0));
+        when(cache.getProcedures()).thenReturn(Sets.newHashSet(PROCEDURE));
+        when(cache.getOfferings()).thenReturn(Sets.newHashSet(OFFERING));
+        when(cache.getFeaturesOfInterest()).thenReturn(Collections.<String> emptySet());
+        when(cache.getObservableProperties()).thenReturn(Collections.<String> emptySet());
+        when(cache.hasProcedure(PROCEDURE)).thenReturn(true);
+        when(cache.hasOffering(OFFERING)).thenReturn(true);
+        when(cache.getProcedureHumanReadableNameForIdentifier(PROCEDURE)).thenReturn(PROCEDURE_NAME);
+        when(cache.getOfferingHumanReadableNameForIdentifier(OFFERING)).thenReturn(OFFERING_NAME);
+
+        helper = mock(FlexibleIdentifierHelper.class);
+        when(helper.isSetIncludeProcedure()).thenReturn(true);
+        when(helper.isSetIncludeOffering()).thenReturn(true);
+
+        modifier = new TestModifier();
+    }
+
+    @Test
+    public void shouldRoundTripProcedure() {
+        String modified = modifier.lookupProcedureIdentifier(PROCEDURE);
+        assertThat(modified, is(PROCEDURE_NAME));
+        // resolved from the reverse mapping without asking the cache
+        assertThat(modifier.lookupProcedureParameterValue(modified), is(PROCEDURE));
+    }
+
+    @Test
+    public void shouldRoundTripOffering() {
+        String modified = modifier.lookupOfferingIdentifier(OFFERING);
+        assertThat(modified, is(OFFERING_NAME));
+        assertThat(modifier.lookupOfferingParameterValue(modified), is(OFFERING));
+    }
+
+    @Test
+    public void shouldNotModifyExcludedIdentifiers() {
+        when(helper.isSetIncludeProcedure()).thenReturn(false);
+        assertThat(modifier.lookupProcedureIdentifier(PROCEDURE), is(PROCEDURE));
+    }
+
+    @Test
+    public void shouldRecreateMappingsAfterCacheUpdate() {
+        assertThat(modifier.lookupProcedureIdentifier(PROCEDURE), is(PROCEDURE_NAME));
+        when(cache.getProcedureHumanReadableNameForIdentifier(PROCEDURE)).thenReturn("renamed");
+        when(cache.getLastUpdateTime()).thenReturn(new DateTime(1));
+        assertThat(modifier.lookupProcedureIdentifier(PROCEDURE), is("renamed"));
+        assertThat(modifier.lookupProcedureParameterValue("renamed"), is(PROCEDURE));
+    }
+
+    @Test
+    public void shouldNotMemoizeUnknownIdentifiers() {
+        when(cache.getProcedureHumanReadableNameForIdentifier("unknown")).thenReturn("unknown name");
+        assertThat(modifier.lookupProcedureIdentifier("unknown"), is("unknown name"));
+        // not in the reverse mapping, so the cache lookup is used
+        when(cache.getProcedureIdentifierForHumanReadableName("unknown name")).thenReturn("unknown");
+        assertThat(modifier.lookupProcedureParameterValue("unknown name"), is("unknown"));
+        when(cache.getProcedureIdentifierForHumanReadableName("unknown name")).thenReturn(null);
+        assertThat(modifier.lookupProcedureParameterValue("unknown name"), is((String) null));
+    }
+
+    private class TestModifier extends FlexibleIdentifierModifier {
+        @Override
+        protected ContentCache getCache() {
+            return cache;
+        }
+
+        @Override
+        protected FlexibleIdentifierHelper getFlexibleIdentifierHelper() {
+            return helper;
+        }
+
+        @Override
+        protected String lookupProcedureIdentifier(String identifier) {
+            return super.lookupProcedureIdentifier(identifier);
+        }
+
+        @Override
+        protected String lookupOfferingIdentifier(String identifier) {
+            return super.lookupOfferingIdentifier(identifier);
+        }
+
+        @Override
+        protected String lookupProcedureParameterValue(String parameterValue) {
+            return super.lookupProcedureParameterValue(parameterValue);
+        }
+
+        @Override
+        protected String lookupOfferingParameterValue(String parameterValue) {
+            return super.lookupOfferingParameterValue(parameterValue);
+        }
+    }
+}
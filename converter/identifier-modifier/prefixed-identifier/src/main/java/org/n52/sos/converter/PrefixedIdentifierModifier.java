@@ -28,6 +28,7 @@
  */
 package org.n52.sos.converter;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -230,7 +231,7 @@ public class PrefixedIdentifierModifier extends AbstractIdentifierModifier {
     
     private void checkAndChangeIdentifierOfAbstractFeature(AbstractFeature abstractFeature) {
         if (abstractFeature != null) {
-            abstractFeature.setIdentifier(checkFeatureOfInterestIdentifier(abstractFeature.getIdentifier()));
+            abstractFeature.setIdentifier(lookupFeatureOfInterestIdentifier(abstractFeature.getIdentifier()));
             if (abstractFeature instanceof SamplingFeature
                     && ((SamplingFeature) abstractFeature).isSetXmlDescription()) {
                 ((SamplingFeature) abstractFeature).setXmlDescription(null);
@@ -241,24 +242,32 @@ public class PrefixedIdentifierModifier extends AbstractIdentifierModifier {
     @Override
     protected void checkAndChangeProcedureIdentifier(AbstractFeature abstractFeature) {
         if (abstractFeature != null) {
-            abstractFeature.setIdentifier(checkProcedureIdentifier(abstractFeature.getIdentifier()));
+            abstractFeature.setIdentifier(lookupProcedureIdentifier(abstractFeature.getIdentifier()));
         }
     }
 
     @Override
     protected void checkAndChangeObservablePropertyIdentifier(AbstractFeature abstractFeature) {
         if (abstractFeature != null) {
-            abstractFeature.setIdentifier(checkObservablePropertyIdentifier(abstractFeature.getIdentifier()));
+            abstractFeature.setIdentifier(lookupObservablePropertyIdentifier(abstractFeature.getIdentifier()));
         }
     }
 
     @Override
     protected void checkAndChangOfferingIdentifier(SosOffering offering) {
         if (offering != null) {
-            offering.setIdentifier(checkOfferingIdentifier(offering.getIdentifier()));
+            offering.setIdentifier(lookupOfferingIdentifier(offering.getIdentifier()));
         }
     }
 
+    @Override
+    protected Object getIdentifierMappingState() {
+        return Arrays.asList(getPrefixedIdentifierHelper().getGlobalPrefix(),
+                getPrefixedIdentifierHelper().getOfferingPrefix(), getPrefixedIdentifierHelper().getProcedurePrefix(),
+                getPrefixedIdentifierHelper().getObservablePropertyPrefix(),
+                getPrefixedIdentifierHelper().getFeatureOfInterestPrefix());
+    }
+
     protected PrefixedIdentifierHelper getPrefixedIdentifierHelper() {
         return PrefixedIdentifierHelper.getInstance();
     }
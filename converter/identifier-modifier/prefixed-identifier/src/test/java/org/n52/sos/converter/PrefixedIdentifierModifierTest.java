@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.converter;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.converter.util.PrefixedIdentifierHelper;
+
+import com.google.common.collect.Sets;
+
+/**
+ * @since 4.4.0
+ */
+public class PrefixedIdentifierModifierTest {
+
+    private static final String GLOBAL_PREFIX = "http://www.example.org";
+
+    private static final String PROCEDURE_PREFIX = "procedure_";
+
+    private static final String OFFERING_PREFIX = "offering_";
+
+    private ContentCache cache;
+
+    private PrefixedIdentifierHelper helper;
+
+    private TestModifier modifier;
+
+    @Before
+    public void setUp() {
+        cache = mock(ContentCache.class);
+        when(cache.getProcedures()).thenReturn(Sets.newHashSet("p1", "p2"));
+        when(cache.getOfferings()).thenReturn(Sets.newHashSet("o1"));
+        when(cache.getFeaturesOfInterest()).thenReturn(Sets.newHashSet("f1"));
+        when(cache.getObservableProperties()).thenReturn(Collections.<String> emptySet());
+        when(cache.hasProcedure("p1")).thenReturn(true);
+        when(cache.hasProcedure("p2")).thenReturn(true);
+        when(cache.hasOffering("o1")).thenReturn(true);
+        when(cache.hasFeatureOfInterest("f1")).thenReturn(true);
+
+        helper = mock(PrefixedIdentifierHelper.class);
+        when(helper.getGlobalPrefix()).thenReturn(GLOBAL_PREFIX);
+        when(helper.isSetGlobalPrefix()).thenReturn(true);
+        when(helper.getProcedurePrefix()).thenReturn(PROCEDURE_PREFIX);
+        when(helper.isSetProcedurePrefix()).thenReturn(true);
+        when(helper.getOfferingPrefix()).thenReturn(OFFERING_PREFIX);
+        when(helper.isSetOfferingPrefix()).thenReturn(true);
+
+        modifier = new TestModifier();
+    }
+
+    @Test
+    public void shouldRoundTripProcedure() {
+        String modified = modifier.lookupProcedureIdentifier("p1");
+        assertThat(modified, is(GLOBAL_PREFIX + "/" + PROCEDURE_PREFIX + "p1"));
+        assertThat(modifier.lookupProcedureParameterValue(modified), is("p1"));
+    }
+
+    @Test
+    public void shouldRoundTripOffering() {
+        String modified = modifier.lookupOfferingIdentifier("o1");
+        assertThat(modified, is(GLOBAL_PREFIX + "/" + OFFERING_PREFIX + "o1"));
+        assertThat(modifier.lookupOfferingParameterValue(modified), is("o1"));
+    }
+
+    @Test
+    public void shouldRoundTripFeatureOfInterestWithGlobalPrefixOnly() {
+        String modified = modifier.lookupFeatureOfInterestIdentifier("f1");
+        assertThat(modified, is(GLOBAL_PREFIX + "/f1"));
+        assertThat(modifier.lookupFeatureOfInterestParameterValue(modified), is("f1"));
+    }
+
+    @Test
+    public void shouldRoundTripIdentifierAddedToCacheAfterMappingCreation() {
+        modifier.lookupProcedureIdentifier("p1");
+        when(cache.hasProcedure("p3")).thenReturn(true);
+        String modified = modifier.lookupProcedureIdentifier("p3");
+        assertThat(modified, is(GLOBAL_PREFIX + "/" + PROCEDURE_PREFIX + "p3"));
+        assertThat(modifier.lookupProcedureParameterValue(modified), is("p3"));
+        int modifications = modifier.procedureModifications;
+        modifier.lookupProcedureIdentifier("p3");
+        assertThat(modifier.procedureModifications, is(modifications));
+    }
+
+    @Test
+    public void shouldNotMemoizeUnknownIdentifiers() {
+        modifier.lookupProcedureIdentifier("p1");
+        int modifications = modifier.procedureModifications;
+        String modified = modifier.lookupProcedureIdentifier("unknown");
+        modifier.lookupProcedureIdentifier("unknown");
+        assertThat(modifier.procedureModifications, is(modifications + 2));
+        // the reverse lookup falls back to the parameter value check
+        assertThat(modifier.lookupProcedureParameterValue(modified), is("unknown"));
+    }
+
+    @Test
+    public void shouldRecreateMappingsIfPrefixChanges() {
+        modifier.lookupProcedureIdentifier("p1");
+        when(helper.getProcedurePrefix()).thenReturn("sensor_");
+        String modified = modifier.lookupProcedureIdentifier("p1");
+        assertThat(modified, is(GLOBAL_PREFIX + "/sensor_p1"));
+        assertThat(modifier.lookupProcedureParameterValue(modified), is("p1"));
+    }
+
+    private class TestModifier extends PrefixedIdentifierModifier {
+        private int procedureModifications;
+
+        @Override
+        protected ContentCache getCache() {
+            return cache;
+        }
+
+        @Override
+        protected PrefixedIdentifierHelper getPrefixedIdentifierHelper() {
+            return helper;
+        }
+
+        @Override
+        protected String checkProcedureIdentifier(String identifier) {
+            procedureModifications++;
+            return super.checkProcedureIdentifier(identifier);
+        }
+
+        @Override
+        protected String lookupProcedureIdentifier(String identifier) {
+            return super.lookupProcedureIdentifier(identifier);
+        }
+
+        @Override
+        protected String lookupOfferingIdentifier(String identifier) {
+            return super.lookupOfferingIdentifier(identifier);
+        }
+
+        @Override
+        protected String lookupFeatureOfInterestIdentifier(String identifier) {
+            return super.lookupFeatureOfInterestIdentifier(identifier);
+        }
+
+        @Override
+        protected String lookupProcedureParameterValue(String parameterValue) {
+            return super.lookupProcedureParameterValue(parameterValue);
+        }
+
+        @Override
+        protected String lookupOfferingParameterValue(String parameterValue) {
+            return super.lookupOfferingParameterValue(parameterValue);
+        }
+
+        @Override
+        protected String lookupFeatureOfInterestParameterValue(String parameterValue) {
+            return super.lookupFeatureOfInterestParameterValue(parameterValue);
+        }
+    }
+}
@@ -47,6 +47,7 @@ import org.n52.sos.ogc.om.AbstractStreaming;
 import org.n52.sos.ogc.om.NamedValue;
 import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.om.features.FeatureCollection;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
 import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
 import org.n52.sos.ogc.ows.OWSConstants;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -911,7 +912,9 @@ public class CoordianteTransformator implements
      */
     private void processAbstractFeature(AbstractFeature feature, int targetCRS) throws OwsExceptionReport {
         if (feature != null) {
-            if (feature instanceof FeatureCollection) {
+            if (feature instanceof StreamingFeatureCollection) {
+                ((StreamingFeatureCollection) feature).add(OWSConstants.AdditionalRequestParams.crs, targetCRS);
+            } else if (feature instanceof FeatureCollection) {
                 FeatureCollection featureCollection = (FeatureCollection) feature;
                 for (AbstractFeature abstractFeature : featureCollection.getMembers().values()) {
                     if (abstractFeature instanceof SamplingFeature) {
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.aggregation;
+
+/**
+ * Value of an aggregation interval or a single downsampled value.
+ *
+ * @since 4.4.0
+ */
+public class AggregatedValue {
+
+    private final long start;
+
+    private final long end;
+
+    private final double value;
+
+    private final long count;
+
+    /**
+     * @param start
+     *            start of the interval in milliseconds since the epoch
+     * @param end
+     *            end of the interval in milliseconds since the epoch, equal to
+     *            <code>start</code> for a single value
+     * @param value
+     *            the aggregated value
+     * @param count
+     *            number of values the aggregated value is computed from
+     */
+    public AggregatedValue(long start, long end, double value, long count) {
+        this.start = start;
+        this.end = end;
+        this.value = value;
+        this.count = count;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return <code>true</code> if the value is a single value at an instant
+     */
+    public boolean isInstant() {
+        return start == end;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AggregatedValue [start=%s, end=%s, value=%s, count=%s]", start, end, value, count);
+    }
+}
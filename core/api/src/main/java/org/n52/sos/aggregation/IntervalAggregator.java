@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.aggregation;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Aggregates values into intervals of fixed length that are aligned to the
+ * epoch. Only the accumulator of the current interval is held, the values
+ * themselves are not retained.
+ *
+ * @since 4.4.0
+ */
+public class IntervalAggregator implements ValueAggregator {
+
+    private final AggregationFunction function;
+
+    private final long interval;
+
+    private final List<AggregatedValue> values = new LinkedList<>();
+
+    private boolean inInterval;
+
+    private long intervalStart;
+
+    private long count;
+
+    private double min;
+
+    private double max;
+
+    private double sum;
+
+    private double first;
+
+    private double last;
+
+    /**
+     * @param function
+     *            the aggregation function
+     * @param interval
+     *            length of the intervals in milliseconds
+     */
+    public IntervalAggregator(AggregationFunction function, long interval) {
+        if (function == null) {
+            throw new NullPointerException("function");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval has to be positive");
+        }
+        this.function = function;
+        this.interval = interval;
+    }
+
+    @Override
+    public void add(long time, double value) {
+        long start = getIntervalStart(time, interval);
+        if (!inInterval || start != intervalStart) {
+            finishInterval();
+            inInterval = true;
+            intervalStart = start;
+            count = 0;
+            min = value;
+            max = value;
+            sum = 0;
+            first = value;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        last = value;
+    }
+
+    @Override
+    public List<AggregatedValue> getValues() {
+        finishInterval();
+        return values;
+    }
+
+    private void finishInterval() {
+        if (inInterval) {
+            values.add(new AggregatedValue(intervalStart, intervalStart + interval, getAggregatedValue(), count));
+            inInterval = false;
+        }
+    }
+
+    private double getAggregatedValue() {
+        switch (function) {
+        case min:
+            return min;
+        case max:
+            return max;
+        case avg:
+            return sum / count;
+        case count:
+            return count;
+        case first:
+            return first;
+        case last:
+            return last;
+        default:
+            throw new IllegalStateException("Unsupported aggregation function " + function);
+        }
+    }
+
+    /**
+     * Get the start of the interval containing the time.
+     *
+     * @param time
+     *            time in milliseconds since the epoch
+     * @param interval
+     *            length of the intervals in milliseconds
+     * @return start of the interval in milliseconds since the epoch
+     */
+    public static long getIntervalStart(long time, long interval) {
+        long index = time / interval;
+        if (time % interval != 0 && time < 0) {
+            index--;
+        }
+        return index * interval;
+    }
+}
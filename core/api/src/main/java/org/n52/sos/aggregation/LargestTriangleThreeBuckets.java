@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.aggregation;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Shape preserving downsampling with the Largest-Triangle-Three-Buckets
+ * algorithm. The first and last values are kept, from each of the buckets in
+ * between the value spanning the largest triangle with the selected value of
+ * the previous bucket and the average of the next bucket is selected.
+ * <p>
+ * The values are collected in primitive arrays, the observations themselves
+ * are not retained.
+ *
+ * @since 4.4.0
+ */
+public class LargestTriangleThreeBuckets implements ValueAggregator {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int threshold;
+
+    private long[] times = new long[INITIAL_CAPACITY];
+
+    private double[] data = new double[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * @param threshold
+     *            maximum number of values to return, at least 3
+     */
+    public LargestTriangleThreeBuckets(int threshold) {
+        if (threshold < 3) {
+            throw new IllegalArgumentException("threshold has to be at least 3");
+        }
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void add(long time, double value) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            data = Arrays.copyOf(data, capacity);
+        }
+        times[size] = time;
+        data[size] = value;
+        size++;
+    }
+
+    @Override
+    public List<AggregatedValue> getValues() {
+        List<AggregatedValue> values = new LinkedList<>();
+        if (size <= threshold) {
+            for (int i = 0; i < size; i++) {
+                values.add(createValue(i));
+            }
+            return values;
+        }
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int selected = 0;
+        values.add(createValue(selected));
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = (int) Math.floor(bucket * bucketSize) + 1;
+            int bucketEnd = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double averageTime = 0;
+            double averageValue = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageTime += times[i];
+                averageValue += data[i];
+            }
+            averageTime /= nextEnd - nextStart;
+            averageValue /= nextEnd - nextStart;
+
+            double selectedTime = times[selected];
+            double selectedValue = data[selected];
+            double maxArea = -1;
+            int maxIndex = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area =
+                        Math.abs((selectedTime - averageTime) * (data[i] - selectedValue)
+                                - (selectedTime - times[i]) * (averageValue - selectedValue));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            selected = maxIndex;
+            values.add(createValue(selected));
+        }
+        values.add(createValue(size - 1));
+        return values;
+    }
+
+    private AggregatedValue createValue(int index) {
+        return new AggregatedValue(times[index], times[index], data[index], 1);
+    }
+}
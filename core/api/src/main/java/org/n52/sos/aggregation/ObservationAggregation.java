@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.aggregation;
+
+import org.joda.time.Period;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.swe.simpleType.SweAbstractSimpleType;
+import org.n52.sos.ogc.swes.SwesExtension;
+import org.n52.sos.ogc.swes.SwesExtensions;
+
+/**
+ * Temporal aggregation or downsampling requested with the
+ * {@link Sos2Constants.Extensions#Aggregation} or
+ * {@link Sos2Constants.Extensions#Downsampling} extension of a GetObservation
+ * request.
+ * <p>
+ * The value of the aggregation extension is the function and the ISO 8601
+ * duration of the intervals separated by a comma, e.g. <code>avg,PT1H</code>.
+ * The value of the downsampling extension is the maximum number of values per
+ * time series, e.g. <code>1000</code>.
+ *
+ * @since 4.4.0
+ */
+public class ObservationAggregation {
+
+    private static final String SEPARATOR = ",";
+
+    private static final int MINIMUM_POINTS = 3;
+
+    private final AggregationFunction function;
+
+    private final long interval;
+
+    private final int points;
+
+    private ObservationAggregation(AggregationFunction function, long interval, int points) {
+        this.function = function;
+        this.interval = interval;
+        this.points = points;
+    }
+
+    /**
+     * Create an aggregation of intervals.
+     *
+     * @param function
+     *            the aggregation function
+     * @param interval
+     *            length of the intervals in milliseconds
+     * @return the aggregation
+     */
+    public static ObservationAggregation aggregate(AggregationFunction function, long interval) {
+        return new ObservationAggregation(function, interval, 0);
+    }
+
+    /**
+     * Create a downsampling.
+     *
+     * @param points
+     *            maximum number of values per time series
+     * @return the downsampling
+     */
+    public static ObservationAggregation downsample(int points) {
+        return new ObservationAggregation(null, 0, points);
+    }
+
+    /**
+     * @return <code>true</code> if this is a downsampling, <code>false</code>
+     *         if this is an aggregation of intervals
+     */
+    public boolean isDownsampling() {
+        return function == null;
+    }
+
+    /**
+     * @return the aggregation function or <code>null</code> for a downsampling
+     */
+    public AggregationFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * @return length of the intervals in milliseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return maximum number of values per time series of a downsampling
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * @return <code>true</code> if the database may compute the aggregation
+     *         with a grouped query
+     */
+    public boolean isGroupable() {
+        return !isDownsampling() && function.isOrderIndependent();
+    }
+
+    /**
+     * @return a new aggregator for the values of one time series
+     */
+    public ValueAggregator createAggregator() {
+        if (isDownsampling()) {
+            return new LargestTriangleThreeBuckets(points);
+        }
+        return new IntervalAggregator(function, interval);
+    }
+
+    @Override
+    public String toString() {
+        if (isDownsampling()) {
+            return String.format("ObservationAggregation [points=%s]", points);
+        }
+        return String.format("ObservationAggregation [function=%s, interval=%s]", function, interval);
+    }
+
+    /**
+     * Get the aggregation requested by the extensions.
+     *
+     * @param extensions
+     *            the request extensions, may be <code>null</code>
+     * @return the aggregation or <code>null</code> if none is requested
+     * @throws OwsExceptionReport
+     *             if a value is invalid or both aggregation and downsampling
+     *             are requested
+     */
+    public static ObservationAggregation fromExtensions(SwesExtensions extensions) throws OwsExceptionReport {
+        if (extensions == null || extensions.isEmpty()) {
+            return null;
+        }
+        String aggregation = getValue(extensions, Sos2Constants.Extensions.Aggregation);
+        String downsampling = getValue(extensions, Sos2Constants.Extensions.Downsampling);
+        if (aggregation != null && downsampling != null) {
+            throw new InvalidParameterValueException(Sos2Constants.Extensions.Downsampling, downsampling)
+                    .withMessage("The extensions '%s' and '%s' can not be combined!",
+                            Sos2Constants.Extensions.Aggregation, Sos2Constants.Extensions.Downsampling);
+        }
+        if (aggregation != null) {
+            return parseAggregation(aggregation);
+        }
+        if (downsampling != null) {
+            return parseDownsampling(downsampling);
+        }
+        return null;
+    }
+
+    private static ObservationAggregation parseAggregation(String value) throws OwsExceptionReport {
+        String[] split = value.split(SEPARATOR);
+        if (split.length == 2) {
+            AggregationFunction function = AggregationFunction.fromName(split[0]);
+            long interval = parseInterval(split[1].trim());
+            if (function != null && interval > 0) {
+                return aggregate(function, interval);
+            }
+        }
+        throw new InvalidParameterValueException(Sos2Constants.Extensions.Aggregation, value);
+    }
+
+    private static long parseInterval(String value) {
+        try {
+            return Period.parse(value).toStandardDuration().getMillis();
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            // months and years have no fixed length
+            return -1;
+        }
+    }
+
+    private static ObservationAggregation parseDownsampling(String value) throws OwsExceptionReport {
+        try {
+            int points = Integer.parseInt(value.trim());
+            if (points >= MINIMUM_POINTS) {
+                return downsample(points);
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+        throw new InvalidParameterValueException(Sos2Constants.Extensions.Downsampling, value);
+    }
+
+    private static String getValue(SwesExtensions extensions, Sos2Constants.Extensions name) {
+        SwesExtension<?> extension = extensions.getExtension(name);
+        if (extension == null || extension.getValue() == null) {
+            return null;
+        }
+        Object value = extension.getValue();
+        if (value instanceof SweAbstractSimpleType) {
+            return ((SweAbstractSimpleType<?>) value).getStringValue();
+        }
+        return value.toString();
+    }
+}
@@ -61,10 +61,15 @@ import org.n52.sos.request.GetCapabilitiesRequest;
 import org.n52.sos.request.RequestContext;
 import org.n52.sos.response.AbstractServiceResponse;
 import org.n52.sos.response.ServiceResponse;
+import org.n52.sos.response.cache.CachedResponse;
+import org.n52.sos.response.cache.ObservationResponseCache;
+import org.n52.sos.response.cache.ObservationResponseCacheKey;
+import org.n52.sos.response.cache.ResponseCapture;
 import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.service.operator.ServiceOperator;
 import org.n52.sos.service.operator.ServiceOperatorKey;
 import org.n52.sos.service.operator.ServiceOperatorRepository;
+import org.n52.sos.util.http.HTTPHeaders;
 import org.n52.sos.util.http.HTTPStatus;
 import org.n52.sos.util.http.HTTPUtils;
 import org.n52.sos.util.http.MediaType;
@@ -81,6 +86,9 @@ import org.slf4j.LoggerFactory;
 public abstract class SimpleBinding extends Binding {
     private static final Logger LOG = LoggerFactory.getLogger(SimpleBinding.class);
     public static final String QUALITY = "q";
+    private static final String WEAK_ENTITY_TAG_PREFIX = "W/";
+    private static final String ANY_ENTITY_TAG = "*";
+    private static final long MILLIS_PER_SECOND = 1000L;
 
     public Object handleOwsExceptionReport(HttpServletRequest request, HttpServletResponse response,
 	        OwsExceptionReport oer) throws HTTPException {
@@ -272,12 +280,88 @@ public abstract class SimpleBinding extends Binding {
 
     protected void writeResponse(HttpServletRequest request, HttpServletResponse response,
             AbstractServiceResponse serviceResponse) throws HTTPException, IOException {
+        writeResponse(request, response, serviceResponse, null);
+    }
+
+    protected void writeResponse(HttpServletRequest request, HttpServletResponse response,
+            AbstractServiceResponse serviceResponse, ResponseCapture capture) throws HTTPException, IOException {
         MediaType contentType = chooseResponseContentType(serviceResponse, HTTPUtils.getAcceptHeader(request),
                 getDefaultContentType());
         if (!serviceResponse.isSetContentType()) {
             serviceResponse.setContentType(contentType);
         }
-        HTTPUtils.writeObject(request, response, contentType, serviceResponse, this);
+        HTTPUtils.writeObject(request, response, contentType, serviceResponse, this, capture);
+    }
+
+    /**
+     * Pass the request to its {@link ServiceOperator} and write the response.
+     * Responses of GetObservation requests are served from and stored in the
+     * {@link ObservationResponseCache} if it is enabled, and carry an ETag and
+     * a Last-Modified header to answer conditional requests with
+     * <code>304 Not Modified</code>.
+     *
+     * @since 4.4.0
+     */
+    protected void receiveAndWriteResponse(HttpServletRequest request, HttpServletResponse response,
+            AbstractServiceRequest<?> serviceRequest) throws OwsExceptionReport, HTTPException, IOException {
+        ObservationResponseCache cache = ObservationResponseCache.getInstance();
+        ObservationResponseCacheKey key =
+                cache.createKey(serviceRequest, getUrlPattern(), request.getHeader(HTTPHeaders.ACCEPT));
+        if (key == null) {
+            writeResponse(request, response, getServiceOperator(serviceRequest).receiveRequest(serviceRequest));
+            return;
+        }
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            writeCachedResponse(request, response, cached);
+            return;
+        }
+        long generation = cache.getGeneration();
+        AbstractServiceResponse serviceResponse = getServiceOperator(serviceRequest).receiveRequest(serviceRequest);
+        String entityTag = cache.createEntityTag(key);
+        long lastModified = System.currentTimeMillis() / MILLIS_PER_SECOND * MILLIS_PER_SECOND;
+        response.setHeader(HTTPHeaders.ETAG, entityTag);
+        response.setDateHeader(HTTPHeaders.LAST_MODIFIED, lastModified);
+        ResponseCapture capture = new ResponseCapture(cache.getMaximumEntrySize());
+        writeResponse(request, response, serviceResponse, capture);
+        if (capture.isComplete() && response.getStatus() == HTTPStatus.OK.getCode()) {
+            cache.put(key, new CachedResponse(capture.toByteArray(), response.getContentType(), entityTag,
+                    lastModified), generation);
+        }
+    }
+
+    private void writeCachedResponse(HttpServletRequest request, HttpServletResponse response,
+            CachedResponse cached) throws IOException {
+        response.setHeader(HTTPHeaders.ETAG, cached.getEntityTag());
+        response.setDateHeader(HTTPHeaders.LAST_MODIFIED, cached.getLastModified());
+        if (isNotModified(request, cached)) {
+            response.setStatus(HTTPStatus.NOT_MODIFIED.getCode());
+        } else {
+            HTTPUtils.writeBytes(request, response, cached.getContentType(), cached.getContent());
+        }
+    }
+
+    private boolean isNotModified(HttpServletRequest request, CachedResponse cached) {
+        String ifNoneMatch = request.getHeader(HTTPHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.startsWith(WEAK_ENTITY_TAG_PREFIX)) {
+                    trimmed = trimmed.substring(WEAK_ENTITY_TAG_PREFIX.length());
+                }
+                if (trimmed.equals(ANY_ENTITY_TAG) || trimmed.equals(cached.getEntityTag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HTTPHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= cached.getLastModified();
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Ignoring invalid {} header", HTTPHeaders.IF_MODIFIED_SINCE, e);
+            return false;
+        }
     }
 
     protected Object encodeResponse(AbstractServiceResponse response, MediaType contentType) throws OwsExceptionReport {
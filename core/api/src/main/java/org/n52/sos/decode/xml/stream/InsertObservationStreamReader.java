@@ -0,0 +1,354 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.decode.xml.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.request.InsertObservationRequest;
+import org.n52.sos.util.CodingHelper;
+import org.n52.sos.w3c.W3CConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+
+/**
+ * Reads a SOS 2.0 InsertObservation request from a stream without parsing the
+ * whole request into a document. The request parameters and the first
+ * observation are decoded by the registered request decoder, the following
+ * observations are copied to a document of their own and decoded one after
+ * another by the registered observation decoder.
+ *
+ * @since 4.4.0
+ */
+public class InsertObservationStreamReader implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InsertObservationStreamReader.class);
+
+    private static final QName INSERT_OBSERVATION = new QName(Sos2Constants.NS_SOS_20,
+            SosConstants.Operations.InsertObservation.name());
+
+    private static final QName OBSERVATION = new QName(Sos2Constants.NS_SOS_20,
+            Sos2Constants.InsertObservationParams.observation.name());
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final XMLStreamReader reader;
+
+    private Map<String, String> rootNamespaces = Collections.emptyMap();
+
+    private boolean finished;
+
+    public InsertObservationStreamReader(InputStream in, String encoding) throws OwsExceptionReport {
+        try {
+            this.reader = createReader(in, encoding);
+        } catch (XMLStreamException xmlse) {
+            throw createException(xmlse);
+        }
+    }
+
+    /**
+     * Check if the beginning of a request contains the start of a SOS 2.0
+     * InsertObservation request.
+     *
+     * @param head
+     *            the first bytes of the request
+     * @param length
+     *            the number of bytes read
+     * @param encoding
+     *            the character encoding of the request, may be
+     *            <code>null</code>
+     * @return <code>true</code>, if the root element is a SOS 2.0
+     *         InsertObservation
+     */
+    public static boolean isInsertObservation(byte[] head, int length, String encoding) {
+        XMLStreamReader reader = null;
+        try {
+            reader = createReader(new ByteArrayInputStream(head, 0, length), encoding);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    return INSERT_OBSERVATION.equals(reader.getName());
+                }
+            }
+        } catch (XMLStreamException xmlse) {
+            LOGGER.debug("Could not read the root element of the request", xmlse);
+        } finally {
+            close(reader);
+        }
+        return false;
+    }
+
+    /**
+     * Read and decode the request parameters and the first observation.
+     *
+     * @return the request containing the first observation
+     * @throws OwsExceptionReport
+     *             If the request is invalid
+     */
+    public InsertObservationRequest readRequest() throws OwsExceptionReport {
+        try {
+            if (!toNextStartElement() || !INSERT_OBSERVATION.equals(reader.getName())) {
+                throw new NoApplicableCodeException().withMessage("The request is not a SOS 2.0 InsertObservation!");
+            }
+            rootNamespaces = getDeclaredNamespaces();
+            StringWriter xml = new StringWriter();
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(xml);
+            writer.writeStartDocument();
+            writeStartElement(writer, null);
+            boolean observation = false;
+            while (!observation && toNextStartElement()) {
+                observation = OBSERVATION.equals(reader.getName());
+                copyElement(writer, null);
+            }
+            finished = !observation;
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+            Object decoded = CodingHelper.decodeXmlObject(xml.toString());
+            if (decoded instanceof InsertObservationRequest) {
+                return (InsertObservationRequest) decoded;
+            }
+            throw new NoApplicableCodeException().withMessage("The request could not be decoded to an %s request!",
+                    SosConstants.Operations.InsertObservation.name());
+        } catch (XMLStreamException xmlse) {
+            throw createException(xmlse);
+        }
+    }
+
+    /**
+     * Read and decode the next observation of the request.
+     *
+     * @return the next observation or <code>null</code> if all observations
+     *         are read
+     * @throws OwsExceptionReport
+     *             If the observation is invalid
+     */
+    public OmObservation nextObservation() throws OwsExceptionReport {
+        try {
+            while (!finished && toNextStartElement()) {
+                if (!OBSERVATION.equals(reader.getName())) {
+                    LOGGER.warn("Ignoring element {} of the InsertObservation request", reader.getName());
+                    skipElement();
+                    continue;
+                }
+                Map<String, String> namespaces = new LinkedHashMap<String, String>(rootNamespaces);
+                namespaces.putAll(getDeclaredNamespaces());
+                if (!namespaces.containsKey(W3CConstants.NS_XS_PREFIX)) {
+                    // decoders expect the XML schema prefix for xsi:type values
+                    namespaces.put(W3CConstants.NS_XS_PREFIX, W3CConstants.NS_XS);
+                }
+                if (toNextStartElement()) {
+                    QName name = reader.getName();
+                    StringWriter xml = new StringWriter();
+                    XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(xml);
+                    writer.writeStartDocument();
+                    copyElement(writer, namespaces);
+                    writer.writeEndDocument();
+                    writer.close();
+                    // move to the end of the sos:observation element
+                    while (toNextStartElement()) {
+                        skipElement();
+                    }
+                    return decodeObservation(xml.toString(), name);
+                }
+            }
+            finished = true;
+            return null;
+        } catch (XMLStreamException xmlse) {
+            throw createException(xmlse);
+        }
+    }
+
+    @Override
+    public void close() {
+        close(reader);
+    }
+
+    private OmObservation decodeObservation(String xml, QName name) throws OwsExceptionReport {
+        Object decoded = CodingHelper.decodeXmlObject(xml);
+        if (decoded instanceof OmObservation) {
+            return (OmObservation) decoded;
+        }
+        throw new InvalidParameterValueException().at(Sos2Constants.InsertObservationParams.observation)
+                .withMessage("The requested observation type (%s) is not supported by this server!", name);
+    }
+
+    /**
+     * Move to the next start element that is a child of the current element.
+     *
+     * @return <code>false</code> if the end of the current element is reached
+     */
+    private boolean toNextStartElement() throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                ++depth;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                --depth;
+            }
+        }
+    }
+
+    /**
+     * Copy the current element including its content.
+     *
+     * @param writer
+     *            the writer to copy to
+     * @param namespaces
+     *            additional namespace declarations of the copied element, may
+     *            be <code>null</code>
+     */
+    private void copyElement(XMLStreamWriter writer, Map<String, String> namespaces) throws XMLStreamException {
+        int depth = 0;
+        while (true) {
+            switch (reader.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT:
+                writeStartElement(writer, depth == 0 ? namespaces : null);
+                ++depth;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                writer.writeEndElement();
+                if (--depth == 0) {
+                    return;
+                }
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+                writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                break;
+            case XMLStreamConstants.CDATA:
+                writer.writeCData(reader.getText());
+                break;
+            default:
+                break;
+            }
+            reader.next();
+        }
+    }
+
+    private void writeStartElement(XMLStreamWriter writer, Map<String, String> namespaces)
+            throws XMLStreamException {
+        writer.writeStartElement(Strings.nullToEmpty(reader.getPrefix()), reader.getLocalName(),
+                Strings.nullToEmpty(reader.getNamespaceURI()));
+        Map<String, String> declarations = new LinkedHashMap<String, String>();
+        if (namespaces != null) {
+            declarations.putAll(namespaces);
+        }
+        declarations.putAll(getDeclaredNamespaces());
+        for (Map.Entry<String, String> declaration : declarations.entrySet()) {
+            if (declaration.getKey().isEmpty()) {
+                writer.writeDefaultNamespace(declaration.getValue());
+            } else {
+                writer.writeNamespace(declaration.getKey(), declaration.getValue());
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); ++i) {
+            String namespace = reader.getAttributeNamespace(i);
+            if (Strings.isNullOrEmpty(namespace)) {
+                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                writer.writeAttribute(Strings.nullToEmpty(reader.getAttributePrefix(i)), namespace,
+                        reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    private Map<String, String> getDeclaredNamespaces() {
+        Map<String, String> namespaces = new LinkedHashMap<String, String>(reader.getNamespaceCount());
+        for (int i = 0; i < reader.getNamespaceCount(); ++i) {
+            namespaces.put(Strings.nullToEmpty(reader.getNamespacePrefix(i)),
+                    Strings.nullToEmpty(reader.getNamespaceURI(i)));
+        }
+        return namespaces;
+    }
+
+    private static XMLStreamReader createReader(InputStream in, String encoding) throws XMLStreamException {
+        if (Strings.isNullOrEmpty(encoding)) {
+            return INPUT_FACTORY.createXMLStreamReader(in);
+        }
+        return INPUT_FACTORY.createXMLStreamReader(in, encoding);
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException xmlse) {
+                LOGGER.debug("Error while closing the XML stream reader", xmlse);
+            }
+        }
+    }
+
+    private static OwsExceptionReport createException(XMLStreamException xmlse) {
+        return new NoApplicableCodeException().causedBy(xmlse).withMessage(
+                "An xml error occured when parsing the request! Message: %s", xmlse.getMessage());
+    }
+}
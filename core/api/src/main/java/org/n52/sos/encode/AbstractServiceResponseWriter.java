@@ -34,6 +34,8 @@ import java.io.OutputStream;
 import org.n52.sos.encode.streaming.StreamingDataEncoder;
 import org.n52.sos.encode.streaming.StreamingEncoder;
 import org.n52.sos.exception.ows.concrete.NoEncoderForKeyException;
+import org.n52.sos.metrics.RequestMetrics;
+import org.n52.sos.metrics.RequestPhase;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.request.ResponseFormat;
 import org.n52.sos.response.AbstractOperationResponse;
@@ -56,22 +58,44 @@ public class AbstractServiceResponseWriter extends AbstractResponseWriter<Abstra
             throws IOException, OwsExceptionReport {
         Encoder<Object, AbstractServiceResponse> encoder = getEncoder(asr);
         if (encoder != null) {
+            if (RequestMetrics.isEnabled()) {
+                MediaType contentType = getEncodedContentType(asr);
+                if (contentType != null) {
+                    RequestMetrics.setResponseFormat(contentType.withoutParameters().toString());
+                }
+            }
             if (isStreaming(asr)) {
-                ((StreamingEncoder<?, AbstractServiceResponse>) encoder).encode(asr, out);
+                long start = RequestMetrics.startPhase(RequestPhase.ENCODE);
+                try {
+                    ((StreamingEncoder<?, AbstractServiceResponse>) encoder).encode(asr, out);
+                } finally {
+                    RequestMetrics.stopPhase(RequestPhase.ENCODE, start);
+                }
             } else {
-                if (asr instanceof StreamingDataResponse && ((StreamingDataResponse) asr).hasStreamingData()
-                        && !(encoder instanceof StreamingDataEncoder)) {
-                    ((StreamingDataResponse) asr).mergeStreamingData();
+                long start = RequestMetrics.startPhase(RequestPhase.ENCODE);
+                Object encode;
+                try {
+                    if (asr instanceof StreamingDataResponse && ((StreamingDataResponse) asr).hasStreamingData()
+                            && !(encoder instanceof StreamingDataEncoder)) {
+                        ((StreamingDataResponse) asr).mergeStreamingData();
+                    }
+                    encode = encoder.encode(asr);
+                } finally {
+                    RequestMetrics.stopPhase(RequestPhase.ENCODE, start);
                 }
                 // use encoded Object specific writer, e.g. XmlResponseWriter
-                Object encode = encoder.encode(asr);
                 if (encode != null) {
                     ResponseWriter<Object> writer =
                             ResponseWriterRepository.getInstance().getWriter(encode.getClass());
                     if (writer == null) {
                         throw new RuntimeException("no writer for " + encode.getClass() + " found!");
                     }
-                    writer.write(encode, out, responseProxy);
+                    start = RequestMetrics.startPhase(RequestPhase.WRITE);
+                    try {
+                        writer.write(encode, out, responseProxy);
+                    } finally {
+                        RequestMetrics.stopPhase(RequestPhase.WRITE, start);
+                    }
                 }
             }
         }
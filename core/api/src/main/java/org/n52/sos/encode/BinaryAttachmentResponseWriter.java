@@ -28,8 +28,13 @@
  */
 package org.n52.sos.encode;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.zip.GZIPOutputStream;
 
 import org.n52.sos.response.BinaryAttachmentResponse;
@@ -59,23 +64,51 @@ public class BinaryAttachmentResponseWriter extends AbstractResponseWriter<Binar
 
     @Override
     public void write(BinaryAttachmentResponse binaryAttachmentResponse, OutputStream out, ResponseProxy responseProxy) throws IOException {
-        if (!(out instanceof GZIPOutputStream)) {
-            responseProxy.setContentLength(binaryAttachmentResponse.getBytes().length);
-        }
+        try {
+            if (!(out instanceof GZIPOutputStream)) {
+                responseProxy.setContentLength(binaryAttachmentResponse.getSize());
+            }
 
-        //binary
-        responseProxy.addHeader(HeaderCode.CONTENT_TRANSFER_ENCODING, HeaderCode.CONTENT_TRANSFER_ENCODING_BINARY);
+            //binary
+            responseProxy.addHeader(HeaderCode.CONTENT_TRANSFER_ENCODING, HeaderCode.CONTENT_TRANSFER_ENCODING_BINARY);
 
-        if (binaryAttachmentResponse != null) {
             //filename
             if (!Strings.isNullOrEmpty(binaryAttachmentResponse.getFilename())) {
                 responseProxy.addHeader(HeaderCode.CONTENT_DISPOSITION, String.format(
                         HeaderCode.CONTENT_ATTACHMENT_FILENAME_FORMAT, binaryAttachmentResponse.getFilename()));
             }
+
+            //write output now that headers and content length are in place
+            if (binaryAttachmentResponse.isSetFile()) {
+                transfer(binaryAttachmentResponse.getFile(), out);
+            } else {
+                out.write(binaryAttachmentResponse.getBytes());
+            }
+        } finally {
+            binaryAttachmentResponse.delete();
         }
+    }
 
-        //write output now that headers and content length are in place
-        out.write(binaryAttachmentResponse.getBytes());
+    /**
+     * Copy the file to the output stream without loading it into the heap.
+     * 
+     * @param file
+     *            the file to copy
+     * @param out
+     *            the stream to write to
+     * @throws IOException
+     *             If an error occurs
+     */
+    private void transfer(File file, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileInputStream in = new FileInputStream(file); FileChannel source = in.getChannel()) {
+            long position = 0;
+            long size = source.size();
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+        }
+        out.flush();
     }
 
     @Override
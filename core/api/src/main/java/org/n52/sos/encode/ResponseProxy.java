@@ -32,6 +32,8 @@ import java.io.IOException;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.n52.sos.util.http.HTTPHeaders;
+
 /**
  * Proxy class for HttpServletResponse to give ResponseWriters access to selected methods,
  * including addHeader and setContentLength.
@@ -57,4 +59,12 @@ public class ResponseProxy {
     public void setContentLength(int contentLength) {
         response.setContentLength(contentLength);
     }
+
+    public void setContentLength(long contentLength) {
+        if (contentLength <= Integer.MAX_VALUE) {
+            response.setContentLength((int) contentLength);
+        } else {
+            response.setHeader(HTTPHeaders.CONTENT_LENGTH, Long.toString(contentLength));
+        }
+    }
 }
@@ -29,15 +29,25 @@
 package org.n52.sos.encode;
 
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
 import org.n52.sos.util.Constants;
+import org.n52.sos.util.XmlOptionsHelper;
 import org.n52.sos.w3c.W3CConstants;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.DefaultHandler2;
+import org.xml.sax.helpers.NamespaceSupport;
 
 import com.google.common.xml.XmlEscapers;
 
@@ -52,6 +62,8 @@ public abstract class XmlStreamWriter<S> extends XmlWriter<XMLStreamWriter, S> {
 
     private final Map<String, String> prefixes = new HashMap<>();
 
+    private static final String XMLNS = XMLConstants.XMLNS_ATTRIBUTE;
+
     private XMLStreamWriter w;
 
     @Override
@@ -158,4 +170,152 @@ public abstract class XmlStreamWriter<S> extends XmlWriter<XMLStreamWriter, S> {
         getXmlWriter().flush();
     }
 
+    /**
+     * Write {@link XmlObject} event by event to the {@link XMLStreamWriter}
+     * instead of serializing it to a string first.
+     *
+     * @param xmlObject
+     *            {@link XmlObject} to write
+     * @param prefixes
+     *            Prefixes to use by namespace, replacing the prefixes
+     *            generated while saving the {@link XmlObject}
+     * @throws XMLStreamException
+     *             If an error occurs when writing to {@link OutputStream}
+     */
+    protected void writeXmlObject(XmlObject xmlObject, Map<String, String> prefixes) throws XMLStreamException {
+        if (xmlObject != null) {
+            XmlObjectHandler handler = new XmlObjectHandler(prefixes);
+            try {
+                xmlObject.save(handler, handler, getXmlOptions());
+            } catch (SAXException saxe) {
+                if (saxe.getException() instanceof XMLStreamException) {
+                    throw (XMLStreamException) saxe.getException();
+                }
+                throw new XMLStreamException(saxe);
+            }
+        }
+    }
+
+    /**
+     * @return the {@link XmlOptions} to save {@link XmlObject}s with
+     */
+    protected XmlOptions getXmlOptions() {
+        return XmlOptionsHelper.getInstance().getXmlOptions();
+    }
+
+    /**
+     * SAX handler passing the events of a saved {@link XmlObject} to the
+     * {@link XMLStreamWriter}.
+     */
+    private class XmlObjectHandler extends DefaultHandler2 {
+        private final Map<String, String> prefixes;
+
+        private final NamespaceSupport namespaces = new NamespaceSupport();
+
+        private final Map<String, String> declarations = new LinkedHashMap<>();
+
+        private boolean contextPushed;
+
+        XmlObjectHandler(Map<String, String> prefixes) {
+            this.prefixes = prefixes == null ? Collections.<String, String> emptyMap() : prefixes;
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) {
+            if (!contextPushed) {
+                namespaces.pushContext();
+                contextPushed = true;
+            }
+            namespaces.declarePrefix(prefix, uri);
+            declarations.put(getPrefix(prefix, uri), uri);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+            if (!contextPushed) {
+                namespaces.pushContext();
+            }
+            contextPushed = false;
+            try {
+                XMLStreamWriter writer = getXmlWriter();
+                writer.writeStartElement(getPrefix(getPrefix(qName), uri), localName, uri);
+                for (Map.Entry<String, String> declaration : declarations.entrySet()) {
+                    if (declaration.getKey().isEmpty()) {
+                        writer.writeDefaultNamespace(declaration.getValue());
+                    } else {
+                        writer.writeNamespace(declaration.getKey(), declaration.getValue());
+                    }
+                }
+                declarations.clear();
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    String name = attributes.getQName(i);
+                    if (name.equals(XMLNS) || name.startsWith(XMLNS + ":")) {
+                        continue;
+                    }
+                    String namespace = attributes.getURI(i);
+                    String value = attributes.getValue(i);
+                    if (namespace.isEmpty()) {
+                        writer.writeAttribute(attributes.getLocalName(i), value);
+                    } else {
+                        if (W3CConstants.NS_XSI.equals(namespace)
+                                && W3CConstants.AN_TYPE.equals(attributes.getLocalName(i))) {
+                            value = getTypeValue(value);
+                        }
+                        writer.writeAttribute(getPrefix(getPrefix(name), namespace), namespace,
+                                attributes.getLocalName(i), value);
+                    }
+                }
+            } catch (XMLStreamException xmlse) {
+                throw new SAXException(xmlse);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            namespaces.popContext();
+            try {
+                getXmlWriter().writeEndElement();
+            } catch (XMLStreamException xmlse) {
+                throw new SAXException(xmlse);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            try {
+                // the characters are unescaped, the writer escapes them
+                getXmlWriter().writeCharacters(ch, start, length);
+            } catch (XMLStreamException xmlse) {
+                throw new SAXException(xmlse);
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            characters(ch, start, length);
+        }
+
+        private String getPrefix(String prefix, String namespace) {
+            String replacement = prefixes.get(namespace);
+            return replacement == null ? prefix : replacement;
+        }
+
+        private String getPrefix(String qName) {
+            int index = qName.indexOf(':');
+            return index < 0 ? XMLConstants.DEFAULT_NS_PREFIX : qName.substring(0, index);
+        }
+
+        private String getTypeValue(String value) {
+            int index = value.indexOf(':');
+            if (index > 0) {
+                String namespace = namespaces.getURI(value.substring(0, index));
+                if (namespace != null && prefixes.containsKey(namespace)) {
+                    return prefixes.get(namespace) + value.substring(index);
+                }
+            }
+            return value;
+        }
+    }
+
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.exception;
+
+/**
+ * Thrown if a request can not be processed because the service or the
+ * requested operation is saturated. It is unchecked to pass the bindings and
+ * is answered by the {@link org.n52.sos.service.SosService} with HTTP status
+ * 503 and a <code>Retry-After</code> header.
+ *
+ * @since 4.4.0
+ */
+public class ServiceBusyException extends RuntimeException {
+    private static final long serialVersionUID = 3373916234612004183L;
+
+    private final String operation;
+
+    private final int retryAfter;
+
+    /**
+     * @param operation
+     *            the saturated operation or <code>null</code> if the whole
+     *            service is saturated
+     * @param retryAfter
+     *            the seconds a client should wait before repeating the request
+     */
+    public ServiceBusyException(String operation, int retryAfter) {
+        super(operation == null ? "The service is busy" : String.format(
+                "The concurrency limit of operation %s is reached", operation));
+        this.operation = operation;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
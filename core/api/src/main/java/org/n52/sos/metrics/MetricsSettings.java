@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.metrics;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionGroup;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.BooleanSettingDefinition;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link SettingDefinitionProvider} for the request metrics.
+ *
+ * @since 4.4.0
+ */
+public class MetricsSettings implements SettingDefinitionProvider {
+
+    public static final String METRICS_ENABLED = "service.metrics.enabled";
+
+    public static final SettingDefinitionGroup GROUP = new SettingDefinitionGroup().setTitle("Metrics")
+            .setDescription("Settings to configure the collection of request metrics. The metrics are available "
+                    + "in the Prometheus text format at /admin/metrics.")
+            .setOrder(ORDER_12);
+
+    public static final BooleanSettingDefinition METRICS_ENABLED_DEFINITION = new BooleanSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_0)
+            .setKey(METRICS_ENABLED)
+            .setDefaultValue(false)
+            .setTitle("Collect request metrics")
+            .setDescription("Whether the service should count the requests and record the processing time of the "
+                    + "decoding, operation, modifier, encoding and writing phases per operation, binding and "
+                    + "response format.");
+
+    private static final Set<SettingDefinition<?, ?>> DEFINITIONS = ImmutableSet
+            .<SettingDefinition<?, ?>> of(METRICS_ENABLED_DEFINITION);
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return Collections.unmodifiableSet(DEFINITIONS);
+    }
+
+}
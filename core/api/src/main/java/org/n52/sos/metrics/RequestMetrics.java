@@ -0,0 +1,369 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Collects request counters and per-phase latency histograms by operation,
+ * binding and response format.
+ * <p>
+ * The timing points are static methods that only check a volatile flag if
+ * the metrics are disabled. If enabled, the timings of a request are
+ * collected in a thread local {@link RequestTimer} that is started and
+ * finished by the {@link org.n52.sos.service.SosService}.
+ *
+ * @since 4.4.0
+ */
+@Configurable
+public class RequestMetrics {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String UNKNOWN = "unknown";
+
+    private static final String DURATION = "sos_request_duration_seconds";
+
+    private static final String REQUESTS = "sos_requests_total";
+
+    private static final String RESPONSES = "sos_responses_total";
+
+    private static final String EXCEPTIONS = "sos_exceptions_total";
+
+    private static final List<String> DURATION_LABELS = ImmutableList.of("operation", "binding", "format", "phase");
+
+    private static final List<String> OPERATION_LABELS = ImmutableList.of("service", "version", "operation");
+
+    private static final List<String> EXCEPTION_LABELS = ImmutableList.of("type");
+
+    private static final double NANOS_PER_SECOND = 1000000000d;
+
+    private static final double MILLIS_PER_SECOND = 1000d;
+
+    private static final ThreadLocal<RequestTimer> CURRENT = new ThreadLocal<RequestTimer>();
+
+    private static volatile boolean enabled = false;
+
+    private static volatile RequestMetrics instance = null;
+
+    private final ConcurrentMap<List<String>, LatencyHistogram> durations =
+            new ConcurrentHashMap<List<String>, LatencyHistogram>();
+
+    private final ConcurrentMap<List<String>, AtomicLong> requests = new ConcurrentHashMap<List<String>, AtomicLong>();
+
+    private final ConcurrentMap<List<String>, AtomicLong> responses = new ConcurrentHashMap<List<String>, AtomicLong>();
+
+    private final ConcurrentMap<List<String>, AtomicLong> exceptions =
+            new ConcurrentHashMap<List<String>, AtomicLong>();
+
+    public static synchronized RequestMetrics getInstance() {
+        if (instance == null) {
+            instance = new RequestMetrics();
+            SettingsManager.getInstance().configure(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @return the instance if it is already configured, without
+     *         synchronization
+     */
+    static RequestMetrics getConfiguredInstance() {
+        return instance;
+    }
+
+    /**
+     * @return <code>true</code>, if metrics are collected
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    @Setting(MetricsSettings.METRICS_ENABLED)
+    public void setEnabled(boolean enabled) {
+        if (!enabled) {
+            reset();
+        }
+        RequestMetrics.enabled = enabled;
+    }
+
+    /**
+     * Start the timing of a request on the current thread.
+     */
+    public static void start() {
+        if (enabled) {
+            CURRENT.set(new RequestTimer(System.nanoTime()));
+        }
+    }
+
+    /**
+     * Set the binding of the current request.
+     *
+     * @param binding
+     *            the binding
+     */
+    public static void setBinding(String binding) {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.setBinding(binding);
+        }
+    }
+
+    /**
+     * Notify that the decoded request reached its request operator. The time
+     * since the start of the request is recorded as
+     * {@link RequestPhase#DECODE}.
+     *
+     * @param operation
+     *            the operation name
+     */
+    public static void operationStarted(String operation) {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null && timer.getOperation() == null) {
+            timer.setOperation(operation);
+            timer.add(RequestPhase.DECODE, System.nanoTime() - timer.getStart());
+        }
+    }
+
+    /**
+     * Set the response format of the current request.
+     *
+     * @param responseFormat
+     *            the response format
+     */
+    public static void setResponseFormat(String responseFormat) {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null && timer.getResponseFormat() == null) {
+            timer.setResponseFormat(responseFormat);
+        }
+    }
+
+    /**
+     * Start the timing of a phase.
+     *
+     * @param phase
+     *            the phase
+     * @return the start time to pass to
+     *         {@link #stopPhase(RequestPhase, long)} or <code>0</code> if the
+     *         phase is not timed
+     */
+    public static long startPhase(RequestPhase phase) {
+        if (!enabled) {
+            return 0;
+        }
+        RequestTimer timer = CURRENT.get();
+        return timer == null ? 0 : timer.startPhase(phase);
+    }
+
+    /**
+     * Stop the timing of a phase.
+     *
+     * @param phase
+     *            the phase
+     * @param start
+     *            the value returned by {@link #startPhase(RequestPhase)}
+     */
+    public static void stopPhase(RequestPhase phase, long start) {
+        if (start != 0) {
+            RequestTimer timer = CURRENT.get();
+            if (timer != null) {
+                timer.stopPhase(phase, start);
+            }
+        }
+    }
+
+    /**
+     * Finish the timing of the request on the current thread and record the
+     * phase durations.
+     */
+    public static void finish() {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null) {
+            CURRENT.remove();
+            timer.add(RequestPhase.TOTAL, System.nanoTime() - timer.getStart());
+            RequestMetrics metrics = getConfiguredInstance();
+            if (enabled && metrics != null) {
+                metrics.record(timer);
+            }
+        }
+    }
+
+    void record(RequestTimer timer) {
+        String operation = nullToUnknown(timer.getOperation());
+        String binding = nullToUnknown(timer.getBinding());
+        String format = nullToUnknown(timer.getResponseFormat());
+        for (RequestPhase phase : RequestPhase.values()) {
+            if (timer.isTimed(phase)) {
+                getHistogram(ImmutableList.of(operation, binding, format, phase.getLabel()))
+                        .record(timer.getDuration(phase));
+            }
+        }
+    }
+
+    void countRequest(String service, String version, String operation) {
+        increment(requests, ImmutableList.of(nullToUnknown(service), nullToUnknown(version),
+                nullToUnknown(operation)));
+    }
+
+    void countResponse(String service, String version, String operation) {
+        increment(responses, ImmutableList.of(nullToUnknown(service), nullToUnknown(version),
+                nullToUnknown(operation)));
+    }
+
+    void countException(String type) {
+        increment(exceptions, ImmutableList.of(nullToUnknown(type)));
+    }
+
+    /**
+     * Remove all collected values.
+     */
+    public void reset() {
+        durations.clear();
+        requests.clear();
+        responses.clear();
+        exceptions.clear();
+    }
+
+    LatencyHistogram getHistogram(List<String> labels) {
+        LatencyHistogram histogram = durations.get(labels);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            LatencyHistogram existing = durations.putIfAbsent(labels, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    private void increment(ConcurrentMap<List<String>, AtomicLong> counters, List<String> labels) {
+        AtomicLong counter = counters.get(labels);
+        if (counter == null) {
+            counter = new AtomicLong();
+            AtomicLong existing = counters.putIfAbsent(labels, counter);
+            if (existing != null) {
+                counter = existing;
+            }
+        }
+        counter.incrementAndGet();
+    }
+
+    private static String nullToUnknown(String value) {
+        return value == null || value.isEmpty() ? UNKNOWN : value;
+    }
+
+    /**
+     * Write the collected metrics in the Prometheus text exposition format.
+     *
+     * @param out
+     *            the writer
+     * @throws IOException
+     *             if writing fails
+     */
+    public void write(Writer out) throws IOException {
+        writeCounters(out, REQUESTS, "Number of requests received by a request operator", OPERATION_LABELS,
+                requests);
+        writeCounters(out, RESPONSES, "Number of responses created by a request operator", OPERATION_LABELS,
+                responses);
+        writeCounters(out, EXCEPTIONS, "Number of exceptions thrown while processing requests", EXCEPTION_LABELS,
+                exceptions);
+        writeHeader(out, DURATION, "Request processing time by phase", "histogram");
+        long[] bounds = LatencyHistogram.getBucketBoundsMillis();
+        for (Entry<List<String>, LatencyHistogram> entry : sorted(durations)) {
+            String labels = labels(DURATION_LABELS, entry.getKey());
+            long[] counts = entry.getValue().getCumulativeCounts();
+            for (int i = 0; i < bounds.length; i++) {
+                writeSample(out, DURATION + "_bucket", labels + ",le=\"" + (bounds[i] / MILLIS_PER_SECOND) + "\"",
+                        String.valueOf(counts[i]));
+            }
+            writeSample(out, DURATION + "_bucket", labels + ",le=\"+Inf\"", String.valueOf(counts[bounds.length]));
+            writeSample(out, DURATION + "_sum", labels,
+                    String.valueOf(entry.getValue().getSumNanos() / NANOS_PER_SECOND));
+            writeSample(out, DURATION + "_count", labels, String.valueOf(counts[bounds.length]));
+        }
+        out.flush();
+    }
+
+    private void writeCounters(Writer out, String name, String help, List<String> labelNames,
+            Map<List<String>, AtomicLong> counters) throws IOException {
+        writeHeader(out, name, help, "counter");
+        for (Entry<List<String>, AtomicLong> entry : sorted(counters)) {
+            writeSample(out, name, labels(labelNames, entry.getKey()), String.valueOf(entry.getValue().get()));
+        }
+    }
+
+    private void writeHeader(Writer out, String name, String help, String type) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private void writeSample(Writer out, String name, String labels, String value) throws IOException {
+        out.write(name + "{" + labels + "} " + value + "\n");
+    }
+
+    private String labels(List<String> names, List<String> values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(names.get(i)).append("=\"").append(escape(values.get(i))).append('"');
+        }
+        return builder.toString();
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private <V> Collection<Entry<List<String>, V>> sorted(Map<List<String>, V> map) {
+        Map<String, Entry<List<String>, V>> sorted = new TreeMap<String, Entry<List<String>, V>>();
+        for (Entry<List<String>, V> entry : map.entrySet()) {
+            sorted.put(Joiner.on('\u0000').join(entry.getKey()), entry);
+        }
+        return sorted.values();
+    }
+
+}
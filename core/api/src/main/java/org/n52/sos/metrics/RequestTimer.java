@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.metrics;
+
+/**
+ * Timing context of a single request. Phases that are entered again while
+ * they are already running (e.g. nested operator calls) are only timed once.
+ *
+ * @since 4.4.0
+ */
+public class RequestTimer {
+
+    private final long start;
+
+    private final long[] durations = new long[RequestPhase.values().length];
+
+    private final long[] running = new long[RequestPhase.values().length];
+
+    private final boolean[] timed = new boolean[RequestPhase.values().length];
+
+    private String binding;
+
+    private String operation;
+
+    private String responseFormat;
+
+    RequestTimer(long start) {
+        this.start = start;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    long startPhase(RequestPhase phase) {
+        if (running[phase.ordinal()] != 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        running[phase.ordinal()] = now;
+        return now;
+    }
+
+    void stopPhase(RequestPhase phase, long phaseStart) {
+        running[phase.ordinal()] = 0;
+        add(phase, System.nanoTime() - phaseStart);
+    }
+
+    void add(RequestPhase phase, long nanos) {
+        durations[phase.ordinal()] += nanos;
+        timed[phase.ordinal()] = true;
+    }
+
+    boolean isTimed(RequestPhase phase) {
+        return timed[phase.ordinal()];
+    }
+
+    long getDuration(RequestPhase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    String getBinding() {
+        return binding;
+    }
+
+    void setBinding(String binding) {
+        this.binding = binding;
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    String getResponseFormat() {
+        return responseFormat;
+    }
+
+    void setResponseFormat(String responseFormat) {
+        this.responseFormat = responseFormat;
+    }
+
+}
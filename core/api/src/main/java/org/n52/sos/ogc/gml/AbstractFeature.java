@@ -92,6 +92,7 @@ public abstract class AbstractFeature extends AbstractGML implements Serializabl
     
     public void copyTo(AbstractFeature copyOf) {
         super.copyTo(copyOf);
+        copyOf.setDefaultElementEncoding(getDefaultElementEncoding());
     }
     
     public AbstractFeature setDefaultElementEncoding(String defaultEncoding) {
@@ -392,6 +392,7 @@ public abstract class AbstractGML implements Serializable{
         copyOf.setDescription(getDescription());
         copyOf.setGmlId(getGmlId());
         copyOf.setIdentifier(getIdentifierCodeWithAuthority());
-        copyOf.setName(getName());
+        copyOf.setHumanReadableIdentifier(getHumanReadableIdentifierCodeWithAuthority());
+        copyOf.setName(new LinkedList<CodeType>(getName()));
     }
 }
@@ -29,6 +29,7 @@
 package org.n52.sos.ogc.om;
 
 import java.util.Collection;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +62,8 @@ public abstract class AbstractStreaming extends AbstractObservationValue<Value<O
     
     private int currentNumberOfValues = 0;
 
+    private transient Deque<OmObservation> openMergedObservations;
+
     public abstract boolean hasNextValue() throws OwsExceptionReport;
 
     public abstract OmObservation nextSingleObservation() throws OwsExceptionReport;
@@ -99,6 +102,45 @@ public abstract class AbstractStreaming extends AbstractObservationValue<Value<O
         return observations;
     }
 
+    /**
+     * Merge the values like {@link #mergeObservation()}, but return the
+     * merged observations one by one. At most <code>maxOpenObservations</code>
+     * merged observations are kept while reading ahead. If a value does not
+     * match any of them and the limit is reached, the oldest one is returned
+     * and values matching it later on are merged into a new observation.
+     *
+     * @param maxOpenObservations
+     *            maximum number of merged observations to keep
+     * @return the next merged observation or <code>null</code> if all values
+     *         are merged
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the values
+     */
+    public OmObservation nextMergedObservation(int maxOpenObservations) throws OwsExceptionReport {
+        if (openMergedObservations == null) {
+            openMergedObservations = new LinkedList<OmObservation>();
+        }
+        while (hasNextValue()) {
+            OmObservation observation = nextSingleObservation();
+            boolean combined = false;
+            for (OmObservation combinedSosObs : openMergedObservations) {
+                if (combinedSosObs.checkForMerge(observation)) {
+                    combinedSosObs.setResultTime(null);
+                    combinedSosObs.mergeWithObservation(observation);
+                    combined = true;
+                    break;
+                }
+            }
+            if (!combined) {
+                openMergedObservations.add(observation);
+                if (openMergedObservations.size() > maxOpenObservations) {
+                    return openMergedObservations.poll();
+                }
+            }
+        }
+        return openMergedObservations.poll();
+    }
+
     public List<OmObservation> getObservation() throws OwsExceptionReport {
         List<OmObservation> observations = Lists.newArrayList();
         do {
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.om.features;
+
+import java.util.Map;
+
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
+import org.n52.sos.ogc.ows.OWSConstants.AdditionalRequestParams;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.util.CollectionHelper;
+import org.n52.sos.util.GeometryHandler;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Feature collection whose members are not held in memory but read one after
+ * the other from the datasource, e.g. by streaming encoders. The members of
+ * the {@link FeatureCollection} are not used, {@link #mergeFeatures()} reads
+ * all features into a {@link FeatureCollection} if the whole collection is
+ * required.
+ *
+ * @since 4.4.0
+ */
+public abstract class StreamingFeatureCollection extends FeatureCollection {
+
+    private static final long serialVersionUID = 2170915232465437826L;
+
+    private Map<AdditionalRequestParams, Object> additionalRequestParams = Maps.newHashMap();
+
+    /**
+     * Check if a further feature is available
+     *
+     * @return <code>true</code>, if a further feature is available
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the next features
+     */
+    public abstract boolean hasNextFeature() throws OwsExceptionReport;
+
+    /**
+     * Get the next feature
+     *
+     * @return the next feature or <code>null</code>, if no further feature
+     *         is available
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the next features
+     */
+    public abstract AbstractFeature nextFeature() throws OwsExceptionReport;
+
+    /**
+     * Read all remaining features into a {@link FeatureCollection}
+     *
+     * @return {@link FeatureCollection} with the remaining features
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the features
+     */
+    public FeatureCollection mergeFeatures() throws OwsExceptionReport {
+        FeatureCollection featureCollection = new FeatureCollection();
+        while (hasNextFeature()) {
+            featureCollection.addMember(nextFeature());
+        }
+        return featureCollection;
+    }
+
+    public void add(AdditionalRequestParams parameter, Object object) {
+        additionalRequestParams.put(parameter, object);
+    }
+
+    public boolean contains(AdditionalRequestParams parameter) {
+        return additionalRequestParams.containsKey(parameter);
+    }
+
+    public boolean isSetAdditionalRequestParams() {
+        return CollectionHelper.isNotEmpty(additionalRequestParams);
+    }
+
+    protected Object getAdditionalRequestParams(AdditionalRequestParams parameter) {
+        return additionalRequestParams.get(parameter);
+    }
+
+    /**
+     * Check and modify the feature for the requested crs
+     *
+     * @param feature
+     *            {@link AbstractFeature} to check
+     * @throws OwsExceptionReport
+     *             If an error occurs when modifying the
+     *             {@link AbstractFeature}
+     */
+    protected void checkForModifications(AbstractFeature feature) throws OwsExceptionReport {
+        if (isSetAdditionalRequestParams() && contains(AdditionalRequestParams.crs)
+                && feature instanceof SamplingFeature) {
+            Object additionalRequestParam = getAdditionalRequestParams(AdditionalRequestParams.crs);
+            int targetCRS = -1;
+            if (additionalRequestParam instanceof Integer) {
+                targetCRS = (Integer) additionalRequestParam;
+            } else if (additionalRequestParam instanceof String) {
+                targetCRS = Integer.parseInt((String) additionalRequestParam);
+            }
+            SamplingFeature samplingFeature = (SamplingFeature) feature;
+            if (samplingFeature.isSetGeometry() && samplingFeature.getGeometry().getSRID() != targetCRS) {
+                samplingFeature.setGeometry(GeometryHandler.getInstance().transform(samplingFeature.getGeometry(),
+                        targetCRS));
+            }
+        }
+    }
+
+}
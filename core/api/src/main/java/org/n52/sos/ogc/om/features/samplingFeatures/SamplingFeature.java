@@ -382,6 +382,37 @@ public class SamplingFeature extends AbstractFeature {
         return CollectionHelper.isNotEmpty(relatedSamplingFeatures);
     }
 
+    /**
+     * Copies all values from this object to the copyOf object. Sampled
+     * features that are sampling features are copied as well, all other
+     * values are shared.
+     * 
+     * @param copyOf
+     *            {@link SamplingFeature} to copy values to
+     */
+    public void copyTo(final SamplingFeature copyOf) {
+        super.copyTo(copyOf);
+        copyOf.xmlDescription = getXmlDescription();
+        copyOf.geometry = getGeometry();
+        copyOf.setFeatureType(getFeatureType());
+        copyOf.setUrl(getUrl());
+        for (final AbstractFeature sampledFeature : sampledFeatures) {
+            if (sampledFeature instanceof SamplingFeature) {
+                final SamplingFeature sampledFeatureCopy =
+                        new SamplingFeature(sampledFeature.getIdentifierCodeWithAuthority());
+                ((SamplingFeature) sampledFeature).copyTo(sampledFeatureCopy);
+                copyOf.sampledFeatures.add(sampledFeatureCopy);
+            } else {
+                copyOf.sampledFeatures.add(sampledFeature);
+            }
+        }
+        copyOf.setParameters(getParameters());
+        copyOf.setEncode(isEncode());
+        if (isSetRelatedSamplingFeatures()) {
+            copyOf.setRelatedSamplingFeatures(Lists.newArrayList(relatedSamplingFeatures));
+        }
+    }
+
     @Override
     public String toString() {
         return String
@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.paging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.swes.SwesExtension;
+import org.n52.sos.ogc.swes.SwesExtensionImpl;
+import org.n52.sos.ogc.swes.SwesExtensions;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Ints;
+
+/**
+ * A page of the results of a request, transported as the value of the
+ * {@link Sos2Constants.Extensions#Paging} extension. A request extension
+ * selects the page to return, a response extension contains the page
+ * following the returned one.
+ * <p>
+ * Results are ordered by a key (e.g. the observation id or the feature
+ * identifier). A page either skips a number of results (offset) or starts
+ * after the key of the last result of the previous page (cursor). The latter
+ * allows the database to use an index instead of counting the skipped rows.
+ *
+ * @since 4.4.0
+ */
+public class ResultPaging {
+
+    private final int limit;
+
+    private final int offset;
+
+    private final String after;
+
+    private ResultPaging(int limit, int offset, String after) {
+        Preconditions.checkArgument(limit > 0, "limit has to be positive");
+        Preconditions.checkArgument(offset >= 0, "offset must not be negative");
+        this.limit = limit;
+        this.offset = offset;
+        this.after = after;
+    }
+
+    /**
+     * Create a page that skips results.
+     *
+     * @param limit
+     *            maximum number of results
+     * @param offset
+     *            number of results to skip
+     * @return the page
+     */
+    public static ResultPaging offset(int limit, int offset) {
+        return new ResultPaging(limit, offset, null);
+    }
+
+    /**
+     * Create a page that starts after a key.
+     *
+     * @param limit
+     *            maximum number of results
+     * @param after
+     *            key of the last result of the previous page
+     * @return the page
+     */
+    public static ResultPaging after(int limit, String after) {
+        Preconditions.checkNotNull(after);
+        return new ResultPaging(limit, 0, after);
+    }
+
+    /**
+     * @return maximum number of results
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return number of results to skip
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return key of the last result of the previous page or
+     *         <code>null</code>
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    /**
+     * @return <code>true</code> if the page starts after a key
+     */
+    public boolean isSetAfter() {
+        return after != null;
+    }
+
+    /**
+     * @return number of results to query, one more than the limit to detect
+     *         if there is a next page
+     */
+    public int getFetchSize() {
+        return Ints.saturatedCast((long) limit + 1);
+    }
+
+    /**
+     * @param results
+     *            the results queried with the {@link #getFetchSize()}
+     * @return <code>true</code> if there are results following this page
+     */
+    public boolean hasNext(Collection<?> results) {
+        return results.size() > limit;
+    }
+
+    /**
+     * @param results
+     *            the results queried with the {@link #getFetchSize()}
+     * @return the results of this page, without the first result of the next
+     *         page
+     */
+    public <T> List<T> trim(List<T> results) {
+        return hasNext(results) ? results.subList(0, limit) : results;
+    }
+
+    /**
+     * @param lastKey
+     *            key of the last result of this page
+     * @return the following page, its offset is clamped to
+     *         {@link Integer#MAX_VALUE}
+     */
+    public ResultPaging next(String lastKey) {
+        if (isSetAfter()) {
+            return after(limit, lastKey);
+        }
+        return offset(limit, Ints.saturatedCast((long) offset + limit));
+    }
+
+    /**
+     * @return the preceding page or <code>null</code> if this is the first
+     *         page or the page starts after a key
+     */
+    public ResultPaging previous() {
+        if (isSetAfter() || offset == 0) {
+            return null;
+        }
+        return offset(limit, Math.max(0, offset - limit));
+    }
+
+    /**
+     * Select the keys of this page from all keys.
+     *
+     * @param keys
+     *            all keys
+     * @return the ordered keys of this page including the key of the first
+     *         result of the next page, if any
+     */
+    public List<String> select(Collection<String> keys) {
+        SortedSet<String> sorted = new TreeSet<String>(keys);
+        if (isSetAfter()) {
+            sorted = sorted.tailSet(after + Character.MIN_VALUE);
+        }
+        List<String> page = new ArrayList<String>(Math.min(sorted.size(), getFetchSize()));
+        Iterator<String> it = sorted.iterator();
+        for (int i = 0; i < offset && it.hasNext(); i++) {
+            it.next();
+        }
+        while (it.hasNext() && page.size() < getFetchSize()) {
+            page.add(it.next());
+        }
+        return page;
+    }
+
+    /**
+     * @return this page as extension
+     */
+    public SwesExtension<ResultPaging> toExtension() {
+        return new SwesExtensionImpl<ResultPaging>().setDefinition(Sos2Constants.Extensions.Paging.name())
+                .setValue(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultPaging [limit=%s, offset=%s, after=%s]", limit, offset, after);
+    }
+
+    /**
+     * Get the page requested by the extensions.
+     *
+     * @param extensions
+     *            the extensions, may be <code>null</code>
+     * @return the page or <code>null</code> if none is requested
+     * @throws OwsExceptionReport
+     *             if the extension value is no page
+     */
+    public static ResultPaging fromExtensions(SwesExtensions extensions) throws OwsExceptionReport {
+        if (extensions == null || !extensions.containsExtension(Sos2Constants.Extensions.Paging)) {
+            return null;
+        }
+        SwesExtension<?> extension = extensions.getExtension(Sos2Constants.Extensions.Paging);
+        if (extension.getValue() instanceof ResultPaging) {
+            return (ResultPaging) extension.getValue();
+        }
+        throw new InvalidParameterValueException(Sos2Constants.Extensions.Paging, String.valueOf(extension.getValue()));
+    }
+}
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.request;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -161,6 +162,29 @@ public class InsertObservationRequest extends AbstractServiceRequest<InsertObser
         return (InsertObservationResponse) new InsertObservationResponse().set(this);
     }
 
+    /**
+     * Create a request with the parameters of this request but without
+     * observations. Referenced phenomenon times, result times and features of
+     * observations added to this request can be referenced by observations
+     * added to the copy, which allows to insert the observations of a request
+     * in several groups.
+     * 
+     * @return copy without observations
+     */
+    public InsertObservationRequest copyWithoutObservations() {
+        InsertObservationRequest copy = new InsertObservationRequest();
+        copy.setService(getService());
+        copy.setVersion(getVersion());
+        copy.setExtensions(getExtensions());
+        copy.setRequestContext(getRequestContext());
+        copy.setAssignedSensorId(getAssignedSensorId());
+        if (getOfferings() != null) {
+            copy.setOfferings(new ArrayList<String>(getOfferings()));
+        }
+        copy.referenceChecker = referenceChecker;
+        return copy;
+    }
+
     public boolean isSetExtensionSplitDataArrayIntoObservations() {
         return isSetExtensions() && getExtensions()
                 .isBooleanExtensionSet(Sos2Constants.Extensions.SplitDataArrayIntoObservations.name());
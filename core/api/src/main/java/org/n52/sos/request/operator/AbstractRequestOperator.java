@@ -53,6 +53,8 @@ import org.n52.sos.exception.ows.concrete.InvalidValueReferenceException;
 import org.n52.sos.exception.ows.concrete.MissingProcedureParameterException;
 import org.n52.sos.exception.ows.concrete.MissingServiceParameterException;
 import org.n52.sos.exception.ows.concrete.MissingValueReferenceException;
+import org.n52.sos.metrics.RequestMetrics;
+import org.n52.sos.metrics.RequestPhase;
 import org.n52.sos.ogc.filter.SpatialFilter;
 import org.n52.sos.ogc.filter.TemporalFilter;
 import org.n52.sos.ogc.gml.time.TimePeriod;
@@ -68,6 +70,7 @@ import org.n52.sos.request.AbstractServiceRequest;
 import org.n52.sos.response.AbstractObservationResponse;
 import org.n52.sos.response.AbstractServiceResponse;
 import org.n52.sos.service.Configurator;
+import org.n52.sos.service.RequestLimiter;
 import org.n52.sos.service.operator.ServiceOperatorRepository;
 import org.n52.sos.service.profile.Profile;
 import org.n52.sos.util.CollectionHelper;
@@ -158,14 +161,32 @@ public abstract class AbstractRequestOperator<D extends OperationDAO, Q extends
     @Override
     public AbstractServiceResponse receiveRequest(final AbstractServiceRequest<?> abstractRequest)
             throws OwsExceptionReport {
+        RequestMetrics.operationStarted(abstractRequest.getOperationName());
+        RequestLimiter.acquire(abstractRequest.getOperationName());
         SosEventBus.fire(new RequestEvent(abstractRequest));
         if (requestType.isAssignableFrom(abstractRequest.getClass())) {
             Q request = requestType.cast(abstractRequest);
-            checkForModifierAndProcess(request);
-            checkParameters(request);
-            A response = receive(request);
+            long start = RequestMetrics.startPhase(RequestPhase.MODIFY);
+            try {
+                checkForModifierAndProcess(request);
+            } finally {
+                RequestMetrics.stopPhase(RequestPhase.MODIFY, start);
+            }
+            A response;
+            start = RequestMetrics.startPhase(RequestPhase.RECEIVE);
+            try {
+                checkParameters(request);
+                response = receive(request);
+            } finally {
+                RequestMetrics.stopPhase(RequestPhase.RECEIVE, start);
+            }
             SosEventBus.fire(new ResponseEvent(response));
-            return checkForModifierAndProcess(request, response);
+            start = RequestMetrics.startPhase(RequestPhase.MODIFY);
+            try {
+                return checkForModifierAndProcess(request, response);
+            } finally {
+                RequestMetrics.stopPhase(RequestPhase.MODIFY, start);
+            }
         } else {
             throw new OperationNotSupportedException(abstractRequest.getOperationName());
         }
@@ -28,18 +28,27 @@
  */
 package org.n52.sos.response;
 
+import java.io.File;
+
 import org.n52.sos.util.http.MediaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
- * Simple response class for binary data to be included as a response attachment (for download)
+ * Simple response class for binary data to be included as a response attachment (for download).
+ * The data is either held in memory or, for large responses, backed by a temporary file that
+ * is streamed to the client and deleted afterwards.
  * 
  * @author Shane StClair <shane@axiomalaska.com>
  * 
  * @since 4.1.0
  */
 public class BinaryAttachmentResponse {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryAttachmentResponse.class);
+
     private byte[] bytes;
+    private File file;
     private MediaType contentType;
     private String filename;
 
@@ -49,6 +58,25 @@ public class BinaryAttachmentResponse {
         this.filename = filename;
     }
 
+    /**
+     * Create a response backed by a temporary file. The file is deleted by
+     * {@link #delete()} after it was written to the client.
+     * 
+     * @param file
+     *            the temporary file containing the data
+     * @param contentType
+     *            the content type
+     * @param filename
+     *            the filename for the download
+     * 
+     * @since 4.4.0
+     */
+    public BinaryAttachmentResponse(File file, MediaType contentType, String filename) {
+        this.file = file;
+        this.contentType = contentType;
+        this.filename = filename;
+    }
+
     public byte[] getBytes() {
         return bytes;
     }
@@ -57,6 +85,14 @@ public class BinaryAttachmentResponse {
         this.bytes = bytes;
     }
 
+    public File getFile() {
+        return file;
+    }
+
+    public boolean isSetFile() {
+        return file != null;
+    }
+
     public MediaType getContentType() {
         return contentType;
     }
@@ -73,10 +109,25 @@ public class BinaryAttachmentResponse {
         this.filename = filename;
     }
 
-    public int getSize() {
+    public long getSize() {
+        if (isSetFile()) {
+            return file.length();
+        }
         return bytes == null ? -1 : bytes.length;
     }
 
+    /**
+     * Delete the backing temporary file, if any.
+     * 
+     * @since 4.4.0
+     */
+    public void delete() {
+        if (isSetFile() && file.exists() && !file.delete()) {
+            LOGGER.warn("Could not delete temporary file {}", file.getAbsolutePath());
+            file.deleteOnExit();
+        }
+    }
+
     @Override
     public String toString() {
         return "BinaryAttachmentResponse [size = " + getSize()
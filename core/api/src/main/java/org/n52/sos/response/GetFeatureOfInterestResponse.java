@@ -29,13 +29,15 @@
 package org.n52.sos.response;
 
 import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants;
 
 /**
  * @since 4.0.0
  * 
  */
-public class GetFeatureOfInterestResponse extends AbstractServiceResponse {
+public class GetFeatureOfInterestResponse extends AbstractServiceResponse implements StreamingDataResponse {
 
     private AbstractFeature abstractFeature;
 
@@ -52,4 +54,16 @@ public class GetFeatureOfInterestResponse extends AbstractServiceResponse {
         return SosConstants.Operations.GetFeatureOfInterest.name();
     }
 
+    @Override
+    public boolean hasStreamingData() {
+        return abstractFeature instanceof StreamingFeatureCollection;
+    }
+
+    @Override
+    public void mergeStreamingData() throws OwsExceptionReport {
+        if (hasStreamingData()) {
+            setAbstractFeature(((StreamingFeatureCollection) abstractFeature).mergeFeatures());
+        }
+    }
+
 }
@@ -29,6 +29,7 @@
 package org.n52.sos.response;
 
 import org.n52.sos.ogc.om.AbstractStreaming;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 
 /**
@@ -42,6 +43,7 @@ public interface StreamingDataResponse {
 
     /**
      *  Check if the response contains streaming data {@link AbstractStreaming}
+     *  or {@link StreamingFeatureCollection}
      * 
      * @return <code>true</code> if the response contains streaming data
      */
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+/**
+ * An encoded response in the {@link ObservationResponseCache}.
+ *
+ * @since 4.4.0
+ */
+public class CachedResponse {
+
+    /**
+     * estimated overhead of an entry and its key
+     */
+    private static final int OVERHEAD = 512;
+
+    private final byte[] content;
+
+    private final String contentType;
+
+    private final String entityTag;
+
+    private final long lastModified;
+
+    public CachedResponse(byte[] content, String contentType, String entityTag, long lastModified) {
+        this.content = content;
+        this.contentType = contentType;
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * @return the time the response was created in milliseconds, truncated
+     *         to seconds
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the estimated size of this entry in bytes
+     */
+    public long getSize() {
+        return content.length + OVERHEAD;
+    }
+
+}
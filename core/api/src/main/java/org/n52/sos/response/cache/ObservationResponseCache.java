@@ -0,0 +1,297 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.request.AbstractServiceRequest;
+import org.n52.sos.request.GetObservationRequest;
+import org.n52.sos.service.Configurator;
+import org.n52.sos.util.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for encoded GetObservation responses, bounded by the size of the
+ * cached responses. The least recently used responses are removed first.
+ * <p>
+ * Entries are removed if observations are inserted or deleted that
+ * {@link ObservationResponseScope#intersects(ObservationResponseScope)
+ * intersect} with the scope of the request. Every invalidation increments a
+ * generation, and a response is only stored if no invalidation happened
+ * since the request was received. This prevents a response that was read
+ * before a concurrent insertion from being cached after the insertion.
+ * <p>
+ * Modifications without events, e.g. content cache updates after the
+ * datasource was changed externally, remove all entries. Entries older than
+ * the configured time to live are not returned.
+ *
+ * @since 4.4.0
+ */
+@Configurable
+public class ObservationResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ObservationResponseCache.class);
+
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+    private static final int ENTRY_SIZE_FRACTION = 4;
+
+    private static final long MILLIS_PER_MINUTE = 60L * 1000L;
+
+    private static ObservationResponseCache instance = null;
+
+    private final Map<ObservationResponseCacheKey, CachedResponse> entries =
+            new LinkedHashMap<ObservationResponseCacheKey, CachedResponse>(16, 0.75f, true);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final long epoch = System.currentTimeMillis() / 1000L;
+
+    private volatile boolean enabled = false;
+
+    private long maximumSize = 64 * BYTES_PER_MEGABYTE;
+
+    private long timeToLive = 60 * MILLIS_PER_MINUTE;
+
+    private long size = 0;
+
+    private long generation = 0;
+
+    public static synchronized ObservationResponseCache getInstance() {
+        if (instance == null) {
+            instance = new ObservationResponseCache();
+            SettingsManager.getInstance().configure(instance);
+        }
+        return instance;
+    }
+
+    ObservationResponseCache() {
+    }
+
+    @Setting(ResponseCacheSettings.RESPONSE_CACHE_ENABLED)
+    public void setEnabled(boolean enabled) {
+        if (!enabled) {
+            clear();
+        }
+        this.enabled = enabled;
+    }
+
+    @Setting(ResponseCacheSettings.RESPONSE_CACHE_SIZE)
+    public void setSize(int size) throws ConfigurationException {
+        Validation.greaterZero("Response cache size", size);
+        synchronized (this) {
+            this.maximumSize = size * BYTES_PER_MEGABYTE;
+            evict();
+        }
+    }
+
+    @Setting(ResponseCacheSettings.RESPONSE_CACHE_TIME_TO_LIVE)
+    public void setTimeToLive(int timeToLive) throws ConfigurationException {
+        Validation.greaterEqualZero("Response cache time to live", timeToLive);
+        synchronized (this) {
+            this.timeToLive = timeToLive * MILLIS_PER_MINUTE;
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if responses are cached
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the maximum size of a single response in bytes
+     */
+    public synchronized long getMaximumEntrySize() {
+        return maximumSize / ENTRY_SIZE_FRACTION;
+    }
+
+    /**
+     * Create the cache key of a request.
+     *
+     * @param request
+     *            the request
+     * @param binding
+     *            the binding that received the request
+     * @param accept
+     *            the value of the Accept header, may be <code>null</code>
+     * @return the key or <code>null</code>, if the cache is disabled or the
+     *         response of the request can not be cached
+     */
+    public ObservationResponseCacheKey createKey(AbstractServiceRequest<?> request, String binding,
+            String accept) {
+        if (!enabled || !(request instanceof GetObservationRequest)) {
+            return null;
+        }
+        return ObservationResponseCacheKey.create((GetObservationRequest) request, binding, accept,
+                getContentCache());
+    }
+
+    /**
+     * @return the content cache to resolve the hierarchies of the requested
+     *         identifiers, may be <code>null</code>
+     */
+    protected ContentCache getContentCache() {
+        Configurator configurator = Configurator.getInstance();
+        return configurator == null ? null : configurator.getCache();
+    }
+
+    /**
+     * @return a new entity tag for a response of the key
+     */
+    public String createEntityTag(ObservationResponseCacheKey key) {
+        return String.format("\"%x-%08x-%x\"", epoch, key.hashCode(), sequence.incrementAndGet());
+    }
+
+    /**
+     * @param key
+     *            the key
+     * @return the response or <code>null</code>, if no response is cached or
+     *         the response is expired
+     */
+    public synchronized CachedResponse get(ObservationResponseCacheKey key) {
+        CachedResponse response = entries.get(key);
+        if (response != null && isExpired(response)) {
+            entries.remove(key);
+            size -= response.getSize();
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * @return the current generation, that has to be read before the
+     *         response is created and passed to
+     *         {@link #put(ObservationResponseCacheKey, CachedResponse, long)}
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Store a response.
+     *
+     * @param key
+     *            the key
+     * @param response
+     *            the response
+     * @param generation
+     *            the generation read before the response was created
+     * @return <code>true</code>, if the response was stored
+     */
+    public synchronized boolean put(ObservationResponseCacheKey key, CachedResponse response, long generation) {
+        if (!enabled || generation != this.generation || response.getSize() > getMaximumEntrySize()) {
+            return false;
+        }
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            size -= previous.getSize();
+        }
+        size += response.getSize();
+        evict();
+        return true;
+    }
+
+    /**
+     * Remove all responses whose scope intersects with one of the scopes.
+     *
+     * @param scopes
+     *            the scopes of the inserted or deleted observations
+     */
+    public synchronized void invalidate(Collection<ObservationResponseScope> scopes) {
+        ++generation;
+        int removed = 0;
+        Iterator<Map.Entry<ObservationResponseCacheKey, CachedResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ObservationResponseCacheKey, CachedResponse> entry = it.next();
+            if (intersects(entry.getKey().getScope(), scopes)) {
+                size -= entry.getValue().getSize();
+                it.remove();
+                ++removed;
+            }
+        }
+        LOGGER.debug("Removed {} cached responses for {}", removed, scopes);
+    }
+
+    /**
+     * Remove all responses.
+     */
+    public synchronized void clear() {
+        ++generation;
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the number of cached responses
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return the size of the cached responses in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    private boolean isExpired(CachedResponse response) {
+        return timeToLive > 0 && System.currentTimeMillis() - response.getLastModified() > timeToLive;
+    }
+
+    private boolean intersects(ObservationResponseScope scope, Collection<ObservationResponseScope> scopes) {
+        for (ObservationResponseScope other : scopes) {
+            if (scope.intersects(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evict() {
+        Iterator<CachedResponse> it = entries.values().iterator();
+        while (size > maximumSize && it.hasNext()) {
+            size -= it.next().getSize();
+            it.remove();
+        }
+    }
+
+}
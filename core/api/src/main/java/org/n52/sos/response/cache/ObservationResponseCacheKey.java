@@ -0,0 +1,305 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.joda.time.DateTime;
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.ogc.filter.SpatialFilter;
+import org.n52.sos.ogc.filter.TemporalFilter;
+import org.n52.sos.ogc.swe.simpleType.SweAbstractSimpleType;
+import org.n52.sos.ogc.swes.SwesExtension;
+import org.n52.sos.paging.ResultPaging;
+import org.n52.sos.request.GetObservationRequest;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+/**
+ * Normalized key of a GetObservation request in the
+ * {@link ObservationResponseCache}. The order of the requested identifiers
+ * and extensions does not change the key. The key holds the
+ * {@link ObservationResponseScope} of the response to decide which entries are
+ * affected by a modification of the observations.
+ *
+ * @since 4.4.0
+ */
+public class ObservationResponseCacheKey {
+
+    private static final String PHENOMENON_TIME = "phenomenonTime";
+
+    private final List<Object> components;
+
+    private final ObservationResponseScope scope;
+
+    private final int hashCode;
+
+    ObservationResponseCacheKey(List<Object> components, ObservationResponseScope scope) {
+        this.components = ImmutableList.copyOf(components);
+        this.scope = scope;
+        this.hashCode = this.components.hashCode();
+    }
+
+    /**
+     * @return the series and phenomenon time range of the response
+     */
+    public ObservationResponseScope getScope() {
+        return scope;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof ObservationResponseCacheKey) {
+            ObservationResponseCacheKey other = (ObservationResponseCacheKey) obj;
+            return hashCode == other.hashCode && components.equals(other.components);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ObservationResponseCacheKey %s", components);
+    }
+
+    /**
+     * Create the key of a request.
+     *
+     * @param request
+     *            the request
+     * @param binding
+     *            the binding that received the request
+     * @param accept
+     *            the value of the Accept header, may be <code>null</code>
+     * @param contentCache
+     *            the content cache to add the hierarchies of the requested
+     *            identifiers to the scope, may be <code>null</code>
+     * @return the key or <code>null</code>, if the response of the request
+     *         can not be cached
+     */
+    public static ObservationResponseCacheKey create(GetObservationRequest request, String binding,
+            String accept, ContentCache contentCache) {
+        if (request.isSetResultFilter() || request.isSetResult()) {
+            return null;
+        }
+        List<String> extensions = getExtensions(request);
+        if (extensions == null) {
+            return null;
+        }
+        List<Object> components = new ArrayList<Object>();
+        components.add(Strings.nullToEmpty(binding));
+        components.add(Strings.nullToEmpty(accept));
+        components.add(Strings.nullToEmpty(request.getService()));
+        components.add(Strings.nullToEmpty(request.getVersion()));
+        components.add(Strings.nullToEmpty(request.getResponseFormat()));
+        components.add(Strings.nullToEmpty(request.getResponseMode()));
+        components.add(Strings.nullToEmpty(request.getResultModel()));
+        components.add(Strings.nullToEmpty(request.getSrsName()));
+        components.add(request.isSetMergeObservationValues());
+        components.add(sorted(request.getProcedures()));
+        components.add(sorted(request.getObservedProperties()));
+        components.add(sorted(request.getFeatureIdentifiers()));
+        components.add(sorted(request.getOfferings()));
+        components.add(getTemporalFilters(request));
+        components.add(getSpatialFilter(request));
+        components.add(extensions);
+        return new ObservationResponseCacheKey(components, getScope(request, contentCache));
+    }
+
+    private static ObservationResponseScope getScope(GetObservationRequest request, ContentCache contentCache) {
+        DateTime start = null;
+        DateTime end = null;
+        if (request.isSetTemporalFilter() && !request.hasFirstLatestTemporalFilter()) {
+            boolean first = true;
+            for (TemporalFilter filter : request.getTemporalFilters()) {
+                if (!isPhenomenonTime(filter) || filter.getTime() == null) {
+                    start = null;
+                    end = null;
+                    break;
+                }
+                DateTime filterStart = ObservationResponseScope.startOf(filter.getTime());
+                DateTime filterEnd = ObservationResponseScope.endOf(filter.getTime());
+                if (filter.getOperator() != null) {
+                    switch (filter.getOperator()) {
+                    case TM_Before:
+                        filterStart = null;
+                        break;
+                    case TM_After:
+                        filterEnd = null;
+                        break;
+                    default:
+                        break;
+                    }
+                }
+                if (first) {
+                    start = filterStart;
+                    end = filterEnd;
+                    first = false;
+                } else {
+                    start = start == null || filterStart == null ? null
+                            : filterStart.isBefore(start) ? filterStart : start;
+                    end = end == null || filterEnd == null ? null : filterEnd.isAfter(end) ? filterEnd : end;
+                }
+            }
+        }
+        if (contentCache == null) {
+            return new ObservationResponseScope(request.getProcedures(), request.getObservedProperties(),
+                    request.getFeatureIdentifiers(), request.getOfferings(), start, end);
+        }
+        return new ObservationResponseScope(addProcedureHierarchy(request.getProcedures(), contentCache),
+                addCompositePhenomenonComponents(request.getObservedProperties(), contentCache),
+                addChildFeatures(request.getFeatureIdentifiers(), contentCache), request.getOfferings(), start, end);
+    }
+
+    /**
+     * The GetObservation operators add the instances and child procedures of
+     * the requested procedures to the request.
+     */
+    private static Set<String> addProcedureHierarchy(Collection<String> procedures, ContentCache contentCache) {
+        Set<String> allProcedures = Sets.newHashSet();
+        if (procedures != null) {
+            for (String procedure : procedures) {
+                allProcedures.add(procedure);
+                if (contentCache.hasInstancesForProcedure(procedure)) {
+                    allProcedures.addAll(contentCache.getInstancesForProcedure(procedure));
+                }
+            }
+            allProcedures.addAll(contentCache.getChildProcedures(Sets.newHashSet(allProcedures), true, false));
+        }
+        return allProcedures;
+    }
+
+    /**
+     * The GetObservation operators add the child features of the requested
+     * features to the request.
+     */
+    private static Set<String> addChildFeatures(Collection<String> features, ContentCache contentCache) {
+        Set<String> allFeatures = Sets.newHashSet();
+        if (features != null) {
+            for (String feature : features) {
+                allFeatures.add(feature);
+                allFeatures.addAll(contentCache.getChildFeatures(feature, true, false));
+            }
+        }
+        return allFeatures;
+    }
+
+    /**
+     * The GetObservation operators may add the components of requested
+     * composite phenomena to the request. They are always added to the scope,
+     * a larger scope only removes more responses on modifications.
+     */
+    private static Set<String> addCompositePhenomenonComponents(Collection<String> observableProperties,
+            ContentCache contentCache) {
+        Set<String> allObservableProperties = Sets.newHashSet();
+        if (observableProperties != null) {
+            for (String observableProperty : observableProperties) {
+                allObservableProperties.add(observableProperty);
+                if (contentCache.isCompositePhenomenon(observableProperty)) {
+                    allObservableProperties.addAll(
+                            contentCache.getObservablePropertiesForCompositePhenomenon(observableProperty));
+                }
+            }
+        }
+        return allObservableProperties;
+    }
+
+    private static boolean isPhenomenonTime(TemporalFilter filter) {
+        return filter.getValueReference() == null || filter.getValueReference().endsWith(PHENOMENON_TIME);
+    }
+
+    private static List<String> getTemporalFilters(GetObservationRequest request) {
+        if (!request.isSetTemporalFilter()) {
+            return Collections.emptyList();
+        }
+        List<String> filters = new ArrayList<String>(request.getTemporalFilters().size());
+        for (TemporalFilter filter : request.getTemporalFilters()) {
+            filters.add(String.format("%s %s %s", filter.getValueReference(), filter.getOperator(),
+                    filter.getTime()));
+        }
+        return filters;
+    }
+
+    private static String getSpatialFilter(GetObservationRequest request) {
+        if (!request.isSetSpatialFilter()) {
+            return "";
+        }
+        SpatialFilter filter = request.getSpatialFilter();
+        return String.format("%s %s %d %s", filter.getValueReference(), filter.getOperator(), filter.getSrid(),
+                filter.getGeometry() == null ? null : filter.getGeometry().toText());
+    }
+
+    /**
+     * @return the sorted extensions or <code>null</code>, if an extension has
+     *         a value that can not be compared
+     */
+    private static List<String> getExtensions(GetObservationRequest request) {
+        if (!request.isSetExtensions()) {
+            return Collections.emptyList();
+        }
+        Set<String> extensions = new TreeSet<String>();
+        for (SwesExtension<?> extension : request.getExtensions().getExtensions()) {
+            Object value = extension.getValue();
+            String stringValue;
+            if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+                    || value instanceof ResultPaging) {
+                stringValue = String.valueOf(value);
+            } else if (value instanceof SweAbstractSimpleType) {
+                stringValue = ((SweAbstractSimpleType<?>) value).getStringValue();
+            } else {
+                return null;
+            }
+            extensions.add(String.format("%s %s %s=%s", extension.getNamespace(), extension.getIdentifier(),
+                    extension.getDefinition(), stringValue));
+        }
+        return ImmutableList.copyOf(extensions);
+    }
+
+    private static List<String> sorted(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ImmutableList.copyOf(new TreeSet<String>(values));
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.n52.sos.event.SosEvent;
+import org.n52.sos.event.SosEventListener;
+import org.n52.sos.event.events.ObservationInsertion;
+import org.n52.sos.event.events.ResultInsertion;
+import org.n52.sos.event.events.SensorDeletion;
+import org.n52.sos.event.events.SettingsChangeEvent;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.request.InsertObservationRequest;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link SosEventListener} that removes the responses affected by inserted
+ * observations and deleted sensors from the {@link ObservationResponseCache}.
+ * Setting changes may change the encoding of all responses.
+ *
+ * @since 4.4.0
+ */
+public class ObservationResponseCacheListener implements SosEventListener {
+
+    private static final Set<Class<? extends SosEvent>> EVENTS = ImmutableSet.<Class<? extends SosEvent>> of(
+            ObservationInsertion.class, ResultInsertion.class, SensorDeletion.class, SettingsChangeEvent.class);
+
+    @Override
+    public Set<Class<? extends SosEvent>> getTypes() {
+        return EVENTS;
+    }
+
+    @Override
+    public void handle(SosEvent event) {
+        ObservationResponseCache cache = ObservationResponseCache.getInstance();
+        if (!cache.isEnabled()) {
+            return;
+        }
+        if (event instanceof ObservationInsertion) {
+            InsertObservationRequest request = ((ObservationInsertion) event).getRequest();
+            List<ObservationResponseScope> scopes =
+                    new ArrayList<ObservationResponseScope>(request.getObservations().size());
+            for (OmObservation observation : request.getObservations()) {
+                scopes.add(ObservationResponseScope.forObservation(observation, request.getOfferings()));
+            }
+            cache.invalidate(scopes);
+        } else if (event instanceof ResultInsertion) {
+            OmObservation observation = ((ResultInsertion) event).getResponse().getObservation();
+            if (observation == null) {
+                cache.clear();
+            } else {
+                cache.invalidate(Collections.singleton(ObservationResponseScope.forObservation(observation, null)));
+            }
+        } else if (event instanceof SensorDeletion) {
+            String procedure = ((SensorDeletion) event).getRequest().getProcedureIdentifier();
+            cache.invalidate(Collections.singleton(new ObservationResponseScope(Collections.singleton(procedure),
+                    null, null, null, null, null)));
+        } else if (event instanceof SettingsChangeEvent) {
+            cache.clear();
+        }
+    }
+
+}
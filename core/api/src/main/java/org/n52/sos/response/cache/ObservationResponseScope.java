@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import org.joda.time.DateTime;
+import org.n52.sos.ogc.gml.time.Time;
+import org.n52.sos.ogc.gml.time.TimeInstant;
+import org.n52.sos.ogc.gml.time.TimePeriod;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.om.OmObservationConstellation;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The series and the phenomenon time range that are covered by a cached
+ * response or affected by a modification of the observations. An empty set
+ * of identifiers and a <code>null</code> start or end are unbounded.
+ *
+ * @since 4.4.0
+ */
+public class ObservationResponseScope {
+
+    private final Set<String> procedures;
+
+    private final Set<String> observableProperties;
+
+    private final Set<String> features;
+
+    private final Set<String> offerings;
+
+    private final DateTime start;
+
+    private final DateTime end;
+
+    public ObservationResponseScope(Collection<String> procedures, Collection<String> observableProperties,
+            Collection<String> features, Collection<String> offerings, DateTime start, DateTime end) {
+        this.procedures = copy(procedures);
+        this.observableProperties = copy(observableProperties);
+        this.features = copy(features);
+        this.offerings = copy(offerings);
+        this.start = start;
+        this.end = end;
+    }
+
+    public ObservationResponseScope(Collection<String> procedures, Collection<String> observableProperties,
+            Collection<String> features, Collection<String> offerings, Time time) {
+        this(procedures, observableProperties, features, offerings, startOf(time), endOf(time));
+    }
+
+    public Set<String> getProcedures() {
+        return procedures;
+    }
+
+    public Set<String> getObservableProperties() {
+        return observableProperties;
+    }
+
+    public Set<String> getFeatures() {
+        return features;
+    }
+
+    public Set<String> getOfferings() {
+        return offerings;
+    }
+
+    public DateTime getStart() {
+        return start;
+    }
+
+    public DateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Check if this scope and the other scope may share observations.
+     *
+     * @param other
+     *            the other scope
+     * @return <code>true</code>, if both scopes overlap in every dimension
+     */
+    public boolean intersects(ObservationResponseScope other) {
+        return intersects(procedures, other.getProcedures())
+                && intersects(observableProperties, other.getObservableProperties())
+                && intersects(features, other.getFeatures()) && intersects(offerings, other.getOfferings())
+                && (start == null || other.getEnd() == null || !other.getEnd().isBefore(start))
+                && (end == null || other.getStart() == null || !other.getStart().isAfter(end));
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).omitNullValues().add("procedures", procedures)
+                .add("observableProperties", observableProperties).add("features", features)
+                .add("offerings", offerings).add("start", start).add("end", end).toString();
+    }
+
+    /**
+     * Create the scope of an inserted or deleted observation.
+     *
+     * @param observation
+     *            the observation
+     * @param offerings
+     *            the offerings of the observation, may be <code>null</code>
+     *            if they are contained in the observation constellation
+     * @return the scope
+     */
+    public static ObservationResponseScope forObservation(OmObservation observation, Collection<String> offerings) {
+        OmObservationConstellation constellation = observation.getObservationConstellation();
+        Set<String> procedures = Collections.emptySet();
+        Set<String> observableProperties = Collections.emptySet();
+        Set<String> features = Collections.emptySet();
+        Set<String> observationOfferings = Collections.emptySet();
+        if (constellation != null) {
+            if (constellation.getProcedure() != null) {
+                procedures = singleton(constellation.getProcedureIdentifier());
+            }
+            if (constellation.getObservableProperty() != null) {
+                observableProperties = singleton(constellation.getObservablePropertyIdentifier());
+            }
+            if (constellation.getFeatureOfInterest() != null) {
+                features = singleton(constellation.getFeatureOfInterestIdentifier());
+            }
+            if (constellation.isSetOfferings()) {
+                observationOfferings = constellation.getOfferings();
+            }
+        }
+        if (offerings != null && !offerings.isEmpty()) {
+            observationOfferings = ImmutableSet.<String> builder().addAll(observationOfferings).addAll(offerings)
+                    .build();
+        }
+        Time time = observation.getValue() == null ? null : observation.getPhenomenonTime();
+        return new ObservationResponseScope(procedures, observableProperties, features, observationOfferings, time);
+    }
+
+    private static boolean intersects(Set<String> a, Set<String> b) {
+        return a.isEmpty() || b.isEmpty() || !Collections.disjoint(a, b);
+    }
+
+    private static Set<String> singleton(String value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        return Collections.singleton(value);
+    }
+
+    private static Set<String> copy(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return ImmutableSet.copyOf(values);
+    }
+
+    static DateTime startOf(Time time) {
+        if (time instanceof TimeInstant) {
+            return ((TimeInstant) time).getValue();
+        } else if (time instanceof TimePeriod) {
+            return ((TimePeriod) time).getStart();
+        }
+        return null;
+    }
+
+    static DateTime endOf(Time time) {
+        if (time instanceof TimeInstant) {
+            return ((TimeInstant) time).getValue();
+        } else if (time instanceof TimePeriod) {
+            return ((TimePeriod) time).getEnd();
+        }
+        return null;
+    }
+
+}
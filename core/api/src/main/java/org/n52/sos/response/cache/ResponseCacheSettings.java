@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionGroup;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.BooleanSettingDefinition;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link SettingDefinitionProvider} for the {@link ObservationResponseCache}.
+ *
+ * @since 4.4.0
+ */
+public class ResponseCacheSettings implements SettingDefinitionProvider {
+
+    public static final String RESPONSE_CACHE_ENABLED = "service.responseCache.enabled";
+
+    public static final String RESPONSE_CACHE_SIZE = "service.responseCache.size";
+
+    public static final String RESPONSE_CACHE_TIME_TO_LIVE = "service.responseCache.timeToLive";
+
+    public static final SettingDefinitionGroup GROUP = new SettingDefinitionGroup()
+            .setTitle("Response Cache")
+            .setDescription("Settings to cache the encoded responses of GetObservation requests sent to the KVP "
+                    + "and POX binding. Cached responses are removed when observations of the requested series "
+                    + "and time range are inserted or deleted, the settings are changed or the content cache is "
+                    + "reloaded.")
+            .setOrder(ORDER_15);
+
+    public static final BooleanSettingDefinition RESPONSE_CACHE_ENABLED_DEFINITION = new BooleanSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_0)
+            .setKey(RESPONSE_CACHE_ENABLED)
+            .setDefaultValue(false)
+            .setTitle("Cache GetObservation responses")
+            .setDescription("Whether the encoded responses of GetObservation requests should be cached. Cached "
+                    + "responses carry an ETag and a Last-Modified header, so that clients can revalidate them "
+                    + "with a conditional request.");
+
+    public static final IntegerSettingDefinition RESPONSE_CACHE_SIZE_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_1)
+            .setKey(RESPONSE_CACHE_SIZE)
+            .setDefaultValue(64)
+            .setMinimum(1)
+            .setTitle("Response cache size")
+            .setDescription("The maximum size of the cached responses in megabytes. The least recently used "
+                    + "responses are removed if the size is exceeded. Responses larger than a quarter of the size "
+                    + "are not cached.");
+
+    public static final IntegerSettingDefinition RESPONSE_CACHE_TIME_TO_LIVE_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_2)
+                    .setKey(RESPONSE_CACHE_TIME_TO_LIVE)
+                    .setDefaultValue(60)
+                    .setMinimum(0)
+                    .setTitle("Response cache time to live")
+                    .setDescription("The time in minutes after that a cached response is removed, even if no "
+                            + "modification was notified. Set to 0 to keep responses until they are "
+                            + "invalidated or evicted.");
+
+    private static final Set<SettingDefinition<?, ?>> DEFINITIONS = ImmutableSet.<SettingDefinition<?, ?>> of(
+            RESPONSE_CACHE_ENABLED_DEFINITION, RESPONSE_CACHE_SIZE_DEFINITION,
+            RESPONSE_CACHE_TIME_TO_LIVE_DEFINITION);
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return Collections.unmodifiableSet(DEFINITIONS);
+    }
+
+}
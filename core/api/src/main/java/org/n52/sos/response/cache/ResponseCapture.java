@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link OutputStream} that copies a written response up to a maximum size.
+ * The copy is dropped if the response exceeds the size or the encoding
+ * failed.
+ *
+ * @since 4.4.0
+ */
+public class ResponseCapture extends OutputStream {
+
+    private final long maximumSize;
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    public ResponseCapture(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public void write(int b) {
+        if (buffer != null) {
+            if (buffer.size() + 1 > maximumSize) {
+                discard();
+            } else {
+                buffer.write(b);
+            }
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (buffer != null) {
+            if (buffer.size() + len > maximumSize) {
+                discard();
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+    }
+
+    /**
+     * Drop the copy of the response.
+     */
+    public void discard() {
+        buffer = null;
+    }
+
+    /**
+     * @return <code>true</code>, if the copy contains the complete response
+     */
+    public boolean isComplete() {
+        return buffer != null;
+    }
+
+    /**
+     * @return the copied response, or <code>null</code> if it was discarded
+     */
+    public byte[] toByteArray() {
+        return buffer == null ? null : buffer.toByteArray();
+    }
+
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.service;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.exception.ServiceBusyException;
+import org.n52.sos.util.Cleanupable;
+import org.n52.sos.util.GroupedAndNamedThreadFactory;
+import org.n52.sos.util.StringHelper;
+import org.n52.sos.util.Validation;
+
+/**
+ * Bounded thread pool that processes requests asynchronously to release the
+ * threads of the servlet container. The pool is created lazily and recreated
+ * if its size is changed; running requests are finished by the old pool.
+ *
+ * @since 4.4.0
+ */
+@Configurable
+public class AsyncRequestExecutor implements Cleanupable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncRequestExecutor.class);
+
+    private static final String THREAD_GROUP = "sos-async-request";
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static volatile AsyncRequestExecutor instance;
+
+    private volatile boolean enabled;
+
+    private volatile long timeout;
+
+    private volatile Set<String> operations = Collections.emptySet();
+
+    private int threads;
+
+    private int queueSize;
+
+    private ThreadPoolExecutor executor;
+
+    public static AsyncRequestExecutor getInstance() {
+        AsyncRequestExecutor executor = instance;
+        if (executor == null) {
+            synchronized (AsyncRequestExecutor.class) {
+                if (instance == null) {
+                    executor = new AsyncRequestExecutor();
+                    SettingsManager.getInstance().configure(executor);
+                    instance = executor;
+                }
+                executor = instance;
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * @return the instance if it was already created, or <code>null</code>
+     */
+    static AsyncRequestExecutor getConfiguredInstance() {
+        return instance;
+    }
+
+    @Setting(RequestProcessingSettings.ASYNC_ENABLED)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Setting(RequestProcessingSettings.ASYNC_THREADS)
+    public synchronized void setThreads(int threads) throws ConfigurationException {
+        Validation.greaterZero("Asynchronous processing threads", threads);
+        if (this.threads != threads) {
+            this.threads = threads;
+            shutdown();
+        }
+    }
+
+    @Setting(RequestProcessingSettings.ASYNC_QUEUE_SIZE)
+    public synchronized void setQueueSize(int queueSize) throws ConfigurationException {
+        Validation.greaterEqualZero("Asynchronous processing queue size", queueSize);
+        if (this.queueSize != queueSize) {
+            this.queueSize = queueSize;
+            shutdown();
+        }
+    }
+
+    @Setting(RequestProcessingSettings.ASYNC_TIMEOUT)
+    public void setTimeout(int timeout) throws ConfigurationException {
+        Validation.greaterEqualZero("Asynchronous processing timeout", timeout);
+        this.timeout = TimeUnit.SECONDS.toMillis(timeout);
+    }
+
+    /**
+     * @return the timeout of asynchronous requests in milliseconds,
+     *         <code>0</code> if they should not time out
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Setting(RequestProcessingSettings.ASYNC_OPERATIONS)
+    public void setOperations(String operations) {
+        this.operations = Collections.unmodifiableSet(StringHelper.splitToSet(operations));
+    }
+
+    /**
+     * @param operation
+     *            the operation name of a request
+     * @return <code>true</code>, if requests of this operation should be
+     *         processed asynchronously
+     */
+    public boolean isAsyncOperation(String operation) {
+        return operation != null && operations.contains(operation);
+    }
+
+    /**
+     * Submit the processing of a request.
+     *
+     * @param task
+     *            the task processing the request
+     * @return the future of the task, that can be used to cancel it if it is
+     *         still queued
+     * @throws ServiceBusyException
+     *             if all threads are busy and the queue is full
+     */
+    public Future<?> submit(Runnable task) {
+        try {
+            return getExecutor().submit(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Rejected asynchronous request", e);
+            throw new ServiceBusyException(null, RequestLimiter.getInstance().getRetryAfter());
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            BlockingQueue<Runnable> queue;
+            if (queueSize > 0) {
+                queue = new ArrayBlockingQueue<Runnable>(queueSize);
+            } else {
+                queue = new SynchronousQueue<Runnable>();
+            }
+            executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue,
+                    new GroupedAndNamedThreadFactory(THREAD_GROUP));
+            executor.allowCoreThreadTimeOut(true);
+            LOGGER.info("Created asynchronous request executor with {} threads and queue size {}", threads, queueSize);
+        }
+        return executor;
+    }
+
+    private synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        shutdown();
+    }
+}
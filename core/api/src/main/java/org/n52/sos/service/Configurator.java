@@ -61,6 +61,7 @@ import org.n52.sos.event.SosEventBus;
 import org.n52.sos.event.events.ConfiguratorInitializedEvent;
 import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.metrics.RequestMetrics;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.ows.OwsExtendedCapabilitiesRepository;
 import org.n52.sos.ogc.ows.SosServiceIdentification;
@@ -322,6 +323,9 @@ public class Configurator implements Cleanupable {
 
         SettingsManager.getInstance();
         ServiceConfiguration.getInstance();
+        RequestMetrics.getInstance();
+        RequestLimiter.getInstance();
+        AsyncRequestExecutor.getInstance();
 
         initializeConnectionProviders();
         CacheFeederDAORepository.createInstance(getDatasourceDaoIdentificator());
@@ -653,6 +657,7 @@ public class Configurator implements Cleanupable {
         cleanup(featureConnectionProvider);
         cleanup(contentCacheController);
         cleanup(tasking);
+        cleanup(AsyncRequestExecutor.getConfiguredInstance());
         instance = null;
     }
 
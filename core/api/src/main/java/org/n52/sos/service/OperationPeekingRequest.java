@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.n52.sos.ogc.ows.OWSConstants.RequestParams;
+import org.n52.sos.util.http.HTTPUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Charsets;
+
+/**
+ * Request wrapper that reads the beginning of the request body to detect the
+ * requested operation before the request is decoded. The peeked bytes are
+ * replayed to the binding, so the body can be read as usual.
+ *
+ * The operation is the local name of the first XML element that is not part of
+ * a SOAP envelope, or the value of the top level <code>request</code> member
+ * of a JSON object. Other encodings, e.g. EXI, are not detected.
+ *
+ * Only the bytes that are {@link InputStream#available() available} without
+ * blocking are peeked, as this runs on the container thread. The operation of
+ * a slow upload is therefore usually not detected.
+ *
+ * @since 4.4.0
+ */
+class OperationPeekingRequest extends HttpServletRequestWrapper {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationPeekingRequest.class);
+
+    private static final int PEEK_SIZE = 8192;
+
+    private static final String SOAP_ENVELOPE = "Envelope";
+
+    private static final String SOAP_HEADER = "Header";
+
+    private static final String SOAP_BODY = "Body";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final byte[] peeked;
+
+    private final InputStream remainder;
+
+    private ServletInputStream inputStream;
+
+    private BufferedReader reader;
+
+    OperationPeekingRequest(HttpServletRequest request) throws IOException {
+        super(request);
+        this.remainder = request.getInputStream();
+        this.peeked = peek(remainder);
+    }
+
+    /**
+     * @return the name of the requested operation or <code>null</code> if it
+     *         could not be detected from the beginning of the body
+     */
+    String getOperation() {
+        if (peeked.length == 0) {
+            return null;
+        }
+        try {
+            InputStream in = new ByteArrayInputStream(peeked);
+            if (HTTPUtils.isGzipEncoded(this)) {
+                in = new BufferedInputStream(new GZIPInputStream(in));
+            }
+            byte first = peekFirstByte(in);
+            if (first == '{') {
+                return getJsonOperation(in);
+            } else if (first == '<') {
+                return getXmlOperation(in);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not detect the operation of the request", e);
+        } catch (XMLStreamException e) {
+            LOGGER.debug("Could not detect the operation of the request", e);
+        }
+        return null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (reader != null) {
+            throw new IllegalStateException("getReader() was already called");
+        }
+        if (inputStream == null) {
+            final InputStream in = new SequenceInputStream(new ByteArrayInputStream(peeked), remainder);
+            inputStream = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (inputStream != null) {
+            throw new IllegalStateException("getInputStream() was already called");
+        }
+        if (reader == null) {
+            InputStream in = new SequenceInputStream(new ByteArrayInputStream(peeked), remainder);
+            reader = new BufferedReader(new InputStreamReader(in, getEncoding()));
+        }
+        return reader;
+    }
+
+    private String getEncoding() throws UnsupportedEncodingException {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? Charsets.UTF_8.name() : encoding;
+    }
+
+    private String getXmlOperation(InputStream in) throws XMLStreamException {
+        XMLStreamReader xml = XML_INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamReader.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if (SOAP_HEADER.equals(name)) {
+                        skipElement(xml);
+                    } else if (!SOAP_ENVELOPE.equals(name) && !SOAP_BODY.equals(name)) {
+                        return name;
+                    }
+                }
+            }
+            return null;
+        } finally {
+            xml.close();
+        }
+    }
+
+    private void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamReader.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private String getJsonOperation(InputStream in) throws IOException {
+        JsonParser json = JSON_FACTORY.createParser(in);
+        try {
+            if (json.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                String name = json.getCurrentName();
+                JsonToken value = json.nextToken();
+                if (RequestParams.request.name().equals(name)) {
+                    return value == JsonToken.VALUE_STRING ? json.getText() : null;
+                }
+                json.skipChildren();
+            }
+            return null;
+        } finally {
+            json.close();
+        }
+    }
+
+    private byte peekFirstByte(InputStream in) throws IOException {
+        in.mark(PEEK_SIZE);
+        int b;
+        do {
+            b = in.read();
+        } while (b >= 0 && Character.isWhitespace(b));
+        in.reset();
+        return (byte) b;
+    }
+
+    private static byte[] peek(InputStream in) throws IOException {
+        byte[] buffer = new byte[PEEK_SIZE];
+        int length = 0;
+        int available;
+        while (length < buffer.length && (available = in.available()) > 0) {
+            int read = in.read(buffer, length, Math.min(available, buffer.length - length));
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.exception.ServiceBusyException;
+import org.n52.sos.util.StringHelper;
+import org.n52.sos.util.Validation;
+
+/**
+ * Limits the number of concurrently processed requests per operation. Permits
+ * are acquired by the request operators and held in a thread local scope that
+ * is opened and closed by the {@link SosService}, so that the encoding and
+ * writing of (streaming) responses is covered as well. Operators invoked
+ * outside of such a scope are not limited.
+ *
+ * @since 4.4.0
+ */
+@Configurable
+public class RequestLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestLimiter.class);
+
+    private static final ThreadLocal<Map<String, Semaphore>> ACQUIRED = new ThreadLocal<Map<String, Semaphore>>();
+
+    private static volatile RequestLimiter instance;
+
+    private volatile Map<String, Semaphore> limits = Collections.emptyMap();
+
+    private volatile int retryAfter;
+
+    public static synchronized RequestLimiter getInstance() {
+        if (instance == null) {
+            instance = new RequestLimiter();
+            SettingsManager.getInstance().configure(instance);
+        }
+        return instance;
+    }
+
+    @Setting(RequestProcessingSettings.CONCURRENCY_LIMITS)
+    public void setLimits(String limits) throws ConfigurationException {
+        Map<String, Semaphore> parsed = new HashMap<String, Semaphore>();
+        for (String pair : StringHelper.splitToList(limits)) {
+            List<String> tokens = StringHelper.splitToList(pair, "=");
+            if (tokens.size() != 2) {
+                throw new ConfigurationException(String.format("Invalid concurrency limit: %s", pair));
+            }
+            try {
+                int limit = Integer.parseInt(tokens.get(1));
+                Validation.greaterZero("Concurrency limit of " + tokens.get(0), limit);
+                parsed.put(tokens.get(0), new Semaphore(limit));
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(String.format("Invalid concurrency limit: %s", pair), e);
+            }
+        }
+        LOGGER.debug("Concurrency limits: {}", parsed.keySet());
+        this.limits = Collections.unmodifiableMap(parsed);
+    }
+
+    @Setting(RequestProcessingSettings.RETRY_AFTER)
+    public void setRetryAfter(int retryAfter) throws ConfigurationException {
+        Validation.greaterEqualZero("Retry after", retryAfter);
+        this.retryAfter = retryAfter;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Open a scope for the current thread in which acquired permits are held.
+     */
+    public static void begin() {
+        ACQUIRED.set(new HashMap<String, Semaphore>(1));
+    }
+
+    /**
+     * Release all permits acquired in the scope of the current thread and
+     * close it.
+     */
+    public static void end() {
+        Map<String, Semaphore> acquired = ACQUIRED.get();
+        if (acquired != null) {
+            ACQUIRED.remove();
+            for (Semaphore semaphore : acquired.values()) {
+                semaphore.release();
+            }
+        }
+    }
+
+    /**
+     * Acquire a permit for the operation in the scope of the current thread.
+     * Nested requests of the same operation (e.g. in a batch request) reuse
+     * the permit of the outer request.
+     *
+     * @param operation
+     *            the operation name
+     * @throws ServiceBusyException
+     *             if the concurrency limit of the operation is reached
+     */
+    public static void acquire(String operation) {
+        Map<String, Semaphore> acquired = ACQUIRED.get();
+        RequestLimiter limiter = instance;
+        if (acquired == null || limiter == null || operation == null || acquired.containsKey(operation)) {
+            return;
+        }
+        Semaphore semaphore = limiter.limits.get(operation);
+        if (semaphore != null) {
+            if (!semaphore.tryAcquire()) {
+                throw new ServiceBusyException(operation, limiter.getRetryAfter());
+            }
+            acquired.put(operation, semaphore);
+        }
+    }
+}
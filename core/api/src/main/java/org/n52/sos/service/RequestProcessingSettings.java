@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.service;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionGroup;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.BooleanSettingDefinition;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
+import org.n52.sos.config.settings.StringSettingDefinition;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link SettingDefinitionProvider} for the asynchronous request processing,
+ * the per operation concurrency limits and the streaming decoding of
+ * InsertObservation requests.
+ *
+ * @since 4.4.0
+ */
+public class RequestProcessingSettings implements SettingDefinitionProvider {
+
+    public static final String ASYNC_ENABLED = "service.async.enabled";
+
+    public static final String ASYNC_THREADS = "service.async.threads";
+
+    public static final String ASYNC_QUEUE_SIZE = "service.async.queueSize";
+
+    public static final String ASYNC_TIMEOUT = "service.async.timeout";
+
+    public static final String ASYNC_OPERATIONS = "service.async.operations";
+
+    public static final String CONCURRENCY_LIMITS = "service.concurrency.limits";
+
+    public static final String RETRY_AFTER = "service.concurrency.retryAfter";
+
+    public static final String STREAMING_INSERT_OBSERVATION = "service.streaming.insertObservation";
+
+    public static final String STREAMING_INSERT_OBSERVATION_GROUP_SIZE =
+            "service.streaming.insertObservation.groupSize";
+
+    public static final SettingDefinitionGroup GROUP = new SettingDefinitionGroup()
+            .setTitle("Request Processing")
+            .setDescription("Settings to process long running requests asynchronously and to limit the number of "
+                    + "concurrently processed requests per operation. Saturated operations are rejected with "
+                    + "HTTP status 503 and a Retry-After header. Large InsertObservation requests can be decoded "
+                    + "and inserted in groups of observations to limit the memory usage.")
+            .setOrder(ORDER_13);
+
+    public static final BooleanSettingDefinition ASYNC_ENABLED_DEFINITION = new BooleanSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_0)
+            .setKey(ASYNC_ENABLED)
+            .setDefaultValue(false)
+            .setTitle("Process requests asynchronously")
+            .setDescription("Whether requests with a body and KVP requests of the operations listed below should be "
+                    + "processed by a dedicated thread pool to release the servlet container threads. "
+                    + "Requires a Servlet 3.0 container.");
+
+    public static final IntegerSettingDefinition ASYNC_THREADS_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_1)
+            .setKey(ASYNC_THREADS)
+            .setDefaultValue(8)
+            .setMinimum(1)
+            .setTitle("Asynchronous processing threads")
+            .setDescription("The number of threads processing asynchronous requests.");
+
+    public static final IntegerSettingDefinition ASYNC_QUEUE_SIZE_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_2)
+            .setKey(ASYNC_QUEUE_SIZE)
+            .setDefaultValue(16)
+            .setMinimum(0)
+            .setTitle("Asynchronous processing queue size")
+            .setDescription("The number of asynchronous requests waiting for a free thread. Further requests are "
+                    + "rejected.");
+
+    public static final IntegerSettingDefinition ASYNC_TIMEOUT_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_3)
+            .setKey(ASYNC_TIMEOUT)
+            .setDefaultValue(0)
+            .setMinimum(0)
+            .setTitle("Asynchronous processing timeout")
+            .setDescription("The timeout of asynchronous requests in seconds. 0 disables the timeout, which is "
+                    + "recommended for streaming responses.");
+
+    public static final StringSettingDefinition ASYNC_OPERATIONS_DEFINITION = new StringSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_4)
+            .setKey(ASYNC_OPERATIONS)
+            .setDefaultValue("GetObservation,GetObservationById,GetResult")
+            .setTitle("Asynchronous operations")
+            .setDescription("Comma separated list of operations that are processed asynchronously, regardless of "
+                    + "the binding. Requests with a body whose operation can not be detected, e.g. EXI encoded "
+                    + "requests, are always processed asynchronously.");
+
+    public static final StringSettingDefinition CONCURRENCY_LIMITS_DEFINITION = new StringSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_5)
+            .setKey(CONCURRENCY_LIMITS)
+            .setDefaultValue("")
+            .setOptional(true)
+            .setTitle("Concurrency limits")
+            .setDescription("Comma separated list of <code>Operation=limit</code> pairs, e.g. "
+                    + "<code>GetObservation=4,InsertObservation=2</code>. Operations without a limit are not "
+                    + "restricted.");
+
+    public static final IntegerSettingDefinition RETRY_AFTER_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_6)
+            .setKey(RETRY_AFTER)
+            .setDefaultValue(10)
+            .setMinimum(0)
+            .setTitle("Retry after")
+            .setDescription("The number of seconds a client is asked to wait before repeating a rejected request.");
+
+    public static final BooleanSettingDefinition STREAMING_INSERT_OBSERVATION_DEFINITION =
+            new BooleanSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_7)
+                    .setKey(STREAMING_INSERT_OBSERVATION)
+                    .setDefaultValue(false)
+                    .setTitle("Stream InsertObservation requests")
+                    .setDescription("Whether SOS 2.0 InsertObservation requests sent to the POX binding should be "
+                            + "decoded observation by observation and inserted in groups instead of parsing the "
+                            + "whole request at once. Each group is inserted in its own transaction, so groups "
+                            + "inserted before a failing group are not rolled back. The exception report of a "
+                            + "failing request states how many observations were inserted.");
+
+    public static final IntegerSettingDefinition STREAMING_INSERT_OBSERVATION_GROUP_SIZE_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_8)
+                    .setKey(STREAMING_INSERT_OBSERVATION_GROUP_SIZE)
+                    .setDefaultValue(500)
+                    .setMinimum(1)
+                    .setTitle("InsertObservation group size")
+                    .setDescription("The maximum number of observations of a streamed InsertObservation request "
+                            + "that are held in memory and inserted together.");
+
+    private static final Set<SettingDefinition<?, ?>> DEFINITIONS = ImmutableSet.<SettingDefinition<?, ?>> of(
+            ASYNC_ENABLED_DEFINITION, ASYNC_THREADS_DEFINITION, ASYNC_QUEUE_SIZE_DEFINITION,
+            ASYNC_TIMEOUT_DEFINITION, ASYNC_OPERATIONS_DEFINITION, CONCURRENCY_LIMITS_DEFINITION,
+            RETRY_AFTER_DEFINITION, STREAMING_INSERT_OBSERVATION_DEFINITION,
+            STREAMING_INSERT_OBSERVATION_GROUP_SIZE_DEFINITION);
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return Collections.unmodifiableSet(DEFINITIONS);
+    }
+
+}
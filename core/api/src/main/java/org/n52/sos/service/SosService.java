@@ -33,8 +33,13 @@ import java.lang.reflect.Method;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -47,6 +52,9 @@ import org.n52.sos.binding.BindingRepository;
 import org.n52.sos.event.SosEventBus;
 import org.n52.sos.event.events.ExceptionEvent;
 import org.n52.sos.exception.HTTPException;
+import org.n52.sos.exception.ServiceBusyException;
+import org.n52.sos.metrics.RequestMetrics;
+import org.n52.sos.ogc.ows.OWSConstants.RequestParams;
 import org.n52.sos.util.http.HTTPHeaders;
 import org.n52.sos.util.http.HTTPMethods;
 import org.n52.sos.util.http.HTTPStatus;
@@ -103,60 +111,188 @@ public class SosService extends ConfiguratedHttpServlet {
     @Override
     protected void doDelete(HttpServletRequest request, HttpServletResponse response) throws ServletException,
             IOException {
-        long start = System.currentTimeMillis();
-        long currentCount = counter.incrementAndGet();
-        logRequest(request, currentCount);
-        try {
-            getBinding(request).doDeleteOperation(request, response);
-        } catch (HTTPException exception) {
-            onHttpException(request, response, exception);
-        } finally {
-            logResponse(response, currentCount, start);
-        }
+        handle(request, response, HTTPMethods.DELETE);
     }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException,
             IOException {
-        long start = System.currentTimeMillis();
-        long currentCount = counter.incrementAndGet();
-        logRequest(request, currentCount);
-        try {
-            getBinding(request).doGetOperation(request, response);
-        } catch (HTTPException exception) {
-            onHttpException(request, response, exception);
-        } finally {
-            logResponse(response, currentCount, start);
-        }
+        handle(request, response, HTTPMethods.GET);
     }
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException,
             IOException {
-        long start = System.currentTimeMillis();
-        long currentCount = counter.incrementAndGet();
-        logRequest(request, currentCount);
-        try {
-            getBinding(request).doPostOperation(request, response);
-        } catch (HTTPException exception) {
-            onHttpException(request, response, exception);
-        } finally {
-            logResponse(response, currentCount, start);
-        }
+        handle(request, response, HTTPMethods.POST);
     }
 
     @Override
     protected void doPut(HttpServletRequest request, HttpServletResponse response) throws ServletException,
             IOException {
+        handle(request, response, HTTPMethods.PUT);
+    }
+
+    private void handle(HttpServletRequest request, HttpServletResponse response, String method)
+            throws IOException {
+        AsyncRequestExecutor executor = AsyncRequestExecutor.getInstance();
+        if (executor.isEnabled() && request.isAsyncSupported()) {
+            HttpServletRequest processedRequest = request;
+            String operation;
+            if (HTTPMethods.GET.equals(method)) {
+                operation = getKvpOperation(request);
+            } else {
+                OperationPeekingRequest peekingRequest = new OperationPeekingRequest(request);
+                operation = peekingRequest.getOperation();
+                processedRequest = peekingRequest;
+            }
+            if (isProcessAsync(executor, method, operation)) {
+                processAsync(executor, processedRequest, response, method);
+            } else {
+                process(processedRequest, response, method);
+            }
+        } else {
+            process(request, response, method);
+        }
+    }
+
+    /**
+     * Requests are processed asynchronously depending on their operation, so
+     * that cheap requests like GetCapabilities never wait for a thread of the
+     * executor, regardless of the binding. Requests with a body whose
+     * operation can not be detected are processed asynchronously.
+     */
+    private boolean isProcessAsync(AsyncRequestExecutor executor, String method, String operation) {
+        if (operation == null) {
+            return !HTTPMethods.GET.equals(method);
+        }
+        return executor.isAsyncOperation(operation);
+    }
+
+    private String getKvpOperation(HttpServletRequest request) {
+        Enumeration<?> parameterNames = request.getParameterNames();
+        while (parameterNames.hasMoreElements()) {
+            String name = (String) parameterNames.nextElement();
+            if (RequestParams.request.name().equalsIgnoreCase(name)) {
+                return request.getParameter(name);
+            }
+        }
+        return null;
+    }
+
+    private void processAsync(AsyncRequestExecutor executor, HttpServletRequest request,
+            HttpServletResponse response, final String method) throws IOException {
+        final TimeoutGuardedResponse guardedResponse = new TimeoutGuardedResponse(response);
+        final AsyncContext context = request.startAsync(request, guardedResponse);
+        context.setTimeout(executor.getTimeout());
+        final AtomicReference<Future<?>> taskReference = new AtomicReference<Future<?>>();
+        context.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                int retryAfter = RequestLimiter.getInstance().getRetryAfter();
+                if (guardedResponse.timeout(retryAfter)) {
+                    Future<?> task = taskReference.get();
+                    if (task != null) {
+                        task.cancel(false);
+                    }
+                    LOGGER.debug("Asynchronous request timed out after {}ms", event.getAsyncContext().getTimeout());
+                    SosEventBus.fire(new ExceptionEvent(new ServiceBusyException(null, retryAfter)));
+                }
+                complete(event.getAsyncContext());
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        try {
+            taskReference.set(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (guardedResponse.isTimedOut()) {
+                            LOGGER.debug("Skipping asynchronous request that timed out while waiting");
+                            return;
+                        }
+                        HttpServletRequest asyncRequest = (HttpServletRequest) context.getRequest();
+                        process(asyncRequest, guardedResponse, method);
+                    } catch (IOException e) {
+                        if (guardedResponse.isTimedOut()) {
+                            LOGGER.debug("Asynchronous request timed out while writing the response", e);
+                        } else {
+                            LOGGER.error("Error while writing asynchronous response", e);
+                        }
+                    } catch (RuntimeException e) {
+                        LOGGER.error("Error while processing asynchronous request", e);
+                        sendInternalServerError(guardedResponse);
+                    } finally {
+                        if (!guardedResponse.isTimedOut()) {
+                            complete(context);
+                        }
+                    }
+                }
+            }));
+        } catch (ServiceBusyException exception) {
+            try {
+                onServiceBusyException(request, response, exception);
+            } finally {
+                complete(context);
+            }
+        }
+    }
+
+    private void process(HttpServletRequest request, HttpServletResponse response, String method)
+            throws IOException {
         long start = System.currentTimeMillis();
         long currentCount = counter.incrementAndGet();
         logRequest(request, currentCount);
+        RequestMetrics.start();
+        RequestLimiter.begin();
         try {
-            getBinding(request).doPutOperation(request, response);
+            Binding binding = getBinding(request);
+            if (HTTPMethods.GET.equals(method)) {
+                binding.doGetOperation(request, response);
+            } else if (HTTPMethods.POST.equals(method)) {
+                binding.doPostOperation(request, response);
+            } else if (HTTPMethods.PUT.equals(method)) {
+                binding.doPutOperation(request, response);
+            } else {
+                binding.doDeleteOperation(request, response);
+            }
         } catch (HTTPException exception) {
             onHttpException(request, response, exception);
+        } catch (ServiceBusyException exception) {
+            onServiceBusyException(request, response, exception);
         } finally {
+            RequestLimiter.end();
             logResponse(response, currentCount, start);
+            RequestMetrics.finish();
+        }
+    }
+
+    private void sendInternalServerError(HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            try {
+                response.sendError(HTTPStatus.INTERNAL_SERVER_ERROR.getCode());
+            } catch (IOException e) {
+                LOGGER.debug("Could not send error", e);
+            }
+        }
+    }
+
+    private void complete(AsyncContext context) {
+        try {
+            context.complete();
+        } catch (IllegalStateException e) {
+            // the container already completed the request, e.g. on timeout
+            LOGGER.debug("Asynchronous request already completed", e);
         }
     }
 
@@ -210,12 +346,14 @@ public class SosService extends ConfiguratedHttpServlet {
             if (binding == null) {
                 throw new HTTPException(HTTPStatus.UNSUPPORTED_MEDIA_TYPE);
             } else {
+                RequestMetrics.setBinding(binding.getUrlPattern());
                 return binding;
             }
         }
 
         for (String prefix : repo.getBindings().keySet()) {
             if (requestURI.startsWith(prefix)) {
+                RequestMetrics.setBinding(prefix);
                 return repo.getBinding(prefix);
             }
         }
@@ -246,6 +384,14 @@ public class SosService extends ConfiguratedHttpServlet {
         response.sendError(exception.getStatus().getCode(), exception.getMessage());
     }
 
+    protected void onServiceBusyException(HttpServletRequest request, HttpServletResponse response,
+            ServiceBusyException exception) throws IOException {
+        LOGGER.debug("Rejecting request: {}", exception.getMessage());
+        SosEventBus.fire(new ExceptionEvent(exception));
+        response.setHeader(HTTPHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter()));
+        response.sendError(HTTPStatus.SERVICE_UNAVAILABLE.getCode(), exception.getMessage());
+    }
+
     protected void doDefaultOptions(Binding binding, HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
         Set<String> methods = getDeclaredBindingMethods(binding.getClass());
@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.service;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.n52.sos.util.http.HTTPHeaders;
+import org.n52.sos.util.http.HTTPStatus;
+
+/**
+ * Response wrapper for asynchronously processed requests. Once the request
+ * timed out, the container owns the response: the worker thread must not
+ * write anything anymore, so every write checks the timeout flag while holding
+ * the lock that is also used to answer the timed out request.
+ *
+ * @since 4.4.0
+ */
+class TimeoutGuardedResponse extends HttpServletResponseWrapper {
+
+    private final Object lock = new Object();
+
+    private boolean timedOut;
+
+    private ServletOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    TimeoutGuardedResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Marks the response as timed out and answers it with HTTP status 503, if
+     * the worker did not start to write the response.
+     *
+     * @param retryAfter
+     *            the seconds a client should wait before repeating the request
+     *
+     * @return <code>true</code> if the response was marked by this call,
+     *         <code>false</code> if it was already timed out before
+     */
+    boolean timeout(int retryAfter) throws IOException {
+        synchronized (lock) {
+            if (timedOut) {
+                return false;
+            }
+            timedOut = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setHeader(HTTPHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.sendError(HTTPStatus.SERVICE_UNAVAILABLE.getCode(),
+                        "The processing of the request timed out");
+            }
+            return true;
+        }
+    }
+
+    boolean isTimedOut() {
+        synchronized (lock) {
+            return timedOut;
+        }
+    }
+
+    private void checkTimeout() throws IOException {
+        if (timedOut) {
+            throw new IOException("The asynchronous request timed out");
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        synchronized (lock) {
+            checkTimeout();
+            if (outputStream == null) {
+                outputStream = new GuardedOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        synchronized (lock) {
+            checkTimeout();
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        synchronized (lock) {
+            if (!timedOut) {
+                super.setStatus(sc);
+            }
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        synchronized (lock) {
+            if (!timedOut) {
+                super.setHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        synchronized (lock) {
+            if (!timedOut) {
+                super.addHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void setContentType(String type) {
+        synchronized (lock) {
+            if (!timedOut) {
+                super.setContentType(type);
+            }
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        synchronized (lock) {
+            checkTimeout();
+            super.sendError(sc, msg);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        synchronized (lock) {
+            checkTimeout();
+            super.sendError(sc);
+        }
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        synchronized (lock) {
+            checkTimeout();
+            super.sendRedirect(location);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        synchronized (lock) {
+            checkTimeout();
+            super.flushBuffer();
+        }
+    }
+
+    private class GuardedOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        GuardedOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            synchronized (lock) {
+                checkTimeout();
+                delegate.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (lock) {
+                checkTimeout();
+                delegate.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (lock) {
+                checkTimeout();
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                checkTimeout();
+                delegate.close();
+            }
+        }
+    }
+}
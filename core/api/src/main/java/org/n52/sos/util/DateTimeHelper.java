@@ -31,10 +31,12 @@ package org.n52.sos.util;
 import java.math.BigDecimal;
 import java.util.regex.Pattern;
 
+import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.Days;
 import org.joda.time.Period;
+import org.joda.time.chrono.ISOChronology;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.ISODateTimeFormat;
 import org.joda.time.format.ISOPeriodFormat;
@@ -93,6 +95,27 @@ public final class DateTimeHelper {
     
     private static final double SECONDS_OF_DAY = 86400; 
 
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    private static final int OFFSET_LENGTH = 6;
+
+    private static final int HOURS_OF_DAY = 24;
+
+    private static final int MINUTES_OF_HOUR = 60;
+
+    private static final int MILLIS_OF_MINUTE = 60000;
+
+    private static final int MAX_FOUR_DIGIT_YEAR = 9999;
+
+    private static final int ISO_STRING_LENGTH = 29;
+
+    private static final int[] DIVISORS = { 1, 10, 100, 1000 };
+
+    /**
+     * positive offset zones by offset minutes
+     */
+    private static final DateTimeZone[] OFFSET_ZONES = new DateTimeZone[HOURS_OF_DAY * MINUTES_OF_HOUR];
+
     /**
      * lease value
      */
@@ -113,6 +136,10 @@ public final class DateTimeHelper {
             return null;
         }
         try {
+            DateTime dateTime = parseFixedLayoutIsoString(timeString);
+            if (dateTime != null) {
+                return dateTime;
+            }
             if (timeString.contains("+") || Pattern.matches("-\\d", timeString) || timeString.contains(Z)
                     || timeString.contains("z")) {
                 return ISODateTimeFormat.dateOptionalTimeParser().withOffsetParsed().parseDateTime(timeString);
@@ -135,14 +162,113 @@ public final class DateTimeHelper {
      *             If an error occurs.
      */
     public static Time parseIsoString2DateTime2Time(final String timeString) throws DateTimeParseException {
-        if (timeString.contains(Constants.SLASH_STRING)) {
-            final String[] subTokens = timeString.split(Constants.SLASH_STRING);
-            return new TimePeriod(parseIsoString2DateTime(subTokens[0]), parseIsoString2DateTime(subTokens[1]));
+        int slash = timeString.indexOf(Constants.SLASH_CHAR);
+        if (slash >= 0) {
+            int end = timeString.indexOf(Constants.SLASH_CHAR, slash + 1);
+            return new TimePeriod(parseIsoString2DateTime(timeString.substring(0, slash)),
+                    parseIsoString2DateTime(timeString.substring(slash + 1, end < 0 ? timeString.length() : end)));
         } else {
             return new TimeInstant(parseIsoString2DateTime(timeString));
         }
     }
 
+    /**
+     * Parses the fixed layout
+     * <code>yyyy-MM-ddTHH:mm:ss[.S*][Z|&plusmn;hh:mm]</code> without the
+     * generic Joda Time parser. The result is equal to the one of the generic
+     * parser: positive offsets are kept as zone, negative offsets and missing
+     * offsets result in UTC.
+     *
+     * @param timeString
+     *            Time String
+     * @return DateTime object or <code>null</code> if the layout does not
+     *         match
+     */
+    private static DateTime parseFixedLayoutIsoString(final String timeString) {
+        final int length = timeString.length();
+        if (length < YEAR_MONTH_DAY_HOUR_MINUTE_SECOND || timeString.charAt(4) != '-' || timeString.charAt(7) != '-'
+                || timeString.charAt(10) != 'T' || timeString.charAt(13) != ':' || timeString.charAt(16) != ':') {
+            return null;
+        }
+        final int year = parseDigits(timeString, 0, 4);
+        final int month = parseDigits(timeString, 5, 2);
+        final int day = parseDigits(timeString, 8, 2);
+        final int hour = parseDigits(timeString, 11, 2);
+        final int minute = parseDigits(timeString, 14, 2);
+        final int second = parseDigits(timeString, 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        int pos = YEAR_MONTH_DAY_HOUR_MINUTE_SECOND;
+        int millis = 0;
+        if (pos < length && timeString.charAt(pos) == '.') {
+            final int start = ++pos;
+            int factor = 100;
+            while (pos < length && isDigit(timeString.charAt(pos))) {
+                millis += (timeString.charAt(pos) - '0') * factor;
+                factor /= 10;
+                pos++;
+            }
+            if (pos == start || pos - start > MAX_FRACTION_DIGITS) {
+                return null;
+            }
+        }
+        int offsetMinutes = 0;
+        boolean offsetParsed = false;
+        if (pos < length) {
+            final char sign = timeString.charAt(pos);
+            if (sign == 'Z' && pos + 1 == length) {
+                pos++;
+            } else if ((sign == '+' || sign == '-') && pos + OFFSET_LENGTH == length
+                    && timeString.charAt(pos + 3) == ':') {
+                final int offsetHours = parseDigits(timeString, pos + 1, 2);
+                final int offsetMinute = parseDigits(timeString, pos + 4, 2);
+                if (offsetHours < 0 || offsetHours >= HOURS_OF_DAY || offsetMinute < 0 || offsetMinute >= MINUTES_OF_HOUR) {
+                    return null;
+                }
+                offsetMinutes = offsetHours * MINUTES_OF_HOUR + offsetMinute;
+                offsetParsed = sign == '+';
+                if (sign == '-') {
+                    offsetMinutes = -offsetMinutes;
+                }
+            } else {
+                return null;
+            }
+        }
+        final long localMillis =
+                ISOChronology.getInstanceUTC().getDateTimeMillis(year, month, day, hour, minute, second, millis);
+        final long instant = localMillis - offsetMinutes * MILLIS_OF_MINUTE;
+        if (offsetParsed) {
+            return new DateTime(instant, getOffsetZone(offsetMinutes));
+        }
+        return new DateTime(instant, DateTimeZone.UTC);
+    }
+
+    private static DateTimeZone getOffsetZone(final int offsetMinutes) {
+        DateTimeZone zone = OFFSET_ZONES[offsetMinutes];
+        if (zone == null) {
+            zone = DateTimeZone.forOffsetMillis(offsetMinutes * MILLIS_OF_MINUTE);
+            OFFSET_ZONES[offsetMinutes] = zone;
+        }
+        return zone;
+    }
+
+    private static int parseDigits(final String string, final int start, final int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            final char c = string.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
     private static void checkForValidity(final String timeString) throws DateTimeParseException {
         if (!(timeString.length() == YEAR || timeString.length() == YEAR_MONTH || timeString.length() >= YEAR_MONTH_DAY)) {
             throw new DateTimeParseException(timeString);
@@ -190,7 +316,54 @@ public final class DateTimeHelper {
         if (dateTime == null) {
             return getZeroUtcDateTime().toString().replace(Z, UTC_OFFSET);
         }
-        return dateTime.toString();
+        return appendIsoString(new StringBuilder(ISO_STRING_LENGTH), dateTime).toString();
+    }
+
+    /**
+     * Appends a DateTime as ISO-8601 String
+     * (<code>yyyy-MM-ddTHH:mm:ss.SSS(Z|&plusmn;hh:mm)</code>) to the builder.
+     * The output is equal to {@link #formatDateTime2IsoString(DateTime)}.
+     *
+     * @param builder
+     *            the builder to append to
+     * @param dateTime
+     *            Time object
+     * @return the builder
+     */
+    public static StringBuilder appendIsoString(final StringBuilder builder, final DateTime dateTime) {
+        if (dateTime == null) {
+            return builder.append(formatDateTime2IsoString(null));
+        }
+        final long instant = dateTime.getMillis();
+        final int offset = dateTime.getZone().getOffset(instant);
+        final Chronology chronology = ISOChronology.getInstanceUTC();
+        final long local = instant + offset;
+        final int year = chronology.year().get(local);
+        if (dateTime.getChronology().withUTC() != chronology || offset % MILLIS_OF_MINUTE != 0 || year < 0
+                || year > MAX_FOUR_DIGIT_YEAR) {
+            return builder.append(dateTime.toString());
+        }
+        appendDigits(builder, year, 4).append('-');
+        appendDigits(builder, chronology.monthOfYear().get(local), 2).append('-');
+        appendDigits(builder, chronology.dayOfMonth().get(local), 2).append('T');
+        appendDigits(builder, chronology.hourOfDay().get(local), 2).append(':');
+        appendDigits(builder, chronology.minuteOfHour().get(local), 2).append(':');
+        appendDigits(builder, chronology.secondOfMinute().get(local), 2).append('.');
+        appendDigits(builder, chronology.millisOfSecond().get(local), 3);
+        if (offset == 0) {
+            return builder.append(Z);
+        }
+        final int offsetMinutes = Math.abs(offset / MILLIS_OF_MINUTE);
+        builder.append(offset < 0 ? '-' : '+');
+        appendDigits(builder, offsetMinutes / MINUTES_OF_HOUR, 2).append(':');
+        return appendDigits(builder, offsetMinutes % MINUTES_OF_HOUR, 2);
+    }
+
+    private static StringBuilder appendDigits(final StringBuilder builder, final int value, final int digits) {
+        for (int divisor = DIVISORS[digits - 1]; divisor > 0; divisor /= 10) {
+            builder.append((char) ('0' + value / divisor % 10));
+        }
+        return builder;
     }
 
     /**
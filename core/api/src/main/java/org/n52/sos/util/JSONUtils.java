@@ -45,6 +45,8 @@ import java.util.logging.Level;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -72,6 +74,8 @@ public class JSONUtils {
 
     private static final JsonNodeFactory FACTORY = JsonNodeFactory.withExactBigDecimals(false);
 
+    private static final ObjectMapper MAPPER;
+
     private static final ObjectReader READER;
 
     private static final ObjectWriter WRITER;
@@ -91,12 +95,9 @@ public class JSONUtils {
                 };
 
     static {
-        final ObjectMapper mapper =
-                new ObjectMapper().setNodeFactory(FACTORY).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-        READER = mapper.reader();
-        DefaultPrettyPrinter pp = new DefaultPrettyPrinter();
-        pp.indentArraysWith(DefaultPrettyPrinter.Lf2SpacesIndenter.instance);
-        WRITER = mapper.writer(pp);
+        MAPPER = new ObjectMapper().setNodeFactory(FACTORY).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        READER = MAPPER.reader();
+        WRITER = MAPPER.writer(createPrettyPrinter());
     }
 
     protected JSONUtils() {
@@ -114,6 +115,22 @@ public class JSONUtils {
         return FACTORY;
     }
 
+    /**
+     * Create a pretty printing {@link JsonGenerator} that writes to the
+     * stream, e.g. for streaming encoders. Closing the generator does not
+     * close the stream.
+     *
+     * @param out
+     *            the stream to write to
+     * @return the generator
+     * @throws IOException
+     *             If the generator can not be created
+     */
+    public static JsonGenerator createGenerator(final OutputStream out) throws IOException {
+        return MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8).setPrettyPrinter(createPrettyPrinter())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
     public static String print(final JsonNode node) {
         final StringWriter writer = new StringWriter();
         try {
@@ -197,4 +214,10 @@ public class JSONUtils {
         node.addAll(Collections2.transform(coll, TO_JSON_STRING));
         return node;
     }
+
+    private static DefaultPrettyPrinter createPrettyPrinter() {
+        DefaultPrettyPrinter pp = new DefaultPrettyPrinter();
+        pp.indentArraysWith(DefaultPrettyPrinter.Lf2SpacesIndenter.instance);
+        return pp;
+    }
 }
@@ -103,10 +103,7 @@ public final class XmlHelper {
                         XmlObject.Factory.parse(SosHelper.parseHttpPostBodyWithParameter(request.getParameterNames(),
                                 request.getParameterMap()));
             } else {
-                final String requestContent =
-                        StringHelper.convertStreamToString(HTTPUtils.getInputStream(request),
-                                request.getCharacterEncoding());
-                doc = parseXmlString(requestContent);
+                doc = parseXmlSosRequest(HTTPUtils.getInputStream(request), request.getCharacterEncoding());
             }
         } catch (final XmlException xmle) {
             throw new NoApplicableCodeException().causedBy(xmle).withMessage(
@@ -119,6 +116,23 @@ public final class XmlHelper {
         return doc;
     }
 
+    /**
+     * Parse the body of a XML request.
+     *
+     * @param in
+     *            the request body
+     * @param encoding
+     *            the character encoding of the request body
+     * @return XML document
+     *
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    public static XmlObject parseXmlSosRequest(final InputStream in, final String encoding)
+            throws OwsExceptionReport {
+        return parseXmlString(StringHelper.convertStreamToString(in, encoding));
+    }
+
     public static XmlObject parseXmlString(final String xmlString) throws OwsExceptionReport {
         try {
             return XmlObject.Factory.parse(xmlString);
@@ -46,6 +46,8 @@ public interface HTTPHeaders {
 
     String CONTENT_TYPE = "Content-Type";
 
+    String CONTENT_LENGTH = "Content-Length";
+
     String ACCEPT = "Accept";
 
     String LOCATION = "Location";
@@ -57,4 +59,14 @@ public interface HTTPHeaders {
     String ACCESS_CONTROL_ALLOW_HEADERS = "Access-Control-Allow-Headers";
 
     String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    String RETRY_AFTER = "Retry-After";
+
+    String ETAG = "ETag";
+
+    String LAST_MODIFIED = "Last-Modified";
+
+    String IF_NONE_MATCH = "If-None-Match";
+
+    String IF_MODIFIED_SINCE = "If-Modified-Since";
 }
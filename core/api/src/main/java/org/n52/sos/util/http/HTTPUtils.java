@@ -42,6 +42,7 @@ import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.output.TeeOutputStream;
 import org.n52.sos.binding.OwsExceptionReportHandler;
 import org.n52.sos.encode.ResponseProxy;
 import org.n52.sos.encode.ResponseWriter;
@@ -50,6 +51,7 @@ import org.n52.sos.exception.HTTPException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.request.ResponseFormat;
 import org.n52.sos.response.ServiceResponse;
+import org.n52.sos.response.cache.ResponseCapture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -158,21 +160,75 @@ public class HTTPUtils {
         }
     }
 
+    /**
+     * Write the object and copy the uncompressed response to the capture.
+     * The capture is discarded if the encoding fails or the response writer
+     * sets additional headers.
+     *
+     * @since 4.4.0
+     */
+    public static void writeObject(HttpServletRequest request, HttpServletResponse response, MediaType contentType,
+            Object object, OwsExceptionReportHandler owserHandler, ResponseCapture capture) throws IOException,
+            HTTPException {
+        write(request, response, contentType, new GenericWritable(object, contentType), owserHandler, capture);
+    }
+
     public static void writeObject(HttpServletRequest request, HttpServletResponse response, MediaType contentType,
             Writable writable, OwsExceptionReportHandler owserHandler) throws IOException, HTTPException {
+        write(request, response, contentType, writable, owserHandler, null);
+    }
+
+    /**
+     * Write an already encoded response, e.g. from the
+     * {@link org.n52.sos.response.cache.ObservationResponseCache}.
+     *
+     * @since 4.4.0
+     */
+    public static void writeBytes(HttpServletRequest request, HttpServletResponse response, String contentType,
+            byte[] content) throws IOException {
+        OutputStream out = null;
+        response.setContentType(contentType);
+        try {
+            out = response.getOutputStream();
+            if (supportsGzipEncoding(request)) {
+                out = new GZIPOutputStream(out);
+                response.setHeader(HTTPHeaders.CONTENT_ENCODING, HTTPConstants.GZIP_ENCODING);
+            } else {
+                response.setContentLength(content.length);
+            }
+            out.write(content);
+            out.flush();
+        } finally {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, MediaType contentType,
+            Writable writable, OwsExceptionReportHandler owserHandler, ResponseCapture capture) throws IOException,
+            HTTPException {
         OutputStream out = null;
         response.setContentType(writable.getEncodedContentType().toString());
 
         try {
             out = response.getOutputStream();
-            if (supportsGzipEncoding(request) && writable.supportsGZip()) {
+            boolean gzip = supportsGzipEncoding(request) && writable.supportsGZip();
+            if (gzip) {
                 out = new GZIPOutputStream(out);
                 response.setHeader(HTTPHeaders.CONTENT_ENCODING, HTTPConstants.GZIP_ENCODING);
             }
 
-            writable.write(out, new ResponseProxy(response));
+            if (capture == null) {
+                writable.write(out, new ResponseProxy(response));
+            } else {
+                writable.write(new TeeOutputStream(out, capture), new CaptureResponseProxy(response, capture, gzip));
+            }
             out.flush();
         } catch (OwsExceptionReport owser) {
+            if (capture != null) {
+                capture.discard();
+            }
             Object writeOwsExceptionReport = owserHandler.handleOwsExceptionReport(request, response, owser);
             if (writeOwsExceptionReport != null) {
                 Writable owserWritable = getWritable(writeOwsExceptionReport, contentType);
@@ -264,6 +320,47 @@ public class HTTPUtils {
         }
     }
 
+    /**
+     * {@link ResponseProxy} that discards the capture if the response writer
+     * sets headers, as they are not part of the cached response. The content
+     * length is dropped if the response is compressed, as the writer can not
+     * detect the compression behind the {@link TeeOutputStream}.
+     */
+    private static class CaptureResponseProxy extends ResponseProxy {
+        private final ResponseCapture capture;
+
+        private final boolean gzip;
+
+        CaptureResponseProxy(HttpServletResponse response, ResponseCapture capture, boolean gzip)
+                throws IOException {
+            super(response);
+            this.capture = capture;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public void addHeader(String headerIdentifier, String headerValue) {
+            capture.discard();
+            super.addHeader(headerIdentifier, headerValue);
+        }
+
+        @Override
+        public void setContentLength(int contentLength) {
+            capture.discard();
+            if (!gzip) {
+                super.setContentLength(contentLength);
+            }
+        }
+
+        @Override
+        public void setContentLength(long contentLength) {
+            capture.discard();
+            if (!gzip) {
+                super.setContentLength(contentLength);
+            }
+        }
+    }
+
     public interface Writable {
         void write(OutputStream out, ResponseProxy responseProxy) throws IOException, OwsExceptionReport;
 
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.aggregation;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.swe.simpleType.SweText;
+import org.n52.sos.ogc.swes.SwesExtensionImpl;
+import org.n52.sos.ogc.swes.SwesExtensions;
+
+/**
+ * @since 4.4.0
+ *
+ */
+public class ObservationAggregationTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+
+    @Test
+    public void should_aggregate_values_per_interval() {
+        List<AggregatedValue> values = aggregate(AggregationFunction.avg);
+        assertThat(values.size(), is(2));
+        assertThat(values.get(0).getStart(), is(0L));
+        assertThat(values.get(0).getEnd(), is(HOUR));
+        assertThat(values.get(0).getValue(), is(2.0));
+        assertThat(values.get(0).getCount(), is(3L));
+        assertThat(values.get(1).getStart(), is(2 * HOUR));
+        assertThat(values.get(1).getValue(), is(10.0));
+    }
+
+    @Test
+    public void should_apply_aggregation_functions() {
+        assertThat(aggregate(AggregationFunction.min).get(0).getValue(), is(1.0));
+        assertThat(aggregate(AggregationFunction.max).get(0).getValue(), is(3.0));
+        assertThat(aggregate(AggregationFunction.count).get(0).getValue(), is(3.0));
+        assertThat(aggregate(AggregationFunction.first).get(0).getValue(), is(3.0));
+        assertThat(aggregate(AggregationFunction.last).get(0).getValue(), is(2.0));
+    }
+
+    @Test
+    public void should_align_intervals_before_the_epoch() {
+        assertThat(IntervalAggregator.getIntervalStart(-1, HOUR), is(-HOUR));
+        assertThat(IntervalAggregator.getIntervalStart(-HOUR, HOUR), is(-HOUR));
+        assertThat(IntervalAggregator.getIntervalStart(HOUR - 1, HOUR), is(0L));
+    }
+
+    @Test
+    public void should_keep_series_smaller_than_threshold() {
+        ValueAggregator downsampler = new LargestTriangleThreeBuckets(5);
+        for (int i = 0; i < 5; i++) {
+            downsampler.add(i, i);
+        }
+        assertThat(downsampler.getValues().size(), is(5));
+    }
+
+    @Test
+    public void should_downsample_to_threshold_and_keep_peaks() {
+        ValueAggregator downsampler = new LargestTriangleThreeBuckets(10);
+        for (int i = 0; i < 10000; i++) {
+            downsampler.add(i, i == 4321 ? 1000 : 0);
+        }
+        List<AggregatedValue> values = downsampler.getValues();
+        assertThat(values.size(), is(10));
+        assertThat(values.get(0).getStart(), is(0L));
+        assertThat(values.get(9).getStart(), is(9999L));
+        boolean peak = false;
+        for (AggregatedValue value : values) {
+            assertThat(value.isInstant(), is(true));
+            peak |= value.getValue() == 1000;
+        }
+        assertThat(peak, is(true));
+    }
+
+    @Test
+    public void should_parse_extensions() throws OwsExceptionReport {
+        ObservationAggregation aggregation =
+                ObservationAggregation.fromExtensions(extensions(Sos2Constants.Extensions.Aggregation, "MAX,PT1H"));
+        assertThat(aggregation.isDownsampling(), is(false));
+        assertThat(aggregation.getFunction(), is(AggregationFunction.max));
+        assertThat(aggregation.getInterval(), is(HOUR));
+        assertThat(aggregation.isGroupable(), is(true));
+
+        ObservationAggregation downsampling =
+                ObservationAggregation.fromExtensions(extensions(Sos2Constants.Extensions.Downsampling, "500"));
+        assertThat(downsampling.isDownsampling(), is(true));
+        assertThat(downsampling.getPoints(), is(500));
+        assertThat(downsampling.isGroupable(), is(false));
+
+        assertThat(ObservationAggregation.fromExtensions(null), is(nullValue()));
+        assertThat(ObservationAggregation.fromExtensions(new SwesExtensions()), is(nullValue()));
+    }
+
+    @Test(expected = InvalidParameterValueException.class)
+    public void should_reject_unknown_function() throws OwsExceptionReport {
+        ObservationAggregation.fromExtensions(extensions(Sos2Constants.Extensions.Aggregation, "median,PT1H"));
+    }
+
+    @Test(expected = InvalidParameterValueException.class)
+    public void should_reject_interval_without_fixed_length() throws OwsExceptionReport {
+        ObservationAggregation.fromExtensions(extensions(Sos2Constants.Extensions.Aggregation, "avg,P1M"));
+    }
+
+    @Test(expected = InvalidParameterValueException.class)
+    public void should_reject_too_few_points() throws OwsExceptionReport {
+        ObservationAggregation.fromExtensions(extensions(Sos2Constants.Extensions.Downsampling, "2"));
+    }
+
+    private List<AggregatedValue> aggregate(AggregationFunction function) {
+        ValueAggregator aggregator = new IntervalAggregator(function, HOUR);
+        aggregator.add(0, 3);
+        aggregator.add(HOUR / 2, 1);
+        aggregator.add(HOUR - 1, 2);
+        aggregator.add(2 * HOUR, 10);
+        return aggregator.getValues();
+    }
+
+    private SwesExtensions extensions(Sos2Constants.Extensions name, String value) {
+        SwesExtensions extensions = new SwesExtensions();
+        extensions.addSwesExtension(new SwesExtensionImpl<SweText>().setDefinition(name.name())
+                .setValue((SweText) new SweText().setValue(value).setDefinition(name.name())));
+        return extensions;
+    }
+}
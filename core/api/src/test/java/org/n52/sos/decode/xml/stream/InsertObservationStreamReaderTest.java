@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.decode.xml.stream;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * @since 4.4.0
+ */
+public class InsertObservationStreamReaderTest {
+
+    private static final String INSERT_OBSERVATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<sos:InsertObservation service=\"SOS\" version=\"2.0.0\" "
+            + "xmlns:sos=\"http://www.opengis.net/sos/2.0\" xmlns:om=\"http://www.opengis.net/om/2.0\">"
+            + "<sos:offering>offering</sos:offering><sos:observation><om:OM_Observation>";
+
+    @Test
+    public void shouldDetectInsertObservation() {
+        assertThat(isInsertObservation(INSERT_OBSERVATION), is(true));
+    }
+
+    @Test
+    public void shouldDetectInsertObservationInTruncatedRequest() {
+        assertThat(isInsertObservation(INSERT_OBSERVATION.substring(0, INSERT_OBSERVATION.indexOf("<sos:offering"))),
+                is(true));
+    }
+
+    @Test
+    public void shouldNotDetectOtherRequests() {
+        assertThat(isInsertObservation("<sos:GetObservation service=\"SOS\" version=\"2.0.0\" "
+                + "xmlns:sos=\"http://www.opengis.net/sos/2.0\"/>"), is(false));
+        assertThat(isInsertObservation("<sos:InsertObservation service=\"SOS\" version=\"1.0.0\" "
+                + "xmlns:sos=\"http://www.opengis.net/sos/1.0\"/>"), is(false));
+    }
+
+    @Test
+    public void shouldNotDetectInvalidRequests() {
+        assertThat(isInsertObservation("no xml"), is(false));
+        assertThat(isInsertObservation(""), is(false));
+    }
+
+    private boolean isInsertObservation(String request) {
+        byte[] bytes = request.getBytes(Charsets.UTF_8);
+        return InsertObservationStreamReader.isInsertObservation(bytes, bytes.length, null);
+    }
+}
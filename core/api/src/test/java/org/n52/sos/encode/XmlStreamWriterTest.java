@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.custommonkey.xmlunit.Diff;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.util.Constants;
+import org.n52.sos.w3c.W3CConstants;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * @since 4.4.0
+ */
+public class XmlStreamWriterTest {
+
+    private static final String NS_OM = "http://www.opengis.net/om/2.0";
+
+    private static final String NS_GML = "http://www.opengis.net/gml/3.2";
+
+    private static final String XML = "<om:OM_Observation xmlns:om=\"" + NS_OM + "\" xmlns:gml=\"" + NS_GML
+            + "\" xmlns:xsi=\"" + W3CConstants.NS_XSI + "\" gml:id=\"o_1\">"
+            + "<om:parameter><gml:description>a &amp; b &lt; c</gml:description></om:parameter>"
+            + "<om:result xsi:type=\"gml:MeasureType\" uom=\"m\">1.5</om:result>"
+            + "<om:featureOfInterest><foi xmlns=\"http://www.example.org/foi\" id=\"f1\"/></om:featureOfInterest>"
+            + "</om:OM_Observation>";
+
+    private XmlObject xmlObject;
+
+    private XmlOptions xmlOptions;
+
+    @Before
+    public void setUp() throws XmlException {
+        xmlObject = XmlObject.Factory.parse(XML);
+        xmlOptions = new XmlOptions().setSaveAggressiveNamespaces();
+    }
+
+    @Test
+    public void shouldWriteSameXmlAsXmlBeans() throws Exception {
+        String streamed = write(Collections.<String, String> emptyMap());
+        Diff diff = new Diff(xmlObject.xmlText(xmlOptions), streamed);
+        assertThat(diff.toString(), diff.identical(), is(true));
+    }
+
+    @Test
+    public void shouldReplacePrefixesAndTypeValues() throws Exception {
+        String streamed = write(ImmutableMap.of(NS_OM, "om2", NS_GML, "gml32"));
+        Element root = parse(streamed);
+        assertThat(root.getPrefix(), is("om2"));
+        assertThat(root.getNamespaceURI(), is(NS_OM));
+        assertThat(root.getAttributeNS(NS_GML, "id"), is("o_1"));
+        Element result = (Element) root.getElementsByTagNameNS(NS_OM, "result").item(0);
+        assertThat(result.getPrefix(), is("om2"));
+        assertThat(result.getAttribute("uom"), is("m"));
+        String type = result.getAttributeNS(W3CConstants.NS_XSI, W3CConstants.AN_TYPE);
+        assertThat(type, is("gml32:MeasureType"));
+        assertThat(result.lookupNamespaceURI("gml32"), is(NS_GML));
+        Element description = (Element) root.getElementsByTagNameNS(NS_GML, "description").item(0);
+        assertThat(description.getPrefix(), is("gml32"));
+        assertThat(description.getTextContent(), is("a & b < c"));
+        Element foi = (Element) root.getElementsByTagNameNS("http://www.example.org/foi", "foi").item(0);
+        assertThat(foi.getPrefix(), is(nullValue()));
+        assertThat(foi.getAttribute("id"), is("f1"));
+    }
+
+    @Test
+    public void shouldWriteXmlObjectIntoSurroundingDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TestWriter writer = new TestWriter(ImmutableMap.of(NS_OM, "om"));
+        writer.init(out);
+        writer.start(false);
+        writer.start(new QName(NS_OM, "members", "om"));
+        writer.namespace("om", NS_OM);
+        writer.writeXmlObject(xmlObject, ImmutableMap.of(NS_OM, "om"));
+        writer.writeXmlObject(xmlObject, ImmutableMap.of(NS_OM, "om"));
+        writer.end(new QName(NS_OM, "members", "om"));
+        writer.end();
+        writer.finish();
+        Element root = parse(out.toString(Constants.DEFAULT_ENCODING));
+        assertThat(root.getElementsByTagNameNS(NS_OM, "OM_Observation").getLength(), is(2));
+    }
+
+    private String write(Map<String, String> prefixes) throws XMLStreamException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TestWriter writer = new TestWriter(prefixes);
+        writer.write(xmlObject, out);
+        return out.toString(Constants.DEFAULT_ENCODING);
+    }
+
+    private Element parse(String xml) throws ParserConfigurationException, SAXException, IOException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(Constants.DEFAULT_ENCODING))).getDocumentElement();
+    }
+
+    private class TestWriter extends XmlStreamWriter<XmlObject> {
+        private final Map<String, String> prefixes;
+
+        TestWriter(Map<String, String> prefixes) {
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public void write(OutputStream out) throws XMLStreamException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(OutputStream out, EncodingValues encodingValues) throws XMLStreamException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(XmlObject elementToStream, OutputStream out) throws XMLStreamException {
+            write(elementToStream, out, new EncodingValues());
+        }
+
+        @Override
+        public void write(XmlObject elementToStream, OutputStream out, EncodingValues encodingValues)
+                throws XMLStreamException {
+            init(out, encodingValues);
+            writeXmlObject(elementToStream, prefixes);
+            finish();
+        }
+
+        @Override
+        protected XmlOptions getXmlOptions() {
+            return xmlOptions;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.metrics;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * @since 4.4.0
+ *
+ */
+public class RequestMetricsTest {
+
+    @Test
+    public void should_count_durations_in_inclusive_buckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1) + 1);
+        histogram.record(TimeUnit.MINUTES.toNanos(5));
+        long[] counts = histogram.getCumulativeCounts();
+        assertThat(counts[0], is(1L));
+        assertThat(counts[1], is(2L));
+        assertThat(counts[counts.length - 2], is(2L));
+        assertThat(counts[counts.length - 1], is(3L));
+        assertThat(histogram.getCount(), is(3L));
+    }
+
+    @Test
+    public void should_time_nested_phases_once() {
+        RequestTimer timer = new RequestTimer(System.nanoTime());
+        long outer = timer.startPhase(RequestPhase.RECEIVE);
+        long inner = timer.startPhase(RequestPhase.RECEIVE);
+        assertThat(inner, is(0L));
+        timer.stopPhase(RequestPhase.RECEIVE, outer);
+        assertThat(timer.isTimed(RequestPhase.RECEIVE), is(true));
+        assertThat(timer.isTimed(RequestPhase.ENCODE), is(false));
+    }
+
+    @Test
+    public void should_write_text_format() throws Exception {
+        RequestMetrics metrics = new RequestMetrics();
+        RequestTimer timer = new RequestTimer(System.nanoTime());
+        timer.setBinding("/kvp");
+        timer.setOperation("GetObservation");
+        timer.add(RequestPhase.RECEIVE, TimeUnit.MILLISECONDS.toNanos(20));
+        timer.add(RequestPhase.TOTAL, TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.record(timer);
+        metrics.countRequest("SOS", "2.0.0", "GetObservation");
+        metrics.countException("Invalid\"Type");
+
+        StringWriter writer = new StringWriter();
+        metrics.write(writer);
+        String text = writer.toString();
+
+        assertThat(text, containsString("# TYPE sos_request_duration_seconds histogram\n"));
+        assertThat(text, containsString("sos_request_duration_seconds_bucket{operation=\"GetObservation\","
+                + "binding=\"/kvp\",format=\"unknown\",phase=\"receive\",le=\"0.01\"} 0\n"));
+        assertThat(text, containsString("sos_request_duration_seconds_bucket{operation=\"GetObservation\","
+                + "binding=\"/kvp\",format=\"unknown\",phase=\"receive\",le=\"0.025\"} 1\n"));
+        assertThat(text, containsString("sos_request_duration_seconds_count{operation=\"GetObservation\","
+                + "binding=\"/kvp\",format=\"unknown\",phase=\"total\"} 1\n"));
+        assertThat(text, containsString("sos_requests_total{service=\"SOS\",version=\"2.0.0\","
+                + "operation=\"GetObservation\"} 1\n"));
+        assertThat(text, containsString("sos_exceptions_total{type=\"Invalid\\\"Type\"} 1\n"));
+        assertThat(metrics.getHistogram(ImmutableList.of("GetObservation", "/kvp", "unknown", "decode"))
+                .getCount(), is(0L));
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.om.features;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Test;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.gml.CodeWithAuthority;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.GetFeatureOfInterestResponse;
+
+/**
+ * @since 4.4.0
+ */
+public class StreamingFeatureCollectionTest {
+
+    @Test
+    public void shouldMergeStreamedFeatures() throws OwsExceptionReport {
+        FeatureCollection merged = new TestStreamingFeatureCollection("b", "a").mergeFeatures();
+        assertThat(merged, is(not(instanceOf(StreamingFeatureCollection.class))));
+        assertThat(merged.getMembers().keySet(), contains("a", "b"));
+    }
+
+    @Test
+    public void shouldMergeStreamingDataOfResponse() throws OwsExceptionReport {
+        GetFeatureOfInterestResponse response = new GetFeatureOfInterestResponse();
+        response.setAbstractFeature(new TestStreamingFeatureCollection("a"));
+        assertThat(response.hasStreamingData(), is(true));
+        response.mergeStreamingData();
+        assertThat(response.hasStreamingData(), is(false));
+        assertThat(((FeatureCollection) response.getAbstractFeature()).getMembers().keySet(), contains("a"));
+    }
+
+    private static class TestStreamingFeatureCollection extends StreamingFeatureCollection {
+        private static final long serialVersionUID = 1L;
+
+        private final Iterator<String> identifiers;
+
+        TestStreamingFeatureCollection(String... identifiers) {
+            this.identifiers = Arrays.asList(identifiers).iterator();
+        }
+
+        @Override
+        public boolean hasNextFeature() {
+            return identifiers.hasNext();
+        }
+
+        @Override
+        public AbstractFeature nextFeature() {
+            return new SamplingFeature(new CodeWithAuthority(identifiers.next()));
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.paging;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.swes.SwesExtensions;
+
+/**
+ * @since 4.4.0
+ *
+ */
+public class ResultPagingTest {
+
+    private static final List<String> KEYS = Arrays.asList("e", "b", "d", "a", "c");
+
+    @Test
+    public void should_select_offset_page_with_first_key_of_next_page() {
+        ResultPaging paging = ResultPaging.offset(2, 1);
+        List<String> selected = paging.select(KEYS);
+        assertThat(selected, contains("b", "c", "d"));
+        assertThat(paging.hasNext(selected), is(true));
+        assertThat(paging.trim(selected), contains("b", "c"));
+    }
+
+    @Test
+    public void should_select_page_after_key() {
+        ResultPaging paging = ResultPaging.after(2, "c");
+        List<String> selected = paging.select(KEYS);
+        assertThat(selected, contains("d", "e"));
+        assertThat(paging.hasNext(selected), is(false));
+    }
+
+    @Test
+    public void should_create_neighbouring_pages() {
+        ResultPaging paging = ResultPaging.offset(2, 3);
+        assertThat(paging.next("x").getOffset(), is(5));
+        assertThat(paging.previous().getOffset(), is(1));
+        assertThat(ResultPaging.offset(2, 0).previous(), is(nullValue()));
+        ResultPaging cursor = ResultPaging.after(2, "b");
+        assertThat(cursor.next("d").getAfter(), is("d"));
+        assertThat(cursor.previous(), is(nullValue()));
+    }
+
+    @Test
+    public void should_clamp_offset_of_next_page() {
+        ResultPaging paging = ResultPaging.offset(10, Integer.MAX_VALUE - 5);
+        assertThat(paging.next("x").getOffset(), is(Integer.MAX_VALUE));
+        assertThat(paging.next("x").next("y").getOffset(), is(Integer.MAX_VALUE));
+        assertThat(ResultPaging.offset(Integer.MAX_VALUE, 0).getFetchSize(), is(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void should_read_page_from_extensions() throws OwsExceptionReport {
+        ResultPaging paging = ResultPaging.after(10, "42");
+        SwesExtensions extensions = new SwesExtensions();
+        assertThat(ResultPaging.fromExtensions(extensions), is(nullValue()));
+        extensions.addSwesExtension(paging.toExtension());
+        assertThat(ResultPaging.fromExtensions(extensions), is(paging));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_non_positive_limit() {
+        ResultPaging.offset(0, 0);
+    }
+
+}
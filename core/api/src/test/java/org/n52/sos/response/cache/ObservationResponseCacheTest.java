@@ -0,0 +1,251 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.response.cache;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.ogc.filter.FilterConstants.TimeOperator;
+import org.n52.sos.ogc.filter.TemporalFilter;
+import org.n52.sos.ogc.gml.time.Time;
+import org.n52.sos.ogc.gml.time.TimeInstant;
+import org.n52.sos.ogc.gml.time.TimePeriod;
+import org.n52.sos.request.GetObservationRequest;
+
+import com.google.common.collect.Sets;
+
+/**
+ * @since 4.4.0
+ *
+ */
+public class ObservationResponseCacheTest {
+
+    private static final String BINDING = "/kvp";
+
+    private static final String ACCEPT = "application/xml";
+
+    private static final String PHENOMENON_TIME = "om:phenomenonTime";
+
+    private ObservationResponseCache cache;
+
+    private ContentCache contentCache;
+
+    @Before
+    public void setUp() {
+        contentCache = null;
+        cache = new ObservationResponseCache() {
+            @Override
+            protected ContentCache getContentCache() {
+                return contentCache;
+            }
+        };
+        cache.setEnabled(true);
+        cache.setSize(1);
+    }
+
+    @Test
+    public void should_not_create_key_if_disabled() {
+        cache.setEnabled(false);
+        assertThat(cache.createKey(request("p1", "p2"), BINDING, ACCEPT), is(nullValue()));
+    }
+
+    @Test
+    public void should_ignore_identifier_order() {
+        ObservationResponseCacheKey key = cache.createKey(request("p1", "p2"), BINDING, ACCEPT);
+        assertThat(key, is(notNullValue()));
+        assertThat(cache.createKey(request("p2", "p1"), BINDING, ACCEPT), is(key));
+        assertThat(cache.createKey(request("p1", "p2"), BINDING, "text/xml").equals(key), is(false));
+        assertThat(cache.createKey(request("p1", "p2"), "/pox", ACCEPT).equals(key), is(false));
+    }
+
+    @Test
+    public void should_invalidate_intersecting_series() {
+        ObservationResponseCacheKey p1 = cache.createKey(request("p1"), BINDING, ACCEPT);
+        ObservationResponseCacheKey p2 = cache.createKey(request("p2"), BINDING, ACCEPT);
+        ObservationResponseCacheKey all = cache.createKey(request(), BINDING, ACCEPT);
+        put(p1, 10);
+        put(p2, 10);
+        put(all, 10);
+        cache.invalidate(Collections.singleton(scope("p1", new TimeInstant(time(2015)))));
+        assertThat(cache.get(p1), is(nullValue()));
+        assertThat(cache.get(p2), is(notNullValue()));
+        assertThat(cache.get(all), is(nullValue()));
+    }
+
+    @Test
+    public void should_invalidate_intersecting_phenomenon_time() {
+        GetObservationRequest request = request("p1");
+        request.setTemporalFilters(Collections.singletonList(new TemporalFilter(TimeOperator.TM_During,
+                new TimePeriod(time(2014), time(2015)), PHENOMENON_TIME)));
+        ObservationResponseCacheKey during = cache.createKey(request, BINDING, ACCEPT);
+        request = request("p1");
+        request.setTemporalFilters(Collections.singletonList(new TemporalFilter(TimeOperator.TM_After,
+                new TimeInstant(time(2014)), PHENOMENON_TIME)));
+        ObservationResponseCacheKey after = cache.createKey(request, BINDING, ACCEPT);
+        put(during, 10);
+        put(after, 10);
+        cache.invalidate(Collections.singleton(scope("p1", new TimeInstant(time(2016)))));
+        assertThat(cache.get(during), is(notNullValue()));
+        assertThat(cache.get(after), is(nullValue()));
+        cache.invalidate(Collections.singleton(scope("p1", new TimePeriod(time(2013), time(2014)))));
+        assertThat(cache.get(during), is(nullValue()));
+    }
+
+    @Test
+    public void should_invalidate_instances_and_children_of_requested_procedure() {
+        contentCache = mock(ContentCache.class);
+        when(contentCache.hasInstancesForProcedure("p1")).thenReturn(true);
+        when(contentCache.getInstancesForProcedure("p1")).thenReturn(Collections.singleton("instance"));
+        when(contentCache.getChildProcedures(Sets.newHashSet("p1", "instance"), true, false)).thenReturn(
+                Collections.singleton("child"));
+        ObservationResponseCacheKey p1 = cache.createKey(request("p1"), BINDING, ACCEPT);
+        put(p1, 10);
+        cache.invalidate(Collections.singleton(scope("p2", null)));
+        assertThat(cache.get(p1), is(notNullValue()));
+        cache.invalidate(Collections.singleton(scope("child", null)));
+        assertThat(cache.get(p1), is(nullValue()));
+        put(p1, 10);
+        cache.invalidate(Collections.singleton(scope("instance", null)));
+        assertThat(cache.get(p1), is(nullValue()));
+    }
+
+    @Test
+    public void should_invalidate_children_of_requested_feature_and_phenomenon() {
+        contentCache = mock(ContentCache.class);
+        when(contentCache.getChildFeatures("f1", true, false)).thenReturn(Collections.singleton("f2"));
+        when(contentCache.isCompositePhenomenon("op1")).thenReturn(true);
+        when(contentCache.getObservablePropertiesForCompositePhenomenon("op1")).thenReturn(
+                Collections.singleton("op2"));
+        GetObservationRequest request = request();
+        request.setFeatureIdentifiers(Collections.singletonList("f1"));
+        request.setObservedProperties(Collections.singletonList("op1"));
+        ObservationResponseCacheKey key = cache.createKey(request, BINDING, ACCEPT);
+        put(key, 10);
+        cache.invalidate(Collections.singleton(new ObservationResponseScope(null, Collections.singleton("op2"),
+                Collections.singleton("f3"), null, null)));
+        assertThat(cache.get(key), is(notNullValue()));
+        cache.invalidate(Collections.singleton(new ObservationResponseScope(null, Collections.singleton("op2"),
+                Collections.singleton("f2"), null, null)));
+        assertThat(cache.get(key), is(nullValue()));
+    }
+
+    @Test
+    public void should_not_return_expired_responses() {
+        ObservationResponseCacheKey key = cache.createKey(request("p1"), BINDING, ACCEPT);
+        long twoHoursAgo = System.currentTimeMillis() - 2L * 60L * 60L * 1000L;
+        cache.setTimeToLive(0);
+        cache.put(key, new CachedResponse(new byte[10], ACCEPT, cache.createEntityTag(key), twoHoursAgo),
+                cache.getGeneration());
+        assertThat(cache.get(key), is(notNullValue()));
+        cache.setTimeToLive(60);
+        assertThat(cache.get(key), is(nullValue()));
+        assertThat(cache.getEntryCount(), is(0));
+        assertThat(cache.getSize(), is(0L));
+    }
+
+    @Test
+    public void should_not_store_responses_created_before_invalidation() {
+        ObservationResponseCacheKey key = cache.createKey(request("p1"), BINDING, ACCEPT);
+        long generation = cache.getGeneration();
+        cache.invalidate(Collections.singleton(scope("p2", null)));
+        assertThat(cache.put(key, response(key, 10), generation), is(false));
+        assertThat(cache.get(key), is(nullValue()));
+    }
+
+    @Test
+    public void should_evict_least_recently_used_responses() {
+        ObservationResponseCacheKey[] keys = new ObservationResponseCacheKey[5];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = cache.createKey(request("p" + i), BINDING, ACCEPT);
+        }
+        put(keys[0], 256000);
+        put(keys[1], 256000);
+        put(keys[2], 256000);
+        put(keys[3], 256000);
+        cache.get(keys[0]);
+        put(keys[4], 256000);
+        assertThat(cache.getEntryCount(), is(4));
+        assertThat(cache.get(keys[0]), is(notNullValue()));
+        assertThat(cache.get(keys[1]), is(nullValue()));
+        assertThat(cache.getSize() <= 1024L * 1024L, is(true));
+    }
+
+    @Test
+    public void should_not_store_responses_exceeding_the_entry_size() {
+        ObservationResponseCacheKey key = cache.createKey(request("p1"), BINDING, ACCEPT);
+        assertThat(cache.put(key, response(key, 512 * 1024), cache.getGeneration()), is(false));
+    }
+
+    @Test
+    public void should_discard_capture_exceeding_the_size() {
+        ResponseCapture capture = new ResponseCapture(4);
+        capture.write(new byte[] { 1, 2, 3 }, 0, 3);
+        assertThat(capture.isComplete(), is(true));
+        capture.write(new byte[] { 4, 5 }, 0, 2);
+        assertThat(capture.isComplete(), is(false));
+        assertThat(capture.toByteArray(), is(nullValue()));
+    }
+
+    private void put(ObservationResponseCacheKey key, int size) {
+        assertThat(cache.put(key, response(key, size), cache.getGeneration()), is(true));
+    }
+
+    private CachedResponse response(ObservationResponseCacheKey key, int size) {
+        return new CachedResponse(new byte[size], ACCEPT, cache.createEntityTag(key), System.currentTimeMillis());
+    }
+
+    private GetObservationRequest request(String... procedures) {
+        GetObservationRequest request = new GetObservationRequest();
+        request.setService("SOS");
+        request.setVersion("2.0.0");
+        request.setProcedures(Arrays.asList(procedures));
+        return request;
+    }
+
+    private ObservationResponseScope scope(String procedure, Time time) {
+        return new ObservationResponseScope(Collections.singleton(procedure), null, null, null, time);
+    }
+
+    private DateTime time(int year) {
+        return new DateTime(year, 1, 1, 0, 0, DateTimeZone.UTC);
+    }
+
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.n52.sos.util.http.HTTPConstants;
+import org.n52.sos.util.http.HTTPHeaders;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+
+/**
+ * @since 4.4.0
+ */
+public class OperationPeekingRequestTest {
+
+    private static final String POX_GET_CAPABILITIES = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<sos:GetCapabilities service=\"SOS\" xmlns:sos=\"http://www.opengis.net/sos/2.0\"/>";
+
+    private static final String SOAP_GET_CAPABILITIES = "<env:Envelope "
+            + "xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\" "
+            + "xmlns:wsa=\"http://www.w3.org/2005/08/addressing\">"
+            + "<env:Header><wsa:To>http://www.ogc.org/SOS</wsa:To>"
+            + "<wsa:Action>http://www.opengis.net/def/serviceOperation/sos/core/2.0/GetCapabilities</wsa:Action>"
+            + "</env:Header><env:Body>"
+            + "<sos:GetCapabilities service=\"SOS\" xmlns:sos=\"http://www.opengis.net/sos/2.0\"/>"
+            + "</env:Body></env:Envelope>";
+
+    private static final String JSON_GET_OBSERVATION = "  {\"service\": \"SOS\", \"version\": \"2.0.0\", "
+            + "\"procedure\": [\"p1\", \"p2\"], \"request\": \"GetObservation\"}";
+
+    @Test
+    public void shouldDetectPoxOperation() throws IOException {
+        assertThat(peek(POX_GET_CAPABILITIES).getOperation(), is("GetCapabilities"));
+    }
+
+    @Test
+    public void shouldDetectSoapOperation() throws IOException {
+        assertThat(peek(SOAP_GET_CAPABILITIES).getOperation(), is("GetCapabilities"));
+    }
+
+    @Test
+    public void shouldDetectJsonOperation() throws IOException {
+        assertThat(peek(JSON_GET_OBSERVATION).getOperation(), is("GetObservation"));
+    }
+
+    @Test
+    public void shouldNotDetectOperationOfUnknownBody() throws IOException {
+        assertThat(peek("GetCapabilities").getOperation(), is(nullValue()));
+        assertThat(peek("").getOperation(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotDetectOperationBeyondPeekedBytes() throws IOException {
+        String body = "<env:Envelope xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\"><env:Header>"
+                + Strings.repeat("<a>padding</a>", 1000)
+                + "</env:Header><env:Body><GetCapabilities/></env:Body></env:Envelope>";
+        assertThat(peek(body).getOperation(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotWaitForBodyThatIsNotAvailable() throws IOException {
+        OperationPeekingRequest request =
+                new OperationPeekingRequest(mockRequest(POX_GET_CAPABILITIES.getBytes(Charsets.UTF_8), false));
+        assertThat(request.getOperation(), is(nullValue()));
+        assertThat(IOUtils.toString(request.getInputStream(), Charsets.UTF_8.name()), is(POX_GET_CAPABILITIES));
+    }
+
+    @Test
+    public void shouldReplayBodyToInputStream() throws IOException {
+        String body = "<GetObservation>" + Strings.repeat("<a>padding</a>", 1000) + "</GetObservation>";
+        OperationPeekingRequest request = peek(body);
+        assertThat(request.getOperation(), is("GetObservation"));
+        assertThat(IOUtils.toString(request.getInputStream(), Charsets.UTF_8.name()), is(body));
+    }
+
+    @Test
+    public void shouldReplayBodyToReader() throws IOException {
+        OperationPeekingRequest request = peek(JSON_GET_OBSERVATION);
+        assertThat(request.getOperation(), is("GetObservation"));
+        assertThat(IOUtils.toString(request.getReader()), is(JSON_GET_OBSERVATION));
+    }
+
+    @Test
+    public void shouldDetectOperationOfGzipEncodedBody() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(SOAP_GET_CAPABILITIES.getBytes(Charsets.UTF_8));
+        gzip.close();
+        HttpServletRequest request = mockRequest(out.toByteArray());
+        when(request.getHeaders(HTTPHeaders.CONTENT_ENCODING)).thenReturn(
+                Collections.enumeration(Collections.singletonList(HTTPConstants.GZIP_ENCODING)));
+        assertThat(new OperationPeekingRequest(request).getOperation(), is("GetCapabilities"));
+    }
+
+    private OperationPeekingRequest peek(String body) throws IOException {
+        return new OperationPeekingRequest(mockRequest(body.getBytes(Charsets.UTF_8)));
+    }
+
+    private HttpServletRequest mockRequest(byte[] body) throws IOException {
+        return mockRequest(body, true);
+    }
+
+    /**
+     * @param buffered
+     *            if the body is available without blocking, otherwise it is
+     *            still uploaded
+     */
+    private HttpServletRequest mockRequest(byte[] body, final boolean buffered) throws IOException {
+        final InputStream in = new ByteArrayInputStream(body);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeaders(anyString())).thenReturn(Collections.enumeration(Collections.<String> emptyList()));
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return in.read();
+            }
+
+            @Override
+            public int available() throws IOException {
+                return buffered ? in.available() : 0;
+            }
+        });
+        return request;
+    }
+}
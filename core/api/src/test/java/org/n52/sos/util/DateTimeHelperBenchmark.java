@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.util;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.ISODateTimeFormat;
+import org.n52.sos.exception.ows.concrete.DateTimeParseException;
+
+/**
+ * Compares the ISO 8601 parsing and formatting of {@link DateTimeHelper} with
+ * the generic Joda Time parser and printer on a million time stamps. Not run
+ * by the build, execute the main method to get the numbers.
+ *
+ * @since 4.4.0
+ */
+public class DateTimeHelperBenchmark {
+
+    private static final int SIZE = 1000000;
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws DateTimeParseException {
+        DateTime[] dateTimes = new DateTime[SIZE];
+        String[] strings = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            dateTimes[i] = new DateTime(1400000000000L + i * 1000L, DateTimeZone.UTC);
+            strings[i] = dateTimes[i].toString();
+        }
+        StringBuilder builder = new StringBuilder();
+        long hash = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String string : strings) {
+                hash += ISODateTimeFormat.dateOptionalTimeParser().withOffsetParsed().parseDateTime(string).getMillis();
+            }
+            long jodaParse = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (String string : strings) {
+                hash += DateTimeHelper.parseIsoString2DateTime(string).getMillis();
+            }
+            long helperParse = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (DateTime dateTime : dateTimes) {
+                builder.setLength(0);
+                hash += builder.append(dateTime.toString()).length();
+            }
+            long jodaFormat = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (DateTime dateTime : dateTimes) {
+                builder.setLength(0);
+                hash += DateTimeHelper.appendIsoString(builder, dateTime).length();
+            }
+            long helperFormat = System.nanoTime() - start;
+            System.out.printf("round %d: parse joda %d ms, helper %d ms; format joda %d ms, helper %d ms%n", round,
+                    jodaParse / 1000000, helperParse / 1000000, jodaFormat / 1000000, helperFormat / 1000000);
+        }
+        System.out.println(hash);
+    }
+}
@@ -31,9 +31,15 @@ package org.n52.sos.util;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.Random;
+
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.junit.Test;
+import org.n52.sos.exception.ows.concrete.DateTimeParseException;
+import org.n52.sos.ogc.gml.time.Time;
+import org.n52.sos.ogc.gml.time.TimeInstant;
+import org.n52.sos.ogc.gml.time.TimePeriod;
 
 public class DateTimeHelperTest {
     
@@ -78,4 +84,67 @@ public class DateTimeHelperTest {
     }
     
 
+
+    @Test
+    public void testParseFixedLayoutIsoString() throws DateTimeParseException {
+        assertThat(DateTimeHelper.parseIsoString2DateTime(testTimePositiveTimeZone),
+                is(new DateTime(2014, 1, 28, 10, 16, 35, 945, DateTimeZone.forOffsetHours(2))));
+        assertThat(DateTimeHelper.parseIsoString2DateTime(testTimeNegativeTimeZone),
+                is(new DateTime(2014, 1, 28, 12, 16, 35, 945, DateTimeZone.UTC)));
+        assertThat(DateTimeHelper.parseIsoString2DateTime(testTimeZTimeZone),
+                is(new DateTime(2014, 1, 28, 10, 16, 35, 945, DateTimeZone.UTC)));
+        assertThat(DateTimeHelper.parseIsoString2DateTime("2014-01-28T10:16:35"),
+                is(new DateTime(2014, 1, 28, 10, 16, 35, 0, DateTimeZone.UTC)));
+        assertThat(DateTimeHelper.parseIsoString2DateTime("2014-01-28T10:16:35.9456789Z"),
+                is(new DateTime(2014, 1, 28, 10, 16, 35, 945, DateTimeZone.UTC)));
+    }
+
+    @Test
+    public void testParseIsoStringFallback() throws DateTimeParseException {
+        assertThat(DateTimeHelper.parseIsoString2DateTime("2014-01-28"),
+                is(new DateTime(2014, 1, 28, 0, 0, DateTimeZone.UTC)));
+        assertThat(DateTimeHelper.parseIsoString2DateTime("2014-01-28T10:16+02:00"),
+                is(new DateTime(2014, 1, 28, 10, 16, DateTimeZone.forOffsetHours(2))));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testParseFixedLayoutIsoStringInvalidField() throws DateTimeParseException {
+        DateTimeHelper.parseIsoString2DateTime("2014-02-30T10:16:35Z");
+    }
+
+    @Test
+    public void testParseIsoString2DateTime2Time() throws DateTimeParseException {
+        Time time = DateTimeHelper.parseIsoString2DateTime2Time(testTimeZTimeZone + "/" + testTimeZTimeZone);
+        assertThat(time instanceof TimePeriod, is(true));
+        assertThat(((TimePeriod) time).getStart(), is(((TimePeriod) time).getEnd()));
+        assertThat(DateTimeHelper.parseIsoString2DateTime2Time(testTimeZTimeZone) instanceof TimeInstant, is(true));
+    }
+
+    @Test
+    public void testFormatDateTime2IsoStringEqualsJoda() {
+        DateTimeZone[] zones = { DateTimeZone.UTC, DateTimeZone.forID("Europe/Berlin"),
+                DateTimeZone.forOffsetHoursMinutes(-3, -30), DateTimeZone.forID("America/New_York") };
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            DateTime dateTime = new DateTime((long) (random.nextDouble() * 253402300799000L), zones[i % zones.length]);
+            assertThat(DateTimeHelper.formatDateTime2IsoString(dateTime), is(dateTime.toString()));
+        }
+    }
+
+    @Test
+    public void testParseFormatRoundTrip() throws DateTimeParseException {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            DateTime dateTime = new DateTime((long) (random.nextDouble() * 253402300799000L), DateTimeZone.UTC);
+            assertThat(DateTimeHelper.parseIsoString2DateTime(DateTimeHelper.formatDateTime2IsoString(dateTime)),
+                    is(dateTime));
+        }
+    }
+
+    @Test
+    public void testAppendIsoString() {
+        StringBuilder builder = new StringBuilder("t=");
+        DateTimeHelper.appendIsoString(builder, new DateTime(2014, 1, 28, 10, 16, 35, 945, DateTimeZone.UTC));
+        assertThat(builder.toString(), is("t=2014-01-28T10:16:35.945Z"));
+    }
 }
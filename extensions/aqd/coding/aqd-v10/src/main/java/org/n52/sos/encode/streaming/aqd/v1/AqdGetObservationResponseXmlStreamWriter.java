@@ -29,13 +29,19 @@
 package org.n52.sos.encode.streaming.aqd.v1;
 
 import java.io.OutputStream;
-import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.xmlbeans.XmlObject;
 import org.joda.time.DateTime;
@@ -46,7 +52,6 @@ import org.n52.sos.encode.EncodingValues;
 import org.n52.sos.encode.XmlStreamWriter;
 import org.n52.sos.encode.streaming.StreamingDataEncoder;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
-import org.n52.sos.exception.ows.concrete.UnsupportedEncoderInputException;
 import org.n52.sos.iso.GcoConstants;
 import org.n52.sos.iso.gmd.GmdConstants;
 import org.n52.sos.ogc.gml.AbstractFeature;
@@ -63,13 +68,14 @@ import org.n52.sos.ogc.sos.SosConstants.HelperValues;
 import org.n52.sos.ogc.swe.SweConstants;
 import org.n52.sos.util.CodingHelper;
 import org.n52.sos.util.Constants;
-import org.n52.sos.util.XmlOptionsHelper;
 import org.n52.sos.w3c.SchemaLocation;
 import org.n52.sos.w3c.W3CConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * XML stream writer implementation for AQD eResporting
@@ -83,13 +89,51 @@ public class AqdGetObservationResponseXmlStreamWriter extends XmlStreamWriter<Fe
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AqdGetObservationResponseXmlStreamWriter.class);
 
-    private static final long TIMER_PERIOD = 250;
+    private static final long KEEP_ALIVE_PERIOD = 250;
+
+    /**
+     * Scheduler shared by all instances to trigger the writing of blank
+     * strings while observations are prepared. It never writes itself, so a
+     * slow client can not delay the keep-alive of other responses.
+     */
+    private static final ScheduledThreadPoolExecutor KEEP_ALIVE_EXECUTOR = createKeepAliveExecutor();
+
+    private static final int KEEP_ALIVE_WRITER_THREADS = 8;
+
+    /**
+     * Maximum number of merged observations kept while reading ahead
+     */
+    private static final int MAX_OPEN_MERGED_OBSERVATIONS = 16;
+
+    /**
+     * Pool writing the blank strings, at most one thread per response is
+     * blocked by a slow client. Keep-alive writes are skipped while all
+     * threads are blocked.
+     */
+    private static final ExecutorService KEEP_ALIVE_WRITER = createKeepAliveWriter();
+
+    /**
+     * Prefixes replacing the prefixes generated by XmlBeans for members
+     */
+    private static final Map<String, String> MEMBER_PREFIXES = ImmutableMap.of(GmlConstants.NS_GML_32,
+            GmlConstants.NS_GML_PREFIX, SweConstants.NS_SWE_20, SweConstants.NS_SWE_PREFIX);
 
     private FeatureCollection featureCollection;
 
-    private Timer timer = new Timer(String.format("empty-string-write-task-for-%s", getClass().getSimpleName()), true);
+    /**
+     * Guards the {@link XMLStreamWriter} against concurrent keep-alive writes
+     */
+    private final Object writeLock = new Object();
 
-    private TimerTask timerTask = null;
+    private boolean keepAliveActive = false;
+
+    /**
+     * Set while a blank string is written, to skip keep-alive executions
+     * instead of queueing them behind a blocked write
+     */
+    private final AtomicBoolean keepAliveWriting = new AtomicBoolean(false);
+
+    private ScheduledFuture<?> keepAlive = null;
 
     /**
      * constructor
@@ -157,6 +201,7 @@ public class AqdGetObservationResponseXmlStreamWriter extends XmlStreamWriter<Fe
             LOGGER.error("Error while streaming AQD e-Reporting observations!", xmlse);
             throw new NoApplicableCodeException().causedBy(xmlse);
         } catch (OwsExceptionReport owse) {
+            stopKeepAlive();
             rawText(CodingHelper.getEncoder(OWSConstants.NS_OWS, owse).encode(owse).xmlText());
         } finally {
             cleanup();
@@ -172,16 +217,19 @@ public class AqdGetObservationResponseXmlStreamWriter extends XmlStreamWriter<Fe
         TimeInstant resultTime = new TimeInstant(new DateTime(DateTimeZone.UTC));
         for (AbstractFeature abstractFeature : featureCollection.getMembers().values()) {
             long start = System.currentTimeMillis();
+            Encoder<XmlObject, AbstractFeature> encoder =
+                    getEncoder(abstractFeature, encodingValues.getAdditionalValues());
             if (abstractFeature instanceof OmObservation
                     && ((OmObservation) abstractFeature).getValue() instanceof AbstractStreaming) {
-                // start the timer task to write blank strings to avoid
-                // connection closing
-                startTimer();
-                Collection<OmObservation> mergeObservation =
-                        ((AbstractStreaming) ((OmObservation) abstractFeature).getValue()).mergeObservation();
-                LOGGER.debug("Observation processing requires {} ms", (System.currentTimeMillis() - start));
+                // write blank strings to avoid connection closing while the
+                // observations are queried and encoded
+                startKeepAlive();
+                // merge the values while writing, only a few merged
+                // observations are kept at a time
+                AbstractStreaming streaming = (AbstractStreaming) ((OmObservation) abstractFeature).getValue();
                 int count = 0;
-                for (OmObservation omObservation : mergeObservation) {
+                OmObservation omObservation;
+                while ((omObservation = streaming.nextMergedObservation(MAX_OPEN_MERGED_OBSERVATIONS)) != null) {
                     if (abstractFeature.isSetGmlID()) {
                         if (count == 0) {
                             omObservation.setGmlId(abstractFeature.getGmlId());
@@ -191,15 +239,14 @@ public class AqdGetObservationResponseXmlStreamWriter extends XmlStreamWriter<Fe
                         count++;
                     }
                     omObservation.setResultTime(resultTime);
-                    String xmlTextObservation = prepareObservation(omObservation, getEncoder(abstractFeature, encodingValues.getAdditionalValues()), encodingValues);
-                    // stop the timer task
-                    stopTimer();
-                    writeMember(xmlTextObservation);
+                    XmlObject xmlObservation = encoder.encode(omObservation, encodingValues.getAdditionalValues());
+                    stopKeepAlive();
+                    writeMember(xmlObservation);
+                    startKeepAlive();
                 }
-                stopTimer();
+                stopKeepAlive();
             } else {
-                writeMember(abstractFeature, getEncoder(abstractFeature, encodingValues.getAdditionalValues()),
-                        encodingValues);
+                writeMember(encoder.encode(abstractFeature, encodingValues.getAdditionalValues()));
             }
             LOGGER.debug("Writing member requires {} ms", (System.currentTimeMillis() - start));
         }
@@ -265,46 +312,15 @@ public class AqdGetObservationResponseXmlStreamWriter extends XmlStreamWriter<Fe
         return gmlId;
     }
 
-    private String prepareObservation(OmObservation omObservation, Encoder<XmlObject, AbstractFeature> encoder,
-            EncodingValues encodingValues) throws UnsupportedEncoderInputException, OwsExceptionReport, XMLStreamException {
-        
-        String xmlText = (encoder.encode(omObservation, encodingValues.getAdditionalValues())).xmlText(XmlOptionsHelper
-                .getInstance().getXmlOptions());
-        // TODO check for better solutions
-        xmlText = xmlText.replace("ns:GeometryPropertyType","gml:GeometryPropertyType");
-        xmlText = xmlText.replace("ns:Point","gml:Point");
-        xmlText = xmlText.replace("ns:pos","gml:pos");
-        xmlText = xmlText.replace("ns:id=\"point_","gml:id=\"point_");
-        xmlText = xmlText.replace("ns:ReferenceType", "gml:ReferenceType");
-        xmlText = xmlText.replace(":ns=\"http://www.opengis.net/gml/3.2\"", ":gml=\"http://www.opengis.net/gml/3.2\"");
-        xmlText = xmlText.replace("ns:DataArrayPropertyType", "swe:DataArrayPropertyType");
-        xmlText = xmlText.replace(":ns=\"http://www.opengis.net/swe/2.0\"", ":swe=\"http://www.opengis.net/swe/2.0\"");
-        xmlText = xmlText.replace("<ns:", "<swe:");
-        xmlText = xmlText.replace("</ns:", "</swe:");
-        return xmlText;
-    }
-
-    private void writeMember(AbstractFeature abstractFeature, Encoder<XmlObject, AbstractFeature> encoder,
-            EncodingValues encodingValues) throws XMLStreamException, OwsExceptionReport {
-        // chars("");
-        // if (encoder instanceof StreamingEncoder<?, ?>) {
-        // ((StreamingEncoder<XmlObject, AbstractFeature>)
-        // encoder).encode(abstractFeature, getOutputStream(),
-        // encodingValues.setAsDocument(true).setEmbedded(true).setIndent(indent));
-        // } else {
-        writeMember((encoder.encode(abstractFeature, encodingValues.getAdditionalValues())).xmlText(XmlOptionsHelper
-                .getInstance().getXmlOptions()));
-        // }
-    }
-    
-    private void writeMember(String memberContent) throws XMLStreamException, OwsExceptionReport {
+    private void writeMember(XmlObject member) throws XMLStreamException {
         start(GmlConstants.QN_FEATURE_MEMBER_32);
-        rawText(memberContent);
+        writeIndent(indent);
+        writeXmlObject(member, MEMBER_PREFIXES);
         indent--;
         end(GmlConstants.QN_FEATURE_MEMBER_32);
         indent++;
     }
-    
+
     private Encoder<XmlObject, AbstractFeature> getEncoder(AbstractFeature feature,
             Map<HelperValues, String> additionalValues) throws OwsExceptionReport {
         if (feature instanceof AbstractFeature && feature.isSetDefaultElementEncoding()) {
@@ -315,66 +331,107 @@ public class AqdGetObservationResponseXmlStreamWriter extends XmlStreamWriter<Fe
         return null;
     }
 
-    /**
-     * Initializ a new {@link WriteTimerTask}
-     */
-    private void initTimer() {
-        timerTask = new WriteTimerTask();
+    private static ScheduledThreadPoolExecutor createKeepAliveExecutor() {
+        ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setDaemon(true)
+                        .setNameFormat("aqd-streaming-keep-alive-%d").build());
+        // do not keep canceled keep-alive tasks until their next execution
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ExecutorService createKeepAliveWriter() {
+        // without a queue, writes are rejected while all writers are blocked
+        return new ThreadPoolExecutor(0, KEEP_ALIVE_WRITER_THREADS, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadFactoryBuilder().setDaemon(true)
+                        .setNameFormat("aqd-streaming-keep-alive-writer-%d").build());
     }
 
     /**
-     * Schedule the {@link WriteTimerTask}
+     * Schedule the {@link KeepAliveTask} on the shared executor, if not yet
+     * scheduled
      */
-    private void startTimer() {
-        if (timerTask == null) {
-            initTimer();
+    private void startKeepAlive() {
+        if (keepAlive == null) {
+            synchronized (writeLock) {
+                keepAliveActive = true;
+            }
+            keepAlive =
+                    KEEP_ALIVE_EXECUTOR.scheduleWithFixedDelay(new KeepAliveTask(), KEEP_ALIVE_PERIOD,
+                            KEEP_ALIVE_PERIOD, TimeUnit.MILLISECONDS);
+            LOGGER.debug("Keep-alive started!");
         }
-        timer.schedule(timerTask, TIMER_PERIOD, TIMER_PERIOD);
-        LOGGER.debug("Timer started!");
     }
 
     /**
-     * Cancel the {@link WriteTimerTask} and set to <code>null</code>
+     * Cancel the {@link KeepAliveTask}. Returns after a running execution of
+     * the task finished writing.
      */
-    private void stopTimer() {
-        if (this.timerTask != null) {
-            this.timerTask.cancel();
-            this.timerTask = null;
-            LOGGER.debug("Timer task {} canceled", WriteTimerTask.class.getSimpleName());
+    private void stopKeepAlive() {
+        if (keepAlive != null) {
+            keepAlive.cancel(false);
+            keepAlive = null;
+            synchronized (writeLock) {
+                keepAliveActive = false;
+            }
+            LOGGER.debug("Keep-alive canceled");
         }
     }
 
     /**
-     * Cleanup the {@link Timer} and {@link TimerTask} to avoid conncetion
-     * timeout after 1000 ms Stops the {@link WriteTimerTask}, Cancel
-     * {@link Timer} and set to <code>null</code>.
+     * Stop the {@link KeepAliveTask} to avoid writes after the response is
+     * finished
      */
     private void cleanup() {
-        stopTimer();
-        timerTask = null;
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
-        }
+        stopKeepAlive();
     }
 
     /**
-     * {@link TimerTask} to write blank strings to the {@link OutputStream} to
-     * avoid conncetion timeout after 1000 ms
+     * Task to write blank strings to the {@link OutputStream} to avoid
+     * conncetion timeout after 1000 ms. The task only hands the write over to
+     * the {@link #KEEP_ALIVE_WRITER} and skips the execution if the previous
+     * write of this response is not finished yet.
      * 
      * @author Carsten Hollmann <c.hollmann@52north.org>
      * @since 4.3.0
      *
      */
-    private class WriteTimerTask extends TimerTask {
+    private class KeepAliveTask implements Runnable {
+        @Override
+        public void run() {
+            if (keepAliveWriting.compareAndSet(false, true)) {
+                try {
+                    KEEP_ALIVE_WRITER.execute(new KeepAliveWrite());
+                } catch (RejectedExecutionException ree) {
+                    keepAliveWriting.set(false);
+                    LOGGER.debug("Keep-alive write rejected", ree);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a blank string to the {@link OutputStream}, if the keep-alive is
+     * still active
+     */
+    private class KeepAliveWrite implements Runnable {
         @Override
         public void run() {
             try {
-                chars(Constants.BLANK_STRING);
-                flush();
-            } catch (XMLStreamException xmlse) {
-                cleanup();
-                LOGGER.error("Error while writing empty string by timer task!", xmlse);
+                synchronized (writeLock) {
+                    if (!keepAliveActive) {
+                        return;
+                    }
+                    try {
+                        chars(Constants.BLANK_STRING);
+                        flush();
+                    } catch (XMLStreamException xmlse) {
+                        keepAliveActive = false;
+                        LOGGER.error("Error while writing empty string by keep-alive task!", xmlse);
+                    }
+                }
+            } finally {
+                keepAliveWriting.set(false);
             }
         }
     }
@@ -29,6 +29,7 @@
 package org.n52.sos.converter;
 
 import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -302,7 +303,7 @@ public class EReportingPrefixedIdentifierModifier extends AbstractIdentifierModi
     }
     
     private void checkAndChangeIdentifierOfAbstractFeature(AbstractFeature abstractFeature) {
-        abstractFeature.setIdentifier(checkFeatureOfInterestIdentifier(abstractFeature
+        abstractFeature.setIdentifier(lookupFeatureOfInterestIdentifier(abstractFeature
                     .getIdentifier()));
         if (abstractFeature instanceof SamplingFeature && ((SamplingFeature) abstractFeature).isSetXmlDescription()) {
             ((SamplingFeature) abstractFeature).setXmlDescription(null);
@@ -312,22 +313,30 @@ public class EReportingPrefixedIdentifierModifier extends AbstractIdentifierModi
 
     @Override
     protected void checkAndChangeProcedureIdentifier(AbstractFeature abstractFeature) {
-         abstractFeature.setIdentifier(checkProcedureIdentifier(abstractFeature.getIdentifier()));
+         abstractFeature.setIdentifier(lookupProcedureIdentifier(abstractFeature.getIdentifier()));
     }
 
     @Override
     protected void checkAndChangeObservablePropertyIdentifier(AbstractFeature abstractFeature) {
-                abstractFeature.setIdentifier(checkObservablePropertyIdentifier(abstractFeature
+                abstractFeature.setIdentifier(lookupObservablePropertyIdentifier(abstractFeature
                         .getIdentifier()));
     }
 
     @Override
     protected void checkAndChangOfferingIdentifier(SosOffering offering) {
         if (offering != null) {
-            offering.setIdentifier(checkOfferingIdentifier(offering.getIdentifier()));
+            offering.setIdentifier(lookupOfferingIdentifier(offering.getIdentifier()));
         }
     }
 
+    @Override
+    protected Object getIdentifierMappingState() {
+        return Arrays.asList(getEReportingPrefixedIdentifierHelper().getNamespacePrefix(),
+                getEReportingPrefixedIdentifierHelper().getOfferingPrefix(),
+                getEReportingPrefixedIdentifierHelper().getProcedurePrefix(),
+                getEReportingPrefixedIdentifierHelper().getFeatureOfInterestPrefix());
+    }
+
     protected EReportingPrefixedIdentifierHelper getEReportingPrefixedIdentifierHelper() {
         return EReportingPrefixedIdentifierHelper.getInstance();
     }
@@ -47,10 +47,18 @@ import org.n52.sos.util.CollectionHelper;
 public class DeleteObservationCacheControllerUpdate extends ContentCacheUpdate {
     private final OmObservation o;
 
+    private final DeleteObservationChangeSet changeSet;
+
     private DeleteObservationCacheFeederDAO cacheFeederDAO;
 
     public DeleteObservationCacheControllerUpdate(OmObservation o) {
         this.o = o;
+        this.changeSet = null;
+    }
+
+    public DeleteObservationCacheControllerUpdate(DeleteObservationChangeSet changeSet) {
+        this.o = null;
+        this.changeSet = changeSet;
     }
 
     protected DeleteObservationCacheFeederDAO getDao() throws NoImplementationFoundException {
@@ -70,6 +78,7 @@ public class DeleteObservationCacheControllerUpdate extends ContentCacheUpdate {
             getDao().setErrors(errors);
             getDao().setCache(getCache());
             getDao().setDeletedObservation(o);
+            getDao().setDeletedObservations(changeSet);
             getDao().execute();
             if (!errors.isEmpty()) {
                 throw new CompositeOwsException(errors);
@@ -51,7 +51,9 @@ import com.vividsolutions.jts.geom.Envelope;
 
 /**
  * Updates the cache after a Observation was deleted. Uses the deleted
- * observation to determine which cache relations have to be updated.
+ * observation (or the {@link DeleteObservationChangeSet} of observations
+ * deleted by parameters) to determine which cache relations have to be
+ * updated.
  * <p/>
  *
  * @author Christian Autermann <c.autermann@52north.org>
@@ -81,6 +83,11 @@ public abstract class DeleteObservationCacheFeederDAO extends DatasourceCacheUpd
      */
     private final Set<String> updatedOfferingBoundingBoxes = new HashSet<>(0);
 
+    /**
+     * The aggregated observations deleted by parameters.
+     */
+    private DeleteObservationChangeSet changeSet;
+
     public void setDeletedObservation(OmObservation deletedObservation) {
         this.o = deletedObservation;
     }
@@ -89,6 +96,14 @@ public abstract class DeleteObservationCacheFeederDAO extends DatasourceCacheUpd
         return this.o;
     }
 
+    public void setDeletedObservations(DeleteObservationChangeSet changeSet) {
+        this.changeSet = changeSet;
+    }
+
+    public DeleteObservationChangeSet getDeletedObservations() {
+        return this.changeSet;
+    }
+
     /**
      * Translates the dbFeature identifiers to database dbFeature identifiers
      * and queries the FeatureQueryHandler for the envelope.
@@ -128,9 +143,14 @@ public abstract class DeleteObservationCacheFeederDAO extends DatasourceCacheUpd
     public void execute() {
         try {
             prepare();
-            updateFeatureOfInterest();
-            updateTemporalBoundingBoxes();
-            updateSpatialBoundingBoxes();
+            if (o == null && changeSet != null) {
+                updateChangeSetFeaturesOfInterest();
+                updateChangeSetTemporalBoundingBoxes();
+            } else {
+                updateFeatureOfInterest();
+                updateTemporalBoundingBoxes();
+                updateSpatialBoundingBoxes();
+            }
         } catch (OwsExceptionReport ex) {
             getErrors().add(ex);
         } finally {
@@ -158,6 +178,116 @@ public abstract class DeleteObservationCacheFeederDAO extends DatasourceCacheUpd
         }
     }
 
+    /**
+     * Disassociates the features of interest of the deleted observations from
+     * their procedures and offerings if there are no observations left and
+     * updates the spatial bounding boxes of the offerings that lost a feature.
+     * The global bounding box is not affected as the features themselves are
+     * kept.
+     *
+     * @throws OwsExceptionReport
+     *             if the datasource or the FeatureQueryHandler fails
+     */
+    protected void updateChangeSetFeaturesOfInterest() throws OwsExceptionReport {
+        for (String procedure : changeSet.getProcedures()) {
+            for (String feature : changeSet.getFeaturesForProcedure(procedure)) {
+                if (isLastForProcedure(feature, procedure)) {
+                    getCache().removeProcedureForFeatureOfInterest(feature, procedure);
+                }
+            }
+        }
+        for (String offering : changeSet.getOfferings()) {
+            boolean removed = false;
+            for (String feature : changeSet.getFeaturesForOffering(offering)) {
+                if (isLastForOffering(feature, offering)) {
+                    getCache().removeFeatureOfInterestForOffering(offering, feature);
+                    removed = true;
+                }
+            }
+            if (removed && getCache().getEnvelopeForOffering(offering) != null) {
+                log.debug("Updating spatial bounding box for offering {}", offering);
+                getCache().setEnvelopeForOffering(offering,
+                        getEnvelope(getCache().getFeaturesOfInterestForOffering(offering)));
+            }
+        }
+    }
+
+    /**
+     * Update the global, procedure and offering specific temporal bounding
+     * boxes for the deleted observations. The database is only queried if the
+     * time span of the deleted observations reaches the cached bounds.
+     *
+     * @throws OwsExceptionReport
+     *             if the datasource fails
+     */
+    protected void updateChangeSetTemporalBoundingBoxes() throws OwsExceptionReport {
+        TimePeriod phenomenonTime = changeSet.getPhenomenonTime();
+        if (isMinAffected(getCache().getMinPhenomenonTime(), phenomenonTime)) {
+            log.debug("Updating global minimal phenomenon time");
+            getCache().setMinPhenomenonTime(getMinPhenomenonTime());
+        }
+        if (isMaxAffected(getCache().getMaxPhenomenonTime(), phenomenonTime)) {
+            log.debug("Updating global maximal phenomenon time");
+            getCache().setMaxPhenomenonTime(getMaxPhenomenonTime());
+        }
+        TimePeriod resultTime = changeSet.getResultTime();
+        if (isMinAffected(getCache().getMinResultTime(), resultTime)) {
+            log.debug("Updating global minimal result time");
+            getCache().setMinResultTime(getMinResultTime());
+        }
+        if (isMaxAffected(getCache().getMaxResultTime(), resultTime)) {
+            log.debug("Updating global maximal result time");
+            getCache().setMaxResultTime(getMaxResultTime());
+        }
+        for (String procedure : changeSet.getProcedures()) {
+            TimePeriod period = changeSet.getPhenomenonTimeForProcedure(procedure);
+            if (isMinAffected(getCache().getMinPhenomenonTimeForProcedure(procedure), period)) {
+                log.debug("Updating minimal phenomenon time for procedure {}", procedure);
+                getCache().setMinPhenomenonTimeForProcedure(procedure, getMinDateForProcedure(procedure));
+            }
+            if (isMaxAffected(getCache().getMaxPhenomenonTimeForProcedure(procedure), period)) {
+                log.debug("Updating maximal phenomenon time for procedure {}", procedure);
+                getCache().setMaxPhenomenonTimeForProcedure(procedure, getMaxDateForProcedure(procedure));
+            }
+        }
+        for (String offering : changeSet.getOfferings()) {
+            TimePeriod period = changeSet.getPhenomenonTimeForOffering(offering);
+            if (isMinAffected(getCache().getMinPhenomenonTimeForOffering(offering), period)) {
+                log.debug("Updating minimal phenomenon time for offering {}", offering);
+                getCache().setMinPhenomenonTimeForOffering(offering, getMinDateForOffering(offering));
+            }
+            if (isMaxAffected(getCache().getMaxPhenomenonTimeForOffering(offering), period)) {
+                log.debug("Updating maximal phenomenon time for offering {}", offering);
+                getCache().setMaxPhenomenonTimeForOffering(offering, getMaxDateForOffering(offering));
+            }
+            period = changeSet.getResultTimeForOffering(offering);
+            if (isMinAffected(getCache().getMinResultTimeForOffering(offering), period)) {
+                log.debug("Updating minimal result time for offering {}", offering);
+                getCache().setMinResultTimeForOffering(offering, getMinResultTimeForOffering(offering));
+            }
+            if (isMaxAffected(getCache().getMaxResultTimeForOffering(offering), period)) {
+                log.debug("Updating maximal result time for offering {}", offering);
+                getCache().setMaxResultTimeForOffering(offering, getMaxResultTimeForOffering(offering));
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the cached minimum is not before the start of
+     *         the deleted time span
+     */
+    protected boolean isMinAffected(DateTime cachedMin, TimePeriod deleted) {
+        return cachedMin != null && deleted != null && deleted.isSetStart() && !cachedMin.isBefore(deleted.getStart());
+    }
+
+    /**
+     * @return {@code true} if the cached maximum is not after the end of the
+     *         deleted time span
+     */
+    protected boolean isMaxAffected(DateTime cachedMax, TimePeriod deleted) {
+        return cachedMax != null && deleted != null && deleted.isSetEnd() && !cachedMax.isAfter(deleted.getEnd());
+    }
+
     /**
      * Update the spatial bounding boxes for the deleted observation.
      * <p/>
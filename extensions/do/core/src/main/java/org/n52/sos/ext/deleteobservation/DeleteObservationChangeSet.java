@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ext.deleteobservation;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.time.DateTime;
+import org.n52.sos.ogc.gml.time.TimePeriod;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Aggregates the procedure/feature/offering relations and time spans of
+ * observations deleted by parameters. Used to update the cache without
+ * keeping the deleted observations in memory.
+ *
+ * @since 4.4.0
+ */
+public class DeleteObservationChangeSet {
+
+    private final SetMultimap<String, String> featuresForProcedure = HashMultimap.create();
+
+    private final SetMultimap<String, String> featuresForOffering = HashMultimap.create();
+
+    private final Map<String, TimePeriod> phenomenonTimeForProcedure = Maps.newHashMap();
+
+    private final Map<String, TimePeriod> phenomenonTimeForOffering = Maps.newHashMap();
+
+    private final Map<String, TimePeriod> resultTimeForOffering = Maps.newHashMap();
+
+    private final TimePeriod phenomenonTime = new TimePeriod();
+
+    private final TimePeriod resultTime = new TimePeriod();
+
+    private int count = 0;
+
+    /**
+     * Add a deleted observation.
+     *
+     * @param procedure
+     *            the procedure identifier
+     * @param feature
+     *            the feature of interest identifier
+     * @param offering
+     *            the offering identifier, may be <code>null</code>
+     * @param phenomenonTimeStart
+     *            the phenomenon time start
+     * @param phenomenonTimeEnd
+     *            the phenomenon time end
+     * @param resultTime
+     *            the result time, may be <code>null</code>
+     */
+    public void add(String procedure, String feature, String offering, DateTime phenomenonTimeStart,
+            DateTime phenomenonTimeEnd, DateTime resultTime) {
+        count++;
+        featuresForProcedure.put(procedure, feature);
+        extend(phenomenonTimeForProcedure, procedure, phenomenonTimeStart, phenomenonTimeEnd);
+        this.phenomenonTime.extendToContain(phenomenonTimeStart);
+        this.phenomenonTime.extendToContain(phenomenonTimeEnd);
+        this.resultTime.extendToContain(resultTime);
+        if (offering != null) {
+            featuresForOffering.put(offering, feature);
+            extend(phenomenonTimeForOffering, offering, phenomenonTimeStart, phenomenonTimeEnd);
+            extend(resultTimeForOffering, offering, resultTime, resultTime);
+        }
+    }
+
+    private void extend(Map<String, TimePeriod> periods, String key, DateTime start, DateTime end) {
+        TimePeriod period = periods.get(key);
+        if (period == null) {
+            period = new TimePeriod();
+            periods.put(key, period);
+        }
+        period.extendToContain(start);
+        period.extendToContain(end);
+    }
+
+    public Set<String> getProcedures() {
+        return featuresForProcedure.keySet();
+    }
+
+    public Set<String> getOfferings() {
+        return featuresForOffering.keySet();
+    }
+
+    public Set<String> getFeaturesForProcedure(String procedure) {
+        return featuresForProcedure.get(procedure);
+    }
+
+    public Set<String> getFeaturesForOffering(String offering) {
+        return featuresForOffering.get(offering);
+    }
+
+    public TimePeriod getPhenomenonTimeForProcedure(String procedure) {
+        return phenomenonTimeForProcedure.get(procedure);
+    }
+
+    public TimePeriod getPhenomenonTimeForOffering(String offering) {
+        return phenomenonTimeForOffering.get(offering);
+    }
+
+    public TimePeriod getResultTimeForOffering(String offering) {
+        return resultTimeForOffering.get(offering);
+    }
+
+    public TimePeriod getPhenomenonTime() {
+        return phenomenonTime;
+    }
+
+    public TimePeriod getResultTime() {
+        return resultTime;
+    }
+
+    /**
+     * @return the number of added observation/offering combinations
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+}
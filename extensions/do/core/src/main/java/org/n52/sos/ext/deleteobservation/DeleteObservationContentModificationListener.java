@@ -28,12 +28,16 @@
  */
 package org.n52.sos.ext.deleteobservation;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import org.n52.sos.event.SosEvent;
 import org.n52.sos.event.SosEventListener;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.cache.ObservationResponseCache;
+import org.n52.sos.response.cache.ObservationResponseScope;
 import org.n52.sos.service.Configurator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,9 +61,11 @@ public class DeleteObservationContentModificationListener implements SosEventLis
     public void handle(SosEvent event) {
         if (event instanceof DeleteObservationEvent) {
             DeleteObservationEvent e = (DeleteObservationEvent) event;
-            if (e.getDeletedObservation() != null) {
-                DeleteObservationCacheControllerUpdate update =
-                        new DeleteObservationCacheControllerUpdate(e.getDeletedObservation());
+            invalidateResponseCache(e);
+            if (e.isSetDeletedObservation() || e.isSetChangeSet()) {
+                DeleteObservationCacheControllerUpdate update = e.isSetDeletedObservation()
+                        ? new DeleteObservationCacheControllerUpdate(e.getDeletedObservation())
+                        : new DeleteObservationCacheControllerUpdate(e.getChangeSet());
                 LOGGER.debug("Updating Cache after content modification: {}", update);
                 try {
                     Configurator.getInstance().getCacheController().update(update);
@@ -78,4 +84,27 @@ public class DeleteObservationContentModificationListener implements SosEventLis
             LOGGER.debug("Can not handle modification event: {}", event);
         }
     }
+
+    private void invalidateResponseCache(DeleteObservationEvent event) {
+        ObservationResponseCache cache = ObservationResponseCache.getInstance();
+        if (!cache.isEnabled()) {
+            return;
+        }
+        if (event.isSetDeletedObservation()) {
+            cache.invalidate(Collections.singleton(ObservationResponseScope.forObservation(
+                    event.getDeletedObservation(), null)));
+        } else if (event.isSetChangeSet()) {
+            DeleteObservationChangeSet changeSet = event.getChangeSet();
+            List<ObservationResponseScope> scopes =
+                    new ArrayList<ObservationResponseScope>(changeSet.getProcedures().size());
+            for (String procedure : changeSet.getProcedures()) {
+                scopes.add(new ObservationResponseScope(Collections.singleton(procedure), null,
+                        changeSet.getFeaturesForProcedure(procedure), null,
+                        changeSet.getPhenomenonTimeForProcedure(procedure)));
+            }
+            cache.invalidate(scopes);
+        } else {
+            cache.clear();
+        }
+    }
 }
@@ -38,10 +38,12 @@ import org.n52.sos.ogc.om.OmObservation;
  */
 public class DeleteObservationEvent extends SosDeletionEvent<DeleteObservationRequest, DeleteObservationResponse> {
     private OmObservation deletedObservation;
+    private DeleteObservationChangeSet changeSet;
 
     public DeleteObservationEvent(DeleteObservationRequest request, DeleteObservationResponse response) {
         super(request, response);
         this.deletedObservation = response.getDeletedObservation();
+        this.changeSet = response.getChangeSet();
     }
 
     public OmObservation getDeletedObservation() {
@@ -51,4 +53,12 @@ public class DeleteObservationEvent extends SosDeletionEvent<DeleteObservationRe
     public boolean isSetDeletedObservation() {
         return getDeletedObservation() != null;
     }
+
+    public DeleteObservationChangeSet getChangeSet() {
+        return changeSet;
+    }
+
+    public boolean isSetChangeSet() {
+        return getChangeSet() != null;
+    }
 }
@@ -40,6 +40,7 @@ import org.n52.sos.response.AbstractOperationResponse;
 public class DeleteObservationResponse extends AbstractOperationResponse {
     private OmObservation deletedObservation;
     private String observationIdentifier;
+    private DeleteObservationChangeSet changeSet;
     
     public DeleteObservationResponse(String sosDoVersion) {
         super(sosDoVersion);
@@ -61,6 +62,14 @@ public class DeleteObservationResponse extends AbstractOperationResponse {
         return deletedObservation;
     }
 
+    public void setChangeSet(DeleteObservationChangeSet changeSet) {
+        this.changeSet = changeSet;
+    }
+
+    public DeleteObservationChangeSet getChangeSet() {
+        return changeSet;
+    }
+
     @Override
     public String getOperationName() {
         return DeleteObservationConstants.Operations.DeleteObservation.name();
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ext.deleteobservation;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+/**
+ * @since 4.4.0
+ */
+public class DeleteObservationChangeSetTest {
+
+    private static final DateTime T1 = new DateTime(2015, 1, 1, 0, 0, DateTimeZone.UTC);
+
+    private static final DateTime T2 = new DateTime(2015, 1, 2, 0, 0, DateTimeZone.UTC);
+
+    private static final DateTime T3 = new DateTime(2015, 1, 3, 0, 0, DateTimeZone.UTC);
+
+    @Test
+    public void shouldAggregateRelationsAndTimes() {
+        DeleteObservationChangeSet changeSet = new DeleteObservationChangeSet();
+        changeSet.add("p1", "f1", "o1", T2, T2, T2);
+        changeSet.add("p1", "f2", "o1", T1, T1, T3);
+        changeSet.add("p2", "f3", "o2", T3, T3, T3);
+
+        assertThat(changeSet.getCount(), is(3));
+        assertThat(changeSet.getProcedures(), containsInAnyOrder("p1", "p2"));
+        assertThat(changeSet.getFeaturesForProcedure("p1"), containsInAnyOrder("f1", "f2"));
+        assertThat(changeSet.getFeaturesForOffering("o2"), containsInAnyOrder("f3"));
+        assertThat(changeSet.getPhenomenonTimeForProcedure("p1").getStart(), is(T1));
+        assertThat(changeSet.getPhenomenonTimeForProcedure("p1").getEnd(), is(T2));
+        assertThat(changeSet.getResultTimeForOffering("o1").getStart(), is(T2));
+        assertThat(changeSet.getResultTimeForOffering("o1").getEnd(), is(T3));
+        assertThat(changeSet.getPhenomenonTime().getStart(), is(T1));
+        assertThat(changeSet.getPhenomenonTime().getEnd(), is(T3));
+    }
+
+    @Test
+    public void shouldIgnoreMissingOffering() {
+        DeleteObservationChangeSet changeSet = new DeleteObservationChangeSet();
+        changeSet.add("p1", "f1", null, T1, T2, null);
+
+        assertThat(changeSet.getOfferings().isEmpty(), is(true));
+        assertThat(changeSet.getResultTime().isSetStart(), is(false));
+        assertThat(changeSet.getPhenomenonTimeForOffering("o1"), is(nullValue()));
+    }
+}
@@ -28,7 +28,10 @@
  */
 package org.n52.sos.ext.deleteobservation;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.hibernate.HibernateException;
@@ -36,10 +39,15 @@ import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.criterion.Criterion;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.n52.sos.convert.ConverterException;
 import org.n52.sos.ds.HibernateDatasourceConstants;
 import org.n52.sos.ds.hibernate.HibernateSessionHolder;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
+import org.n52.sos.ds.hibernate.dao.observation.AbstractObservationDAO;
+import org.n52.sos.ds.hibernate.dao.observation.ObservationSummary;
+import org.n52.sos.ds.hibernate.dao.observation.series.AbstractSeriesDAO;
 import org.n52.sos.ds.hibernate.dao.observation.series.SeriesDAO;
 import org.n52.sos.ds.hibernate.entities.observation.Observation;
 import org.n52.sos.ds.hibernate.entities.observation.series.Series;
@@ -48,13 +56,17 @@ import org.n52.sos.ds.hibernate.util.TemporalRestrictions;
 import org.n52.sos.ds.hibernate.util.observation.HibernateObservationUtilities;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.gml.time.TimePeriod;
 import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.request.AbstractObservationRequest;
 import org.n52.sos.request.GetObservationRequest;
 import org.n52.sos.util.CollectionHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
@@ -65,6 +77,8 @@ import com.google.common.collect.Sets;
  */
 public class DeleteObservationDAO extends DeleteObservationAbstractDAO {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeleteObservationDAO.class);
+
     private HibernateSessionHolder hibernateSessionHolder = new HibernateSessionHolder();
 
     @Override
@@ -138,14 +152,56 @@ public class DeleteObservationDAO extends DeleteObservationAbstractDAO {
         if (CollectionHelper.isNotEmpty(request.getTemporalFilters())) {
             filter = TemporalRestrictions.filter(request.getTemporalFilters());
         }
-        ScrollableResults result = DaoFactory.getInstance().getObservationDAO().getObservations(request.getProcedures(),
+        AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
+        Set<Long> observationIds = Sets.newHashSet();
+        Map<Long, TimePeriod> seriesTimes = Maps.newHashMap();
+        DeleteObservationChangeSet changeSet = new DeleteObservationChangeSet();
+        ScrollableResults result = observationDAO.getObservationSummaries(request.getProcedures(),
                 request.getObservedProperties(), request.getFeatureIdentifiers(), request.getOfferings(),
                 filter, session);
-        while (result.next()) {
-            delete((Observation<?>) result.get()[0], session);
+        try {
+            while (result.next()) {
+                ObservationSummary summary = new ObservationSummary(result.get());
+                DateTime phenomenonTimeStart = toDateTime(summary.getPhenomenonTimeStart());
+                DateTime phenomenonTimeEnd = toDateTime(summary.getPhenomenonTimeEnd());
+                observationIds.add(summary.getObservationId());
+                changeSet.add(summary.getProcedure(), summary.getFeatureOfInterest(), summary.getOffering(),
+                        phenomenonTimeStart, phenomenonTimeEnd, toDateTime(summary.getResultTime()));
+                if (summary.isSetSeriesId()) {
+                    TimePeriod seriesTime = seriesTimes.get(summary.getSeriesId());
+                    if (seriesTime == null) {
+                        seriesTime = new TimePeriod();
+                        seriesTimes.put(summary.getSeriesId(), seriesTime);
+                    }
+                    seriesTime.extendToContain(phenomenonTimeStart);
+                    seriesTime.extendToContain(phenomenonTimeEnd);
+                }
+            }
+        } finally {
+            result.close();
+        }
+        if (!observationIds.isEmpty()) {
+            int deleted = observationDAO.updateObservationSetAsDeleted(observationIds, true, session);
+            LOGGER.debug("Set {} observations as deleted", deleted);
+            if (!seriesTimes.isEmpty()) {
+                AbstractSeriesDAO seriesDAO = DaoFactory.getInstance().getSeriesDAO();
+                for (Entry<Long, TimePeriod> entry : seriesTimes.entrySet()) {
+                    Series series = seriesDAO.getSeries(entry.getKey(), session);
+                    if (series != null) {
+                        seriesDAO.updateSeriesAfterObservationDeletion(series, entry.getValue().getStart().toDate(),
+                                entry.getValue().getEnd().toDate(), session);
+                    }
+                }
+            }
+            session.flush();
         }
+        response.setChangeSet(changeSet);
     }
-    
+
+    private DateTime toDateTime(Date date) {
+        return date == null ? null : new DateTime(date, DateTimeZone.UTC);
+    }
+
     private void delete(Observation<?> observation, Session session) {
         if (observation != null) {
             observation.setDeleted(true);
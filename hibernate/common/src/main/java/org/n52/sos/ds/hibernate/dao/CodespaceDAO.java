@@ -59,7 +59,7 @@ public class CodespaceDAO {
         Criteria criteria =
                 session.createCriteria(Codespace.class).add(Restrictions.eq(Codespace.CODESPACE, codespace));
         LOGGER.debug("QUERY getCodespace(codespace): {}", HibernateHelper.getSqlString(criteria));
-        return (Codespace) criteria.uniqueResult();
+        return (Codespace) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
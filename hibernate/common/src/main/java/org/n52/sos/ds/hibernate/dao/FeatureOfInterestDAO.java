@@ -38,6 +38,7 @@ import java.util.Map;
 import org.hibernate.Criteria;
 import org.hibernate.Query;
 import org.hibernate.Session;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.ProjectionList;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
@@ -62,6 +63,7 @@ import org.n52.sos.ogc.OGCConstants;
 import org.n52.sos.ogc.gml.AbstractFeature;
 import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.service.Configurator;
 import org.n52.sos.util.CollectionHelper;
 import org.n52.sos.util.http.HTTPStatus;
@@ -106,7 +108,7 @@ public class FeatureOfInterestDAO extends AbstractIdentifierNameDescriptionDAO i
                 session.createCriteria(FeatureOfInterest.class).add(
                         Restrictions.eq(FeatureOfInterest.IDENTIFIER, identifier));
         LOGGER.debug("QUERY getFeatureOfInterest(identifier): {}", HibernateHelper.getSqlString(criteria));
-        return (FeatureOfInterest) criteria.uniqueResult();
+        return (FeatureOfInterest) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
@@ -283,6 +285,45 @@ public class FeatureOfInterestDAO extends AbstractIdentifierNameDescriptionDAO i
         return criteria.list();
     }
 
+    /**
+     * Get a page of the featureOfInterest identifiers, ordered by identifier
+     *
+     * @param paging
+     *            the page to query
+     * @param session
+     *            Hibernate session
+     * @return FeatureOfInterest identifiers of the page and the first
+     *         identifier of the next page, if any
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getFeatureOfInterestIdentifiers(ResultPaging paging, Session session) {
+        Criteria criteria =
+                session.createCriteria(FeatureOfInterest.class).setProjection(
+                        Projections.distinct(Projections.property(FeatureOfInterest.IDENTIFIER)));
+        addPaging(criteria, paging);
+        LOGGER.debug("QUERY getFeatureOfInterestIdentifiers(paging): {}", HibernateHelper.getSqlString(criteria));
+        return criteria.list();
+    }
+
+    /**
+     * Restrict a criteria that queries featureOfInterest identifiers to a
+     * page, ordered by identifier
+     *
+     * @param criteria
+     *            Criteria for {@link FeatureOfInterest}
+     * @param paging
+     *            the page to query
+     * @return the criteria
+     */
+    public Criteria addPaging(Criteria criteria, ResultPaging paging) {
+        if (paging.isSetAfter()) {
+            criteria.add(Restrictions.gt(FeatureOfInterest.IDENTIFIER, paging.getAfter()));
+        } else if (paging.getOffset() > 0) {
+            criteria.setFirstResult(paging.getOffset());
+        }
+        return criteria.addOrder(Order.asc(FeatureOfInterest.IDENTIFIER)).setMaxResults(paging.getFetchSize());
+    }
+
     /**
      * Insert and/or get featureOfInterest object for identifier
      *
@@ -90,7 +90,7 @@ public class FeatureOfInterestTypeDAO {
                         Restrictions.eq(FeatureOfInterestType.FEATURE_OF_INTEREST_TYPE, featureOfInterestType));
         LOGGER.debug("QUERY getFeatureOfInterestTypeObject(featureOfInterestType): {}",
                 HibernateHelper.getSqlString(criteria));
-        return (FeatureOfInterestType) criteria.uniqueResult();
+        return (FeatureOfInterestType) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
@@ -216,7 +216,7 @@ public class ObservablePropertyDAO extends AbstractIdentifierNameDescriptionDAO
                 .add(Restrictions.eq(ObservableProperty.IDENTIFIER, identifier));
         LOGGER.debug("QUERY getObservablePropertyForIdentifier(identifier): {}",
                 HibernateHelper.getSqlString(criteria));
-        return (ObservableProperty) criteria.uniqueResult();
+        return (ObservableProperty) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
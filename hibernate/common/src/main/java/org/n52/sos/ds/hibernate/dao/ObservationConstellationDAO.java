@@ -307,7 +307,7 @@ public class ObservationConstellationDAO {
 
         LOGGER.debug("QUERY checkObservationConstellation(sosObservationConstellation, offering): {}",
                 HibernateHelper.getSqlString(c));
-        ObservationConstellation hoc = (ObservationConstellation) c.uniqueResult();
+        ObservationConstellation hoc = (ObservationConstellation) c.setCacheable(true).uniqueResult();
 
         if (hoc == null) {
             throw new InvalidParameterValueException()
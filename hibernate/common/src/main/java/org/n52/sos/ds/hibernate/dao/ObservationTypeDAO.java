@@ -81,7 +81,7 @@ public class ObservationTypeDAO {
                 session.createCriteria(ObservationType.class).add(
                         Restrictions.eq(ObservationType.OBSERVATION_TYPE, observationType));
         LOGGER.debug("QUERY getObservationTypeObject(observationType): {}", HibernateHelper.getSqlString(criteria));
-        return (ObservationType) criteria.uniqueResult();
+        return (ObservationType) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
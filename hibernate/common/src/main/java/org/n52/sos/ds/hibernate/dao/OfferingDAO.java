@@ -146,7 +146,7 @@ public class OfferingDAO extends TimeCreator implements HibernateSqlQueryConstan
         Criteria criteria =
                 session.createCriteria(Offering.class).add(Restrictions.eq(Offering.IDENTIFIER, identifier));
         LOGGER.debug("QUERY getOfferingForIdentifier(identifier): {}", HibernateHelper.getSqlString(criteria));
-        return (Offering) criteria.uniqueResult();
+        return (Offering) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
@@ -66,7 +66,7 @@ public class ProcedureDescriptionFormatDAO {
                                 procedureDescriptionFormat));
         LOGGER.debug("QUERY getProcedureDescriptionFormatObject(procedureDescriptionFormat): {}",
                 HibernateHelper.getSqlString(criteria));
-        return (ProcedureDescriptionFormat) criteria.uniqueResult();
+        return (ProcedureDescriptionFormat) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
@@ -42,6 +42,7 @@ import org.n52.sos.ds.hibernate.entities.ObservationConstellation;
 import org.n52.sos.ds.hibernate.entities.Offering;
 import org.n52.sos.ds.hibernate.entities.ResultTemplate;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
+import org.n52.sos.ds.hibernate.util.ResultTemplateCache;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.ogc.gml.AbstractFeature;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -218,7 +219,7 @@ public class ResultTemplateDAO {
             for (final ResultTemplate storedResultTemplate : resultTemplates) {
                 storedIdentifiers.add(storedResultTemplate.getIdentifier());
                 final SosResultStructure storedStructure =
-                        new SosResultStructure(storedResultTemplate.getResultStructure());
+                        ResultTemplateCache.getInstance().getResultStructure(storedResultTemplate);
                 final SosResultStructure newStructure = new SosResultStructure(request.getResultStructure().getXml());
 
                 if (!storedStructure.equals(newStructure)) {
@@ -231,7 +232,7 @@ public class ResultTemplateDAO {
                             observationConstellation.getOffering().getIdentifier());
                 }
                 final SosResultEncoding storedEncoding =
-                        new SosResultEncoding(storedResultTemplate.getResultEncoding());
+                        ResultTemplateCache.getInstance().getResultEncoding(storedResultTemplate);
                 final SosResultEncoding newEndoding = new SosResultEncoding(request.getResultEncoding().getXml());
                 if (!storedEncoding.equals(newEndoding)) {
                     throw new InvalidParameterValueException().at(
@@ -276,5 +277,6 @@ public class ResultTemplateDAO {
         resultTemplate.setResultEncoding(request.getResultEncoding().getXml());
         session.save(resultTemplate);
         session.flush();
+        ResultTemplateCache.getInstance().invalidate(resultTemplate.getIdentifier());
     }
 }
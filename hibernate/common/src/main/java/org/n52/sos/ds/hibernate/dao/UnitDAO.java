@@ -58,7 +58,7 @@ public class UnitDAO {
     public Unit getUnit(String unit, Session session) {
         Criteria criteria = session.createCriteria(Unit.class).add(Restrictions.eq(Unit.UNIT, unit));
         LOGGER.debug("QUERY getUnit(): {}", HibernateHelper.getSqlString(criteria));
-        return (Unit) criteria.uniqueResult();
+        return (Unit) criteria.setCacheable(true).uniqueResult();
     }
 
     /**
@@ -46,11 +46,14 @@ import org.n52.sos.ds.hibernate.entities.AbstractIdentifierNameDescriptionEntity
 import org.n52.sos.ds.hibernate.entities.i18n.AbstractHibernateI18NMetadata;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
 import org.n52.sos.i18n.LocalizedString;
+import org.n52.sos.i18n.MultilingualString;
 import org.n52.sos.i18n.metadata.AbstractI18NMetadata;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 public abstract class AbstractHibernateI18NDAO<T extends AbstractIdentifierNameDescriptionEntity,
                                                S extends AbstractI18NMetadata,
@@ -59,64 +62,52 @@ public abstract class AbstractHibernateI18NDAO<T extends AbstractIdentifierNameD
 
     private final HibernateSessionHolder sessionHolder = new HibernateSessionHolder();
 
+    private final I18NMetadataStore<S> store = new I18NMetadataStore<S>();
+
     @Override
     public S getMetadata(String id)
             throws OwsExceptionReport {
-        Session session = null;
-        try {
-            session = sessionHolder.getSession();
-            return getMetadata(id, session);
-        } finally {
-            sessionHolder.returnSession(session);
-        }
+        return copySosObject(id, getStore().get(id), null);
     }
 
     @Override
     public Collection<S> getMetadata(Collection<String> id)
             throws OwsExceptionReport {
-        Session session = null;
-        try {
-            session = sessionHolder.getSession();
-            return getMetadata(id, session);
-        } finally {
-            sessionHolder.returnSession(session);
-        }
+        return getMetadata(id, (Locale) null);
     }
 
     @Override
     public S getMetadata(String id, Locale locale)
             throws OwsExceptionReport {
-        Session session = null;
-        try {
-            session = sessionHolder.getSession();
-            return getMetadata(id, locale, session);
-        } finally {
-            sessionHolder.returnSession(session);
-        }
+        return copySosObject(id, getStore().get(id), locale);
     }
 
     @Override
     public Collection<S> getMetadata(Collection<String> id, Locale locale)
             throws OwsExceptionReport {
-        Session session = null;
-        try {
-            session = sessionHolder.getSession();
-            return getMetadata(id, locale, session);
-        } finally {
-            sessionHolder.returnSession(session);
+        I18NMetadataStore<S> loaded = getStore();
+        List<S> list = Lists.newArrayListWithCapacity(id.size());
+        for (String identifier : Sets.newHashSet(id)) {
+            S i18n = loaded.get(identifier);
+            if (i18n != null) {
+                S copy = copySosObject(identifier, i18n, locale);
+                if (!copy.getLocales().isEmpty()) {
+                    list.add(copy);
+                }
+            }
         }
+        return list;
     }
 
     @Override
     public Collection<S> getMetadata()
             throws OwsExceptionReport {
-        Session session = null;
-        try {
-            session = sessionHolder.getSession();
-            return getMetadata(session);
-        } finally {
-            sessionHolder.returnSession(session);
+        Collection<S> all = getStore().getAll();
+        List<S> list = Lists.newArrayListWithCapacity(all.size());
+        for (S i18n : all) {
+            list.add(copySosObject(i18n.getIdentifier(), i18n, null));
         }
+        return list;
     }
 
     @Override
@@ -126,6 +117,7 @@ public abstract class AbstractHibernateI18NDAO<T extends AbstractIdentifierNameD
         try {
             session = sessionHolder.getSession();
             saveMetadata(i18n, session);
+            store.put(copySosObject(i18n.getIdentifier(), i18n, null));
         } finally {
             sessionHolder.returnSession(session);
         }
@@ -134,13 +126,41 @@ public abstract class AbstractHibernateI18NDAO<T extends AbstractIdentifierNameD
     @Override
     public Collection<Locale> getAvailableLocales()
             throws OwsExceptionReport {
-        Session session = null;
-        try {
-            session = sessionHolder.getSession();
-            return getAvailableLocales(session);
-        } finally {
-            sessionHolder.returnSession(session);
+        return getStore().getLocales();
+    }
+
+    /**
+     * Remove the in-memory metadata of this entity type, the next lookup loads
+     * it again from the datasource.
+     */
+    public void clearCache() {
+        store.clear();
+    }
+
+    /**
+     * Get the in-memory metadata of this entity type, loads all metadata in
+     * bulk if not already loaded.
+     *
+     * @return the loaded store
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the metadata
+     */
+    private I18NMetadataStore<S> getStore()
+            throws OwsExceptionReport {
+        if (!store.isLoaded()) {
+            synchronized (store) {
+                if (!store.isLoaded()) {
+                    Session session = null;
+                    try {
+                        session = sessionHolder.getSession();
+                        store.load(getMetadata(session));
+                    } finally {
+                        sessionHolder.returnSession(session);
+                    }
+                }
+            }
         }
+        return store;
     }
 
     @Override
@@ -260,6 +280,39 @@ public abstract class AbstractHibernateI18NDAO<T extends AbstractIdentifierNameD
         return i18n;
     }
 
+    /**
+     * Create a new metadata object that contains the localizations of the
+     * stored one, so that callers can not modify the stored metadata.
+     *
+     * @param id
+     *            the identifier
+     * @param stored
+     *            the stored metadata, may be <code>null</code>
+     * @param locale
+     *            the locale to copy or <code>null</code> to copy all
+     * @return the copy
+     */
+    protected S copySosObject(String id, S stored, Locale locale) {
+        S i18n = createSosObject(id);
+        if (stored != null) {
+            copySosObject(stored, i18n, locale);
+        }
+        return i18n;
+    }
+
+    protected void copySosObject(S from, S to, Locale locale) {
+        copyLocalizations(from.getName(), to.getName(), locale);
+        copyLocalizations(from.getDescription(), to.getDescription(), locale);
+    }
+
+    protected void copyLocalizations(MultilingualString from, MultilingualString to, Locale locale) {
+        for (LocalizedString localization : from) {
+            if (locale == null || locale.equals(localization.getLang())) {
+                to.addLocalization(localization);
+            }
+        }
+    }
+
     protected void deleteOldValues(String id, Session session) {
         Criteria criteria = session.createCriteria(getHibernateEntityClass());
         criteria.createCriteria(AbstractHibernateI18NMetadata.OBJECT_ID)
@@ -28,11 +28,15 @@
  */
 package org.n52.sos.ds.hibernate.dao.i18n;
 
+import java.util.Collections;
+
 import org.hibernate.Session;
 import org.n52.sos.ds.hibernate.dao.FeatureOfInterestDAO;
 import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
 import org.n52.sos.ds.hibernate.entities.i18n.HibernateI18NFeatureOfInterestMetadata;
+import org.n52.sos.ds.hibernate.util.feature.FeatureOfInterestStore;
 import org.n52.sos.i18n.metadata.I18NFeatureMetadata;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
 
 
 public class FeatureI18NDAO extends AbstractHibernateI18NDAO<FeatureOfInterest, I18NFeatureMetadata, HibernateI18NFeatureOfInterestMetadata> {
@@ -57,6 +61,13 @@ public class FeatureI18NDAO extends AbstractHibernateI18NDAO<FeatureOfInterest,
         return new I18NFeatureMetadata(id);
     }
 
+    @Override
+    public void saveMetadata(I18NFeatureMetadata i18n)
+            throws OwsExceptionReport {
+        super.saveMetadata(i18n);
+        FeatureOfInterestStore.getInstance().invalidate(Collections.singleton(i18n.getIdentifier()));
+    }
+
     @Override
     public Class<I18NFeatureMetadata> getType() {
         return I18NFeatureMetadata.class;
@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.i18n;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.n52.sos.i18n.metadata.AbstractI18NMetadata;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+/**
+ * In-memory store of the I18N metadata of one entity type keyed by the entity
+ * identifier. The store is loaded in bulk and holds immutable snapshots, the
+ * stored objects must not be modified and should be copied before they are
+ * handed out.
+ *
+ * @param <S>
+ *            the metadata type
+ *
+ * @since 4.4.0
+ */
+public class I18NMetadataStore<S extends AbstractI18NMetadata> {
+
+    private volatile Map<String, S> metadata;
+
+    private volatile Set<Locale> locales = Collections.emptySet();
+
+    /**
+     * @return <code>true</code>, if the store was loaded
+     */
+    public boolean isLoaded() {
+        return metadata != null;
+    }
+
+    /**
+     * Replace the content of the store
+     *
+     * @param values
+     *            All metadata of the entity type
+     */
+    public synchronized void load(Collection<S> values) {
+        Map<String, S> map = Maps.newHashMapWithExpectedSize(values.size());
+        for (S value : values) {
+            if (!value.getLocales().isEmpty()) {
+                map.put(value.getIdentifier(), value);
+            }
+        }
+        set(map);
+    }
+
+    /**
+     * Replace the metadata of one entity, metadata without any localization
+     * removes the entity from the store. Does nothing if the store is not
+     * loaded.
+     *
+     * @param value
+     *            Metadata to store
+     */
+    public synchronized void put(S value) {
+        if (!isLoaded()) {
+            return;
+        }
+        Map<String, S> map = Maps.newHashMap(metadata);
+        if (value.getLocales().isEmpty()) {
+            map.remove(value.getIdentifier());
+        } else {
+            map.put(value.getIdentifier(), value);
+        }
+        set(map);
+    }
+
+    /**
+     * Remove all metadata, the store has to be loaded again
+     */
+    public synchronized void clear() {
+        this.metadata = null;
+        this.locales = Collections.emptySet();
+    }
+
+    /**
+     * Get the stored metadata of the entity
+     *
+     * @param id
+     *            Entity identifier
+     * @return Stored metadata or <code>null</code> if the entity has no
+     *         localizations
+     */
+    public S get(String id) {
+        Map<String, S> map = metadata;
+        return map == null ? null : map.get(id);
+    }
+
+    /**
+     * @return All stored metadata
+     */
+    public Collection<S> getAll() {
+        Map<String, S> map = metadata;
+        return map == null ? Collections.<S> emptySet() : map.values();
+    }
+
+    /**
+     * @return The locales of all stored metadata
+     */
+    public Set<Locale> getLocales() {
+        return locales;
+    }
+
+    private void set(Map<String, S> map) {
+        ImmutableSet.Builder<Locale> builder = ImmutableSet.builder();
+        for (S value : map.values()) {
+            builder.addAll(value.getLocales());
+        }
+        this.locales = builder.build();
+        this.metadata = ImmutableMap.copyOf(map);
+    }
+}
@@ -28,6 +28,8 @@
  */
 package org.n52.sos.ds.hibernate.dao.i18n;
 
+import java.util.Locale;
+
 import org.hibernate.Session;
 import org.n52.sos.ds.hibernate.dao.ProcedureDAO;
 import org.n52.sos.ds.hibernate.entities.Procedure;
@@ -85,6 +87,13 @@ public class ProcedureI18NDAO extends AbstractHibernateI18NDAO<Procedure, I18NPr
         }
     }
 
+    @Override
+    protected void copySosObject(I18NProcedureMetadata from, I18NProcedureMetadata to, Locale locale) {
+        super.copySosObject(from, to, locale);
+        copyLocalizations(from.getLongName(), to.getLongName(), locale);
+        copyLocalizations(from.getShortName(), to.getShortName(), locale);
+    }
+
     @Override
     protected void fillSosObject(HibernateI18NProcedureMetadata h18n,
                                  I18NProcedureMetadata i18n) {
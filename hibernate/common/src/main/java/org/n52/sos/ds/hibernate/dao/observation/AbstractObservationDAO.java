@@ -38,20 +38,24 @@ import java.util.Set;
 
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
-import org.hibernate.ScrollableResults;
 import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projection;
+import org.hibernate.criterion.ProjectionList;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.hibernate.criterion.Subqueries;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.spatial.criterion.SpatialProjections;
+import org.hibernate.sql.JoinType;
 import org.hibernate.transform.ResultTransformer;
+import org.hibernate.type.TrueFalseType;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
@@ -65,6 +69,7 @@ import org.n52.sos.ds.hibernate.dao.ObservationConstellationDAO;
 import org.n52.sos.ds.hibernate.dao.ObservationTypeDAO;
 import org.n52.sos.ds.hibernate.dao.ParameterDAO;
 import org.n52.sos.ds.hibernate.dao.UnitDAO;
+import org.n52.sos.ds.hibernate.dao.observation.series.SeriesFirstLatestIndex;
 import org.n52.sos.ds.hibernate.entities.Codespace;
 import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
 import org.n52.sos.ds.hibernate.entities.ObservableProperty;
@@ -86,6 +91,7 @@ import org.n52.sos.ds.hibernate.entities.observation.full.GeometryObservation;
 import org.n52.sos.ds.hibernate.entities.observation.full.NumericObservation;
 import org.n52.sos.ds.hibernate.entities.observation.full.SweDataArrayObservation;
 import org.n52.sos.ds.hibernate.entities.observation.full.TextObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.SeriesObservation;
 import org.n52.sos.ds.hibernate.entities.parameter.Parameter;
 import org.n52.sos.ds.hibernate.entities.parameter.ParameterFactory;
 import org.n52.sos.ds.hibernate.util.HibernateConstants;
@@ -130,6 +136,7 @@ import org.n52.sos.ogc.sos.SosConstants.SosIndeterminateTime;
 import org.n52.sos.ogc.sos.SosEnvelope;
 import org.n52.sos.ogc.swe.SweAbstractDataRecord;
 import org.n52.sos.ogc.swe.SweField;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.GetObservationRequest;
 import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.util.CollectionHelper;
@@ -284,6 +291,71 @@ public abstract class AbstractObservationDAO extends AbstractIdentifierNameDescr
      */
     public abstract Criteria getTemoralReferencedObservationCriteriaFor(OmObservation observation, Session session) throws CodedException;
 
+    /**
+     * Get Hibernate Criteria to query the observations for the GetObservation
+     * request
+     *
+     * @param request
+     *            GetObservation request
+     * @param features
+     *            Collection of feature identifiers resolved from the request
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param sosIndeterminateTime
+     *            Indeterminate time to use in a temporal filter
+     *            (first/latest), may be <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Hibernate Criteria to query observations
+     * @throws OwsExceptionReport
+     */
+    protected abstract Criteria getObservationCriteriaFor(GetObservationRequest request, Collection<String> features,
+            Criterion filterCriterion, SosIndeterminateTime sosIndeterminateTime, Session session)
+            throws OwsExceptionReport;
+
+    /**
+     * Query a page of the observations for the GetObservation request. The
+     * observations are ordered by their id, which is the key of the page.
+     *
+     * @param request
+     *            GetObservation request
+     * @param features
+     *            Collection of feature identifiers resolved from the request
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param paging
+     *            the page to query
+     * @param session
+     *            Hibernate session
+     * @return Observations of the page and the first observation of the next
+     *         page, if any
+     * @throws OwsExceptionReport
+     *             If the key of the page is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public List<Observation<?>> getObservationPageFor(GetObservationRequest request, Collection<String> features,
+            Criterion filterCriterion, ResultPaging paging, Session session) throws OwsExceptionReport {
+        Criteria c = getObservationCriteriaFor(request, features, filterCriterion, null, session);
+        if (paging.isSetAfter()) {
+            c.add(Restrictions.gt(Observation.ID, parseObservationId(paging.getAfter())));
+        } else if (paging.getOffset() > 0) {
+            c.setFirstResult(paging.getOffset());
+        }
+        c.addOrder(Order.asc(Observation.ID)).setMaxResults(paging.getFetchSize());
+        LOGGER.debug("QUERY getObservationPageFor({}): {}", paging, HibernateHelper.getSqlString(c));
+        return c.list();
+    }
+
+    private long parseObservationId(String key) throws OwsExceptionReport {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException nfe) {
+            throw new InvalidParameterValueException(Sos2Constants.Extensions.Paging, key).causedBy(nfe);
+        }
+    }
+
     /**
      * Query observation by identifier
      *
@@ -468,6 +540,18 @@ public abstract class AbstractObservationDAO extends AbstractIdentifierNameDescr
         return getDefaultCriteria(getObservationFactory().temporalReferencedClass(), session);
     }
 
+    /**
+     * Get default Hibernate Criteria to query numeric observations, default
+     * flag == <code>false</code>
+     *
+     * @param session
+     *            Hibernate session
+     * @return Default Criteria
+     */
+    public Criteria getDefaultNumericObservationCriteria(Session session) {
+        return getDefaultCriteria(getObservationFactory().numericClass(), session);
+    }
+
     @SuppressWarnings("rawtypes")
     private Criteria getDefaultCriteria(Class clazz, Session session) {
         Criteria criteria = session.createCriteria(clazz)
@@ -1148,6 +1232,106 @@ public abstract class AbstractObservationDAO extends AbstractIdentifierNameDescr
         return criteria.list();
     }
 
+    /**
+     * Query the id, times, offering, procedure and feature of interest of all
+     * observations matching the parameters without loading the observation
+     * entities. Each row can be wrapped in an {@link ObservationSummary}. An
+     * observation appears once per offering it belongs to, independent of the
+     * offering restriction.
+     *
+     * @param procedure
+     *            Procedure identifiers
+     * @param observableProperty
+     *            Observable property identifiers
+     * @param featureOfInterest
+     *            Feature of interest identifiers
+     * @param offering
+     *            Offering identifiers
+     * @param filterCriterion
+     *            Temporal filter criterion, may be <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Scrollable result rows
+     */
+    public ScrollableResults getObservationSummaries(Set<String> procedure, Set<String> observableProperty,
+            Set<String> featureOfInterest, Set<String> offering, Criterion filterCriterion, Session session) {
+        Criteria c = getDefaultObservationTimeCriteria(session);
+        c.createAlias(TemporalReferencedObservation.OFFERINGS, "off", JoinType.LEFT_OUTER_JOIN);
+        if (CollectionHelper.isNotEmpty(offering)) {
+            DetachedCriteria offeringCriteria =
+                    DetachedCriteria.forClass(getObservationFactory().temporalReferencedClass());
+            offeringCriteria.createCriteria(TemporalReferencedObservation.OFFERINGS).add(
+                    Restrictions.in(Offering.IDENTIFIER, offering));
+            offeringCriteria.setProjection(Projections.property(TemporalReferencedObservation.ID));
+            c.add(Subqueries.propertyIn(TemporalReferencedObservation.ID, offeringCriteria));
+        }
+        if (filterCriterion != null) {
+            c.add(filterCriterion);
+        }
+        ProjectionList projections =
+                Projections.projectionList().add(Projections.property(TemporalReferencedObservation.ID))
+                        .add(Projections.property(TemporalReferencedObservation.PHENOMENON_TIME_START))
+                        .add(Projections.property(TemporalReferencedObservation.PHENOMENON_TIME_END))
+                        .add(Projections.property(TemporalReferencedObservation.RESULT_TIME))
+                        .add(Projections.property("off." + Offering.IDENTIFIER));
+        addObservationSummaryRestrictions(c, projections, procedure, observableProperty, featureOfInterest);
+        c.setProjection(projections);
+        LOGGER.debug("QUERY getObservationSummaries(): {}", HibernateHelper.getSqlString(c));
+        return c.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    /**
+     * Add the procedure, observable property and feature of interest
+     * restrictions to the criteria of
+     * {@link #getObservationSummaries(Set, Set, Set, Set, Criterion, Session)}
+     * and append the procedure and feature of interest identifier (and the
+     * series id if supported) to the projections.
+     *
+     * @param c
+     *            Criteria to add restrictions to
+     * @param projections
+     *            Projections to append to
+     * @param procedure
+     *            Procedure identifiers
+     * @param observableProperty
+     *            Observable property identifiers
+     * @param featureOfInterest
+     *            Feature of interest identifiers
+     */
+    protected abstract void addObservationSummaryRestrictions(Criteria c, ProjectionList projections,
+            Set<String> procedure, Set<String> observableProperty, Set<String> featureOfInterest);
+
+    /**
+     * Set the deleted flag of the observations with the ids with set-based
+     * update statements.
+     *
+     * @param observationIds
+     *            Observation ids
+     * @param deleteFlag
+     *            New deleted flag
+     * @param session
+     *            Hibernate session
+     * @return Number of updated observations
+     */
+    public int updateObservationSetAsDeleted(Collection<Long> observationIds, boolean deleteFlag, Session session) {
+        int updated = 0;
+        if (CollectionHelper.isNotEmpty(observationIds)) {
+            String hql =
+                    String.format("update %s set %s = :%s where %s in (:%s)",
+                            getObservationFactory().temporalReferencedClass().getName(),
+                            TemporalReferencedObservation.DELETED, TemporalReferencedObservation.DELETED,
+                            TemporalReferencedObservation.ID, TemporalReferencedObservation.ID);
+            for (List<Long> ids : Iterables.partition(observationIds, HibernateConstants.LIMIT_EXPRESSION_DEPTH)) {
+                Query query = session.createQuery(hql);
+                query.setParameter(TemporalReferencedObservation.DELETED, deleteFlag, TrueFalseType.INSTANCE);
+                query.setParameterList(TemporalReferencedObservation.ID, ids);
+                LOGGER.debug("QUERY updateObservationSetAsDeleted(): {}", query.getQueryString());
+                updated += query.executeUpdate();
+            }
+        }
+        return updated;
+    }
+
     @SuppressWarnings("unchecked")
     public SosEnvelope getSpatialFilteringProfileEnvelopeForOfferingId(String offeringID, Session session)
             throws OwsExceptionReport {
@@ -1569,6 +1753,9 @@ public abstract class AbstractObservationDAO extends AbstractIdentifierNameDescr
             daos.observation().addObservationContextToObservation(observationContext, observation, session);
 
             session.saveOrUpdate(observation);
+            if (observation instanceof SeriesObservation) {
+                SeriesFirstLatestIndex.getInstance().observationInserted((SeriesObservation<?>) observation);
+            }
 
             if (sosObservation.isSetParameter()) {
                 daos.parameter.insertParameter(sosObservation.getParameter(), observation.getObservationId(), caches.units, session);
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.observation;
+
+import java.util.Date;
+
+/**
+ * Identifier, times and references of an observation as returned by
+ * {@link AbstractObservationDAO#getObservationSummaries}, which allows to
+ * process large numbers of observations without loading the observation
+ * entities.
+ *
+ * @since 4.4.0
+ */
+public class ObservationSummary {
+
+    private final long observationId;
+
+    private final Date phenomenonTimeStart;
+
+    private final Date phenomenonTimeEnd;
+
+    private final Date resultTime;
+
+    private final String offering;
+
+    private final String procedure;
+
+    private final String featureOfInterest;
+
+    private final Long seriesId;
+
+    /**
+     * Create a summary from a row of
+     * {@link AbstractObservationDAO#getObservationSummaries}
+     *
+     * @param row
+     *            observation id, phenomenon time start, phenomenon time end,
+     *            result time, offering, procedure, feature of interest and the
+     *            optional series id
+     */
+    public ObservationSummary(Object[] row) {
+        this.observationId = ((Number) row[0]).longValue();
+        this.phenomenonTimeStart = (Date) row[1];
+        this.phenomenonTimeEnd = (Date) row[2];
+        this.resultTime = (Date) row[3];
+        this.offering = (String) row[4];
+        this.procedure = (String) row[5];
+        this.featureOfInterest = (String) row[6];
+        this.seriesId = row.length > 7 && row[7] != null ? ((Number) row[7]).longValue() : null;
+    }
+
+    public long getObservationId() {
+        return observationId;
+    }
+
+    public Date getPhenomenonTimeStart() {
+        return phenomenonTimeStart;
+    }
+
+    public Date getPhenomenonTimeEnd() {
+        return phenomenonTimeEnd;
+    }
+
+    public Date getResultTime() {
+        return resultTime;
+    }
+
+    public String getOffering() {
+        return offering;
+    }
+
+    public String getProcedure() {
+        return procedure;
+    }
+
+    public String getFeatureOfInterest() {
+        return featureOfInterest;
+    }
+
+    public Long getSeriesId() {
+        return seriesId;
+    }
+
+    public boolean isSetSeriesId() {
+        return seriesId != null;
+    }
+}
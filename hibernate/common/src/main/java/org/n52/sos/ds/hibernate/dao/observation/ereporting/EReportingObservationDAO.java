@@ -132,9 +132,20 @@ public class EReportingObservationDAO extends AbstractSeriesObservationDAO {
     @Override
     public List<SeriesObservation<?>> getSeriesObservationsFor(Series series, GetObservationRequest request,
             SosIndeterminateTime sosIndeterminateTime, Session session) throws OwsExceptionReport {
+        List<SeriesObservation<?>> observations =
+                getIndexedSeriesObservationsFor(series, request, sosIndeterminateTime, session);
+        if (observations != null) {
+            return observations;
+        }
         return getSeriesObservationCriteriaFor(series, request, sosIndeterminateTime, session).list();
     }
 
+    @Override
+    protected boolean isIndexedExtremaSupported(GetObservationRequest request) {
+        return super.isIndexedExtremaSupported(request)
+                && !(request.isSetResponseFormat() && AqdConstants.NS_AQD.equals(request.getResponseFormat()));
+    }
+
     @Override
     protected void addSpecificRestrictions(Criteria c, GetObservationRequest request)
             throws CodedException {
@@ -43,6 +43,7 @@ import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.ProjectionList;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.hibernate.dialect.Dialect;
@@ -270,6 +271,25 @@ public class LegacyObservationDAO extends AbstractObservationDAO {
         return c.scroll(ScrollMode.FORWARD_ONLY);
     }
 
+    @Override
+    protected void addObservationSummaryRestrictions(Criteria c, ProjectionList projections, Set<String> procedure,
+            Set<String> observableProperty, Set<String> featureOfInterest) {
+        c.createAlias(Observation.PROCEDURE, "op");
+        c.createAlias(Observation.FEATURE_OF_INTEREST, "of");
+        if (CollectionHelper.isNotEmpty(procedure)) {
+            c.add(Restrictions.in("op." + Procedure.IDENTIFIER, procedure));
+        }
+        if (CollectionHelper.isNotEmpty(observableProperty)) {
+            c.createAlias(Observation.OBSERVABLE_PROPERTY, "oo");
+            c.add(Restrictions.in("oo." + ObservableProperty.IDENTIFIER, observableProperty));
+        }
+        if (CollectionHelper.isNotEmpty(featureOfInterest)) {
+            c.add(Restrictions.in("of." + FeatureOfInterest.IDENTIFIER, featureOfInterest));
+        }
+        projections.add(Projections.property("op." + Procedure.IDENTIFIER))
+                .add(Projections.property("of." + FeatureOfInterest.IDENTIFIER));
+    }
+
     @SuppressWarnings("unchecked")
     private List<Observation<?>> getObservationsFor(GetObservationRequest request, Collection<String> features,
             Criterion filterCriterion, SosIndeterminateTime sosIndeterminateTime, Session session)
@@ -314,6 +334,7 @@ public class LegacyObservationDAO extends AbstractObservationDAO {
         return getObservationCriteriaFor(request, features, filterCriterion, sosIndeterminateTime, session).list();
     }
 
+    @Override
     protected Criteria getObservationCriteriaFor(GetObservationRequest request, Collection<String> features,
             Criterion filterCriterion, SosIndeterminateTime sosIndeterminateTime, Session session)
             throws OwsExceptionReport {
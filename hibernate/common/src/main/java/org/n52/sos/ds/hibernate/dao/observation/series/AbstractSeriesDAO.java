@@ -29,6 +29,7 @@
 package org.n52.sos.ds.hibernate.dao.observation.series;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 import org.hibernate.Criteria;
@@ -433,41 +434,73 @@ public abstract class AbstractSeriesDAO {
      *            Hibernate session
      */
     public void updateSeriesAfterObservationDeletion(Series series, SeriesObservation<?> observation, Session session) {
+        updateSeriesAfterObservationDeletion(series, observation.getPhenomenonTimeStart(),
+                observation.getPhenomenonTimeEnd(), session);
+    }
+
+    /**
+     * Check {@link Series} if the phenomenon time span of the deleted
+     * observations touches the first/last series time stamp and query the new
+     * first/last observation only in this case
+     * 
+     * @param series
+     *            Series to update
+     * @param minPhenomenonTimeStart
+     *            Minimal phenomenon time start of the deleted observations
+     * @param maxPhenomenonTimeEnd
+     *            Maximal phenomenon time end of the deleted observations
+     * @param session
+     *            Hibernate session
+     */
+    public void updateSeriesAfterObservationDeletion(Series series, Date minPhenomenonTimeStart,
+            Date maxPhenomenonTimeEnd, Session session) {
+        SeriesFirstLatestIndex.getInstance().invalidate(series.getSeriesId());
         SeriesObservationDAO seriesObservationDAO = new SeriesObservationDAO();
-        if (series.getFirstTimeStamp().equals(observation.getPhenomenonTimeStart())) {
+        if (series.getFirstTimeStamp() != null && minPhenomenonTimeStart != null
+                && series.getFirstTimeStamp().getTime() >= minPhenomenonTimeStart.getTime()) {
             SeriesObservation<?> firstObservation = seriesObservationDAO.getFirstObservationFor(series, session);
             if (firstObservation != null) {
-	            series.setFirstTimeStamp(firstObservation.getPhenomenonTimeStart());
-	            if (firstObservation instanceof NumericObservation) {
-	                series.setFirstNumericValue(((NumericObservation) firstObservation).getValue());
-	            }
+                series.setFirstTimeStamp(firstObservation.getPhenomenonTimeStart());
+                if (firstObservation instanceof NumericObservation) {
+                    series.setFirstNumericValue(((NumericObservation) firstObservation).getValue());
+                }
             } else {
-            	series.setFirstTimeStamp(null);
-	            if (observation instanceof NumericObservation) {
-	                series.setFirstNumericValue(null);
-	            }
+                series.setFirstTimeStamp(null);
+                series.setFirstNumericValue(null);
             }
-        } 
-        if (series.getLastTimeStamp().equals(observation.getPhenomenonTimeEnd())) {
+        }
+        if (series.getLastTimeStamp() != null && maxPhenomenonTimeEnd != null
+                && series.getLastTimeStamp().getTime() <= maxPhenomenonTimeEnd.getTime()) {
             SeriesObservation<?> latestObservation = seriesObservationDAO.getLastObservationFor(series, session);
             if (latestObservation != null) {
-            	series.setLastTimeStamp(latestObservation.getPhenomenonTimeEnd());
+                series.setLastTimeStamp(latestObservation.getPhenomenonTimeEnd());
                 if (latestObservation instanceof NumericObservation) {
                     series.setLastNumericValue(((NumericObservation) latestObservation).getValue());
                 }
             } else {
-            	series.setLastTimeStamp(null);
-                if (observation instanceof NumericObservation) {
-                    series.setLastNumericValue(null);
-                }
+                series.setLastTimeStamp(null);
+                series.setLastNumericValue(null);
             }
         }
         if (!series.isSetFirstLastTime()) {
-        	series.setUnit(null);
+            series.setUnit(null);
         }
         session.saveOrUpdate(series);
     }
 
+    /**
+     * Get the series for the id
+     * 
+     * @param seriesId
+     *            Series id
+     * @param session
+     *            Hibernate session
+     * @return Series or <code>null</code> if not exists
+     */
+    public Series getSeries(long seriesId, Session session) {
+        return (Series) session.get(getSeriesClass(), seriesId);
+    }
+
     public TimeExtrema getProcedureTimeExtrema(Session session, String procedure) {
         Criteria c = getDefaultSeriesCriteria(session);
         addProcedureToCriteria(c, procedure);
@@ -33,22 +33,31 @@ import static org.hibernate.criterion.Restrictions.eq;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.TimeZone;
 
 import org.hibernate.Criteria;
+import org.hibernate.Query;
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.ProjectionList;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.spatial.criterion.SpatialProjections;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.n52.sos.aggregation.AggregatedValue;
+import org.n52.sos.aggregation.AggregationFunction;
+import org.n52.sos.aggregation.ObservationAggregation;
+import org.n52.sos.aggregation.ValueAggregator;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
 import org.n52.sos.ds.hibernate.dao.observation.AbstractObservationDAO;
 import org.n52.sos.ds.hibernate.dao.observation.ObservationContext;
@@ -59,6 +68,7 @@ import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.observation.AbstractObservation;
 import org.n52.sos.ds.hibernate.entities.observation.AbstractTemporalReferencedObservation;
 import org.n52.sos.ds.hibernate.entities.observation.Observation;
+import org.n52.sos.ds.hibernate.entities.observation.full.NumericObservation;
 import org.n52.sos.ds.hibernate.entities.observation.series.AbstractSeriesObservation;
 import org.n52.sos.ds.hibernate.entities.observation.series.ContextualReferencedSeriesObservation;
 import org.n52.sos.ds.hibernate.entities.observation.series.Series;
@@ -68,9 +78,12 @@ import org.n52.sos.ds.hibernate.util.HibernateConstants;
 import org.n52.sos.ds.hibernate.util.HibernateGeometryCreator;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
 import org.n52.sos.ds.hibernate.util.ScrollableIterable;
+import org.n52.sos.ds.hibernate.util.TemporalRestrictions;
 import org.n52.sos.ds.hibernate.util.observation.ExtensionFesFilterCriteriaAdder;
 import org.n52.sos.exception.CodedException;
+import org.n52.sos.ogc.filter.FilterConstants.TimeOperator;
 import org.n52.sos.ogc.filter.TemporalFilter;
+import org.n52.sos.ogc.gml.time.TimePeriod;
 import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.om.OmObservationConstellation;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -82,6 +95,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.vividsolutions.jts.geom.Envelope;
 import com.vividsolutions.jts.geom.Geometry;
 
@@ -89,6 +103,23 @@ public abstract class AbstractSeriesObservationDAO extends AbstractObservationDA
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSeriesObservationDAO.class);
 
+    /**
+     * Named native SQL query to aggregate the numeric values of a series in
+     * intervals, only defined for PostgreSQL
+     */
+    public static final String SQL_QUERY_GET_AGGREGATED_NUMERIC_SERIES_VALUES =
+            "getAggregatedNumericSeriesValuesPostgres";
+
+    private static final String PARAM_SERIES = "series";
+
+    private static final String PARAM_INTERVAL = "interval";
+
+    private static final String PARAM_START = "start";
+
+    private static final String PARAM_END = "end";
+
+    private static final String PARAM_TIME_ZONE = "timeZone";
+
     @Override
     protected void addObservationContextToObservation(ObservationContext ctx,
             Observation<?> observation, Session session) throws CodedException {
@@ -252,6 +283,27 @@ public abstract class AbstractSeriesObservationDAO extends AbstractObservationDA
         return c.scroll(ScrollMode.FORWARD_ONLY);
     }
 
+    @Override
+    protected void addObservationSummaryRestrictions(Criteria c, ProjectionList projections, Set<String> procedure,
+            Set<String> observableProperty, Set<String> featureOfInterest) {
+        String seriesAliasPrefix = createSeriesAliasAndRestrictions(c);
+        c.createAlias(seriesAliasPrefix + Series.PROCEDURE, "sp");
+        c.createAlias(seriesAliasPrefix + Series.FEATURE_OF_INTEREST, "sf");
+        if (CollectionHelper.isNotEmpty(procedure)) {
+            c.add(Restrictions.in("sp." + Procedure.IDENTIFIER, procedure));
+        }
+        if (CollectionHelper.isNotEmpty(observableProperty)) {
+            c.createAlias(seriesAliasPrefix + Series.OBSERVABLE_PROPERTY, "so");
+            c.add(Restrictions.in("so." + ObservableProperty.IDENTIFIER, observableProperty));
+        }
+        if (CollectionHelper.isNotEmpty(featureOfInterest)) {
+            c.add(Restrictions.in("sf." + FeatureOfInterest.IDENTIFIER, featureOfInterest));
+        }
+        projections.add(Projections.property("sp." + Procedure.IDENTIFIER))
+                .add(Projections.property("sf." + FeatureOfInterest.IDENTIFIER))
+                .add(Projections.property(seriesAliasPrefix + Series.ID));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<Geometry> getSamplingGeometries(String feature, Session session) throws OwsExceptionReport {
@@ -441,6 +493,13 @@ public abstract class AbstractSeriesObservationDAO extends AbstractObservationDA
         return getSeriesNotMatchingSeries(seriesIDs, request, features, null, session);
     }
 
+    @Override
+    protected Criteria getObservationCriteriaFor(GetObservationRequest request, Collection<String> features,
+            Criterion filterCriterion, SosIndeterminateTime sosIndeterminateTime, Session session)
+            throws OwsExceptionReport {
+        return getSeriesObservationCriteriaFor(request, features, filterCriterion, sosIndeterminateTime, session);
+    }
+
     /**
      * Create series observations {@link Criteria} for GetObservation request,
      * features, and filter criterion (typically a temporal filter) or an
@@ -508,6 +567,210 @@ public abstract class AbstractSeriesObservationDAO extends AbstractObservationDA
         return observationCriteria;
     }
 
+    /**
+     * Query series observations of the series for GetObservation request. The
+     * procedure, observed property and feature restrictions of the request are
+     * replaced by the series ids, which allows to query groups of series on
+     * separate sessions.
+     *
+     * @param request
+     *            GetObservation request
+     * @param seriesIds
+     *            Ids of the series to query observations for
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Series observations that fit, ordered by series and phenomenon
+     *         time
+     * @throws OwsExceptionReport
+     */
+    @SuppressWarnings("unchecked")
+    public List<SeriesObservation<?>> getSeriesObservationsForSeries(GetObservationRequest request,
+            Collection<Long> seriesIds, Criterion filterCriterion, Session session) throws OwsExceptionReport {
+        final Criteria observationCriteria = getDefaultObservationCriteria(session);
+        Criteria seriesCriteria = observationCriteria.createCriteria(AbstractSeriesObservation.SERIES);
+        checkAndAddSpatialFilteringProfileCriterion(observationCriteria, request, session);
+        addSpecificRestrictions(seriesCriteria, request);
+        seriesCriteria.add(Restrictions.in(Series.ID, seriesIds));
+        if (CollectionHelper.isNotEmpty(request.getOfferings())) {
+            observationCriteria.createCriteria(AbstractSeriesObservation.OFFERINGS)
+                    .add(Restrictions.in(Offering.IDENTIFIER, request.getOfferings()));
+        }
+        if (filterCriterion != null) {
+            observationCriteria.add(filterCriterion);
+        }
+        if (request.isSetFesFilterExtension()) {
+            new ExtensionFesFilterCriteriaAdder(observationCriteria, request.getFesFilterExtensions()).add();
+        }
+        seriesCriteria.addOrder(Order.asc(Series.ID));
+        observationCriteria.addOrder(Order.asc(AbstractTemporalReferencedObservation.PHENOMENON_TIME_START));
+        LOGGER.debug("QUERY getSeriesObservationsForSeries(request, seriesIds, filterCriterion): {}",
+                HibernateHelper.getSqlString(observationCriteria));
+        return observationCriteria.list();
+    }
+
+    /**
+     * Aggregate or downsample the numeric values of a series matching the
+     * GetObservation request. If the aggregation is order independent and the
+     * request only restricts the phenomenon time, the database computes the
+     * intervals with the named query
+     * {@link #SQL_QUERY_GET_AGGREGATED_NUMERIC_SERIES_VALUES}. Otherwise the
+     * values are scrolled as projections and aggregated in memory.
+     *
+     * @param series
+     *            Series to aggregate the values of
+     * @param request
+     *            GetObservation request
+     * @param filterCriterion
+     *            Temporal filter criterion, may be <code>null</code>
+     * @param aggregation
+     *            The requested aggregation
+     * @param session
+     *            Hibernate session
+     * @return the aggregated values in ascending order of time
+     * @throws OwsExceptionReport
+     */
+    public List<AggregatedValue> getAggregatedSeriesValues(Series series, GetObservationRequest request,
+            Criterion filterCriterion, ObservationAggregation aggregation, Session session)
+            throws OwsExceptionReport {
+        if (aggregation.isGroupable() && !isIncludeChildObservableProperties()
+                && HibernateHelper.getDialect(session) instanceof PostgreSQL81Dialect
+                && HibernateHelper.isNamedQuerySupported(SQL_QUERY_GET_AGGREGATED_NUMERIC_SERIES_VALUES, session)
+                && !request.isSetOffering() && !request.hasSpatialFilteringProfileSpatialFilter()
+                && !request.isSetFesFilterExtension()) {
+            Date[] bounds = getPhenomenonTimeBounds(series, request);
+            if (bounds != null) {
+                return getGroupedAggregatedSeriesValues(series, aggregation, bounds, session);
+            }
+        }
+        return getScrolledAggregatedSeriesValues(series, request, filterCriterion, aggregation, session);
+    }
+
+    /**
+     * Aggregate the numeric values of a series in memory.
+     *
+     * @see #getAggregatedSeriesValues(Series, GetObservationRequest, Criterion,
+     *      ObservationAggregation, Session)
+     */
+    protected List<AggregatedValue> getScrolledAggregatedSeriesValues(Series series, GetObservationRequest request,
+            Criterion filterCriterion, ObservationAggregation aggregation, Session session)
+            throws OwsExceptionReport {
+        ValueAggregator aggregator = aggregation.createAggregator();
+        Criteria c = getDefaultNumericObservationCriteria(session);
+        Criteria seriesCriteria = c.createCriteria(AbstractSeriesObservation.SERIES);
+        addSpecificRestrictions(seriesCriteria, request);
+        seriesCriteria.add(Restrictions.eq(Series.ID, series.getSeriesId()));
+        checkAndAddSpatialFilteringProfileCriterion(c, request, session);
+        if (CollectionHelper.isNotEmpty(request.getOfferings())) {
+            c.createCriteria(AbstractSeriesObservation.OFFERINGS)
+                    .add(Restrictions.in(Offering.IDENTIFIER, request.getOfferings()));
+        }
+        if (filterCriterion != null) {
+            c.add(filterCriterion);
+        }
+        if (request.isSetFesFilterExtension()) {
+            new ExtensionFesFilterCriteriaAdder(c, request.getFesFilterExtensions()).add();
+        }
+        c.setProjection(Projections.projectionList()
+                .add(Projections.property(AbstractTemporalReferencedObservation.PHENOMENON_TIME_START))
+                .add(Projections.property(NumericObservation.VALUE)));
+        c.addOrder(Order.asc(AbstractTemporalReferencedObservation.PHENOMENON_TIME_START));
+        LOGGER.debug("QUERY getAggregatedSeriesValues(series, request, filterCriterion, aggregation): {}",
+                HibernateHelper.getSqlString(c));
+        ScrollableResults results = c.setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (results.next()) {
+                Object time = results.get(0);
+                Object value = results.get(1);
+                if (time instanceof Date && value instanceof Number) {
+                    aggregator.add(((Date) time).getTime(), ((Number) value).doubleValue());
+                }
+            }
+        } finally {
+            results.close();
+        }
+        return aggregator.getValues();
+    }
+
+    /**
+     * Aggregate the numeric values of a series in the database. The phenomenon
+     * time columns are timestamps without time zone that are written in the
+     * time zone of the JVM, so they are converted to UTC with the JVM time
+     * zone before they are assigned to the intervals. This keeps the
+     * intervals aligned with the ones of the {@link ValueAggregator}, that
+     * uses the epoch milliseconds read by Hibernate, also across daylight
+     * saving time changes.
+     */
+    protected List<AggregatedValue> getGroupedAggregatedSeriesValues(Series series,
+            ObservationAggregation aggregation, Date[] bounds, Session session) {
+        long interval = aggregation.getInterval();
+        Query namedQuery = session.getNamedQuery(SQL_QUERY_GET_AGGREGATED_NUMERIC_SERIES_VALUES);
+        namedQuery.setLong(PARAM_SERIES, series.getSeriesId());
+        namedQuery.setLong(PARAM_INTERVAL, interval);
+        namedQuery.setString(PARAM_TIME_ZONE, TimeZone.getDefault().getID());
+        namedQuery.setTimestamp(PARAM_START, bounds[0]);
+        namedQuery.setTimestamp(PARAM_END, bounds[1]);
+        LOGGER.debug("QUERY getGroupedAggregatedSeriesValues(series, aggregation) with NamedQuery: {}",
+                SQL_QUERY_GET_AGGREGATED_NUMERIC_SERIES_VALUES);
+        List<AggregatedValue> values = new LinkedList<>();
+        for (Object row : namedQuery.list()) {
+            Object[] columns = (Object[]) row;
+            long count = ((Number) columns[4]).longValue();
+            if (count > 0) {
+                long start = ((Number) columns[0]).longValue() * interval;
+                values.add(new AggregatedValue(start, start + interval,
+                        getGroupedAggregatedValue(aggregation.getFunction(), columns), count));
+            }
+        }
+        return values;
+    }
+
+    private double getGroupedAggregatedValue(AggregationFunction function, Object[] columns) {
+        switch (function) {
+        case min:
+            return ((Number) columns[1]).doubleValue();
+        case max:
+            return ((Number) columns[2]).doubleValue();
+        case avg:
+            return ((Number) columns[3]).doubleValue();
+        case count:
+            return ((Number) columns[4]).doubleValue();
+        default:
+            throw new IllegalArgumentException("Aggregation function can not be grouped: " + function);
+        }
+    }
+
+    /**
+     * Get the exclusive phenomenon time bounds for the named aggregation
+     * query, either from a single during filter on the phenomenon time or
+     * from the time stamps of the series.
+     *
+     * @return the bounds or <code>null</code> if the filters can not be
+     *         expressed as bounds
+     */
+    private Date[] getPhenomenonTimeBounds(Series series, GetObservationRequest request) {
+        List<TemporalFilter> filters = request.getNotFirstLatestTemporalFilter();
+        if (CollectionHelper.isEmpty(filters)) {
+            if (series.isSetFirstLastTime()) {
+                return new Date[] { new Date(series.getFirstTimeStamp().getTime() - 1),
+                        new Date(series.getLastTimeStamp().getTime() + 1) };
+            }
+        } else if (filters.size() == 1) {
+            TemporalFilter filter = filters.get(0);
+            if (filter.getOperator() == TimeOperator.TM_During && filter.getTime() instanceof TimePeriod
+                    && filter.getValueReference() != null
+                    && filter.getValueReference().contains(TemporalRestrictions.PHENOMENON_TIME_VALUE_REFERENCE)) {
+                TimePeriod period = (TimePeriod) filter.getTime();
+                if (period.getStart() != null && period.getEnd() != null) {
+                    return new Date[] { period.getStart().toDate(), period.getEnd().toDate() };
+                }
+            }
+        }
+        return null;
+    }
+
     private String createSeriesAliasAndRestrictions(Criteria c) {
         String alias = "s";
         String aliasWithDot = alias + ".";
@@ -595,6 +858,9 @@ public abstract class AbstractSeriesObservationDAO extends AbstractObservationDA
      */
     public void updateObservationSetAsDeletedForSeries(List<Series> series, boolean deleteFlag, Session session) {
         if (CollectionHelper.isNotEmpty(series)) {
+            for (Series s : series) {
+                SeriesFirstLatestIndex.getInstance().invalidate(s.getSeriesId());
+            }
             Criteria criteria = getDefaultObservationCriteria(session);
             criteria.add(Restrictions.in(SeriesObservation.SERIES, series));
             ScrollableIterable<SeriesObservation<?>> scroll = ScrollableIterable.fromCriteria(criteria);
@@ -776,6 +1042,127 @@ public abstract class AbstractSeriesObservationDAO extends AbstractObservationDA
 
     }
 
+    /**
+     * Query the first or latest observations of a series using the
+     * {@link SeriesFirstLatestIndex} and the first/last time stamps of the
+     * series instead of a min/max query on the observation table.
+     *
+     * @param series
+     *            Series to get observations for
+     * @param request
+     *            GetObservation request
+     * @param sosIndeterminateTime
+     *            Indeterminate time filter (first/latest)
+     * @param session
+     *            Hibernate session
+     * @return Series observations or <code>null</code> if they could not be
+     *         resolved with the index
+     * @throws OwsExceptionReport
+     */
+    public List<SeriesObservation<?>> getIndexedSeriesObservationsFor(Series series, GetObservationRequest request,
+            SosIndeterminateTime sosIndeterminateTime, Session session) throws OwsExceptionReport {
+        Date time = SeriesFirstLatestIndex.getExtremumTime(series, sosIndeterminateTime);
+        if (time == null) {
+            return null;
+        }
+        SeriesFirstLatestIndex index = SeriesFirstLatestIndex.getInstance();
+        Set<Long> observationIds = index.getObservationIds(series.getSeriesId(), sosIndeterminateTime, time);
+        final Criteria c =
+                getDefaultObservationCriteria(session).add(
+                        Restrictions.eq(AbstractSeriesObservation.SERIES, series));
+        checkAndAddSpatialFilteringProfileCriterion(c, request, session);
+        if (request.isSetOffering()) {
+            c.createCriteria(AbstractSeriesObservation.OFFERINGS).add(
+                    Restrictions.in(Offering.IDENTIFIER, request.getOfferings()));
+        }
+        if (observationIds != null) {
+            c.add(Restrictions.in(Observation.ID, observationIds));
+        } else {
+            c.add(Restrictions.eq(getIndeterminateTimeFilterProperty(sosIndeterminateTime), time));
+        }
+        LOGGER.debug("QUERY getIndexedSeriesObservationsFor(series, request, sosIndeterminateTime): {}",
+                HibernateHelper.getSqlString(c));
+        @SuppressWarnings("unchecked")
+        List<SeriesObservation<?>> observations = c.list();
+        if (observations.isEmpty()) {
+            // the indexed observations do not match the filters
+            return null;
+        }
+        if (observationIds == null && !request.isSetOffering() && !request.isSetSpatialFilter()) {
+            Set<Long> ids = Sets.newHashSetWithExpectedSize(observations.size());
+            for (SeriesObservation<?> observation : observations) {
+                ids.add(observation.getObservationId());
+            }
+            index.setObservationIds(series.getSeriesId(), sosIndeterminateTime, time, ids);
+        }
+        return observations;
+    }
+
+    /**
+     * Query the overall first or latest observations of all series matching
+     * the request using {@link #getIndexedSeriesObservationsFor(Series,
+     * GetObservationRequest, SosIndeterminateTime, Session)}.
+     *
+     * @param request
+     *            GetObservation request
+     * @param features
+     *            Collection of feature identifiers resolved from the request
+     * @param sosIndeterminateTime
+     *            Indeterminate time filter (first/latest)
+     * @param session
+     *            Hibernate session
+     * @return Series observations or <code>null</code> if they could not be
+     *         resolved with the index
+     * @throws OwsExceptionReport
+     */
+    public List<SeriesObservation<?>> getIndexedSeriesObservationsFor(GetObservationRequest request,
+            Collection<String> features, SosIndeterminateTime sosIndeterminateTime, Session session)
+            throws OwsExceptionReport {
+        if (!isIndexedExtremaSupported(request)) {
+            return null;
+        }
+        List<Series> seriesList = DaoFactory.getInstance().getSeriesDAO().getSeries(request, features, session);
+        Long extremum = null;
+        for (Series series : seriesList) {
+            Date time = SeriesFirstLatestIndex.getExtremumTime(series, sosIndeterminateTime);
+            if (time == null) {
+                return null;
+            }
+            if (extremum == null || (SosIndeterminateTime.first.equals(sosIndeterminateTime)
+                    ? time.getTime() < extremum : time.getTime() > extremum)) {
+                extremum = time.getTime();
+            }
+        }
+        if (extremum == null) {
+            return null;
+        }
+        List<SeriesObservation<?>> observations = Lists.newArrayList();
+        for (Series series : seriesList) {
+            if (extremum == SeriesFirstLatestIndex.getExtremumTime(series, sosIndeterminateTime).getTime()) {
+                List<SeriesObservation<?>> seriesObservations =
+                        getIndexedSeriesObservationsFor(series, request, sosIndeterminateTime, session);
+                if (seriesObservations == null) {
+                    return null;
+                }
+                observations.addAll(seriesObservations);
+            }
+        }
+        return observations;
+    }
+
+    /**
+     * Check if the overall first/latest observations of a request can be
+     * resolved per series, i.e. no filters apply that may exclude the first or
+     * latest observation of a series.
+     *
+     * @param request
+     *            GetObservation request
+     * @return <code>true</code>, if the index can be used
+     */
+    protected boolean isIndexedExtremaSupported(GetObservationRequest request) {
+        return !request.isSetOffering() && !request.isSetSpatialFilter() && !request.isSetFesFilterExtension();
+    }
+
     protected Criteria getSeriesObservationCriteriaForSosIndeterminateTimeFilter(Series series,
             List<String> offerings, SosIndeterminateTime sosIndeterminateTime, Session session) {
         final Criteria criteria = createCriteriaFor(getObservationFactory().observationClass(), series, offerings, session);
@@ -36,6 +36,7 @@ import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.ProjectionList;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.n52.sos.ds.hibernate.dao.observation.AbstractValueDAO;
@@ -161,6 +162,83 @@ public abstract class AbstractSeriesValueDAO extends AbstractValueDAO {
         return (List<AbstractValuedLegacyObservation<?>>) c.list();
     }
 
+    /**
+     * Check if the values of series with this series type can be queried as
+     * scalar projections
+     * 
+     * @param seriesType
+     *            Series type, e.g. <code>measurement</code>
+     * @return <code>true</code>, if value projections are supported
+     */
+    public boolean isValueProjectionSupported(String seriesType) {
+        return getValueProjectionClass(seriesType) != null;
+    }
+
+    /**
+     * Query phenomenon time start, phenomenon time end, result time and value
+     * of the series values as chunk {@link List} of scalar projections without
+     * hydrating the observation entities
+     * 
+     * @param request
+     *            {@link GetObservationRequest}
+     * @param series
+     *            Datasource series id
+     * @param seriesType
+     *            Series type, e.g. <code>measurement</code>
+     * @param temporalFilterCriterion
+     *            Temporal filter {@link Criterion}
+     * @param chunkSize
+     *            Chunk size
+     * @param currentRow
+     *            Start row
+     * @param session
+     *            Hibernate Session
+     * @return Resulting chunk {@link List} of
+     *         <code>[phenomenonTimeStart, phenomenonTimeEnd, resultTime, value]</code>
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the values
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getStreamingSeriesValueProjectionsFor(GetObservationRequest request, long series,
+            String seriesType, Criterion temporalFilterCriterion, int chunkSize, int currentRow, Session session)
+            throws OwsExceptionReport {
+        Class<?> clazz = getValueProjectionClass(seriesType);
+        if (clazz == null) {
+            throw new IllegalArgumentException("Value projections are not supported for series type " + seriesType);
+        }
+        Criteria c = getSeriesValueCriteriaFor(clazz, request, series, temporalFilterCriterion, session);
+        ProjectionList projections =
+                Projections.projectionList()
+                        .add(Projections.property(AbstractValuedSeriesObservation.PHENOMENON_TIME_START))
+                        .add(Projections.property(AbstractValuedSeriesObservation.PHENOMENON_TIME_END))
+                        .add(Projections.property(AbstractValuedSeriesObservation.RESULT_TIME))
+                        .add(Projections.property(AbstractValuedSeriesObservation.VALUE));
+        // the offering join may multiply rows, the entity query relies on
+        // DISTINCT_ROOT_ENTITY for that
+        if (CollectionHelper.isNotEmpty(request.getOfferings()) && request.getOfferings().size() > 1) {
+            c.setProjection(Projections.distinct(projections));
+        } else {
+            c.setProjection(projections);
+        }
+        c.setResultTransformer(Criteria.PROJECTION);
+        addChunkValuesToCriteria(c, chunkSize, currentRow, request);
+        LOGGER.debug("QUERY getStreamingSeriesValueProjectionsFor(): {}", HibernateHelper.getSqlString(c));
+        return (List<Object[]>) c.list();
+    }
+
+    /**
+     * Get the observation class whose value can be projected for series of
+     * this series type
+     * 
+     * @param seriesType
+     *            Series type, e.g. <code>measurement</code>
+     * @return Observation class or <code>null</code> if projections are not
+     *         supported for this series type
+     */
+    protected Class<?> getValueProjectionClass(String seriesType) {
+        return null;
+    }
+
     /**
      * Get {@link Criteria} for parameter
      * 
@@ -179,7 +257,30 @@ public abstract class AbstractSeriesValueDAO extends AbstractValueDAO {
      */
     private Criteria getSeriesValueCriteriaFor(GetObservationRequest request, long series,
             Criterion temporalFilterCriterion, Session session) throws OwsExceptionReport {
-        final Criteria c = getDefaultObservationCriteria(session).createAlias(AbstractValuedSeriesObservation.SERIES, "s");
+        return getSeriesValueCriteriaFor(getSeriesValueClass(), request, series, temporalFilterCriterion, session);
+    }
+
+    /**
+     * Get {@link Criteria} for parameter and the given observation class
+     * 
+     * @param clazz
+     *            Observation class to query
+     * @param request
+     *            {@link GetObservationRequest}
+     * @param series
+     *            Datasource series id
+     * @param temporalFilterCriterion
+     *            Temporal filter {@link Criterion}
+     * @param session
+     *            Hibernate Session
+     * @return Resulting {@link Criteria}
+     * @throws OwsExceptionReport
+     *             If an error occurs when adding Spatial Filtering Profile
+     *             restrictions
+     */
+    private Criteria getSeriesValueCriteriaFor(Class<?> clazz, GetObservationRequest request, long series,
+            Criterion temporalFilterCriterion, Session session) throws OwsExceptionReport {
+        final Criteria c = getDefaultCriteria(clazz, session).createAlias(AbstractValuedSeriesObservation.SERIES, "s");
 
         checkAndAddSpatialFilteringProfileCriterion(c, request, session);
 
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.observation.series;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.n52.sos.ds.hibernate.entities.observation.series.Series;
+import org.n52.sos.ds.hibernate.entities.observation.series.SeriesObservation;
+import org.n52.sos.ogc.sos.SosConstants.SosIndeterminateTime;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * In-memory index of the first and latest observations per {@link Series}.
+ * The extrema times are taken from the first/last time stamp columns of the
+ * series table, the index resolves them to the ids of the observations at
+ * these times. Entries are only used if their time matches the time of the
+ * series, so an outdated entry (e.g. after a rolled back insert or a change by
+ * another application) is resolved again instead of returning wrong values.
+ *
+ * @since 4.4.0
+ */
+public class SeriesFirstLatestIndex {
+
+    private static final SeriesFirstLatestIndex INSTANCE = new SeriesFirstLatestIndex();
+
+    private final ConcurrentMap<Long, Extremum> first = new ConcurrentHashMap<Long, Extremum>();
+
+    private final ConcurrentMap<Long, Extremum> latest = new ConcurrentHashMap<Long, Extremum>();
+
+    public static SeriesFirstLatestIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the first or latest time stamp of the series.
+     *
+     * @param series
+     *            the series
+     * @param sosIndeterminateTime
+     *            first or latest
+     * @return the time stamp or <code>null</code> if it is not set
+     */
+    public static Date getExtremumTime(Series series, SosIndeterminateTime sosIndeterminateTime) {
+        if (SosIndeterminateTime.first.equals(sosIndeterminateTime)) {
+            return series.getFirstTimeStamp();
+        } else if (SosIndeterminateTime.latest.equals(sosIndeterminateTime)) {
+            return series.getLastTimeStamp();
+        }
+        return null;
+    }
+
+    /**
+     * Get the ids of the observations of the series at the time stamp.
+     *
+     * @param seriesId
+     *            the series id
+     * @param sosIndeterminateTime
+     *            first or latest
+     * @param time
+     *            the current first or latest time stamp of the series
+     * @return the observation ids or <code>null</code> if they are not known
+     *         for this time stamp
+     */
+    public Set<Long> getObservationIds(long seriesId, SosIndeterminateTime sosIndeterminateTime, Date time) {
+        ConcurrentMap<Long, Extremum> map = getMap(sosIndeterminateTime);
+        Extremum extremum = map == null ? null : map.get(seriesId);
+        if (extremum != null && extremum.getTime() == time.getTime()) {
+            return extremum.getObservationIds();
+        }
+        return null;
+    }
+
+    /**
+     * Set the ids of all observations of the series at the time stamp.
+     *
+     * @param seriesId
+     *            the series id
+     * @param sosIndeterminateTime
+     *            first or latest
+     * @param time
+     *            the first or latest time stamp of the series
+     * @param observationIds
+     *            the ids of all observations with this time stamp
+     */
+    public void setObservationIds(long seriesId, SosIndeterminateTime sosIndeterminateTime, Date time,
+            Collection<Long> observationIds) {
+        ConcurrentMap<Long, Extremum> map = getMap(sosIndeterminateTime);
+        if (map != null) {
+            map.put(seriesId, new Extremum(time.getTime(), ImmutableSet.copyOf(observationIds)));
+        }
+    }
+
+    /**
+     * Update the index with an inserted observation. Series without an entry
+     * are left untouched, they are resolved on the next request.
+     *
+     * @param observation
+     *            the inserted observation
+     */
+    public void observationInserted(SeriesObservation<?> observation) {
+        if (observation.getSeries() == null) {
+            return;
+        }
+        long seriesId = observation.getSeries().getSeriesId();
+        if (observation.getPhenomenonTimeStart() != null) {
+            update(first, seriesId, observation.getPhenomenonTimeStart().getTime(), observation.getObservationId(),
+                    true);
+        }
+        if (observation.getPhenomenonTimeEnd() != null) {
+            update(latest, seriesId, observation.getPhenomenonTimeEnd().getTime(), observation.getObservationId(),
+                    false);
+        }
+    }
+
+    /**
+     * Remove the entries of a series, e.g. after observations were deleted.
+     *
+     * @param seriesId
+     *            the series id
+     */
+    public void invalidate(long seriesId) {
+        first.remove(seriesId);
+        latest.remove(seriesId);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        first.clear();
+        latest.clear();
+    }
+
+    private void update(ConcurrentMap<Long, Extremum> map, long seriesId, long time, long observationId,
+            boolean lower) {
+        while (true) {
+            Extremum current = map.get(seriesId);
+            if (current == null) {
+                return;
+            }
+            Extremum updated;
+            if (current.getTime() == time) {
+                if (current.getObservationIds().contains(observationId)) {
+                    return;
+                }
+                updated = new Extremum(time, ImmutableSet.<Long> builder().addAll(current.getObservationIds())
+                        .add(observationId).build());
+            } else if (lower ? time < current.getTime() : time > current.getTime()) {
+                updated = new Extremum(time, ImmutableSet.of(observationId));
+            } else {
+                return;
+            }
+            if (map.replace(seriesId, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private ConcurrentMap<Long, Extremum> getMap(SosIndeterminateTime sosIndeterminateTime) {
+        if (SosIndeterminateTime.first.equals(sosIndeterminateTime)) {
+            return first;
+        } else if (SosIndeterminateTime.latest.equals(sosIndeterminateTime)) {
+            return latest;
+        }
+        return null;
+    }
+
+    private static class Extremum {
+        private final long time;
+
+        private final Set<Long> observationIds;
+
+        Extremum(long time, Set<Long> observationIds) {
+            this.time = time;
+            this.observationIds = observationIds;
+        }
+
+        long getTime() {
+            return time;
+        }
+
+        Set<Long> getObservationIds() {
+            return observationIds;
+        }
+    }
+}
@@ -195,6 +195,11 @@ public class SeriesObservationDAO extends AbstractSeriesObservationDAO {
     @Override
     public List<SeriesObservation<?>> getSeriesObservationsFor(Series series, GetObservationRequest request,
             SosIndeterminateTime sosIndeterminateTime, Session session) throws OwsExceptionReport {
+        List<SeriesObservation<?>> observations =
+                getIndexedSeriesObservationsFor(series, request, sosIndeterminateTime, session);
+        if (observations != null) {
+            return observations;
+        }
         return getSeriesObservationCriteriaFor(series, request, sosIndeterminateTime, session).list();
 
     }
@@ -28,14 +28,23 @@
  */
 package org.n52.sos.ds.hibernate.dao.observation.series;
 
+import java.util.Map;
+
 import org.hibernate.Criteria;
 import org.n52.sos.ds.hibernate.dao.observation.AbstractValueDAO;
 import org.n52.sos.ds.hibernate.entities.observation.series.AbstractValuedSeriesObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.valued.BooleanValuedSeriesObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.valued.CategoryValuedSeriesObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.valued.CountValuedSeriesObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.valued.NumericValuedSeriesObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.valued.TextValuedSeriesObservation;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.request.GetObservationRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableMap;
+
 /**
  * Implementation of {@link AbstractValueDAO} for series concept
  *
@@ -47,6 +56,20 @@ public class SeriesValueDAO extends AbstractSeriesValueDAO {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SeriesValueDAO.class);
 
+    /**
+     * Observation classes whose values can be queried as projections. Only
+     * mergeable classes without discriminator and value specific data (e.g.
+     * no eReporting observations or {@link org.n52.sos.ogc.swe.SweDataArray}
+     * values) may be added, because the projected rows are merged into a
+     * single observation.
+     */
+    private static final Map<String, Class<?>> VALUE_PROJECTION_CLASSES = ImmutableMap.<String, Class<?>> builder()
+            .put("measurement", NumericValuedSeriesObservation.class)
+            .put("count", CountValuedSeriesObservation.class)
+            .put("category", CategoryValuedSeriesObservation.class)
+            .put("boolean", BooleanValuedSeriesObservation.class)
+            .put("text", TextValuedSeriesObservation.class).build();
+
     @Override
     protected void addSpecificRestrictions(Criteria c, GetObservationRequest request) throws CodedException {
         // nothing  to add
@@ -57,4 +80,9 @@ public class SeriesValueDAO extends AbstractSeriesValueDAO {
         return AbstractValuedSeriesObservation.class;
     }
 
+    @Override
+    protected Class<?> getValueProjectionClass(String seriesType) {
+        return seriesType == null ? null : VALUE_PROJECTION_CLASSES.get(seriesType);
+    }
+
 }
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.n52.sos.ds.hibernate.entities.ResultTemplate;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.SosResultEncoding;
+import org.n52.sos.ogc.sos.SosResultStructure;
+import org.n52.sos.ogc.swe.SweAbstractDataComponent;
+import org.n52.sos.ogc.swe.encoding.SweAbstractEncoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+
+/**
+ * Cache of decoded result encodings and structures of {@link ResultTemplate}s
+ * keyed by the template identifier. Entries are only used if the stored XML of
+ * the template is unchanged, the returned objects are copies of the cached
+ * ones, so callers may modify them.
+ *
+ * @since 4.4.0
+ */
+public class ResultTemplateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultTemplateCache.class);
+
+    private static final ResultTemplateCache INSTANCE = new ResultTemplateCache();
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    public static ResultTemplateCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the decoded result encoding of the result template
+     *
+     * @param resultTemplate
+     *            Result template
+     * @return Result encoding
+     * @throws OwsExceptionReport
+     *             If the result encoding could not be decoded
+     */
+    public SosResultEncoding getResultEncoding(ResultTemplate resultTemplate) throws OwsExceptionReport {
+        Entry entry = getEntry(resultTemplate);
+        if (entry.getEncoding() == null) {
+            return new SosResultEncoding(entry.getEncodingXml());
+        }
+        return new SosResultEncoding().setXml(entry.getEncodingXml()).setEncoding(entry.getEncoding().clone());
+    }
+
+    /**
+     * Get the decoded result structure of the result template
+     *
+     * @param resultTemplate
+     *            Result template
+     * @return Result structure
+     * @throws OwsExceptionReport
+     *             If the result structure could not be decoded
+     */
+    public SosResultStructure getResultStructure(ResultTemplate resultTemplate) throws OwsExceptionReport {
+        Entry entry = getEntry(resultTemplate);
+        if (entry.getStructure() == null) {
+            return new SosResultStructure(entry.getStructureXml());
+        }
+        try {
+            return new SosResultStructure().setXml(entry.getStructureXml()).setResultStructure(
+                    entry.getStructure().clone());
+        } catch (CloneNotSupportedException e) {
+            LOGGER.debug("Could not copy result structure, decoding it again", e);
+            return new SosResultStructure(entry.getStructureXml());
+        }
+    }
+
+    /**
+     * Remove the decoded result template
+     *
+     * @param identifier
+     *            Result template identifier
+     */
+    public void invalidate(String identifier) {
+        if (identifier != null) {
+            entries.remove(identifier);
+        }
+    }
+
+    /**
+     * Remove all decoded result templates
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of decoded result templates
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    private Entry getEntry(ResultTemplate resultTemplate) throws OwsExceptionReport {
+        String identifier = resultTemplate.getIdentifier();
+        Entry entry = identifier == null ? null : entries.get(identifier);
+        if (entry == null || !entry.matches(resultTemplate)) {
+            SosResultEncoding encoding = new SosResultEncoding(resultTemplate.getResultEncoding());
+            SosResultStructure structure = new SosResultStructure(resultTemplate.getResultStructure());
+            entry = new Entry(resultTemplate.getResultEncoding(), encoding.getEncoding(),
+                    resultTemplate.getResultStructure(), structure.getResultStructure());
+            if (identifier != null) {
+                entries.put(identifier, entry);
+            }
+        }
+        return entry;
+    }
+
+    private static class Entry {
+        private final String encodingXml;
+
+        private final SweAbstractEncoding encoding;
+
+        private final String structureXml;
+
+        private final SweAbstractDataComponent structure;
+
+        Entry(String encodingXml, SweAbstractEncoding encoding, String structureXml,
+                SweAbstractDataComponent structure) {
+            this.encodingXml = encodingXml;
+            this.encoding = encoding;
+            this.structureXml = structureXml;
+            this.structure = structure;
+        }
+
+        boolean matches(ResultTemplate resultTemplate) {
+            return Objects.equal(encodingXml, resultTemplate.getResultEncoding())
+                    && Objects.equal(structureXml, resultTemplate.getResultStructure());
+        }
+
+        String getEncodingXml() {
+            return encodingXml;
+        }
+
+        SweAbstractEncoding getEncoding() {
+            return encoding;
+        }
+
+        String getStructureXml() {
+            return structureXml;
+        }
+
+        SweAbstractDataComponent getStructure() {
+            return structure;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.Set;
+
+import org.n52.sos.event.SosEvent;
+import org.n52.sos.event.SosEventListener;
+import org.n52.sos.event.events.ResultTemplateInsertion;
+import org.n52.sos.event.events.SensorDeletion;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link SosEventListener} that removes decoded result templates from the
+ * {@link ResultTemplateCache}. Result template insertions may replace a
+ * template, sensor deletions affect the templates of the sensor.
+ *
+ * @since 4.4.0
+ */
+public class ResultTemplateCacheListener implements SosEventListener {
+
+    private static final Set<Class<? extends SosEvent>> EVENTS = ImmutableSet.<Class<? extends SosEvent>> of(
+            ResultTemplateInsertion.class, SensorDeletion.class);
+
+    @Override
+    public Set<Class<? extends SosEvent>> getTypes() {
+        return EVENTS;
+    }
+
+    @Override
+    public void handle(SosEvent event) {
+        if (event instanceof ResultTemplateInsertion) {
+            ResultTemplateCache.getInstance().invalidate(
+                    ((ResultTemplateInsertion) event).getRequest().getIdentifier());
+        } else if (event instanceof SensorDeletion) {
+            // result templates are kept, but drop all decoded ones
+            ResultTemplateCache.getInstance().clear();
+        }
+    }
+
+}
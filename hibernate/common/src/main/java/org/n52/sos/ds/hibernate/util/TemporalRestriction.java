@@ -161,6 +161,51 @@ public abstract class TemporalRestriction {
         return null;
     }
 
+    /**
+     * Creates a range on the begin property that is implied by this
+     * restriction for periods and for instants that are saved as periods
+     * (<tt>begin == end</tt>) compared to the specified time period. The range
+     * is added to the criterion so that indexes starting with the begin
+     * property (e.g. <tt>(series, phenomenonTimeStart, phenomenonTimeEnd)</tt>)
+     * can be used, as the composite criterion of
+     * {@link #getPropertyCheckingCriterion(Criterion, Criterion, TimePrimitiveFieldDescriptor)}
+     * can not be served from them.
+     *
+     * @param selfBegin
+     *            the property name of the begin time stamp
+     * @param otherBegin
+     *            the begin instance of the compared time period
+     * @param otherEnd
+     *            the end instance of the compared time period
+     * @param isOtherPeriodFromReducedPrecisionInstant
+     *            was the period interpreted from a reduced precision time?
+     *
+     * @return the criterion for the begin property (or <tt>null</tt> if no
+     *         range is implied)
+     */
+    protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+            boolean isOtherPeriodFromReducedPrecisionInstant) {
+        return null;
+    }
+
+    /**
+     * Creates a range on the begin property that is implied by this
+     * restriction for periods and for instants that are saved as periods
+     * (<tt>begin == end</tt>) compared to the specified time instance.
+     *
+     * @param selfBegin
+     *            the property name of the begin time stamp
+     * @param otherPosition
+     *            the position of the compared time instance
+     *
+     * @return the criterion for the begin property (or <tt>null</tt> if no
+     *         range is implied)
+     * @see #filterBeginWithPeriod(String, Date, Date, boolean)
+     */
+    protected Criterion filterBeginWithInstant(String selfBegin, Date otherPosition) {
+        return null;
+    }
+
     /**
      * Create a filter for the specified period and fields. If the period is no
      * real period but a instance, the method will call
@@ -184,9 +229,10 @@ public abstract class TemporalRestriction {
             return filterWithInstant(new TimeInstant(time.resolveStart()), r);
         }
         if (r.isPeriod()) {
-            return getPropertyCheckingCriterion(
+            return addBeginRange(getPropertyCheckingCriterion(
                     filterPeriodWithPeriod(r.getBeginPosition(), r.getEndPosition(), begin, end),
-                    filterInstantWithPeriod(r.getPosition(), begin, end, periodFromReducedPrecisionInstant), r);
+                    filterInstantWithPeriod(r.getPosition(), begin, end, periodFromReducedPrecisionInstant), r),
+                    filterBeginWithPeriod(r.getBeginPosition(), begin, end, periodFromReducedPrecisionInstant));
         } else {
             return filterInstantWithPeriod(r.getPosition(), begin, end, periodFromReducedPrecisionInstant);
         }
@@ -219,9 +265,10 @@ public abstract class TemporalRestriction {
             return filterWithPeriod(new TimePeriod(new DateTime(begin), new DateTime(end)), r, true);
         }
         if (r.isPeriod()) {
-            return getPropertyCheckingCriterion(
+            return addBeginRange(getPropertyCheckingCriterion(
                     filterPeriodWithInstant(r.getBeginPosition(), r.getEndPosition(), begin),
-                    filterInstantWithInstant(r.getPosition(), begin), r);
+                    filterInstantWithInstant(r.getPosition(), begin), r),
+                    filterBeginWithInstant(r.getBeginPosition(), begin));
 
         } else {
             return filterInstantWithInstant(r.getPosition(), begin);
@@ -274,6 +321,24 @@ public abstract class TemporalRestriction {
         }
     }
 
+    /**
+     * Adds the range on the begin property to the criterion.
+     *
+     * @param criterion
+     *            the criterion of this restriction (may be <tt>null</tt>)
+     * @param range
+     *            the range on the begin property (may be <tt>null</tt>)
+     *
+     * @return the combined criterion or <tt>null</tt> if <tt>criterion</tt> is
+     *         <tt>null</tt>
+     */
+    private Criterion addBeginRange(Criterion criterion, Criterion range) {
+        if (criterion == null || range == null) {
+            return criterion;
+        }
+        return Restrictions.and(range, criterion);
+    }
+
     /**
      * Creates a <tt>Criterion</tt> for the specified property. Used to easily
      * swap &lt; and &le;.
@@ -371,6 +436,17 @@ public abstract class TemporalRestriction {
         protected Criterion filterInstantWithInstant(String selfPosition, Date otherPosition) {
             return lower(selfPosition, otherPosition);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return lower(selfBegin, otherBegin);
+        }
+
+        @Override
+        protected Criterion filterBeginWithInstant(String selfBegin, Date otherPosition) {
+            return lower(selfBegin, otherPosition);
+        }
     };
 
     /**
@@ -414,6 +490,17 @@ public abstract class TemporalRestriction {
         protected Criterion filterInstantWithInstant(String selfPosition, Date otherPosition) {
             return greater(selfPosition, otherPosition);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return greater(selfBegin, otherEnd);
+        }
+
+        @Override
+        protected Criterion filterBeginWithInstant(String selfBegin, Date otherPosition) {
+            return greater(selfBegin, otherPosition);
+        }
     };
 
     /**
@@ -447,6 +534,12 @@ public abstract class TemporalRestriction {
                 boolean periodFromReducedPrecisionInstant) {
             return Restrictions.eq(selfPosition, otherBegin);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return Restrictions.eq(selfBegin, otherBegin);
+        }
     };
 
     /**
@@ -480,6 +573,12 @@ public abstract class TemporalRestriction {
                 boolean periodFromReducedPrecisionInstant) {
             return Restrictions.eq(selfPosition, otherEnd);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return Restrictions.and(greater(selfBegin, otherBegin), Restrictions.le(selfBegin, otherEnd));
+        }
     };
 
     /**
@@ -512,6 +611,17 @@ public abstract class TemporalRestriction {
         protected Criterion filterPeriodWithInstant(String selfBegin, String selfEnd, Date otherPosition) {
             return Restrictions.eq(selfEnd, otherPosition);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return lower(selfBegin, otherBegin);
+        }
+
+        @Override
+        protected Criterion filterBeginWithInstant(String selfBegin, Date otherPosition) {
+            return Restrictions.lt(selfBegin, otherPosition);
+        }
     };
 
     /**
@@ -544,6 +654,17 @@ public abstract class TemporalRestriction {
         protected Criterion filterPeriodWithInstant(String selfBegin, String selfEnd, Date otherPosition) {
             return Restrictions.eq(selfBegin, otherPosition);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return Restrictions.eq(selfBegin, otherBegin);
+        }
+
+        @Override
+        protected Criterion filterBeginWithInstant(String selfBegin, Date otherPosition) {
+            return Restrictions.eq(selfBegin, otherPosition);
+        }
     };
 
     /**
@@ -578,6 +699,12 @@ public abstract class TemporalRestriction {
                 boolean isOtherPeriodFromReducedPrecisionInstant) {
             return Restrictions.and(greater(selfPosition, otherBegin), lower(selfPosition, otherEnd));
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return Restrictions.and(greater(selfBegin, otherBegin), lower(selfBegin, otherEnd));
+        }
     };
 
     /**
@@ -622,6 +749,21 @@ public abstract class TemporalRestriction {
         protected Criterion filterInstantWithInstant(String selfPosition, Date otherPosition) {
             return Restrictions.eq(selfPosition, otherPosition);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            if (isOtherPeriodFromReducedPrecisionInstant) {
+                return Restrictions.and(Restrictions.ge(selfBegin, otherBegin), Restrictions.le(selfBegin, otherEnd));
+            } else {
+                return Restrictions.eq(selfBegin, otherBegin);
+            }
+        }
+
+        @Override
+        protected Criterion filterBeginWithInstant(String selfBegin, Date otherPosition) {
+            return Restrictions.eq(selfBegin, otherPosition);
+        }
     };
 
     /**
@@ -655,6 +797,17 @@ public abstract class TemporalRestriction {
         protected Criterion filterPeriodWithInstant(String selfBegin, String selfEnd, Date otherPosition) {
             return Restrictions.and(lower(selfBegin, otherPosition), greater(selfEnd, otherPosition));
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return lower(selfBegin, otherBegin);
+        }
+
+        @Override
+        protected Criterion filterBeginWithInstant(String selfBegin, Date otherPosition) {
+            return lower(selfBegin, otherPosition);
+        }
     };
 
     /**
@@ -685,6 +838,12 @@ public abstract class TemporalRestriction {
             return Restrictions.and(lower(selfBegin, otherBegin), greater(selfEnd, otherBegin),
                     lower(selfEnd, otherEnd));
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return lower(selfBegin, otherBegin);
+        }
     };
 
     /**
@@ -712,6 +871,12 @@ public abstract class TemporalRestriction {
         protected Criterion filterPeriodWithPeriod(String selfBegin, String selfEnd, Date otherBegin, Date otherEnd) {
             return Restrictions.eq(selfEnd, otherBegin);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return Restrictions.lt(selfBegin, otherBegin);
+        }
     };
 
     /**
@@ -739,6 +904,12 @@ public abstract class TemporalRestriction {
         protected Criterion filterPeriodWithPeriod(String selfBegin, String selfEnd, Date otherBegin, Date otherEnd) {
             return Restrictions.eq(selfBegin, otherEnd);
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return Restrictions.eq(selfBegin, otherEnd);
+        }
     };
 
     /**
@@ -769,5 +940,11 @@ public abstract class TemporalRestriction {
             return Restrictions.and(greater(selfBegin, otherBegin), lower(selfBegin, otherEnd),
                     greater(selfEnd, otherEnd));
         }
+
+        @Override
+        protected Criterion filterBeginWithPeriod(String selfBegin, Date otherBegin, Date otherEnd,
+                boolean isOtherPeriodFromReducedPrecisionInstant) {
+            return Restrictions.and(greater(selfBegin, otherBegin), lower(selfBegin, otherEnd));
+        }
     };
 }
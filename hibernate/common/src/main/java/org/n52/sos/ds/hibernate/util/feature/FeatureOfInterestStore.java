@@ -0,0 +1,331 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util.feature;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.ds.FeatureQueryHandler;
+import org.n52.sos.ds.FeatureQueryHandlerQueryObject;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.util.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+
+/**
+ * Store for converted features of interest, bounded by the number of stored
+ * features. The least recently used features are removed first.
+ * <p>
+ * Features are stored per identifier, CRS, locale and service version, as
+ * these determine the converted feature. Only {@link SamplingFeature}s are
+ * stored, and callers always receive copies, so that response modifications
+ * do not change the stored features.
+ * <p>
+ * Every invalidation increments a generation, and features are only stored
+ * if no invalidation happened since they were read from the datasource.
+ *
+ * @since 4.4.0
+ */
+@Configurable
+public class FeatureOfInterestStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FeatureOfInterestStore.class);
+
+    private static FeatureOfInterestStore instance = null;
+
+    private final Map<Key, SamplingFeature> features = new LinkedHashMap<Key, SamplingFeature>(16, 0.75f, true);
+
+    private volatile boolean enabled = false;
+
+    private int maximumSize = 10000;
+
+    private long generation = 0;
+
+    public static synchronized FeatureOfInterestStore getInstance() {
+        if (instance == null) {
+            instance = new FeatureOfInterestStore();
+            SettingsManager.getInstance().configure(instance);
+        }
+        return instance;
+    }
+
+    FeatureOfInterestStore() {
+    }
+
+    @Setting(FeatureOfInterestStoreSettings.FEATURE_STORE_ENABLED)
+    public void setEnabled(boolean enabled) {
+        if (!enabled) {
+            clear();
+        }
+        this.enabled = enabled;
+    }
+
+    @Setting(FeatureOfInterestStoreSettings.FEATURE_STORE_SIZE)
+    public void setSize(int size) throws ConfigurationException {
+        Validation.greaterZero("Feature store size", size);
+        synchronized (this) {
+            this.maximumSize = size;
+            evict();
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if features are stored
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the current generation, that has to be read before the
+     *         features are queried and passed to
+     *         {@link #put(Map, int, Locale, String, long)}
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get copies of the stored features.
+     *
+     * @param identifiers
+     *            the feature identifiers
+     * @param crs
+     *            the EPSG code of the feature geometries
+     * @param locale
+     *            the requested locale, may be <code>null</code>
+     * @param version
+     *            the service version
+     * @return the stored features by identifier, identifiers without stored
+     *         feature are not contained
+     */
+    public Map<String, AbstractFeature> get(Collection<String> identifiers, int crs, Locale locale, String version) {
+        Map<String, SamplingFeature> stored = Maps.newHashMapWithExpectedSize(identifiers.size());
+        synchronized (this) {
+            for (String identifier : identifiers) {
+                SamplingFeature feature = features.get(new Key(identifier, crs, locale, version));
+                if (feature != null) {
+                    stored.put(identifier, feature);
+                }
+            }
+        }
+        Map<String, AbstractFeature> copies = Maps.newHashMapWithExpectedSize(stored.size());
+        for (Entry<String, SamplingFeature> entry : stored.entrySet()) {
+            copies.put(entry.getKey(), copy(entry.getValue()));
+        }
+        return copies;
+    }
+
+    /**
+     * Get the features of the query object. Stored features are taken from
+     * the store, the missing ones are queried from the feature query handler
+     * and stored. Queries with spatial filters are always passed to the
+     * feature query handler.
+     *
+     * @param queryObject
+     *            the feature query
+     * @param featureQueryHandler
+     *            the feature query handler to query missing features
+     * @return the features by identifier
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the features
+     */
+    public Map<String, AbstractFeature> getFeatures(FeatureQueryHandlerQueryObject queryObject,
+            FeatureQueryHandler featureQueryHandler) throws OwsExceptionReport {
+        if (!enabled || queryObject.isSetSpatialFilters()) {
+            return featureQueryHandler.getFeatures(queryObject);
+        }
+        Set<String> identifiers = queryObject.getFeatureIdentifiers();
+        int crs = featureQueryHandler.getStorageEPSG();
+        Locale locale = queryObject.getI18N();
+        String version = queryObject.getVersion();
+        long generation = getGeneration();
+        Map<String, AbstractFeature> features = get(identifiers, crs, locale, version);
+        Set<String> missing = new HashSet<String>(identifiers);
+        missing.removeAll(features.keySet());
+        if (!missing.isEmpty()) {
+            Map<String, AbstractFeature> queried = featureQueryHandler.getFeatures(new FeatureQueryHandlerQueryObject()
+                    .setFeatureIdentifiers(missing)
+                    .setConnection(queryObject.getConnection())
+                    .setVersion(version)
+                    .setI18N(locale));
+            put(queried, crs, locale, version, generation);
+            features.putAll(queried);
+        }
+        LOGGER.debug("Took {} of {} features from the feature store", identifiers.size() - missing.size(),
+                identifiers.size());
+        return features;
+    }
+
+    /**
+     * Store copies of features.
+     *
+     * @param features
+     *            the features by identifier
+     * @param crs
+     *            the EPSG code of the feature geometries
+     * @param locale
+     *            the requested locale, may be <code>null</code>
+     * @param version
+     *            the service version
+     * @param generation
+     *            the generation read before the features were queried
+     * @return <code>true</code>, if the features were stored
+     */
+    public boolean put(Map<String, AbstractFeature> features, int crs, Locale locale, String version,
+            long generation) {
+        if (!enabled) {
+            return false;
+        }
+        Map<Key, SamplingFeature> copies = Maps.newHashMapWithExpectedSize(features.size());
+        for (Entry<String, AbstractFeature> entry : features.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() instanceof SamplingFeature) {
+                copies.put(new Key(entry.getKey(), crs, locale, version), copy((SamplingFeature) entry.getValue()));
+            }
+        }
+        synchronized (this) {
+            if (generation != this.generation) {
+                return false;
+            }
+            this.features.putAll(copies);
+            evict();
+        }
+        return true;
+    }
+
+    /**
+     * Remove the features and all features that have one of them as sampled
+     * feature.
+     *
+     * @param identifiers
+     *            the identifiers of the inserted or updated features
+     */
+    public synchronized void invalidate(Collection<String> identifiers) {
+        ++generation;
+        int removed = 0;
+        Iterator<Entry<Key, SamplingFeature>> it = features.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<Key, SamplingFeature> entry = it.next();
+            if (identifiers.contains(entry.getKey().identifier) || samples(entry.getValue(), identifiers)) {
+                it.remove();
+                ++removed;
+            }
+        }
+        LOGGER.debug("Removed {} stored features for {}", removed, identifiers);
+    }
+
+    /**
+     * Remove all features.
+     */
+    public synchronized void clear() {
+        ++generation;
+        features.clear();
+    }
+
+    /**
+     * @return the number of stored features
+     */
+    public synchronized int getSize() {
+        return features.size();
+    }
+
+    private boolean samples(SamplingFeature feature, Collection<String> identifiers) {
+        for (AbstractFeature sampledFeature : feature.getSampledFeatures()) {
+            if (identifiers.contains(sampledFeature.getIdentifier())) {
+                return true;
+            }
+            if (sampledFeature instanceof SamplingFeature && samples((SamplingFeature) sampledFeature, identifiers)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evict() {
+        Iterator<SamplingFeature> it = features.values().iterator();
+        while (features.size() > maximumSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static SamplingFeature copy(SamplingFeature feature) {
+        SamplingFeature copy = new SamplingFeature(feature.getIdentifierCodeWithAuthority());
+        feature.copyTo(copy);
+        return copy;
+    }
+
+    private static class Key {
+        private final String identifier;
+
+        private final int crs;
+
+        private final Locale locale;
+
+        private final String version;
+
+        Key(String identifier, int crs, Locale locale, String version) {
+            this.identifier = identifier;
+            this.crs = crs;
+            this.locale = locale;
+            this.version = version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(identifier, crs, locale, version);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return crs == other.crs && Objects.equal(identifier, other.identifier)
+                    && Objects.equal(locale, other.locale) && Objects.equal(version, other.version);
+        }
+    }
+
+}
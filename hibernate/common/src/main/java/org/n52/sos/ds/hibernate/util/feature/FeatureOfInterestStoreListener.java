@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util.feature;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.n52.sos.event.SosEvent;
+import org.n52.sos.event.SosEventListener;
+import org.n52.sos.event.events.ObservationInsertion;
+import org.n52.sos.event.events.ResultInsertion;
+import org.n52.sos.event.events.ResultTemplateInsertion;
+import org.n52.sos.event.events.SettingsChangeEvent;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.om.OmObservationConstellation;
+import org.n52.sos.ogc.om.features.FeatureCollection;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+/**
+ * {@link SosEventListener} that removes inserted or updated features from the
+ * {@link FeatureOfInterestStore}. Observation and result template insertions
+ * may insert features, update their geometry or add parent features, setting
+ * changes may change the conversion of all features.
+ *
+ * @since 4.4.0
+ */
+public class FeatureOfInterestStoreListener implements SosEventListener {
+
+    private static final Set<Class<? extends SosEvent>> EVENTS = ImmutableSet.<Class<? extends SosEvent>> of(
+            ObservationInsertion.class, ResultInsertion.class, ResultTemplateInsertion.class,
+            SettingsChangeEvent.class);
+
+    @Override
+    public Set<Class<? extends SosEvent>> getTypes() {
+        return EVENTS;
+    }
+
+    @Override
+    public void handle(SosEvent event) {
+        FeatureOfInterestStore store = FeatureOfInterestStore.getInstance();
+        if (!store.isEnabled()) {
+            return;
+        }
+        if (event instanceof ObservationInsertion) {
+            Set<String> identifiers = Sets.newHashSet();
+            for (OmObservation observation : ((ObservationInsertion) event).getRequest().getObservations()) {
+                if (!addFeatureIdentifiers(observation, identifiers)) {
+                    store.clear();
+                    return;
+                }
+            }
+            store.invalidate(identifiers);
+        } else if (event instanceof ResultInsertion) {
+            OmObservation observation = ((ResultInsertion) event).getResponse().getObservation();
+            Set<String> identifiers = Sets.newHashSet();
+            if (observation != null && addFeatureIdentifiers(observation, identifiers)) {
+                store.invalidate(identifiers);
+            } else {
+                store.clear();
+            }
+        } else if (event instanceof ResultTemplateInsertion) {
+            // the template may insert its feature and its parent relations
+            OmObservationConstellation template = ((ResultTemplateInsertion) event).getRequest()
+                    .getObservationTemplate();
+            Set<String> identifiers = Sets.newHashSet();
+            if (template != null && addFeatureIdentifiers(template.getFeatureOfInterest(), identifiers)) {
+                store.invalidate(identifiers);
+            } else {
+                store.clear();
+            }
+        } else if (event instanceof SettingsChangeEvent) {
+            store.clear();
+        }
+    }
+
+    /**
+     * Add the identifiers of the observed feature and its sampled features.
+     *
+     * @return <code>false</code>, if an identifier is not set
+     */
+    private boolean addFeatureIdentifiers(OmObservation observation, Set<String> identifiers) {
+        if (observation.getObservationConstellation() == null) {
+            return false;
+        }
+        return addFeatureIdentifiers(observation.getObservationConstellation().getFeatureOfInterest(),
+                identifiers);
+    }
+
+    private boolean addFeatureIdentifiers(AbstractFeature feature, Set<String> identifiers) {
+        if (feature instanceof FeatureCollection) {
+            return addFeatureIdentifiers(((FeatureCollection) feature).getMembers().values(), identifiers);
+        }
+        if (feature == null || !feature.isSetIdentifier()) {
+            return false;
+        }
+        identifiers.add(feature.getIdentifier());
+        if (feature instanceof SamplingFeature) {
+            return addFeatureIdentifiers(((SamplingFeature) feature).getSampledFeatures(), identifiers);
+        }
+        return true;
+    }
+
+    private boolean addFeatureIdentifiers(Collection<AbstractFeature> features, Set<String> identifiers) {
+        for (AbstractFeature feature : features) {
+            if (!addFeatureIdentifiers(feature, identifiers)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util.feature;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionGroup;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.BooleanSettingDefinition;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link SettingDefinitionProvider} for the {@link FeatureOfInterestStore}.
+ *
+ * @since 4.4.0
+ */
+public class FeatureOfInterestStoreSettings implements SettingDefinitionProvider {
+
+    public static final String FEATURE_STORE_ENABLED = "service.featureStore.enabled";
+
+    public static final String FEATURE_STORE_SIZE = "service.featureStore.size";
+
+    public static final SettingDefinitionGroup GROUP = new SettingDefinitionGroup()
+            .setTitle("Feature Store")
+            .setDescription("Settings to answer GetFeatureOfInterest requests without temporal filter from the "
+                    + "capabilities cache and a store of converted features. Stored features are removed when "
+                    + "observations for them are inserted.")
+            .setOrder(ORDER_16);
+
+    public static final BooleanSettingDefinition FEATURE_STORE_ENABLED_DEFINITION = new BooleanSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_0)
+            .setKey(FEATURE_STORE_ENABLED)
+            .setDefaultValue(false)
+            .setTitle("Store GetFeatureOfInterest features")
+            .setDescription("Whether the features matching a GetFeatureOfInterest request without temporal filter "
+                    + "should be resolved from the procedure, observable property and feature relations of the "
+                    + "capabilities cache, and the converted features kept in memory.");
+
+    public static final IntegerSettingDefinition FEATURE_STORE_SIZE_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(GROUP)
+            .setOrder(ORDER_1)
+            .setKey(FEATURE_STORE_SIZE)
+            .setDefaultValue(10000)
+            .setMinimum(1)
+            .setTitle("Feature store size")
+            .setDescription("The maximum number of stored features, a feature requested in several locales "
+                    + "is stored once per locale. The least recently used features are removed if the size is "
+                    + "exceeded.");
+
+    private static final Set<SettingDefinition<?, ?>> DEFINITIONS = ImmutableSet.<SettingDefinition<?, ?>> of(
+            FEATURE_STORE_ENABLED_DEFINITION, FEATURE_STORE_SIZE_DEFINITION);
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return Collections.unmodifiableSet(DEFINITIONS);
+    }
+
+}
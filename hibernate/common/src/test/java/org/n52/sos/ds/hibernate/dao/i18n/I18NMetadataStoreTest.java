@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.i18n;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.i18n.metadata.I18NOfferingMetadata;
+
+public class I18NMetadataStoreTest {
+
+    private I18NMetadataStore<I18NOfferingMetadata> store;
+
+    @Before
+    public void setUp() {
+        store = new I18NMetadataStore<I18NOfferingMetadata>();
+    }
+
+    @Test
+    public void shouldIgnorePutBeforeLoad() {
+        store.put(metadata("a", Locale.GERMAN));
+        assertThat(store.isLoaded(), is(false));
+        assertThat(store.get("a"), nullValue());
+    }
+
+    @Test
+    public void shouldCollectLocalesOnLoad() {
+        store.load(Arrays.asList(metadata("a", Locale.GERMAN), metadata("b", Locale.ENGLISH),
+                new I18NOfferingMetadata("c")));
+        assertThat(store.getLocales(), containsInAnyOrder(Locale.GERMAN, Locale.ENGLISH));
+        assertThat(store.get("c"), nullValue());
+    }
+
+    @Test
+    public void shouldReplaceMetadataOnPut() {
+        store.load(Arrays.asList(metadata("a", Locale.GERMAN), metadata("b", Locale.ENGLISH)));
+        store.put(metadata("a", Locale.FRENCH));
+        assertThat(store.get("a").getLocales(), containsInAnyOrder(Locale.FRENCH));
+        assertThat(store.getLocales(), containsInAnyOrder(Locale.FRENCH, Locale.ENGLISH));
+    }
+
+    @Test
+    public void shouldRemoveMetadataWithoutLocalizations() {
+        store.load(Arrays.asList(metadata("a", Locale.GERMAN)));
+        store.put(new I18NOfferingMetadata("a"));
+        assertThat(store.get("a"), nullValue());
+        assertThat(store.getLocales(), is(empty()));
+    }
+
+    private I18NOfferingMetadata metadata(String id, Locale locale) {
+        I18NOfferingMetadata metadata = new I18NOfferingMetadata(id);
+        metadata.getName().addLocalization(locale, id);
+        return metadata;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.observation.series;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.ds.hibernate.entities.observation.series.Series;
+import org.n52.sos.ds.hibernate.entities.observation.series.full.SeriesNumericObservation;
+import org.n52.sos.ogc.sos.SosConstants.SosIndeterminateTime;
+
+public class SeriesFirstLatestIndexTest {
+
+    private static final long SERIES_ID = 1L;
+
+    private SeriesFirstLatestIndex index;
+
+    @Before
+    public void clear() {
+        index = SeriesFirstLatestIndex.getInstance();
+        index.clear();
+    }
+
+    @Test
+    public void shouldIgnoreInsertForUnresolvedSeries() {
+        index.observationInserted(observation(1L, 1000L));
+        assertThat(index.getObservationIds(SERIES_ID, SosIndeterminateTime.latest, new Date(1000L)), nullValue());
+    }
+
+    @Test
+    public void shouldReplaceLatestWithNewerObservation() {
+        index.setObservationIds(SERIES_ID, SosIndeterminateTime.latest, new Date(1000L), Arrays.asList(1L));
+        index.setObservationIds(SERIES_ID, SosIndeterminateTime.first, new Date(1000L), Arrays.asList(1L));
+        index.observationInserted(observation(2L, 2000L));
+        assertThat(index.getObservationIds(SERIES_ID, SosIndeterminateTime.latest, new Date(2000L)), contains(2L));
+        assertThat(index.getObservationIds(SERIES_ID, SosIndeterminateTime.first, new Date(1000L)), contains(1L));
+    }
+
+    @Test
+    public void shouldAddObservationWithSameTime() {
+        index.setObservationIds(SERIES_ID, SosIndeterminateTime.latest, new Date(1000L), Arrays.asList(1L));
+        index.observationInserted(observation(2L, 1000L));
+        assertThat(index.getObservationIds(SERIES_ID, SosIndeterminateTime.latest, new Date(1000L)),
+                containsInAnyOrder(1L, 2L));
+    }
+
+    @Test
+    public void shouldNotReturnIdsForOtherTime() {
+        index.setObservationIds(SERIES_ID, SosIndeterminateTime.latest, new Date(1000L), Arrays.asList(1L));
+        assertThat(index.getObservationIds(SERIES_ID, SosIndeterminateTime.latest, new Date(3000L)), nullValue());
+    }
+
+    @Test
+    public void shouldRemoveInvalidatedSeries() {
+        index.setObservationIds(SERIES_ID, SosIndeterminateTime.first, new Date(1000L), Arrays.asList(1L));
+        index.invalidate(SERIES_ID);
+        assertThat(index.getObservationIds(SERIES_ID, SosIndeterminateTime.first, new Date(1000L)), nullValue());
+    }
+
+    private SeriesNumericObservation observation(long id, long time) {
+        Series series = new Series();
+        series.setSeriesId(SERIES_ID);
+        SeriesNumericObservation observation = new SeriesNumericObservation();
+        observation.setObservationId(id);
+        observation.setSeries(series);
+        observation.setPhenomenonTimeStart(new Date(time));
+        observation.setPhenomenonTimeEnd(new Date(time));
+        return observation;
+    }
+}
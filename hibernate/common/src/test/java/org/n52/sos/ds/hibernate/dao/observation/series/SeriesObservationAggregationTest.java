@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.observation.series;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.n52.sos.aggregation.AggregatedValue;
+import org.n52.sos.aggregation.AggregationFunction;
+import org.n52.sos.aggregation.IntervalAggregator;
+import org.n52.sos.aggregation.ObservationAggregation;
+import org.n52.sos.ds.hibernate.ExtendedHibernateTestCase;
+import org.n52.sos.ds.hibernate.dao.DaoFactory;
+import org.n52.sos.ds.hibernate.entities.observation.Observation;
+import org.n52.sos.ds.hibernate.entities.observation.series.Series;
+import org.n52.sos.ds.hibernate.util.HibernateHelper;
+import org.n52.sos.ds.hibernate.util.HibernateObservationBuilder;
+import org.n52.sos.ds.hibernate.util.ScrollableIterable;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.request.GetObservationRequest;
+
+/**
+ * Checks that the intervals of the database aggregation and of the in-memory
+ * aggregation are aligned to UTC, also if the JVM uses a time zone with
+ * daylight saving time.
+ *
+ * @since 4.4.0
+ */
+public class SeriesObservationAggregationTest extends ExtendedHibernateTestCase {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private static final long STEP = 20 * 60 * 1000L;
+
+    private static final int VALUES = 24;
+
+    /**
+     * The daylight saving time of Europe/Berlin starts at 2015-03-29T01:00Z.
+     */
+    private static final DateTime START = new DateTime(2015, 3, 28, 22, 10, DateTimeZone.UTC);
+
+    private static TimeZone defaultTimeZone;
+
+    private AbstractSeriesObservationDAO observationDAO;
+
+    private Series series;
+
+    @BeforeClass
+    public static void setTimeZone() {
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+    }
+
+    @AfterClass
+    public static void resetTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Before
+    public void fillObservations() throws OwsExceptionReport {
+        observationDAO = (AbstractSeriesObservationDAO) DaoFactory.getInstance().getObservationDAO();
+        Session session = getSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            HibernateObservationBuilder builder = new HibernateObservationBuilder(session);
+            for (int i = 0; i < VALUES; ++i) {
+                builder.createNumericObservation(String.valueOf(i), getTime(i), i);
+            }
+            series = builder.getSeries();
+            session.flush();
+            transaction.commit();
+        } catch (HibernateException he) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw he;
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @After
+    public void clearObservations() throws OwsExceptionReport {
+        Session session = getSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            try (ScrollableIterable<Observation<?>> i =
+                    ScrollableIterable.fromCriteria(session.createCriteria(getObservationClass()))) {
+                for (Observation<?> o : i) {
+                    session.delete(o);
+                }
+            }
+            session.flush();
+            transaction.commit();
+        } catch (HibernateException he) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw he;
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @Test
+    public void scrolledAggregationShouldUseUtcIntervals() throws OwsExceptionReport {
+        Session session = getSession();
+        try {
+            for (AggregationFunction function : AggregationFunction.values()) {
+                List<AggregatedValue> values = observationDAO.getScrolledAggregatedSeriesValues(series,
+                        new GetObservationRequest(), null, ObservationAggregation.aggregate(function, HOUR), session);
+                assertSameIntervals(values, getExpectedValues(function));
+                for (AggregatedValue value : values) {
+                    assertThat(value.getStart() % HOUR, is(0L));
+                }
+            }
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @Test
+    public void groupedAggregationShouldReturnSameIntervalsAsScrolledAggregation() throws OwsExceptionReport {
+        Session session = getSession();
+        try {
+            assumeTrue(HibernateHelper.getDialect(session) instanceof PostgreSQL81Dialect
+                    && HibernateHelper.isNamedQuerySupported(
+                            AbstractSeriesObservationDAO.SQL_QUERY_GET_AGGREGATED_NUMERIC_SERIES_VALUES, session));
+            Date[] bounds = new Date[] { new Date(getTime(0).getTime() - 1),
+                    new Date(getTime(VALUES - 1).getTime() + 1) };
+            for (AggregationFunction function : AggregationFunction.values()) {
+                ObservationAggregation aggregation = ObservationAggregation.aggregate(function, HOUR);
+                if (aggregation.isGroupable()) {
+                    assertSameIntervals(
+                            observationDAO.getGroupedAggregatedSeriesValues(series, aggregation, bounds, session),
+                            observationDAO.getScrolledAggregatedSeriesValues(series, new GetObservationRequest(),
+                                    null, aggregation, session));
+                }
+            }
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private List<AggregatedValue> getExpectedValues(AggregationFunction function) {
+        IntervalAggregator aggregator = new IntervalAggregator(function, HOUR);
+        for (int i = 0; i < VALUES; ++i) {
+            aggregator.add(getTime(i).getTime(), i);
+        }
+        return aggregator.getValues();
+    }
+
+    private void assertSameIntervals(List<AggregatedValue> actual, List<AggregatedValue> expected) {
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); ++i) {
+            assertThat(actual.get(i).getStart(), is(expected.get(i).getStart()));
+            assertThat(actual.get(i).getEnd(), is(expected.get(i).getEnd()));
+            assertThat(actual.get(i).getCount(), is(expected.get(i).getCount()));
+            assertThat(actual.get(i).getValue(), is(closeTo(expected.get(i).getValue(), 1e-9)));
+        }
+    }
+
+    private static Date getTime(int i) {
+        return START.plus(i * STEP).toDate();
+    }
+}
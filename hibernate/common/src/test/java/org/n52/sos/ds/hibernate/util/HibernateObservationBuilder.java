@@ -59,6 +59,7 @@ import org.n52.sos.ds.hibernate.entities.observation.Observation;
 import org.n52.sos.ds.hibernate.entities.observation.ereporting.AbstractEReportingObservation;
 import org.n52.sos.ds.hibernate.entities.observation.ereporting.EReportingSeries;
 import org.n52.sos.ds.hibernate.entities.observation.full.BooleanObservation;
+import org.n52.sos.ds.hibernate.entities.observation.full.NumericObservation;
 import org.n52.sos.ds.hibernate.entities.observation.legacy.AbstractLegacyObservation;
 import org.n52.sos.ds.hibernate.entities.observation.series.AbstractSeriesObservation;
 import org.n52.sos.ds.hibernate.entities.observation.series.Series;
@@ -93,9 +94,27 @@ public class HibernateObservationBuilder {
         ObservationFactory observationFactory = observationDAO.getObservationFactory();
         BooleanObservation observation = observationFactory.truth();
         observation.setValue(true);
+        return saveObservation(observation, id, phenomenonTimeStart, phenomenonTimeEnd, resultTime, validTimeStart,
+                validTimeEnd);
+    }
+
+    public Observation<?> createNumericObservation(String id, Date phenomenonTime, double value)
+            throws OwsExceptionReport {
+        AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
+
+        ObservationFactory observationFactory = observationDAO.getObservationFactory();
+        NumericObservation observation = observationFactory.numeric();
+        observation.setValue(value);
+        return saveObservation(observation, id, phenomenonTime, phenomenonTime, phenomenonTime, phenomenonTime,
+                phenomenonTime);
+    }
+
+    private Observation<?> saveObservation(Observation<?> observation, String id, Date phenomenonTimeStart,
+            Date phenomenonTimeEnd, Date resultTime, Date validTimeStart, Date validTimeEnd)
+            throws OwsExceptionReport {
         if (observation instanceof AbstractSeriesObservation) {
-            AbstractSeriesObservation<?> seriesBooleanObservation = (AbstractSeriesObservation<?>) observation;
-            seriesBooleanObservation.setSeries(getSeries());
+            AbstractSeriesObservation<?> seriesObservation = (AbstractSeriesObservation<?>) observation;
+            seriesObservation.setSeries(getSeries());
             if (observation instanceof AbstractEReportingObservation) {
                 AbstractEReportingObservation<?> abstractEReportingObservation
                         = (AbstractEReportingObservation) observation;
@@ -103,10 +122,10 @@ public class HibernateObservationBuilder {
                 abstractEReportingObservation.setVerification(1);
             }
         } else {
-            AbstractLegacyObservation<?> booleanObservation = (AbstractLegacyObservation<?>) observation;
-            booleanObservation.setFeatureOfInterest(getFeatureOfInterest());
-            booleanObservation.setProcedure(getProcedure());
-            booleanObservation.setObservableProperty(getObservableProperty());
+            AbstractLegacyObservation<?> legacyObservation = (AbstractLegacyObservation<?>) observation;
+            legacyObservation.setFeatureOfInterest(getFeatureOfInterest());
+            legacyObservation.setProcedure(getProcedure());
+            legacyObservation.setObservableProperty(getObservableProperty());
         }
         observation.setDeleted(false);
         observation.setIdentifier(id);
@@ -256,7 +275,7 @@ public class HibernateObservationBuilder {
         return codespace;
     }
 
-    protected Series getSeries() throws OwsExceptionReport {
+    public Series getSeries() throws OwsExceptionReport {
         AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
 
         SeriesObservationFactory observationFactory = (SeriesObservationFactory) observationDAO.getObservationFactory();
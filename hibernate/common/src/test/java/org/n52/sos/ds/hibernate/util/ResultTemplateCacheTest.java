@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.ds.hibernate.HibernateTestCase;
+import org.n52.sos.ds.hibernate.entities.ResultTemplate;
+import org.n52.sos.event.events.ResultTemplateInsertion;
+import org.n52.sos.event.events.SensorDeletion;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.SosResultEncoding;
+import org.n52.sos.ogc.sos.SosResultStructure;
+import org.n52.sos.request.DeleteSensorRequest;
+import org.n52.sos.request.InsertResultTemplateRequest;
+import org.n52.sos.response.DeleteSensorResponse;
+import org.n52.sos.response.InsertResultTemplateResponse;
+
+/**
+ * Test for {@link ResultTemplateCache} and
+ * {@link ResultTemplateCacheListener}
+ *
+ * @since 4.4.0
+ */
+public class ResultTemplateCacheTest extends HibernateTestCase {
+
+    private static final String STRUCTURE = "<swe:DataRecord xmlns:swe=\"http://www.opengis.net/swe/2.0\">"
+            + "<swe:field name=\"phenomenonTime\">"
+            + "<swe:Time definition=\"http://www.opengis.net/def/property/OGC/0/PhenomenonTime\">"
+            + "<swe:uom xmlns:xlink=\"http://www.w3.org/1999/xlink\" "
+            + "xlink:href=\"http://www.opengis.net/def/uom/ISO-8601/0/Gregorian\"/>"
+            + "</swe:Time></swe:field>"
+            + "<swe:field name=\"value\"><swe:Quantity definition=\"http://www.52north.org/test/observableProperty/1\">"
+            + "<swe:uom code=\"m\"/></swe:Quantity></swe:field>"
+            + "</swe:DataRecord>";
+
+    private static final String ENCODING = "<swe:TextEncoding xmlns:swe=\"http://www.opengis.net/swe/2.0\" "
+            + "tokenSeparator=\",\" blockSeparator=\"#\"/>";
+
+    private final ResultTemplateCache cache = ResultTemplateCache.getInstance();
+
+    private final ResultTemplateCacheListener listener = new ResultTemplateCacheListener();
+
+    @Before
+    public void setUp() {
+        cache.clear();
+    }
+
+    @Test
+    public void shouldReturnCopiesOfDecodedTemplate() throws OwsExceptionReport {
+        ResultTemplate resultTemplate = resultTemplate("a");
+        SosResultStructure structure = cache.getResultStructure(resultTemplate);
+        SosResultEncoding encoding = cache.getResultEncoding(resultTemplate);
+        assertThat(cache.getSize(), is(1));
+        SosResultStructure cachedStructure = cache.getResultStructure(resultTemplate);
+        SosResultEncoding cachedEncoding = cache.getResultEncoding(resultTemplate);
+        assertThat(cache.getSize(), is(1));
+        assertThat(cachedStructure, is(structure));
+        assertThat(cachedStructure.getXml(), is(STRUCTURE));
+        assertThat(cachedStructure.getResultStructure(), not(sameInstance(structure.getResultStructure())));
+        assertThat(cachedEncoding, is(encoding));
+        assertThat(cachedEncoding.getXml(), is(ENCODING));
+        assertThat(cachedEncoding.getEncoding(), not(sameInstance(encoding.getEncoding())));
+    }
+
+    @Test
+    public void shouldInvalidateInsertedTemplate() throws OwsExceptionReport {
+        cache.getResultStructure(resultTemplate("a"));
+        cache.getResultStructure(resultTemplate("b"));
+        InsertResultTemplateRequest request = new InsertResultTemplateRequest();
+        request.setIdentifier("a");
+        listener.handle(new ResultTemplateInsertion(request, new InsertResultTemplateResponse()));
+        assertThat(cache.getSize(), is(1));
+    }
+
+    @Test
+    public void shouldClearOnSensorDeletion() throws OwsExceptionReport {
+        cache.getResultStructure(resultTemplate("a"));
+        cache.getResultStructure(resultTemplate("b"));
+        listener.handle(new SensorDeletion(new DeleteSensorRequest(), new DeleteSensorResponse()));
+        assertThat(cache.getSize(), is(0));
+    }
+
+    private ResultTemplate resultTemplate(String identifier) {
+        ResultTemplate resultTemplate = new ResultTemplate();
+        resultTemplate.setIdentifier(identifier);
+        resultTemplate.setResultStructure(STRUCTURE);
+        resultTemplate.setResultEncoding(ENCODING);
+        return resultTemplate;
+    }
+}
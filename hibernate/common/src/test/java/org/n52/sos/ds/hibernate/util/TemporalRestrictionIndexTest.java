@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import org.hibernate.Criteria;
+import org.hibernate.Session;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.internal.CriteriaImpl;
+import org.hibernate.jdbc.ReturningWork;
+import org.hibernate.loader.criteria.CriteriaQueryTranslator;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import org.n52.sos.ds.hibernate.ExtendedHibernateTestCase;
+import org.n52.sos.ds.hibernate.entities.observation.series.HibernateSeriesRelations.HasSeries;
+import org.n52.sos.ds.hibernate.entities.observation.series.Series;
+import org.n52.sos.ogc.gml.time.TimeInstant;
+import org.n52.sos.ogc.gml.time.TimePeriod;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+
+/**
+ * Checks that the H2 query plans of series observation queries with temporal
+ * restrictions use the composite series time indexes.
+ *
+ * @since 4.4.0
+ */
+public class TemporalRestrictionIndexTest extends ExtendedHibernateTestCase {
+
+    private static final String SERIES_PHENOMENON_TIME_INDEX = "OBSSERIESPHENTIMEIDX";
+
+    private static final String SERIES_RESULT_TIME_INDEX = "OBSSERIESRESULTTIMEIDX";
+
+    private static final DateTime REFERENCE = new DateTime(2016, 1, 1, 0, 0, DateTimeZone.UTC);
+
+    private static final TimePeriod PERIOD = new TimePeriod(REFERENCE, REFERENCE.plusDays(1));
+
+    private static final TimeInstant INSTANT = new TimeInstant(REFERENCE);
+
+    @Test
+    public void shouldUseSeriesPhenomenonTimeIndexForDuringPeriod() throws OwsExceptionReport {
+        assertThat(explainSeriesQuery(TemporalRestrictions.during(TemporalRestrictions.PHENOMENON_TIME_FIELDS,
+                PERIOD)), containsString(SERIES_PHENOMENON_TIME_INDEX));
+    }
+
+    @Test
+    public void shouldUseSeriesPhenomenonTimeIndexForOverlapsPeriod() throws OwsExceptionReport {
+        assertThat(explainSeriesQuery(TemporalRestrictions.overlaps(TemporalRestrictions.PHENOMENON_TIME_FIELDS,
+                PERIOD)), containsString(SERIES_PHENOMENON_TIME_INDEX));
+    }
+
+    @Test
+    public void shouldUseSeriesPhenomenonTimeIndexForAfterInstant() throws OwsExceptionReport {
+        assertThat(explainSeriesQuery(TemporalRestrictions.after(TemporalRestrictions.PHENOMENON_TIME_FIELDS,
+                INSTANT)), containsString(SERIES_PHENOMENON_TIME_INDEX));
+    }
+
+    @Test
+    public void shouldUseSeriesPhenomenonTimeIndexForEqualsInstant() throws OwsExceptionReport {
+        assertThat(explainSeriesQuery(TemporalRestrictions.tEquals(TemporalRestrictions.PHENOMENON_TIME_FIELDS,
+                INSTANT)), containsString(SERIES_PHENOMENON_TIME_INDEX));
+    }
+
+    @Test
+    public void shouldUseSeriesResultTimeIndexForDuringPeriod() throws OwsExceptionReport {
+        assertThat(explainSeriesQuery(TemporalRestrictions.during(TemporalRestrictions.RESULT_TIME_FIELDS,
+                PERIOD)), containsString(SERIES_RESULT_TIME_INDEX));
+    }
+
+    private String explainSeriesQuery(Criterion temporalCriterion) throws OwsExceptionReport {
+        Session session = getSession();
+        try {
+            Criteria criteria =
+                    session.createCriteria(getObservationClass())
+                            .add(Restrictions.eq(HasSeries.SERIES + "." + Series.ID, 1L)).add(temporalCriterion);
+            return explain(criteria, session).toUpperCase();
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private String explain(Criteria criteria, Session session) {
+        CriteriaImpl criteriaImpl = (CriteriaImpl) criteria;
+        CriteriaQueryTranslator translator =
+                new CriteriaQueryTranslator(((SessionImplementor) session).getFactory(), criteriaImpl,
+                        criteriaImpl.getEntityOrClassName(), CriteriaQueryTranslator.ROOT_SQL_ALIAS);
+        final String sql = HibernateHelper.getSqlString(criteria);
+        final Object[] values = translator.getQueryParameters().getPositionalParameterValues();
+        return session.doReturningWork(new ReturningWork<String>() {
+            @Override
+            public String execute(Connection connection) throws SQLException {
+                try (PreparedStatement stmt = connection.prepareStatement("EXPLAIN " + sql)) {
+                    for (int i = 0; i < values.length; i++) {
+                        stmt.setObject(i + 1, toJdbc(values[i]));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        StringBuilder plan = new StringBuilder();
+                        while (rs.next()) {
+                            plan.append(rs.getString(1));
+                        }
+                        return plan.toString();
+                    }
+                }
+            }
+        });
+    }
+
+    private static Object toJdbc(Object value) {
+        if (value instanceof Date && !(value instanceof Timestamp)) {
+            return new Timestamp(((Date) value).getTime());
+        }
+        return value;
+    }
+}
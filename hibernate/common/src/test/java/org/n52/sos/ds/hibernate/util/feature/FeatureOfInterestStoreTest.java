@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util.feature;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.n52.sos.ds.FeatureQueryHandler;
+import org.n52.sos.ds.FeatureQueryHandlerQueryObject;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.gml.CodeWithAuthority;
+import org.n52.sos.ogc.om.features.samplingFeatures.SamplingFeature;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+
+import com.google.common.collect.Maps;
+
+public class FeatureOfInterestStoreTest {
+
+    private static final int CRS = 4326;
+
+    private static final String VERSION = "2.0.0";
+
+    private FeatureOfInterestStore store;
+
+    @Before
+    public void setUp() {
+        store = new FeatureOfInterestStore();
+        store.setEnabled(true);
+    }
+
+    @Test
+    public void shouldReturnCopiesOfStoredFeatures() {
+        SamplingFeature feature = feature("a");
+        store.put(features(feature), CRS, null, VERSION, store.getGeneration());
+        AbstractFeature copy = store.get(Arrays.asList("a"), CRS, null, VERSION).get("a");
+        assertThat(copy, not(sameInstance((AbstractFeature) feature)));
+        copy.setIdentifier("changed");
+        assertThat(store.get(Arrays.asList("a"), CRS, null, VERSION).get("a").getIdentifier(), is("a"));
+    }
+
+    @Test
+    public void shouldSeparateLocalesAndCrs() {
+        store.put(features(feature("a")), CRS, Locale.GERMAN, VERSION, store.getGeneration());
+        assertThat(store.get(Arrays.asList("a"), CRS, Locale.GERMAN, VERSION).keySet(), containsInAnyOrder("a"));
+        assertThat(store.get(Arrays.asList("a"), CRS, Locale.ENGLISH, VERSION).isEmpty(), is(true));
+        assertThat(store.get(Arrays.asList("a"), 31467, Locale.GERMAN, VERSION).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldNotStoreFeaturesReadBeforeInvalidation() {
+        long generation = store.getGeneration();
+        store.invalidate(Collections.singleton("a"));
+        assertThat(store.put(features(feature("a")), CRS, null, VERSION, generation), is(false));
+        assertThat(store.getSize(), is(0));
+    }
+
+    @Test
+    public void shouldInvalidateFeaturesWithSampledFeature() {
+        SamplingFeature child = feature("child");
+        child.setSampledFeatures(Arrays.<AbstractFeature> asList(feature("parent")));
+        store.put(features(child, feature("other")), CRS, null, VERSION, store.getGeneration());
+        store.invalidate(Collections.singleton("parent"));
+        assertThat(store.get(Arrays.asList("child", "other"), CRS, null, VERSION).keySet(),
+                containsInAnyOrder("other"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedFeatures() throws ConfigurationException {
+        store.setSize(2);
+        store.put(features(feature("a"), feature("b")), CRS, null, VERSION, store.getGeneration());
+        store.get(Arrays.asList("a"), CRS, null, VERSION);
+        store.put(features(feature("c")), CRS, null, VERSION, store.getGeneration());
+        assertThat(store.get(Arrays.asList("a", "b", "c"), CRS, null, VERSION).keySet(),
+                containsInAnyOrder("a", "c"));
+    }
+
+    @Test
+    public void shouldQueryOnlyMissingFeatures() throws OwsExceptionReport {
+        FeatureQueryHandler handler = mock(FeatureQueryHandler.class);
+        when(handler.getStorageEPSG()).thenReturn(CRS);
+        when(handler.getFeatures(any(FeatureQueryHandlerQueryObject.class))).thenReturn(features(feature("b")));
+        store.put(features(feature("a")), CRS, null, VERSION, store.getGeneration());
+        FeatureQueryHandlerQueryObject queryObject =
+                new FeatureQueryHandlerQueryObject().setFeatureIdentifiers(Arrays.asList("a", "b")).setVersion(
+                        VERSION);
+        assertThat(store.getFeatures(queryObject, handler).keySet(), containsInAnyOrder("a", "b"));
+        ArgumentCaptor<FeatureQueryHandlerQueryObject> queried =
+                ArgumentCaptor.forClass(FeatureQueryHandlerQueryObject.class);
+        verify(handler).getFeatures(queried.capture());
+        assertThat(queried.getValue().getFeatureIdentifiers(), containsInAnyOrder("b"));
+        assertThat(store.get(Arrays.asList("a", "b"), CRS, null, VERSION).keySet(), containsInAnyOrder("a", "b"));
+    }
+
+    private static SamplingFeature feature(String identifier) {
+        return new SamplingFeature(new CodeWithAuthority(identifier));
+    }
+
+    private static Map<String, AbstractFeature> features(SamplingFeature... features) {
+        Map<String, AbstractFeature> map = Maps.newLinkedHashMap();
+        for (SamplingFeature feature : features) {
+            map.put(feature.getIdentifier(), feature);
+        }
+        return map;
+    }
+
+}
@@ -29,6 +29,7 @@
 package org.n52.sos.ds.hibernate;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +57,9 @@ import org.n52.sos.ds.hibernate.entities.observation.series.ContextualReferenced
 import org.n52.sos.ds.hibernate.entities.observation.series.Series;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
 import org.n52.sos.ds.hibernate.util.TemporalRestrictions;
+import org.n52.sos.ds.hibernate.util.feature.FeatureOfInterestStore;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingFeatureCollection;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.exception.ows.MissingParameterValueException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
@@ -65,6 +69,7 @@ import org.n52.sos.ogc.ows.CompositeOwsException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.Sos1Constants;
 import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.GetFeatureOfInterestRequest;
 import org.n52.sos.response.GetFeatureOfInterestResponse;
 import org.n52.sos.util.StringHelper;
@@ -121,6 +126,9 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
         Session session = null;
         try {
             session = sessionHolder.getSession();
+            final GetFeatureOfInterestResponse response = new GetFeatureOfInterestResponse();
+            response.setService(request.getService());
+            response.setVersion(request.getVersion());
             FeatureCollection featureCollection;
 
             if (isSos100(request)) {
@@ -137,7 +145,17 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
                 }
             } else // SOS 2.0
             {
-                featureCollection = getFeatures(request, session);
+                final ResultPaging paging = ResultPaging.fromExtensions(request.getExtensions());
+                if (paging != null) {
+                    featureCollection = getFeaturePage(request, paging, response, session);
+                } else if (HibernateStreamingConfiguration.getInstance().isForceDatasourceStreaming()) {
+                    // only the identifiers are queried, the features are
+                    // queried in chunks while encoding
+                    featureCollection =
+                            new HibernateStreamingFeatureCollection(request, queryFeatureIdentifiers(request, session));
+                } else {
+                    featureCollection = getFeatures(request, session);
+                }
                 /*
                  * Now, we return the list of returned features and not a
                  * complex encoded relatedFeature See
@@ -150,9 +168,6 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
                  * ());
                  */
             }
-            final GetFeatureOfInterestResponse response = new GetFeatureOfInterestResponse();
-            response.setService(request.getService());
-            response.setVersion(request.getVersion());
             response.setAbstractFeature(featureCollection);
             return response;
         } catch (final HibernateException he) {
@@ -221,10 +236,133 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
      */
     private FeatureCollection getFeatures(final GetFeatureOfInterestRequest request, final Session session)
             throws OwsExceptionReport {
-        final Set<String> foiIDs = new HashSet<String>(queryFeatureIdentifiersForParameter(request, session));
+        return getFeatures(request, queryFeatureIdentifiers(request, session), session);
+    }
+
+    /**
+     * Get a page of the featureOfInterest as a feature collection, ordered by
+     * identifier. If there are further features, the following page is added
+     * as extension to the response.
+     *
+     * @param request
+     *            GetFeatureOfInterest request
+     * @param paging
+     *            the requested page
+     * @param response
+     *            GetFeatureOfInterest response
+     * @param session
+     *            Hibernate session
+     * @return Feature collection with the featuresOfInterest of the page
+     * @throws OwsExceptionReport
+     *             If an error occurs during processing
+     */
+    private FeatureCollection getFeaturePage(final GetFeatureOfInterestRequest request, final ResultPaging paging,
+            final GetFeatureOfInterestResponse response, final Session session) throws OwsExceptionReport {
+        if (isSpatialFilterRequest(request)) {
+            // spatial filters are applied when loading the features
+            final FeatureCollection features = getFeatures(request, session);
+            final FeatureCollection page = new FeatureCollection();
+            for (String identifier : selectPage(paging, paging.select(features.getMembers().keySet()), response)) {
+                page.addMember(features.getMembers().get(identifier));
+            }
+            return page;
+        }
+        final List<String> identifiers;
+        if (request.hasNoParameter()) {
+            // only the identifiers of the page are queried
+            identifiers = new FeatureOfInterestDAO().getFeatureOfInterestIdentifiers(paging, session);
+        } else if (isFeatureIdentifierPageQueryable(request)) {
+            identifiers = queryFeatureIdentifierPageForParameter(request, paging, session);
+        } else {
+            identifiers = paging.select(queryFeatureIdentifiers(request, session));
+        }
+        if (identifiers.isEmpty()) {
+            return new FeatureCollection();
+        }
+        return getFeatures(request, selectPage(paging, identifiers, response), session);
+    }
+
+    /**
+     * Check if the page of featureOfInterest identifiers can be queried from
+     * the database. Requested relatedFeatures are added to the identifiers
+     * if one of their child features matches, so they have to be paged in
+     * memory.
+     *
+     * @param request
+     *            GetFeatureOfInterest request
+     * @return <code>true</code>, if the page can be queried
+     */
+    private boolean isFeatureIdentifierPageQueryable(final GetFeatureOfInterestRequest request) {
+        if (request.isSetFeatureOfInterestIdentifiers()) {
+            for (final String featureIdentifier : request.getFeatureIdentifiers()) {
+                if (isRelatedFeature(featureIdentifier)) {
+                    return false;
+                }
+            }
+        }
+        return (request.containsOnlyFeatureParameter() && request.isSetFeatureOfInterestIdentifiers())
+                || EntitiyHelper.getInstance().isSeriesSupported();
+    }
+
+    /**
+     * Query a page of the featureOfInterest identifiers for requested
+     * parameters, ordered by identifier
+     *
+     * @param req
+     *            GetFeatureOfInterest request
+     * @param paging
+     *            the requested page
+     * @param session
+     *            Hibernate session
+     * @return FeatureOfInterest identifiers of the page and the first
+     *         identifier of the next page, if any
+     * @throws CodedException
+     *             If an error occurs during processing
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> queryFeatureIdentifierPageForParameter(final GetFeatureOfInterestRequest req,
+            final ResultPaging paging, final Session session) throws CodedException {
+        final Criteria c;
+        if (req.containsOnlyFeatureParameter() && req.isSetFeatureOfInterestIdentifiers()) {
+            c = session.createCriteria(FeatureOfInterest.class)
+                    .add(Restrictions.in(FeatureOfInterest.IDENTIFIER, req.getFeatureIdentifiers()))
+                    .setProjection(Projections.distinct(Projections.property(FeatureOfInterest.IDENTIFIER)));
+        } else {
+            c = getCriteriaForFeatureIdentifiersForParameterForSeries(req, session);
+        }
+        new FeatureOfInterestDAO().addPaging(c, paging);
+        LOGGER.debug("QUERY queryFeatureIdentifierPageForParameter(request, paging): {}",
+                HibernateHelper.getSqlString(c));
+        return c.list();
+    }
+
+    private List<String> selectPage(final ResultPaging paging, final List<String> identifiers,
+            final GetFeatureOfInterestResponse response) {
+        if (paging.hasNext(identifiers)) {
+            final List<String> page = identifiers.subList(0, paging.getLimit());
+            response.addExtension(paging.next(page.get(page.size() - 1)).toExtension());
+            return page;
+        }
+        return identifiers;
+    }
+
+    private Set<String> queryFeatureIdentifiers(final GetFeatureOfInterestRequest request, final Session session)
+            throws OwsExceptionReport {
+        Set<String> foiIDs = null;
+        if (FeatureOfInterestStore.getInstance().isEnabled()) {
+            foiIDs = getFeatureIdentifiersFromCache(request);
+        }
+        if (foiIDs == null) {
+            foiIDs = new HashSet<String>(queryFeatureIdentifiersForParameter(request, session));
+        }
         if (request.isSetFeatureOfInterestIdentifiers()) {
             addRequestedRelatedFeatures(foiIDs, request.getFeatureIdentifiers());
         }
+        return foiIDs;
+    }
+
+    private FeatureCollection getFeatures(final GetFeatureOfInterestRequest request,
+            final Collection<String> foiIDs, final Session session) throws OwsExceptionReport {
         // feature of interest
         FeatureQueryHandlerQueryObject queryObject = new FeatureQueryHandlerQueryObject()
             .setFeatureIdentifiers(foiIDs)
@@ -232,7 +370,80 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
             .setConnection(session)
             .setVersion(request.getVersion())
             .setI18N(LocaleHelper.fromRequest(request));
-        return new FeatureCollection(getConfigurator().getFeatureQueryHandler().getFeatures(queryObject));
+        return new FeatureCollection(FeatureOfInterestStore.getInstance().getFeatures(queryObject,
+                getConfigurator().getFeatureQueryHandler()));
+    }
+
+    /**
+     * Get featureOfInterest identifiers for requested parameters from the
+     * procedure, observableProperty and featureOfInterest relations of the
+     * content cache
+     *
+     * @param request
+     *            GetFeatureOfInterest request
+     * @return Resulting FeatureOfInterest identifiers or <code>null</code>, if
+     *         the request contains temporal filters or the cache relations can
+     *         not answer it exactly
+     */
+    protected Set<String> getFeatureIdentifiersFromCache(final GetFeatureOfInterestRequest request) {
+        if (request.isSetTemporalFilters()) {
+            return null;
+        }
+        Set<String> procedures = null;
+        if (request.isSetProcedures() || request.isSetObservableProperties()) {
+            procedures = getProceduresFromCache(request);
+            if (procedures == null) {
+                return null;
+            }
+        }
+        final Collection<String> features;
+        if (!request.isSetFeatureOfInterestIdentifiers()) {
+            features = getCache().getFeaturesOfInterest();
+        } else if (request.containsOnlyFeatureParameter()) {
+            features = getFeatureIdentifiers(request.getFeatureIdentifiers());
+        } else {
+            features = request.getFeatureIdentifiers();
+        }
+        final Set<String> foiIDs = new HashSet<String>(features.size());
+        for (final String feature : features) {
+            if (getCache().hasFeatureOfInterest(feature)
+                    && (procedures == null || !Collections.disjoint(procedures,
+                            getCache().getProceduresForFeatureOfInterest(feature)))) {
+                foiIDs.add(feature);
+            }
+        }
+        return foiIDs;
+    }
+
+    /**
+     * Get the requested procedures that observed requested
+     * observableProperties from the content cache
+     *
+     * @param request
+     *            GetFeatureOfInterest request
+     * @return Resulting procedure identifiers or <code>null</code>, if a
+     *         procedure observed requested and not requested
+     *         observableProperties, as the cache does not relate
+     *         observableProperties to features
+     */
+    protected Set<String> getProceduresFromCache(final GetFeatureOfInterestRequest request) {
+        if (!request.isSetObservableProperties()) {
+            return new HashSet<String>(request.getProcedures());
+        }
+        final Set<String> observableProperties = new HashSet<String>(request.getObservedProperties());
+        final Set<String> procedures = new HashSet<String>();
+        for (final String observableProperty : observableProperties) {
+            procedures.addAll(getCache().getProceduresForObservableProperty(observableProperty));
+        }
+        if (request.isSetProcedures()) {
+            procedures.retainAll(request.getProcedures());
+        }
+        for (final String procedure : procedures) {
+            if (!observableProperties.containsAll(getCache().getObservablePropertiesForProcedure(procedure))) {
+                return null;
+            }
+        }
+        return procedures;
     }
 
     /**
@@ -271,7 +482,7 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
      *             If an error occurs during processing
      */
     @SuppressWarnings("unchecked")
-    private List<String> queryFeatureIdentifiersForParameter(final GetFeatureOfInterestRequest req,
+    protected List<String> queryFeatureIdentifiersForParameter(final GetFeatureOfInterestRequest req,
             final Session session) throws OwsExceptionReport {
         if (req.hasNoParameter()) {
             return new FeatureOfInterestDAO().getFeatureOfInterestIdentifiers(session);
@@ -365,6 +576,25 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
      */
     @SuppressWarnings("unchecked")
     private List<String> queryFeatureIdentifiersForParameterForSeries(GetFeatureOfInterestRequest req, Session session) throws CodedException {
+        final Criteria c = getCriteriaForFeatureIdentifiersForParameterForSeries(req, session);
+        LOGGER.debug("QUERY queryFeatureIdentifiersForParameterForSeries(request): {}",
+                HibernateHelper.getSqlString(c));
+        return c.list();
+    }
+
+    /**
+     * Get Hibernate Criteria for query FeatureOfInterest identifiers for
+     * series concept
+     *
+     * @param req
+     *            GetFeatureOfInterest request
+     * @param session
+     *            Hibernate Sesstion
+     * @return Hibernate Criteria
+     * @throws CodedException If an error occurs during processing
+     */
+    private Criteria getCriteriaForFeatureIdentifiersForParameterForSeries(GetFeatureOfInterestRequest req,
+            Session session) throws CodedException {
         final Criteria c = session.createCriteria(FeatureOfInterest.class);
         if (req.isSetFeatureOfInterestIdentifiers()) {
             c.add(Restrictions.in(FeatureOfInterest.IDENTIFIER, req.getFeatureIdentifiers()));
@@ -372,9 +602,7 @@ public class GetFeatureOfInterestDAO extends AbstractGetFeatureOfInterestDAO imp
         c.add(Subqueries.propertyIn(FeatureOfInterest.ID,
                 getDetachedCriteriaForSeriesWithProcedureObservableProperty(req, session)));
         c.setProjection(Projections.distinct(Projections.property(FeatureOfInterest.IDENTIFIER)));
-        LOGGER.debug("QUERY queryFeatureIdentifiersForParameterForSeries(request): {}",
-                HibernateHelper.getSqlString(c));
-        return c.list();
+        return c;
     }
 
     /**
@@ -32,12 +32,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.n52.sos.aggregation.AggregatedValue;
+import org.n52.sos.aggregation.AggregationFunction;
+import org.n52.sos.aggregation.ObservationAggregation;
 import org.n52.sos.convert.ConverterException;
 import org.n52.sos.ds.AbstractGetObservationDAO;
 import org.n52.sos.ds.HibernateDatasourceConstants;
@@ -55,6 +62,7 @@ import org.n52.sos.ds.hibernate.entities.observation.series.Series;
 import org.n52.sos.ds.hibernate.entities.observation.series.SeriesObservation;
 import org.n52.sos.ds.hibernate.util.HibernateGetObservationHelper;
 import org.n52.sos.ds.hibernate.util.ObservationTimeExtrema;
+import org.n52.sos.ds.hibernate.util.ParallelSeriesQueryExecutor;
 import org.n52.sos.ds.hibernate.util.QueryHelper;
 import org.n52.sos.ds.hibernate.util.observation.HibernateObservationUtilities;
 import org.n52.sos.ds.hibernate.values.HibernateChunkStreamingValue;
@@ -62,20 +70,31 @@ import org.n52.sos.ds.hibernate.values.HibernateScrollableStreamingValue;
 import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
 import org.n52.sos.ds.hibernate.values.HibernateStreamingValue;
 import org.n52.sos.ds.hibernate.values.series.HibernateChunkSeriesStreamingValue;
+import org.n52.sos.ds.hibernate.values.series.HibernateProjectionSeriesStreamingValue;
 import org.n52.sos.ds.hibernate.values.series.HibernateScrollableSeriesStreamingValue;
 import org.n52.sos.ds.hibernate.values.series.HibernateSeriesStreamingValue;
 import org.n52.sos.exception.CodedException;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.MissingObservedPropertyParameterException;
 import org.n52.sos.exception.ows.concrete.NotYetSupportedException;
 import org.n52.sos.i18n.LocaleHelper;
+import org.n52.sos.ogc.gml.time.Time;
+import org.n52.sos.ogc.gml.time.TimeInstant;
+import org.n52.sos.ogc.gml.time.TimePeriod;
+import org.n52.sos.ogc.om.OmConstants;
 import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.om.OmObservationConstellation;
+import org.n52.sos.ogc.om.SingleObservationValue;
+import org.n52.sos.ogc.om.values.CountValue;
+import org.n52.sos.ogc.om.values.QuantityValue;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.ConformanceClasses;
 import org.n52.sos.ogc.sos.Sos1Constants;
+import org.n52.sos.ogc.sos.Sos2Constants;
 import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.ogc.sos.SosConstants.SosIndeterminateTime;
+import org.n52.sos.paging.ResultPaging;
 import org.n52.sos.request.GetObservationRequest;
 import org.n52.sos.response.GetObservationResponse;
 import org.n52.sos.service.ServiceConfiguration;
@@ -119,6 +138,14 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
         if (sosRequest.isSetResultFilter()) {
             throw new NotYetSupportedException("result filtering");
         }
+        final ObservationAggregation aggregation = ObservationAggregation.fromExtensions(sosRequest.getExtensions());
+        final ResultPaging paging = ResultPaging.fromExtensions(sosRequest.getExtensions());
+        if (aggregation != null && paging != null) {
+            throw new InvalidParameterValueException(Sos2Constants.Extensions.Paging, paging.toString())
+                    .withMessage("The extensions '%s' and '%s' can not be combined!",
+                            Sos2Constants.Extensions.Paging, aggregation.isDownsampling()
+                                    ? Sos2Constants.Extensions.Downsampling : Sos2Constants.Extensions.Aggregation);
+        }
         final GetObservationResponse sosResponse = new GetObservationResponse();
         sosResponse.setService(sosRequest.getService());
         sosResponse.setVersion(sosRequest.getVersion());
@@ -129,7 +156,12 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
         Session session = null;
         try {
             session = sessionHolder.getSession();
-            if (HibernateStreamingConfiguration.getInstance().isForceDatasourceStreaming()
+            if (aggregation != null) {
+                sosResponse.setObservationCollection(queryAggregatedSeriesObservation(sosRequest, aggregation,
+                        session));
+            } else if (paging != null) {
+                sosResponse.setObservationCollection(queryObservationPage(sosRequest, paging, sosResponse, session));
+            } else if (HibernateStreamingConfiguration.getInstance().isForceDatasourceStreaming()
                     && CollectionHelper.isEmpty(sosRequest.getFirstLatestTemporalFilter())) {
                 // TODO
                 if (EntitiyHelper.getInstance().isSeriesSupported()) {
@@ -141,7 +173,19 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
                 AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
                 // check if series mapping is supported
                 if (observationDAO instanceof AbstractSeriesObservationDAO) {
-                    sosResponse.setObservationCollection(querySeriesObservation(sosRequest, (AbstractSeriesObservationDAO)observationDAO, session));
+                    AbstractSeriesObservationDAO seriesObservationDAO = (AbstractSeriesObservationDAO) observationDAO;
+                    List<Long> parallelSeries = getParallelSeries(sosRequest, session);
+                    if (parallelSeries != null) {
+                        // the groups check out sessions of their own, don't
+                        // hold a connection while waiting for them
+                        sessionHolder.returnSession(session);
+                        session = null;
+                        sosResponse.setObservationCollection(queryParallelSeriesObservation(sosRequest,
+                                seriesObservationDAO, parallelSeries));
+                    } else {
+                        sosResponse.setObservationCollection(querySeriesObservation(sosRequest,
+                                seriesObservationDAO, session));
+                    }
                 } else {
                     // if
                     // (getConfigurator().getProfileHandler().getActiveProfile().isShowMetadataOfEmptyObservations())
@@ -315,9 +359,16 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
         else if (CollectionHelper.isNotEmpty(sosIndeterminateTimeFilters)) {
             for (SosIndeterminateTime sosIndeterminateTime : sosIndeterminateTimeFilters) {
                 if (ServiceConfiguration.getInstance().isOverallExtrema()) {
-                    seriesObservations =
-                            observationDAO.getSeriesObservationsFor(request, features,
+                    List<SeriesObservation<?>> indexedObservations =
+                            observationDAO.getIndexedSeriesObservationsFor(request, features,
                                     sosIndeterminateTime, session);
+                    if (indexedObservations != null) {
+                        seriesObservations = indexedObservations;
+                    } else {
+                        seriesObservations =
+                                observationDAO.getSeriesObservationsFor(request, features,
+                                        sosIndeterminateTime, session);
+                    }
                 } else {
                     for (Series series : seriesDAO.getSeries(request, features, session)) {
                         seriesObservations.addAll(observationDAO.getSeriesObservationsFor(series, request,
@@ -372,6 +423,286 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
         return result;
     }
 
+    /**
+     * Query a page of the observations matching the request. The page is
+     * selected by the database, ordered by observation id. If there are
+     * further observations, the following page is added as
+     * {@link Sos2Constants.Extensions#Paging} extension to the response.
+     *
+     * @param request
+     *            GetObservation request
+     * @param paging
+     *            the requested page
+     * @param response
+     *            GetObservation response
+     * @param session
+     *            Hibernate session
+     * @return the observations of the page
+     * @throws OwsExceptionReport
+     *             If an error occurs or the request contains first/latest
+     *             filters
+     * @throws ConverterException
+     *             If an error occurs during sensor description creation.
+     */
+    protected List<OmObservation> queryObservationPage(GetObservationRequest request, ResultPaging paging,
+            GetObservationResponse response, Session session) throws OwsExceptionReport, ConverterException {
+        if (CollectionHelper.isNotEmpty(request.getFirstLatestTemporalFilter())) {
+            throw new NotYetSupportedException("paging of first/latest observations");
+        }
+        final long start = System.currentTimeMillis();
+        final Set<String> features = QueryHelper.getFeatures(request, session);
+        if (features != null && features.isEmpty()) {
+            return new LinkedList<>();
+        }
+        final Criterion filterCriterion = HibernateGetObservationHelper.getTemporalFilterCriterion(request);
+        List<Observation<?>> observations = DaoFactory.getInstance().getObservationDAO()
+                .getObservationPageFor(request, features, filterCriterion, paging, session);
+        if (paging.hasNext(observations)) {
+            observations = observations.subList(0, paging.getLimit());
+            Observation<?> last = observations.get(observations.size() - 1);
+            response.addExtension(paging.next(Long.toString(last.getObservationId())).toExtension());
+        }
+        HibernateGetObservationHelper.checkMaxNumberOfReturnedValues(observations.size());
+        LOGGER.debug("Time to query {} observations of {} needs {} ms!", observations.size(), paging,
+                (System.currentTimeMillis() - start));
+        return HibernateGetObservationHelper.toSosObservation(observations, request,
+                LocaleHelper.fromRequest(request), session);
+    }
+
+    /**
+     * Query the aggregated or downsampled numeric values of the series
+     * matching the request. Each interval or selected value becomes an
+     * observation of the series, so the values can be encoded by every
+     * response format.
+     *
+     * @param request
+     *            GetObservation request
+     * @param aggregation
+     *            The requested aggregation
+     * @param session
+     *            Hibernate session
+     * @return List of internal Observations
+     * @throws OwsExceptionReport
+     *             If an error occurs.
+     * @throws ConverterException
+     *             If an error occurs during sensor description creation.
+     */
+    protected List<OmObservation> queryAggregatedSeriesObservation(GetObservationRequest request,
+            ObservationAggregation aggregation, Session session) throws OwsExceptionReport, ConverterException {
+        AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
+        if (!(observationDAO instanceof AbstractSeriesObservationDAO)) {
+            throw new NotYetSupportedException("aggregation of observations without series");
+        }
+        if (CollectionHelper.isNotEmpty(request.getFirstLatestTemporalFilter())) {
+            throw new NotYetSupportedException("aggregation of first or latest observations");
+        }
+        final long start = System.currentTimeMillis();
+        final List<OmObservation> result = new LinkedList<>();
+        final Set<String> features = QueryHelper.getFeatures(request, session);
+        if (features != null && features.isEmpty()) {
+            return result;
+        }
+        final Criterion filterCriterion = HibernateGetObservationHelper.getTemporalFilterCriterion(request);
+        final Locale locale = LocaleHelper.fromRequest(request);
+        final boolean showMetadataOfEmptyObservations =
+                getConfigurator().getProfileHandler().getActiveProfile().isShowMetadataOfEmptyObservations();
+        AbstractSeriesObservationDAO seriesObservationDAO = (AbstractSeriesObservationDAO) observationDAO;
+        List<Series> serieses = DaoFactory.getInstance().getSeriesDAO().getSeries(request, features, session);
+        int seriesCount = 0;
+        int valueCount = 0;
+        for (Series series : serieses) {
+            List<AggregatedValue> values =
+                    seriesObservationDAO.getAggregatedSeriesValues(series, request, filterCriterion, aggregation,
+                            session);
+            if (values.isEmpty() && !showMetadataOfEmptyObservations) {
+                continue;
+            }
+            seriesCount++;
+            valueCount += values.size();
+            HibernateGetObservationHelper.checkMaxNumberOfReturnedSeriesSize(seriesCount);
+            HibernateGetObservationHelper.checkMaxNumberOfReturnedValues(valueCount);
+            Collection<? extends OmObservation> templates =
+                    HibernateObservationUtilities.createSosObservationFromSeries(series, request, locale, session);
+            if (values.isEmpty()) {
+                result.addAll(templates);
+            } else {
+                for (OmObservation template : templates) {
+                    result.addAll(createAggregatedObservations(template, aggregation, values));
+                }
+            }
+        }
+        LOGGER.debug("Time to query aggregated observations of {} series needs {} ms!", serieses.size(),
+                (System.currentTimeMillis() - start));
+        return result;
+    }
+
+    private List<OmObservation> createAggregatedObservations(OmObservation template,
+            ObservationAggregation aggregation, List<AggregatedValue> values) {
+        boolean count = aggregation.getFunction() == AggregationFunction.count;
+        String unit = template.getValue() != null ? template.getValue().getValue().getUnit() : null;
+        template.getObservationConstellation().setObservationType(
+                count ? OmConstants.OBS_TYPE_COUNT_OBSERVATION : OmConstants.OBS_TYPE_MEASUREMENT);
+        List<OmObservation> observations = new ArrayList<>(values.size());
+        for (AggregatedValue value : values) {
+            OmObservation observation = template.cloneTemplate();
+            observation.setNoDataValue(template.getNoDataValue());
+            TimeInstant end = new TimeInstant(new DateTime(value.getEnd(), DateTimeZone.UTC));
+            Time phenomenonTime =
+                    value.isInstant() ? end : new TimePeriod(new DateTime(value.getStart(), DateTimeZone.UTC),
+                            end.getValue());
+            observation.setResultTime(end);
+            if (count) {
+                observation.setValue(new SingleObservationValue<Integer>(phenomenonTime, new CountValue(
+                        (int) value.getCount())));
+            } else {
+                observation.setValue(new SingleObservationValue<Double>(phenomenonTime, new QuantityValue(value
+                        .getValue(), unit)));
+            }
+            observations.add(observation);
+        }
+        return observations;
+    }
+
+    /**
+     * Get the series of the request if their observations should be queried
+     * in groups of series concurrently.
+     *
+     * @param request
+     *            GetObservation request
+     * @param session
+     *            Hibernate session
+     * @return the ids of the series matching the request or <code>null</code>
+     *         if the observations should be queried on the session
+     * @throws OwsExceptionReport
+     *             If an error occurs.
+     */
+    private List<Long> getParallelSeries(GetObservationRequest request, Session session) throws OwsExceptionReport {
+        ParallelSeriesQueryExecutor parallelExecutor = ParallelSeriesQueryExecutor.getInstance();
+        if (!parallelExecutor.isEnabled() || request.isSetResultFilter()
+                || CollectionHelper.isNotEmpty(request.getFirstLatestTemporalFilter())) {
+            return null;
+        }
+        final Set<String> features = QueryHelper.getFeatures(request, session);
+        if (features != null && features.isEmpty()) {
+            return null;
+        }
+        Set<Long> seriesIds = Sets.newTreeSet();
+        for (Series series : DaoFactory.getInstance().getSeriesDAO().getSeries(request, features, session)) {
+            seriesIds.add(series.getSeriesId());
+        }
+        if (!parallelExecutor.isParallel(seriesIds.size())) {
+            return null;
+        }
+        return Lists.newArrayList(seriesIds);
+    }
+
+    /**
+     * Query the observations of the series in groups of series, each group on
+     * a separate session. The observations are converted on the session of
+     * the group and merged in the order of the series. The caller must not
+     * hold a session while the groups are queried, otherwise concurrent
+     * requests can use up the connection pool and starve the groups.
+     *
+     * @param request
+     *            GetObservation request
+     * @param observationDAO
+     *            Series observation DAO
+     * @param series
+     *            Ids of the series matching the request
+     * @return List of internal Observations
+     * @throws OwsExceptionReport
+     *             If an error occurs.
+     * @throws ConverterException
+     *             If an error occurs during sensor description creation.
+     */
+    private List<OmObservation> queryParallelSeriesObservation(final GetObservationRequest request,
+            final AbstractSeriesObservationDAO observationDAO, List<Long> series) throws OwsExceptionReport,
+            ConverterException {
+        final long start = System.currentTimeMillis();
+        final Criterion filterCriterion = HibernateGetObservationHelper.getTemporalFilterCriterion(request);
+        final Locale locale = LocaleHelper.fromRequest(request);
+        ParallelSeriesQueryExecutor parallelExecutor = ParallelSeriesQueryExecutor.getInstance();
+        List<Callable<SeriesGroupResult>> tasks = Lists.newArrayList();
+        for (final List<Long> group : parallelExecutor.partition(series)) {
+            tasks.add(new Callable<SeriesGroupResult>() {
+                @Override
+                public SeriesGroupResult call() throws OwsExceptionReport, ConverterException {
+                    return querySeriesGroup(request, observationDAO, group, filterCriterion, locale);
+                }
+            });
+        }
+        List<SeriesGroupResult> groupResults = parallelExecutor.invokeAll(tasks);
+
+        int valueCount = 0;
+        Set<Long> emptySeries = Sets.newTreeSet(series);
+        for (SeriesGroupResult groupResult : groupResults) {
+            valueCount += groupResult.getValueCount();
+            emptySeries.removeAll(groupResult.getSeriesIds());
+        }
+        // the set now only contains series without matching observations
+        int metadataObservationsCount = 0;
+        List<OmObservation> result = new LinkedList<>();
+        if (getConfigurator().getProfileHandler().getActiveProfile().isShowMetadataOfEmptyObservations()) {
+            metadataObservationsCount = emptySeries.size();
+            result.addAll(queryMetadataObservations(request, emptySeries, locale));
+        }
+        HibernateGetObservationHelper.checkMaxNumberOfReturnedSeriesSize(series.size() - emptySeries.size()
+                + metadataObservationsCount);
+        HibernateGetObservationHelper.checkMaxNumberOfReturnedValues(valueCount);
+        for (SeriesGroupResult groupResult : groupResults) {
+            result.addAll(groupResult.getObservations());
+        }
+        LOGGER.debug("Time to query observations of {} series in parallel needs {} ms!", series.size(),
+                (System.currentTimeMillis() - start));
+        return result;
+    }
+
+    private List<OmObservation> queryMetadataObservations(GetObservationRequest request, Set<Long> seriesIds,
+            Locale locale) throws OwsExceptionReport, ConverterException {
+        List<OmObservation> result = new LinkedList<>();
+        if (seriesIds.isEmpty()) {
+            return result;
+        }
+        Session session = null;
+        try {
+            session = sessionHolder.getSession();
+            AbstractSeriesDAO seriesDAO = DaoFactory.getInstance().getSeriesDAO();
+            for (Long seriesId : seriesIds) {
+                Series series = seriesDAO.getSeries(seriesId, session);
+                if (series != null) {
+                    result.addAll(HibernateObservationUtilities.createSosObservationFromSeries(series, request,
+                            locale, session));
+                }
+            }
+            return result;
+        } finally {
+            sessionHolder.returnSession(session);
+        }
+    }
+
+    private SeriesGroupResult querySeriesGroup(GetObservationRequest request,
+            AbstractSeriesObservationDAO observationDAO, List<Long> seriesIds, Criterion filterCriterion,
+            Locale locale) throws OwsExceptionReport, ConverterException {
+        Session session = null;
+        try {
+            session = sessionHolder.getSession();
+            List<SeriesObservation<?>> seriesObservations =
+                    observationDAO.getSeriesObservationsForSeries(request, seriesIds, filterCriterion, session);
+            // a single group exceeding the limit exceeds it for the request
+            HibernateGetObservationHelper.checkMaxNumberOfReturnedValues(seriesObservations.size());
+            Set<Long> observedSeries = Sets.newHashSet();
+            for (SeriesObservation<?> seriesObservation : seriesObservations) {
+                observedSeries.add(seriesObservation.getSeries().getSeriesId());
+            }
+            Collection<Observation<?>> abstractObservations = Lists.newArrayList();
+            abstractObservations.addAll(seriesObservations);
+            return new SeriesGroupResult(HibernateGetObservationHelper.toSosObservation(abstractObservations,
+                    request, locale, session), observedSeries, seriesObservations.size());
+        } finally {
+            sessionHolder.returnSession(session);
+        }
+    }
+
     /**
      * Query the observations for streaming datasource
      *
@@ -455,7 +786,7 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
                     HibernateObservationUtilities
                             .createSosObservationFromSeries(series, request, session);
             OmObservation observationTemplate = createSosObservationFromSeries.iterator().next();
-            HibernateSeriesStreamingValue streamingValue = getSeriesStreamingValue(request, series.getSeriesId());
+            HibernateSeriesStreamingValue streamingValue = getSeriesStreamingValue(request, series);
             streamingValue.setResponseFormat(request.getResponseFormat());
             streamingValue.setTemporalFilterCriterion(temporalFilterCriterion);
             streamingValue.setObservationTemplate(observationTemplate);
@@ -478,19 +809,41 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
      *
      * @param request
      *            GetObservation request
-     * @param seriesId
-     *            Series id
+     * @param series
+     *            Series
      * @return Streaming observation value
      * @throws CodedException 
      */
-    private HibernateSeriesStreamingValue getSeriesStreamingValue(GetObservationRequest request, long seriesId) throws CodedException {
-        if (HibernateStreamingConfiguration.getInstance().isChunkDatasourceStreaming()) {
-            return new HibernateChunkSeriesStreamingValue(request, seriesId);
+    private HibernateSeriesStreamingValue getSeriesStreamingValue(GetObservationRequest request, Series series) throws CodedException {
+        if (isValueProjectionApplicable(request, series)) {
+            return new HibernateProjectionSeriesStreamingValue(request, series.getSeriesId(), series.getSeriesType());
+        } else if (HibernateStreamingConfiguration.getInstance().isChunkDatasourceStreaming()) {
+            return new HibernateChunkSeriesStreamingValue(request, series.getSeriesId());
         } else {
-            return new HibernateScrollableSeriesStreamingValue(request, seriesId);
+            return new HibernateScrollableSeriesStreamingValue(request, series.getSeriesId());
         }
     }
 
+    /**
+     * Check if the values of the series can be queried as projections of time
+     * and value. This is the case if the encoder only needs these fields of
+     * merged observations and the value DAO supports the series type.
+     *
+     * @param request
+     *            GetObservation request
+     * @param series
+     *            Series
+     * @return <code>true</code>, if the values can be queried as projections
+     * @throws CodedException
+     *             If no value DAO is available
+     */
+    private boolean isValueProjectionApplicable(GetObservationRequest request, Series series) throws CodedException {
+        return series.isSetSeriesType()
+                && DaoFactory.getInstance().getValueDAO().isValueProjectionSupported(series.getSeriesType())
+                && HibernateGetObservationHelper.checkEncoderForResultStreamingOfMergedValues(request
+                        .getResponseFormat());
+    }
+
     /**
      * Get the streaming observation value for the observations
      *
@@ -513,4 +866,32 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
         }
     }
 
+    /**
+     * Converted observations of a group of series.
+     */
+    private static class SeriesGroupResult {
+        private final List<OmObservation> observations;
+
+        private final Set<Long> seriesIds;
+
+        private final int valueCount;
+
+        SeriesGroupResult(List<OmObservation> observations, Set<Long> seriesIds, int valueCount) {
+            this.observations = observations;
+            this.seriesIds = seriesIds;
+            this.valueCount = valueCount;
+        }
+
+        List<OmObservation> getObservations() {
+            return observations;
+        }
+
+        Set<Long> getSeriesIds() {
+            return seriesIds;
+        }
+
+        int getValueCount() {
+            return valueCount;
+        }
+    }
 }
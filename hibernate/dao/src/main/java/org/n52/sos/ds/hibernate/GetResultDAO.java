@@ -58,6 +58,7 @@ import org.n52.sos.ds.hibernate.entities.observation.series.Series;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
 import org.n52.sos.ds.hibernate.util.QueryHelper;
 import org.n52.sos.ds.hibernate.util.ResultHandlingHelper;
+import org.n52.sos.ds.hibernate.util.ResultTemplateCache;
 import org.n52.sos.ds.hibernate.util.SpatialRestrictions;
 import org.n52.sos.ds.hibernate.util.TemporalRestrictions;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
@@ -116,9 +117,9 @@ public class GetResultDAO extends AbstractGetResultDAO {
             final List<ResultTemplate> resultTemplates = queryResultTemplate(request, featureIdentifier, session);
             if (isNotEmpty(resultTemplates)) {
                 final SosResultEncoding sosResultEncoding =
-                        new SosResultEncoding(resultTemplates.get(0).getResultEncoding());
+                        ResultTemplateCache.getInstance().getResultEncoding(resultTemplates.get(0));
                 final SosResultStructure sosResultStructure =
-                        new SosResultStructure(resultTemplates.get(0).getResultStructure());
+                        ResultTemplateCache.getInstance().getResultStructure(resultTemplates.get(0));
                 final List<Observation<?>> observations;
                 if (EntitiyHelper.getInstance().isSeriesObservationSupported()) {
                     observations = querySeriesObservation(request, featureIdentifier, session);
@@ -56,6 +56,7 @@ import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.ResultTemplate;
 import org.n52.sos.ds.hibernate.entities.Unit;
 import org.n52.sos.ds.hibernate.util.ResultHandlingHelper;
+import org.n52.sos.ds.hibernate.util.ResultTemplateCache;
 import org.n52.sos.ds.hibernate.util.observation.HibernateObservationUtilities;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
@@ -205,8 +206,8 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
     private OmObservation getSingleObservationFromResultValues(final String version,
             final ResultTemplate resultTemplate, final String resultValues, final Session session)
             throws OwsExceptionReport {
-        final SosResultEncoding resultEncoding = new SosResultEncoding(resultTemplate.getResultEncoding());
-        final SosResultStructure resultStructure = new SosResultStructure(resultTemplate.getResultStructure());
+        final SosResultEncoding resultEncoding = ResultTemplateCache.getInstance().getResultEncoding(resultTemplate);
+        final SosResultStructure resultStructure = ResultTemplateCache.getInstance().getResultStructure(resultTemplate);
         final String[] blockValues = getBlockValues(resultValues, resultEncoding.getEncoding());
         final OmObservation singleObservation =
                 getObservation(resultTemplate, blockValues, resultStructure.getResultStructure(),
@@ -44,10 +44,13 @@ import org.n52.sos.ds.CacheFeederDAO;
 import org.n52.sos.ds.HibernateDatasourceConstants;
 import org.n52.sos.ds.hibernate.cache.InitialCacheUpdate;
 import org.n52.sos.ds.hibernate.cache.base.OfferingCacheUpdate;
+import org.n52.sos.ds.hibernate.util.ResultTemplateCache;
+import org.n52.sos.ds.hibernate.util.feature.FeatureOfInterestStore;
 import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.CompositeOwsException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.cache.ObservationResponseCache;
 import org.n52.sos.util.CollectionHelper;
 import org.n52.sos.util.Validation;
 import org.slf4j.Logger;
@@ -95,6 +98,10 @@ public class SosCacheFeederDAO extends HibernateSessionHolder implements CacheFe
             long cacheUpdateStartTime = System.currentTimeMillis();
 
             update.execute();
+            // the datasource may have been changed without insertion events
+            FeatureOfInterestStore.getInstance().clear();
+            ObservationResponseCache.getInstance().clear();
+            ResultTemplateCache.getInstance().clear();
 
             logCacheLoadTime(cacheUpdateStartTime);
         } catch (Exception e) {
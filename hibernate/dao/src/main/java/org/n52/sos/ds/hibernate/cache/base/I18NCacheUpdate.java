@@ -34,6 +34,7 @@ import java.util.Locale;
 
 import org.n52.sos.ds.I18NDAO;
 import org.n52.sos.ds.hibernate.cache.AbstractThreadableDatasourceCacheUpdate;
+import org.n52.sos.ds.hibernate.dao.i18n.AbstractHibernateI18NDAO;
 import org.n52.sos.i18n.I18NDAORepository;
 import org.n52.sos.i18n.metadata.AbstractI18NMetadata;
 import org.n52.sos.i18n.metadata.I18NFeatureMetadata;
@@ -77,6 +78,10 @@ public class I18NCacheUpdate extends AbstractThreadableDatasourceCacheUpdate {
         I18NDAO<? extends AbstractI18NMetadata> dao
                 = I18NDAORepository.getInstance().getDAO(type);
         if (dao != null) {
+            // reload the in-memory metadata, the datasource may have changed
+            if (dao instanceof AbstractHibernateI18NDAO) {
+                ((AbstractHibernateI18NDAO<?, ?, ?>) dao).clearCache();
+            }
             return dao.getAvailableLocales();
         } else {
             return Collections.emptySet();
@@ -385,4 +385,25 @@ public class HibernateGetObservationHelper {
         }
         return false;
     }
+
+    /**
+     * Check if the {@link ObservationEncoder} merges observations with the
+     * same timeseries and streams the values of merged observations, so that
+     * only time and value of the observations are encoded.
+     *
+     * @param responseFormat
+     *            Response format
+     * @return <code>true</code>, if the {@link ObservationEncoder} streams the
+     *         values of merged observations.
+     */
+    public static boolean checkEncoderForResultStreamingOfMergedValues(String responseFormat) {
+        Encoder<XmlObject, OmObservation> encoder =
+                CodingRepository.getInstance().getEncoder(new XmlEncoderKey(responseFormat, OmObservation.class));
+        if (encoder != null && encoder instanceof ObservationEncoder) {
+            ObservationEncoder<?, OmObservation> observationEncoder = (ObservationEncoder<?, OmObservation>) encoder;
+            return observationEncoder.shouldObservationsWithSameXBeMerged()
+                    && observationEncoder.supportsResultStreamingForMergedValues();
+        }
+        return false;
+    }
 }
@@ -0,0 +1,207 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.convert.ConverterException;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.util.GroupedAndNamedThreadFactory;
+import org.n52.sos.util.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Bounded thread pool that executes the queries of groups of series of a
+ * GetObservation request concurrently. The pool is shared by all requests,
+ * so the number of threads limits the number of additionally used database
+ * connections. Idle threads are terminated.
+ *
+ * @since 4.4.0
+ */
+@Configurable
+public class ParallelSeriesQueryExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSeriesQueryExecutor.class);
+
+    private static final String THREAD_GROUP = "sos-series-query";
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static volatile ParallelSeriesQueryExecutor instance;
+
+    private volatile boolean enabled;
+
+    private volatile int minimumSeries;
+
+    private int threads;
+
+    private ThreadPoolExecutor executor;
+
+    public static ParallelSeriesQueryExecutor getInstance() {
+        ParallelSeriesQueryExecutor executor = instance;
+        if (executor == null) {
+            synchronized (ParallelSeriesQueryExecutor.class) {
+                if (instance == null) {
+                    executor = new ParallelSeriesQueryExecutor();
+                    SettingsManager.getInstance().configure(executor);
+                    instance = executor;
+                }
+                executor = instance;
+            }
+        }
+        return executor;
+    }
+
+    @Setting(ParallelSeriesQuerySettings.PARALLEL_SERIES_QUERY_ENABLED)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Setting(ParallelSeriesQuerySettings.PARALLEL_SERIES_QUERY_THREADS)
+    public synchronized void setThreads(int threads) throws ConfigurationException {
+        Validation.greaterZero("Parallel series query threads", threads);
+        if (this.threads != threads) {
+            this.threads = threads;
+            shutdown();
+        }
+    }
+
+    @Setting(ParallelSeriesQuerySettings.PARALLEL_SERIES_QUERY_MINIMUM_SERIES)
+    public void setMinimumSeries(int minimumSeries) throws ConfigurationException {
+        Validation.greaterZero("Minimum number of series", minimumSeries);
+        this.minimumSeries = minimumSeries;
+    }
+
+    /**
+     * @param seriesCount
+     *            the number of series matching a request
+     * @return <code>true</code>, if the observations of the series should be
+     *         queried in parallel
+     */
+    public synchronized boolean isParallel(int seriesCount) {
+        return enabled && threads > 1 && seriesCount > 1 && seriesCount >= minimumSeries;
+    }
+
+    /**
+     * Split the series into one group per thread. Groups are limited to
+     * {@link HibernateConstants#LIMIT_EXPRESSION_DEPTH} series to keep the
+     * <code>in</code> restriction of the group queries valid.
+     *
+     * @param series
+     *            the series (ids) to split
+     * @return the groups of series in the order of the series
+     */
+    public synchronized <T> List<List<T>> partition(List<T> series) {
+        int groupSize = (series.size() + threads - 1) / threads;
+        return Lists.partition(series, Math.max(1, Math.min(groupSize, HibernateConstants.LIMIT_EXPRESSION_DEPTH)));
+    }
+
+    /**
+     * Execute the tasks and wait for their completion.
+     *
+     * @param tasks
+     *            the tasks to execute
+     * @return the results in the order of the tasks
+     * @throws OwsExceptionReport
+     *             if a task failed with an {@link OwsExceptionReport} or the
+     *             execution was interrupted
+     * @throws ConverterException
+     *             if a task failed with a {@link ConverterException}
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) throws OwsExceptionReport, ConverterException {
+        List<Future<T>> futures;
+        try {
+            futures = getExecutor().invokeAll(tasks);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new NoApplicableCodeException().causedBy(ie).withMessage(
+                    "Interrupted while querying observations!");
+        }
+        List<T> results = Lists.newArrayListWithCapacity(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new NoApplicableCodeException().causedBy(ie).withMessage(
+                        "Interrupted while querying observations!");
+            } catch (ExecutionException ee) {
+                Throwable cause = ee.getCause();
+                if (cause instanceof OwsExceptionReport) {
+                    throw (OwsExceptionReport) cause;
+                } else if (cause instanceof ConverterException) {
+                    throw (ConverterException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new NoApplicableCodeException().causedBy(cause).withMessage(
+                        "Error while querying observations!");
+            }
+        }
+        return results;
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new GroupedAndNamedThreadFactory(THREAD_GROUP));
+            executor.allowCoreThreadTimeOut(true);
+            LOGGER.info("Created parallel series query executor with {} threads", threads);
+        }
+        return executor;
+    }
+
+    private synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+}
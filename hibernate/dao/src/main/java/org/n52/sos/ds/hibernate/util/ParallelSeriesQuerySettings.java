@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionGroup;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.BooleanSettingDefinition;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link SettingDefinitionProvider} for the concurrent querying of the
+ * observations of multi series GetObservation requests.
+ *
+ * @since 4.4.0
+ */
+public class ParallelSeriesQuerySettings implements SettingDefinitionProvider {
+
+    public static final String PARALLEL_SERIES_QUERY_ENABLED = "service.datasource.parallel.enabled";
+
+    public static final String PARALLEL_SERIES_QUERY_THREADS = "service.datasource.parallel.threads";
+
+    public static final String PARALLEL_SERIES_QUERY_MINIMUM_SERIES = "service.datasource.parallel.minimumSeries";
+
+    public static final SettingDefinitionGroup GROUP = new SettingDefinitionGroup()
+            .setTitle("Parallel Series Queries")
+            .setDescription("Settings to query the observations of GetObservation requests that match many series "
+                    + "concurrently on separate database connections. Only applies to non-streaming requests "
+                    + "without first/latest filter.")
+            .setOrder(ORDER_14);
+
+    public static final BooleanSettingDefinition PARALLEL_SERIES_QUERY_ENABLED_DEFINITION =
+            new BooleanSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_0)
+                    .setKey(PARALLEL_SERIES_QUERY_ENABLED)
+                    .setDefaultValue(false)
+                    .setTitle("Query series in parallel")
+                    .setDescription("Whether the matching series should be resolved first and their observations "
+                            + "queried in groups of series on separate sessions.");
+
+    public static final IntegerSettingDefinition PARALLEL_SERIES_QUERY_THREADS_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_1)
+                    .setKey(PARALLEL_SERIES_QUERY_THREADS)
+                    .setDefaultValue(4)
+                    .setMinimum(1)
+                    .setTitle("Parallel series query threads")
+                    .setDescription("The maximum number of concurrent series queries of all requests. Each query "
+                            + "holds a database connection, so the value should be lower than the connection "
+                            + "pool size.");
+
+    public static final IntegerSettingDefinition PARALLEL_SERIES_QUERY_MINIMUM_SERIES_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_2)
+                    .setKey(PARALLEL_SERIES_QUERY_MINIMUM_SERIES)
+                    .setDefaultValue(8)
+                    .setMinimum(2)
+                    .setTitle("Minimum number of series")
+                    .setDescription("The minimum number of matching series a request needs to be queried in "
+                            + "parallel. Requests with fewer series are queried with a single query.");
+
+    private static final Set<SettingDefinition<?, ?>> DEFINITIONS = ImmutableSet.<SettingDefinition<?, ?>> of(
+            PARALLEL_SERIES_QUERY_ENABLED_DEFINITION, PARALLEL_SERIES_QUERY_THREADS_DEFINITION,
+            PARALLEL_SERIES_QUERY_MINIMUM_SERIES_DEFINITION);
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return Collections.unmodifiableSet(DEFINITIONS);
+    }
+
+}
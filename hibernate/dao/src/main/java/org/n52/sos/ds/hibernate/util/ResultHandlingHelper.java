@@ -28,7 +28,7 @@
  */
 package org.n52.sos.ds.hibernate.util;
 
-import static org.n52.sos.util.DateTimeHelper.formatDateTime2IsoString;
+import static org.n52.sos.util.DateTimeHelper.appendIsoString;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -261,12 +261,10 @@ public class ResultHandlingHelper {
         }
 
         final StringBuilder builder = new StringBuilder();
-        if (phenomenonTimeEnd == null || phenomenonTimeStart.equals(phenomenonTimeEnd)) {
-            builder.append(formatDateTime2IsoString(new DateTime(phenomenonTimeStart, DateTimeZone.UTC)));
-        } else {
-            builder.append(formatDateTime2IsoString(new DateTime(phenomenonTimeStart, DateTimeZone.UTC)));
+        appendIsoString(builder, new DateTime(phenomenonTimeStart, DateTimeZone.UTC));
+        if (phenomenonTimeEnd != null && !phenomenonTimeStart.equals(phenomenonTimeEnd)) {
             builder.append('/');
-            builder.append(formatDateTime2IsoString(new DateTime(phenomenonTimeEnd, DateTimeZone.UTC)));
+            appendIsoString(builder, new DateTime(phenomenonTimeEnd, DateTimeZone.UTC));
         }
         return builder.toString();
     }
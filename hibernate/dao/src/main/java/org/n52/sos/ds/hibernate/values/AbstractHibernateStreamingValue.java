@@ -31,6 +31,7 @@ package org.n52.sos.ds.hibernate.values;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -93,6 +94,8 @@ public abstract class AbstractHibernateStreamingValue extends StreamingValue<Abs
 
     protected Criterion temporalFilterCriterion;
 
+    private transient Map<String, OmObservation> openObservations;
+
     @Override
     public Collection<OmObservation> mergeObservation() throws OwsExceptionReport {
 
@@ -118,6 +121,50 @@ public abstract class AbstractHibernateStreamingValue extends StreamingValue<Abs
         return observations.values();
     }
 
+    /**
+     * Merge the values like {@link #mergeObservation()}, but return the
+     * merged observations one by one. Observations of values that can not be
+     * merged are returned immediately.
+     */
+    @Override
+    public OmObservation nextMergedObservation(int maxOpenObservations) throws OwsExceptionReport {
+        if (openObservations == null) {
+            openObservations = Maps.newLinkedHashMap();
+        }
+        while (hasNextValue()) {
+            AbstractValuedLegacyObservation<?> nextEntity = nextEntity();
+            boolean mergableObservationValue = checkForMergability(nextEntity);
+            OmObservation observation = null;
+            if (openObservations.containsKey(nextEntity.getDiscriminator()) && mergableObservationValue) {
+                observation = openObservations.get(nextEntity.getDiscriminator());
+            } else {
+                observation = observationTemplate.cloneTemplate();
+                addSpecificValuesToObservation(observation, nextEntity, request.getExtensions());
+            }
+            nextEntity.mergeValueToObservation(observation, getResponseFormat());
+            sessionHolder.getSession().evict(nextEntity);
+            if (!mergableObservationValue) {
+                return observation;
+            } else if (!openObservations.containsKey(nextEntity.getDiscriminator())) {
+                openObservations.put(nextEntity.getDiscriminator(), observation);
+                if (openObservations.size() > maxOpenObservations) {
+                    return pollOpenObservation();
+                }
+            }
+        }
+        return pollOpenObservation();
+    }
+
+    private OmObservation pollOpenObservation() {
+        Iterator<OmObservation> iterator = openObservations.values().iterator();
+        if (iterator.hasNext()) {
+            OmObservation observation = iterator.next();
+            iterator.remove();
+            return observation;
+        }
+        return null;
+    }
+
     private boolean checkForMergability(AbstractValuedLegacyObservation<?> nextEntity) {
         return !(nextEntity instanceof SweDataArrayValuedLegacyObservation);
     }
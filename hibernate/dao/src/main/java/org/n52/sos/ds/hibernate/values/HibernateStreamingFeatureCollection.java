@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.values;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.n52.sos.ds.FeatureQueryHandlerQueryObject;
+import org.n52.sos.ds.hibernate.HibernateSessionHolder;
+import org.n52.sos.ds.hibernate.util.feature.FeatureOfInterestStore;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.i18n.LocaleHelper;
+import org.n52.sos.ogc.filter.SpatialFilter;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.om.features.StreamingFeatureCollection;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.request.GetFeatureOfInterestRequest;
+import org.n52.sos.service.Configurator;
+import org.n52.sos.util.http.HTTPStatus;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Hibernate streaming feature collection implementation. The features are
+ * queried in chunks of identifiers, ordered by identifier, from the feature
+ * query handler.
+ *
+ * @since 4.4.0
+ *
+ */
+public class HibernateStreamingFeatureCollection extends StreamingFeatureCollection {
+
+    private static final long serialVersionUID = -3427385165620873526L;
+
+    private final HibernateSessionHolder sessionHolder = new HibernateSessionHolder();
+
+    private final List<String> identifiers;
+
+    private final List<SpatialFilter> spatialFilters;
+
+    private final String version;
+
+    private final Locale locale;
+
+    private final int chunkSize;
+
+    private int currentRow;
+
+    private Iterator<AbstractFeature> featuresResult = Collections.<AbstractFeature> emptyIterator();
+
+    /**
+     * constructor
+     *
+     * @param request
+     *            {@link GetFeatureOfInterestRequest}
+     * @param identifiers
+     *            Identifiers of the features to stream
+     */
+    public HibernateStreamingFeatureCollection(GetFeatureOfInterestRequest request, Collection<String> identifiers) {
+        this.identifiers = Lists.newArrayList(identifiers);
+        Collections.sort(this.identifiers);
+        this.spatialFilters = request.getSpatialFilters();
+        this.version = request.getVersion();
+        this.locale = LocaleHelper.fromRequest(request);
+        int chunkSize = HibernateStreamingConfiguration.getInstance().getChunkSize();
+        this.chunkSize = chunkSize > 0 ? chunkSize : Math.max(this.identifiers.size(), 1);
+    }
+
+    @Override
+    public boolean hasNextFeature() throws OwsExceptionReport {
+        while (!featuresResult.hasNext() && currentRow < identifiers.size()) {
+            getNextResults();
+        }
+        return featuresResult.hasNext();
+    }
+
+    @Override
+    public AbstractFeature nextFeature() throws OwsExceptionReport {
+        if (hasNextFeature()) {
+            AbstractFeature feature = featuresResult.next();
+            checkForModifications(feature);
+            return feature;
+        }
+        return null;
+    }
+
+    /**
+     * Get the features of the next chunk of identifiers from the feature query
+     * handler
+     *
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the next features
+     */
+    private void getNextResults() throws OwsExceptionReport {
+        List<String> chunk = identifiers.subList(currentRow, Math.min(currentRow + chunkSize, identifiers.size()));
+        currentRow += chunk.size();
+        Session session = null;
+        try {
+            session = sessionHolder.getSession();
+            FeatureQueryHandlerQueryObject queryObject = new FeatureQueryHandlerQueryObject()
+                .setFeatureIdentifiers(chunk)
+                .setSpatialFilters(spatialFilters)
+                .setConnection(session)
+                .setVersion(version)
+                .setI18N(locale);
+            Map<String, AbstractFeature> features = FeatureOfInterestStore.getInstance().getFeatures(queryObject,
+                    Configurator.getInstance().getFeatureQueryHandler());
+            featuresResult = new TreeMap<String, AbstractFeature>(features).values().iterator();
+        } catch (final HibernateException he) {
+            throw new NoApplicableCodeException().causedBy(he).withMessage("Error while querying feature data!")
+                    .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            sessionHolder.returnSession(session);
+        }
+    }
+
+}
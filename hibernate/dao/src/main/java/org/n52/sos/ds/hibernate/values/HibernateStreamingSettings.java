@@ -60,9 +60,9 @@ public class HibernateStreamingSettings implements SettingDefinitionProvider {
                     .setOrder(ORDER_1)
                     .setKey(FORCE_DATASOURCE_STREAMING)
                     .setDefaultValue(HibernateStreamingConfiguration.DEFAULT_STREAMING_DATASOURCE)
-                    .setTitle("Should this service stream datasource values (currently only GetObservation) to encoder?")
+                    .setTitle("Should this service stream datasource values (currently only GetObservation and GetFeatureOfInterest) to encoder?")
                     .setDescription(
-                            "Whether the service should stream datasource values (currently only GetObservation) to encoder if it is supported by the datasource! This reduces the memory usage.");
+                            "Whether the service should stream datasource values (currently only GetObservation and GetFeatureOfInterest) to encoder if it is supported by the datasource! This reduces the memory usage.");
 
     public static final BooleanSettingDefinition DATASOURCE_STREAMING_APPROACH_DEFINITION =
             new BooleanSettingDefinition()
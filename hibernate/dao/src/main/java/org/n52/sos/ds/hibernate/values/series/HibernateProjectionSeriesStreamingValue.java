@@ -0,0 +1,315 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.values.series;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.n52.sos.ds.hibernate.entities.observation.legacy.AbstractValuedLegacyObservation;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
+import org.n52.sos.exception.CodedException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.gml.time.Time;
+import org.n52.sos.ogc.om.OmConstants;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.om.SingleObservationValue;
+import org.n52.sos.ogc.om.TimeValuePair;
+import org.n52.sos.ogc.om.values.BooleanValue;
+import org.n52.sos.ogc.om.values.CategoryValue;
+import org.n52.sos.ogc.om.values.CountValue;
+import org.n52.sos.ogc.om.values.QuantityValue;
+import org.n52.sos.ogc.om.values.TextValue;
+import org.n52.sos.ogc.om.values.Value;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.request.GetObservationRequest;
+import org.n52.sos.util.CollectionHelper;
+import org.n52.sos.util.OMHelper;
+import org.n52.sos.util.http.HTTPStatus;
+
+/**
+ * Hibernate series streaming value implementation for chunk results that
+ * queries only phenomenon time, result time and value as scalar projections
+ * instead of hydrating the observation entities. Observation metadata like
+ * identifier, description or parameter are not available, so this should only
+ * be used if the encoder streams the values of a merged observation.
+ *
+ * @author Carsten Hollmann <c.hollmann@52north.org>
+ * @since 4.4.0
+ *
+ */
+public class HibernateProjectionSeriesStreamingValue extends HibernateSeriesStreamingValue {
+
+    private static final long serialVersionUID = 6195356487151532318L;
+
+    private static final int PHENOMENON_TIME_START = 0;
+
+    private static final int PHENOMENON_TIME_END = 1;
+
+    private static final int RESULT_TIME = 2;
+
+    private static final int VALUE = 3;
+
+    private final String seriesType;
+
+    private Iterator<Object[]> seriesValuesResult;
+
+    private int chunkSize;
+
+    private int currentRow;
+
+    private boolean noChunk = false;
+
+    private int currentResultSize = 0;
+
+    /**
+     * constructor
+     *
+     * @param request
+     *            {@link GetObservationRequest}
+     * @param series
+     *            Datasource series id
+     * @param seriesType
+     *            Series type, e.g. <code>measurement</code>
+     * @throws CodedException
+     */
+    public HibernateProjectionSeriesStreamingValue(GetObservationRequest request, long series, String seriesType)
+            throws CodedException {
+        super(request, series);
+        this.seriesType = seriesType;
+        this.chunkSize = HibernateStreamingConfiguration.getInstance().getChunkSize();
+    }
+
+    @Override
+    public boolean hasNextValue() throws OwsExceptionReport {
+        boolean next = false;
+        if (seriesValuesResult == null || !seriesValuesResult.hasNext()) {
+            if (!noChunk) {
+                getNextResults();
+                if (chunkSize <= 0 || currentResultSize < chunkSize) {
+                    noChunk = true;
+                }
+            }
+        }
+        if (seriesValuesResult != null) {
+            next = seriesValuesResult.hasNext();
+        }
+        if (!next) {
+            sessionHolder.returnSession(session);
+        }
+        return next;
+    }
+
+    @Override
+    public AbstractValuedLegacyObservation<?> nextEntity() throws OwsExceptionReport {
+        throw new NoApplicableCodeException().withMessage("Projected streaming values do not provide entities!")
+                .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Override
+    public TimeValuePair nextValue() throws OwsExceptionReport {
+        if (hasNextValue()) {
+            Object[] row = seriesValuesResult.next();
+            return new TimeValuePair(createPhenomenonTime(row), createValue(row));
+        }
+        return null;
+    }
+
+    @Override
+    public OmObservation nextSingleObservation() throws OwsExceptionReport {
+        if (hasNextValue()) {
+            OmObservation observation = observationTemplate.cloneTemplate();
+            addValueToObservation(observation, seriesValuesResult.next());
+            checkForModifications(observation);
+            return observation;
+        }
+        return null;
+    }
+
+    /**
+     * Merge all projected rows into a single observation.
+     * <p>
+     * In contrast to
+     * {@link org.n52.sos.ds.hibernate.values.AbstractHibernateStreamingValue#mergeObservation()}
+     * the rows are neither split by discriminator nor enriched with value
+     * specific data. Projections are only queried for the observation classes
+     * listed in
+     * {@link org.n52.sos.ds.hibernate.dao.observation.series.SeriesValueDAO},
+     * which are all mergeable, return a <code>null</code> discriminator and do
+     * not add value specific data, so the entity path yields a single
+     * observation for them as well.
+     */
+    @Override
+    public Collection<OmObservation> mergeObservation() throws OwsExceptionReport {
+        OmObservation observation = null;
+        while (hasNextValue()) {
+            Object[] row = seriesValuesResult.next();
+            if (observation == null) {
+                observation = observationTemplate.cloneTemplate();
+                addValueToObservation(observation, row);
+            } else {
+                if (!OmConstants.OBS_TYPE_SWE_ARRAY_OBSERVATION.equals(observation.getObservationConstellation()
+                        .getObservationType())) {
+                    observation.getObservationConstellation().setObservationType(
+                            OmConstants.OBS_TYPE_SWE_ARRAY_OBSERVATION);
+                }
+                observation.mergeWithObservation(createSingleObservationValue(row));
+            }
+        }
+        if (observation == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(observation);
+    }
+
+    /**
+     * All projected rows are merged into a single observation, see
+     * {@link #mergeObservation()}.
+     */
+    @Override
+    public OmObservation nextMergedObservation(int maxOpenObservations) throws OwsExceptionReport {
+        Collection<OmObservation> observations = mergeObservation();
+        return observations.isEmpty() ? null : observations.iterator().next();
+    }
+
+    /**
+     * Add phenomenon time, result time and value of the projected row to the
+     * {@link OmObservation}
+     *
+     * @param observation
+     *            {@link OmObservation} to add data
+     * @param row
+     *            Projected row
+     * @throws OwsExceptionReport
+     *             If an error occurs when getting the observation type
+     */
+    private void addValueToObservation(OmObservation observation, Object[] row) throws OwsExceptionReport {
+        SingleObservationValue<?> value = createSingleObservationValue(row);
+        if (!observation.getObservationConstellation().isSetObservationType()) {
+            observation.getObservationConstellation().setObservationType(
+                    OMHelper.getObservationTypeFor(value.getValue()));
+        }
+        observation.setResultTime(createResutlTime((Date) row[RESULT_TIME]));
+        observation.setValue(value);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private SingleObservationValue<?> createSingleObservationValue(Object[] row) {
+        return new SingleObservationValue(createPhenomenonTime(row), createValue(row));
+    }
+
+    private Time createPhenomenonTime(Object[] row) {
+        DateTime start = new DateTime(row[PHENOMENON_TIME_START], DateTimeZone.UTC);
+        DateTime end = start;
+        if (row[PHENOMENON_TIME_END] != null) {
+            end = new DateTime(row[PHENOMENON_TIME_END], DateTimeZone.UTC);
+        }
+        return createTime(start, end);
+    }
+
+    /**
+     * Create the internal {@link Value} for the projected value column
+     * according to the series type. The unit is added as in
+     * {@link org.n52.sos.ds.hibernate.util.observation.ObservationValueCreator}.
+     *
+     * @param row
+     *            Projected row
+     * @return Internal {@link Value}
+     */
+    private Value<?> createValue(Object[] row) {
+        Object value = row[VALUE];
+        Value<?> v;
+        switch (seriesType) {
+        case "measurement":
+            v = new QuantityValue(value == null ? null : ((Number) value).doubleValue());
+            break;
+        case "count":
+            return new CountValue(value == null ? null : ((Number) value).intValue());
+        case "category":
+            v = new CategoryValue((String) value);
+            break;
+        case "boolean":
+            v = new BooleanValue((Boolean) value);
+            break;
+        case "text":
+            v = new TextValue((String) value);
+            break;
+        default:
+            throw new IllegalStateException("Unsupported series type for projected values: " + seriesType);
+        }
+        if (isSetUnit()) {
+            v.setUnit(getUnit());
+        }
+        return v;
+    }
+
+    /**
+     * Get the next results from database
+     *
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the next results
+     */
+    private void getNextResults() throws OwsExceptionReport {
+        if (session == null) {
+            session = sessionHolder.getSession();
+        }
+        try {
+            List<Object[]> seriesValuesResult =
+                    seriesValueDAO.getStreamingSeriesValueProjectionsFor(request, series, seriesType,
+                            temporalFilterCriterion, chunkSize, currentRow, session);
+            currentRow += chunkSize;
+            checkMaxNumberOfReturnedValues(seriesValuesResult.size());
+            setSeriesValuesResult(seriesValuesResult);
+        } catch (final HibernateException he) {
+            sessionHolder.returnSession(session);
+            throw new NoApplicableCodeException().causedBy(he).withMessage("Error while querying observation data!")
+                    .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Check the queried rows for null and set them as iterator to local
+     * variable.
+     *
+     * @param seriesValuesResult
+     *            Queried rows
+     */
+    private void setSeriesValuesResult(List<Object[]> seriesValuesResult) {
+        if (CollectionHelper.isNotEmpty(seriesValuesResult)) {
+            this.currentResultSize = seriesValuesResult.size();
+            this.seriesValuesResult = seriesValuesResult.iterator();
+        }
+    }
+
+}
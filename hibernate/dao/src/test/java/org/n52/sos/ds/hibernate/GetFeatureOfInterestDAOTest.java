@@ -0,0 +1,259 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.cache.ContentCache;
+import org.n52.sos.cache.InMemoryCacheImpl;
+import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
+import org.n52.sos.ds.hibernate.entities.FeatureOfInterestType;
+import org.n52.sos.ds.hibernate.entities.ObservableProperty;
+import org.n52.sos.ds.hibernate.entities.ProcedureDescriptionFormat;
+import org.n52.sos.ds.hibernate.entities.TProcedure;
+import org.n52.sos.ds.hibernate.entities.observation.series.Series;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.request.GetFeatureOfInterestRequest;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Test that the featureOfInterest identifiers resolved from the content cache
+ * by {@link GetFeatureOfInterestDAO} are equal to the queried ones.
+ *
+ * @since 4.4.0
+ *
+ */
+public class GetFeatureOfInterestDAOTest extends HibernateTestCase {
+
+    private static final String PROCEDURE_1 = "procedure1";
+
+    private static final String PROCEDURE_2 = "procedure2";
+
+    private static final String PROCEDURE_3 = "procedure3";
+
+    private static final String OBSERVABLE_PROPERTY_1 = "observableProperty1";
+
+    private static final String OBSERVABLE_PROPERTY_2 = "observableProperty2";
+
+    private static final String OBSERVABLE_PROPERTY_3 = "observableProperty3";
+
+    private static final String FEATURE_1 = "feature1";
+
+    private static final String FEATURE_2 = "feature2";
+
+    private static final String FEATURE_3 = "feature3";
+
+    private final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+
+    private final GetFeatureOfInterestDAO dao = new GetFeatureOfInterestDAO() {
+        @Override
+        protected ContentCache getCache() {
+            return cache;
+        }
+    };
+
+    /**
+     * procedure1 observes observableProperty1 at feature1 and
+     * observableProperty2 at feature2, procedure2 observes observableProperty1
+     * at feature3 and procedure3 observes observableProperty3 at feature1.
+     */
+    @Before
+    public void createSeries() {
+        Session session = null;
+        Transaction transaction = null;
+        try {
+            session = getSession();
+            transaction = session.beginTransaction();
+            FeatureOfInterestType featureOfInterestType = new FeatureOfInterestType();
+            featureOfInterestType.setFeatureOfInterestType("featureOfInterestType");
+            session.save(featureOfInterestType);
+            ProcedureDescriptionFormat procedureDescriptionFormat = new ProcedureDescriptionFormat();
+            procedureDescriptionFormat.setProcedureDescriptionFormat("procedureDescriptionFormat");
+            session.save(procedureDescriptionFormat);
+
+            Map<String, FeatureOfInterest> features = Maps.newHashMap();
+            for (String identifier : Arrays.asList(FEATURE_1, FEATURE_2, FEATURE_3)) {
+                FeatureOfInterest feature = new FeatureOfInterest();
+                feature.setFeatureOfInterestType(featureOfInterestType);
+                feature.setIdentifier(identifier);
+                session.save(feature);
+                features.put(identifier, feature);
+            }
+            Map<String, ObservableProperty> observableProperties = Maps.newHashMap();
+            for (String identifier : Arrays.asList(OBSERVABLE_PROPERTY_1, OBSERVABLE_PROPERTY_2,
+                    OBSERVABLE_PROPERTY_3)) {
+                ObservableProperty observableProperty = new ObservableProperty();
+                observableProperty.setIdentifier(identifier);
+                session.save(observableProperty);
+                observableProperties.put(identifier, observableProperty);
+            }
+            Map<String, TProcedure> procedures = Maps.newHashMap();
+            for (String identifier : Arrays.asList(PROCEDURE_1, PROCEDURE_2, PROCEDURE_3)) {
+                TProcedure procedure = new TProcedure();
+                procedure.setDeleted(false);
+                procedure.setIdentifier(identifier);
+                procedure.setProcedureDescriptionFormat(procedureDescriptionFormat);
+                session.save(procedure);
+                procedures.put(identifier, procedure);
+            }
+
+            session.save(series(procedures.get(PROCEDURE_1), observableProperties.get(OBSERVABLE_PROPERTY_1),
+                    features.get(FEATURE_1)));
+            session.save(series(procedures.get(PROCEDURE_1), observableProperties.get(OBSERVABLE_PROPERTY_2),
+                    features.get(FEATURE_2)));
+            session.save(series(procedures.get(PROCEDURE_2), observableProperties.get(OBSERVABLE_PROPERTY_1),
+                    features.get(FEATURE_3)));
+            session.save(series(procedures.get(PROCEDURE_3), observableProperties.get(OBSERVABLE_PROPERTY_3),
+                    features.get(FEATURE_1)));
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            returnSession(session);
+        }
+
+        cache.setFeaturesOfInterest(Sets.newHashSet(FEATURE_1, FEATURE_2, FEATURE_3));
+        cache.setProceduresForFeatureOfInterest(FEATURE_1, Sets.newHashSet(PROCEDURE_1, PROCEDURE_3));
+        cache.setProceduresForFeatureOfInterest(FEATURE_2, Sets.newHashSet(PROCEDURE_1));
+        cache.setProceduresForFeatureOfInterest(FEATURE_3, Sets.newHashSet(PROCEDURE_2));
+        cache.setObservablePropertiesForProcedure(PROCEDURE_1,
+                Sets.newHashSet(OBSERVABLE_PROPERTY_1, OBSERVABLE_PROPERTY_2));
+        cache.setObservablePropertiesForProcedure(PROCEDURE_2, Sets.newHashSet(OBSERVABLE_PROPERTY_1));
+        cache.setObservablePropertiesForProcedure(PROCEDURE_3, Sets.newHashSet(OBSERVABLE_PROPERTY_3));
+        cache.setProceduresForObservableProperty(OBSERVABLE_PROPERTY_1, Sets.newHashSet(PROCEDURE_1, PROCEDURE_2));
+        cache.setProceduresForObservableProperty(OBSERVABLE_PROPERTY_2, Sets.newHashSet(PROCEDURE_1));
+        cache.setProceduresForObservableProperty(OBSERVABLE_PROPERTY_3, Sets.newHashSet(PROCEDURE_3));
+    }
+
+    @After
+    public void cleanUp() {
+        H2Configuration.truncate();
+    }
+
+    @Test
+    public void should_resolve_same_features_for_procedures() throws OwsExceptionReport {
+        GetFeatureOfInterestRequest request = request();
+        request.setProcedures(Arrays.asList(PROCEDURE_1));
+        assertSameFeatures(request, FEATURE_1, FEATURE_2);
+    }
+
+    @Test
+    public void should_resolve_same_features_for_observable_properties() throws OwsExceptionReport {
+        GetFeatureOfInterestRequest request = request();
+        request.setObservedProperties(Arrays.asList(OBSERVABLE_PROPERTY_1, OBSERVABLE_PROPERTY_2));
+        assertSameFeatures(request, FEATURE_1, FEATURE_2, FEATURE_3);
+    }
+
+    @Test
+    public void should_resolve_same_features_for_procedures_and_observable_properties() throws OwsExceptionReport {
+        GetFeatureOfInterestRequest request = request();
+        request.setProcedures(Arrays.asList(PROCEDURE_1, PROCEDURE_3));
+        request.setObservedProperties(Arrays.asList(OBSERVABLE_PROPERTY_3));
+        assertSameFeatures(request, FEATURE_1);
+    }
+
+    @Test
+    public void should_resolve_same_features_for_features_and_procedures() throws OwsExceptionReport {
+        GetFeatureOfInterestRequest request = request();
+        request.setFeatureIdentifiers(Arrays.asList(FEATURE_1, FEATURE_3));
+        request.setProcedures(Arrays.asList(PROCEDURE_2));
+        assertSameFeatures(request, FEATURE_3);
+    }
+
+    @Test
+    public void should_not_resolve_features_if_procedure_observes_not_requested_observable_property() {
+        GetFeatureOfInterestRequest request = request();
+        request.setObservedProperties(Arrays.asList(OBSERVABLE_PROPERTY_1));
+        assertThat(dao.getProceduresFromCache(request), is(nullValue()));
+        assertThat(dao.getFeatureIdentifiersFromCache(request), is(nullValue()));
+    }
+
+    @Test
+    public void should_resolve_procedures_for_observable_properties() {
+        GetFeatureOfInterestRequest request = request();
+        request.setObservedProperties(Arrays.asList(OBSERVABLE_PROPERTY_1, OBSERVABLE_PROPERTY_2));
+        assertThat(dao.getProceduresFromCache(request), containsInAnyOrder(PROCEDURE_1, PROCEDURE_2));
+        request.setProcedures(Arrays.asList(PROCEDURE_2));
+        assertThat(dao.getProceduresFromCache(request), contains(PROCEDURE_2));
+    }
+
+    private void assertSameFeatures(GetFeatureOfInterestRequest request, String... expected)
+            throws OwsExceptionReport {
+        Set<String> queried;
+        Session session = null;
+        try {
+            session = getSession();
+            queried = new HashSet<String>(dao.queryFeatureIdentifiersForParameter(request, session));
+        } finally {
+            returnSession(session);
+        }
+        Set<String> fromCache = dao.getFeatureIdentifiersFromCache(request);
+        assertThat(queried, is((Set<String>) Sets.newHashSet(expected)));
+        assertThat(fromCache, is(queried));
+    }
+
+    private Series series(TProcedure procedure, ObservableProperty observableProperty,
+            FeatureOfInterest featureOfInterest) {
+        Series series = new Series();
+        series.setProcedure(procedure);
+        series.setObservableProperty(observableProperty);
+        series.setFeatureOfInterest(featureOfInterest);
+        series.setDeleted(false);
+        series.setPublished(true);
+        return series;
+    }
+
+    private GetFeatureOfInterestRequest request() {
+        GetFeatureOfInterestRequest request = new GetFeatureOfInterestRequest();
+        request.setService(SosConstants.SOS);
+        request.setVersion(Sos2Constants.SERVICEVERSION);
+        return request;
+    }
+}
@@ -35,6 +35,8 @@ import org.junit.Test;
 
 import org.n52.sos.cache.InMemoryCacheImpl;
 import org.n52.sos.cache.WritableContentCache;
+import org.n52.sos.ds.hibernate.entities.ResultTemplate;
+import org.n52.sos.ds.hibernate.util.ResultTemplateCache;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 
 /**
@@ -59,6 +61,21 @@ public class SosCacheFeederDAOTest extends HibernateTestCase {
         testCacheResult(cache);
     }
 
+    @Test
+    public void updateCacheClearsDecodedResultTemplates() throws OwsExceptionReport {
+        ResultTemplate resultTemplate = new ResultTemplate();
+        resultTemplate.setIdentifier("resultTemplate");
+        resultTemplate.setResultStructure("<swe:DataRecord xmlns:swe=\"http://www.opengis.net/swe/2.0\">"
+                + "<swe:field name=\"value\"><swe:Quantity definition=\"observableProperty\"/></swe:field>"
+                + "</swe:DataRecord>");
+        resultTemplate.setResultEncoding("<swe:TextEncoding xmlns:swe=\"http://www.opengis.net/swe/2.0\" "
+                + "tokenSeparator=\",\" blockSeparator=\"#\"/>");
+        ResultTemplateCache.getInstance().getResultStructure(resultTemplate);
+        assertThat(ResultTemplateCache.getInstance().getSize(), is(1));
+        instance.updateCache(new InMemoryCacheImpl());
+        assertThat(ResultTemplateCache.getInstance().getSize(), is(0));
+    }
+
     @Test(expected = NullPointerException.class)
     public void updateNullThrowsNullPointerException() throws OwsExceptionReport {
         instance.updateCache(null);
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.convert.ConverterException;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+
+import com.google.common.collect.Lists;
+
+public class ParallelSeriesQueryExecutorTest {
+
+    private ParallelSeriesQueryExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = new ParallelSeriesQueryExecutor();
+        executor.setEnabled(true);
+        executor.setThreads(3);
+        executor.setMinimumSeries(4);
+    }
+
+    @Test
+    public void shouldOnlyBeParallelForEnoughSeries() {
+        assertThat(executor.isParallel(3), is(false));
+        assertThat(executor.isParallel(4), is(true));
+        executor.setEnabled(false);
+        assertThat(executor.isParallel(4), is(false));
+    }
+
+    @Test
+    public void shouldPartitionIntoOneGroupPerThread() {
+        List<List<Integer>> groups = executor.partition(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        assertThat(groups, hasSize(3));
+        assertThat(groups.get(0), contains(1, 2, 3, 4));
+        assertThat(groups.get(2), contains(9, 10));
+    }
+
+    @Test
+    public void shouldReturnResultsInTaskOrder() throws OwsExceptionReport, ConverterException {
+        List<Callable<Integer>> tasks = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            final int value = i;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    Thread.sleep(10 - value);
+                    return value;
+                }
+            });
+        }
+        assertThat(executor.invokeAll(tasks), contains(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+    }
+
+    @Test(expected = InvalidParameterValueException.class)
+    public void shouldRethrowExceptionReports() throws OwsExceptionReport, ConverterException {
+        List<Callable<Integer>> tasks = Lists.newArrayList();
+        tasks.add(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                throw new InvalidParameterValueException("parameter", "value");
+            }
+        });
+        executor.invokeAll(tasks);
+    }
+
+}
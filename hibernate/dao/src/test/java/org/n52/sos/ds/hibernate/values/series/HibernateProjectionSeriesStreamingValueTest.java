@@ -0,0 +1,315 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.values.series;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.ds.hibernate.H2Configuration;
+import org.n52.sos.ds.hibernate.HibernateTestCase;
+import org.n52.sos.ds.hibernate.entities.Codespace;
+import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
+import org.n52.sos.ds.hibernate.entities.FeatureOfInterestType;
+import org.n52.sos.ds.hibernate.entities.ObservableProperty;
+import org.n52.sos.ds.hibernate.entities.ProcedureDescriptionFormat;
+import org.n52.sos.ds.hibernate.entities.TProcedure;
+import org.n52.sos.ds.hibernate.entities.Unit;
+import org.n52.sos.ds.hibernate.entities.observation.series.AbstractSeriesObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.Series;
+import org.n52.sos.ds.hibernate.entities.observation.series.full.SeriesBooleanObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.full.SeriesCategoryObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.full.SeriesCountObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.full.SeriesNumericObservation;
+import org.n52.sos.ds.hibernate.entities.observation.series.full.SeriesTextObservation;
+import org.n52.sos.ds.hibernate.values.AbstractHibernateStreamingValue;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
+import org.n52.sos.ogc.om.OmConstants;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.om.OmObservationConstellation;
+import org.n52.sos.ogc.om.TimeValuePair;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.request.GetObservationRequest;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Test that {@link HibernateProjectionSeriesStreamingValue} returns the same
+ * values as {@link HibernateChunkSeriesStreamingValue} for the supported
+ * series types.
+ *
+ * @since 4.4.0
+ *
+ */
+public class HibernateProjectionSeriesStreamingValueTest extends HibernateTestCase {
+
+    private static final String UNIT = "unit";
+
+    private static final int CHUNK_SIZE = 2;
+
+    private static final Date[] TIMES = { new Date(1000L), new Date(2000L), new Date(3000L) };
+
+    private int chunkSize;
+
+    @Before
+    public void setChunkSize() {
+        chunkSize = HibernateStreamingConfiguration.getInstance().getChunkSize();
+        HibernateStreamingConfiguration.getInstance().setChunkSize(CHUNK_SIZE);
+    }
+
+    @After
+    public void cleanUp() {
+        HibernateStreamingConfiguration.getInstance().setChunkSize(chunkSize);
+        H2Configuration.truncate();
+    }
+
+    @Test
+    public void should_return_same_values_for_measurement() throws OwsExceptionReport {
+        long series = createSeries("measurement");
+        for (int i = 0; i < TIMES.length; i++) {
+            SeriesNumericObservation observation = new SeriesNumericObservation();
+            observation.setValue(1.5 * i);
+            saveObservation(observation, series, TIMES[i], i == 1);
+        }
+        assertSameValues(series, "measurement");
+    }
+
+    @Test
+    public void should_return_same_values_for_count() throws OwsExceptionReport {
+        long series = createSeries("count");
+        for (int i = 0; i < TIMES.length; i++) {
+            SeriesCountObservation observation = new SeriesCountObservation();
+            observation.setValue(i);
+            saveObservation(observation, series, TIMES[i], i == 1);
+        }
+        assertSameValues(series, "count");
+    }
+
+    @Test
+    public void should_return_same_values_for_category() throws OwsExceptionReport {
+        long series = createSeries("category");
+        for (int i = 0; i < TIMES.length; i++) {
+            SeriesCategoryObservation observation = new SeriesCategoryObservation();
+            observation.setValue("category" + i);
+            saveObservation(observation, series, TIMES[i], i == 1);
+        }
+        assertSameValues(series, "category");
+    }
+
+    @Test
+    public void should_return_same_values_for_boolean() throws OwsExceptionReport {
+        long series = createSeries("boolean");
+        for (int i = 0; i < TIMES.length; i++) {
+            SeriesBooleanObservation observation = new SeriesBooleanObservation();
+            observation.setValue(i % 2 == 0);
+            saveObservation(observation, series, TIMES[i], i == 1);
+        }
+        assertSameValues(series, "boolean");
+    }
+
+    @Test
+    public void should_return_same_values_for_text() throws OwsExceptionReport {
+        long series = createSeries("text");
+        for (int i = 0; i < TIMES.length; i++) {
+            SeriesTextObservation observation = new SeriesTextObservation();
+            observation.setValue("text" + i);
+            saveObservation(observation, series, TIMES[i], i == 1);
+        }
+        assertSameValues(series, "text");
+    }
+
+    @Test
+    public void should_merge_same_observation_incrementally() throws OwsExceptionReport {
+        long series = createSeries("measurement");
+        for (int i = 0; i < TIMES.length; i++) {
+            SeriesNumericObservation observation = new SeriesNumericObservation();
+            observation.setValue(1.5 * i);
+            saveObservation(observation, series, TIMES[i], i == 1);
+        }
+        OmObservation expected = merge(new HibernateChunkSeriesStreamingValue(request(), series)).iterator().next();
+        for (AbstractHibernateStreamingValue streamingValue : Arrays.asList(
+                new HibernateChunkSeriesStreamingValue(request(), series),
+                new HibernateProjectionSeriesStreamingValue(request(), series, "measurement"))) {
+            configure(streamingValue);
+            OmObservation actual = streamingValue.nextMergedObservation(1);
+            assertThat(actual.getObservationConstellation().getObservationType(),
+                    is(expected.getObservationConstellation().getObservationType()));
+            assertThat(actual.getPhenomenonTime(), is(expected.getPhenomenonTime()));
+            assertThat(streamingValue.nextMergedObservation(1), is(nullValue()));
+        }
+    }
+
+    private void assertSameValues(long series, String seriesType) throws OwsExceptionReport {
+        List<TimeValuePair> expected = getValues(new HibernateChunkSeriesStreamingValue(request(), series));
+        List<TimeValuePair> actual =
+                getValues(new HibernateProjectionSeriesStreamingValue(request(), series, seriesType));
+        assertThat(actual.size(), is(TIMES.length));
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).getTime(), is(expected.get(i).getTime()));
+            assertThat(actual.get(i).getValue(), is(instanceOf(expected.get(i).getValue().getClass())));
+            assertThat((Object) actual.get(i).getValue().getValue(), is((Object) expected.get(i).getValue().getValue()));
+            assertThat(actual.get(i).getValue().getUnit(), is(expected.get(i).getValue().getUnit()));
+        }
+
+        Collection<OmObservation> expectedMerged = merge(new HibernateChunkSeriesStreamingValue(request(), series));
+        Collection<OmObservation> actualMerged =
+                merge(new HibernateProjectionSeriesStreamingValue(request(), series, seriesType));
+        assertThat(expectedMerged.size(), is(1));
+        assertThat(actualMerged.size(), is(1));
+        OmObservation expectedObservation = expectedMerged.iterator().next();
+        OmObservation actualObservation = actualMerged.iterator().next();
+        assertThat(actualObservation.getObservationConstellation().getObservationType(),
+                is(OmConstants.OBS_TYPE_SWE_ARRAY_OBSERVATION));
+        assertThat(actualObservation.getObservationConstellation().getObservationType(),
+                is(expectedObservation.getObservationConstellation().getObservationType()));
+        assertThat(actualObservation.getPhenomenonTime(), is(expectedObservation.getPhenomenonTime()));
+    }
+
+    private List<TimeValuePair> getValues(AbstractHibernateStreamingValue streamingValue) throws OwsExceptionReport {
+        configure(streamingValue);
+        List<TimeValuePair> values = Lists.newArrayList();
+        while (streamingValue.hasNextValue()) {
+            values.add(streamingValue.nextValue());
+        }
+        return values;
+    }
+
+    private Collection<OmObservation> merge(AbstractHibernateStreamingValue streamingValue)
+            throws OwsExceptionReport {
+        configure(streamingValue);
+        return streamingValue.mergeObservation();
+    }
+
+    private void configure(AbstractHibernateStreamingValue streamingValue) {
+        OmObservation observationTemplate = new OmObservation();
+        observationTemplate.setObservationConstellation(new OmObservationConstellation());
+        streamingValue.setObservationTemplate(observationTemplate);
+    }
+
+    private GetObservationRequest request() {
+        return new GetObservationRequest();
+    }
+
+    private long createSeries(String seriesType) {
+        Session session = null;
+        Transaction transaction = null;
+        try {
+            session = getSession();
+            transaction = session.beginTransaction();
+            Codespace codespace = new Codespace();
+            codespace.setCodespace("codespace");
+            session.save(codespace);
+
+            FeatureOfInterestType featureOfInterestType = new FeatureOfInterestType();
+            featureOfInterestType.setFeatureOfInterestType("featureOfInterestType");
+            session.save(featureOfInterestType);
+
+            FeatureOfInterest featureOfInterest = new FeatureOfInterest();
+            featureOfInterest.setCodespace(codespace);
+            featureOfInterest.setFeatureOfInterestType(featureOfInterestType);
+            featureOfInterest.setIdentifier("feature");
+            session.save(featureOfInterest);
+
+            ObservableProperty observableProperty = new ObservableProperty();
+            observableProperty.setIdentifier("observableProperty");
+            session.save(observableProperty);
+
+            ProcedureDescriptionFormat procedureDescriptionFormat = new ProcedureDescriptionFormat();
+            procedureDescriptionFormat.setProcedureDescriptionFormat("procedureDescriptionFormat");
+            session.save(procedureDescriptionFormat);
+
+            TProcedure procedure = new TProcedure();
+            procedure.setDeleted(false);
+            procedure.setIdentifier("procedure");
+            procedure.setProcedureDescriptionFormat(procedureDescriptionFormat);
+            session.save(procedure);
+
+            Unit unit = new Unit();
+            unit.setUnit(UNIT);
+            session.save(unit);
+
+            Series series = new Series();
+            series.setFeatureOfInterest(featureOfInterest);
+            series.setObservableProperty(observableProperty);
+            series.setProcedure(procedure);
+            series.setDeleted(false);
+            series.setPublished(true);
+            series.setUnit(unit);
+            series.setSeriesType(seriesType);
+            session.save(series);
+            transaction.commit();
+            return series.getSeriesId();
+        } catch (RuntimeException e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private void saveObservation(AbstractSeriesObservation<?> observation, long seriesId, Date time,
+            boolean period) {
+        Session session = null;
+        Transaction transaction = null;
+        try {
+            session = getSession();
+            transaction = session.beginTransaction();
+            Series series = (Series) session.get(Series.class, seriesId);
+            observation.setSeries(series);
+            observation.setDeleted(false);
+            observation.setPhenomenonTimeStart(time);
+            observation.setPhenomenonTimeEnd(period ? new Date(time.getTime() + 500L) : time);
+            observation.setResultTime(time);
+            observation.setUnit(series.getUnit());
+            session.save(observation);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            returnSession(session);
+        }
+    }
+}
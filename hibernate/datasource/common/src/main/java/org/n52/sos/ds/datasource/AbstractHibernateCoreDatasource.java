@@ -34,10 +34,13 @@ import java.util.Set;
 
 import org.n52.sos.config.SettingDefinition;
 import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.ChoiceSettingDefinition;
 import org.n52.sos.config.settings.IntegerSettingDefinition;
 import org.n52.sos.config.settings.StringSettingDefinition;
 import org.n52.sos.ds.Datasource;
 import org.n52.sos.ds.HibernateDatasourceConstants;
+import org.n52.sos.ds.hibernate.pool.HikariConnectionProvider;
+import org.n52.sos.ds.hibernate.pool.InstrumentedC3P0ConnectionProvider;
 import org.n52.sos.ds.hibernate.util.HibernateConstants;
 import org.n52.sos.util.JavaHelper;
 
@@ -75,8 +78,23 @@ public abstract class AbstractHibernateCoreDatasource implements Datasource, Hib
 
     protected static final String PASSWORD_KEY = HibernateConstants.CONNECTION_PASSWORD;
 
-    protected static final String C3P0_CONNECTION_POOL =
-            "org.hibernate.service.jdbc.connections.internal.C3P0ConnectionProvider";
+    protected static final String C3P0_CONNECTION_POOL = InstrumentedC3P0ConnectionProvider.class.getName();
+
+    protected static final String HIKARI_CONNECTION_POOL = HikariConnectionProvider.class.getName();
+
+    protected static final String CONNECTION_POOL_KEY = "jdbc.pool.type";
+
+    protected static final String CONNECTION_POOL_TITLE = "ConnectionPool implementation";
+
+    protected static final String CONNECTION_POOL_DESCRIPTION =
+            "Select the JDBC connection pool. HikariCP is a lightweight pool with a lower acquisition overhead "
+                    + "under concurrent load. The state of the pool is shown in the datasource statistics.";
+
+    protected static final String CONNECTION_POOL_C3P0 = "c3p0";
+
+    protected static final String CONNECTION_POOL_HIKARI = "HikariCP";
+
+    protected static final String CONNECTION_POOL_DEFAULT_VALUE = CONNECTION_POOL_C3P0;
 
     // protected static final Boolean PROVIDED_JDBC_DRIVER_DEFAULT_VALUE =
     // false;
@@ -241,6 +259,21 @@ public abstract class AbstractHibernateCoreDatasource implements Datasource, Hib
                 .setDefaultValue(MAX_POOL_SIZE_DEFAULT_VALUE);
     }
 
+    /**
+     * Create settings definition for the connection pool implementation
+     *
+     * @return Connection pool settings definition
+     */
+    protected ChoiceSettingDefinition createConnectionPoolDefinition() {
+        ChoiceSettingDefinition choiceSettingDefinition = new ChoiceSettingDefinition();
+        choiceSettingDefinition.setTitle(CONNECTION_POOL_TITLE).setDescription(CONNECTION_POOL_DESCRIPTION)
+                .setGroup(ADVANCED_GROUP).setOrder(SettingDefinitionProvider.ORDER_6).setKey(CONNECTION_POOL_KEY);
+        choiceSettingDefinition.addOption(CONNECTION_POOL_C3P0, "c3p0");
+        choiceSettingDefinition.addOption(CONNECTION_POOL_HIKARI, "HikariCP");
+        choiceSettingDefinition.setDefaultValue(CONNECTION_POOL_DEFAULT_VALUE);
+        return choiceSettingDefinition;
+    }
+
     /**
      * Create settings definition for time zone
      *
@@ -280,6 +313,32 @@ public abstract class AbstractHibernateCoreDatasource implements Datasource, Hib
         return createMaxPoolSizeDefinition().setDefaultValue(defaultValue);
     }
 
+    protected SettingDefinition<?, ?> createConnectionPoolDefinition(String defaultValue) {
+        return createConnectionPoolDefinition().setDefaultValue(defaultValue);
+    }
+
+    /**
+     * Check if HikariCP is selected as connection pool
+     *
+     * @param settings
+     *            Datasource settings
+     * @return <code>true</code>, if HikariCP should be used
+     */
+    protected boolean isHikariConnectionPool(Map<String, Object> settings) {
+        return CONNECTION_POOL_HIKARI.equals(settings.get(CONNECTION_POOL_KEY));
+    }
+
+    /**
+     * Check if the datasource properties use HikariCP as connection pool
+     *
+     * @param current
+     *            Datasource properties
+     * @return <code>true</code>, if HikariCP is used
+     */
+    protected boolean isHikariConnectionPool(Properties current) {
+        return HIKARI_CONNECTION_POOL.equals(current.getProperty(HibernateConstants.CONNECTION_PROVIDER_CLASS));
+    }
+
     protected StringSettingDefinition createTimeZoneDefinition(String defaultValue) {
         return createTimeZoneDefinition().setDefaultValue(defaultValue);
     }
@@ -136,6 +136,17 @@ public abstract class AbstractHibernateDatasource extends AbstractHibernateCoreD
 
     protected static final Integer BATCH_SIZE_DEFAULT_VALUE = 20;
 
+    protected static final String SECOND_LEVEL_CACHE_KEY = "sos.hibernate.cache";
+
+    protected static final String SECOND_LEVEL_CACHE_TITLE = "Second level cache";
+
+    protected static final String SECOND_LEVEL_CACHE_DESCRIPTION =
+            "Should procedures, observable properties, offerings, features, units and other mostly static entities "
+                    + "and their lookup queries be cached in memory? The cache is invalidated by the transactional "
+                    + "operations of this SOS, so do not enable it if other applications modify the database.";
+
+    protected static final Boolean SECOND_LEVEL_CACHE_DEFAULT_VALUE = false;
+
     private Dialect dialect;
 
     private final ChoiceSettingDefinition databaseConceptDefinition = createDatabaseConceptDefinition();
@@ -223,6 +234,18 @@ public abstract class AbstractHibernateDatasource extends AbstractHibernateCoreD
                 .setDefaultValue(BATCH_SIZE_DEFAULT_VALUE);
     }
 
+    /**
+     * Create settings definition for the Hibernate second level and query
+     * cache
+     *
+     * @return Second level cache settings definition
+     */
+    protected BooleanSettingDefinition createSecondLevelCacheDefinition() {
+        return new BooleanSettingDefinition().setDefaultValue(SECOND_LEVEL_CACHE_DEFAULT_VALUE)
+                .setTitle(SECOND_LEVEL_CACHE_TITLE).setDescription(SECOND_LEVEL_CACHE_DESCRIPTION)
+                .setGroup(ADVANCED_GROUP).setOrder(SettingDefinitionProvider.ORDER_9).setKey(SECOND_LEVEL_CACHE_KEY);
+    }
+
     /**
      * Get custom configuration from datasource settings
      *
@@ -65,8 +65,10 @@ public abstract class AbstractHibernateFullDBDatasource extends AbstractHibernat
         if (supportsSchema) {
             set.add(createSchemaDefinition(schemaDefault));
         }
+        set.add(createConnectionPoolDefinition(CONNECTION_POOL_DEFAULT_VALUE));
         set.add(createBatchSizeDefinition(batchSizeDefault));
         set.add(createProvidedJdbcDriverDefinition(providedJdbc));
+        set.add(createSecondLevelCacheDefinition(SECOND_LEVEL_CACHE_DEFAULT_VALUE));
         set.add(getDatabaseConceptDefinition());
         if (isTransactionalDatasource()) {
             set.add(getTransactionalDefiniton());
@@ -90,7 +92,9 @@ public abstract class AbstractHibernateFullDBDatasource extends AbstractHibernat
                         createPortDefinition(JavaHelper.asInteger(settings.get(PORT_KEY))),
                         createMinPoolSizeDefinition(JavaHelper.asInteger(settings.get(MIN_POOL_SIZE_KEY))),
                         createMaxPoolSizeDefinition(JavaHelper.asInteger(settings.get(MAX_POOL_SIZE_KEY))),
+                        createConnectionPoolDefinition((String) settings.get(CONNECTION_POOL_KEY)),
                         createBatchSizeDefinition(JavaHelper.asInteger(settings.get(BATCH_SIZE_KEY))),
+                        createSecondLevelCacheDefinition(JavaHelper.asBoolean(settings.get(SECOND_LEVEL_CACHE_KEY))),
                         createTimeZoneDefinition((String) settings.get(TIMEZONE_KEY)));
         if (supportsSchema) {
             settingDefinitions.add(schemaSetting);
@@ -110,6 +114,10 @@ public abstract class AbstractHibernateFullDBDatasource extends AbstractHibernat
         return createProvidedJdbcDriverDefinition().setDefaultValue(defaultValue);
     }
 
+    protected SettingDefinition<?, ?> createSecondLevelCacheDefinition(final Boolean defaultValue) {
+        return createSecondLevelCacheDefinition().setDefaultValue(defaultValue);
+    }
+
     @Override
     public Properties getDatasourceProperties(final Map<String, Object> settings) {
         final Properties p = new Properties();
@@ -119,18 +127,32 @@ public abstract class AbstractHibernateFullDBDatasource extends AbstractHibernat
         p.put(HibernateConstants.CONNECTION_USERNAME, settings.get(USERNAME_KEY));
         p.put(HibernateConstants.CONNECTION_PASSWORD, settings.get(PASSWORD_KEY));
         p.put(HibernateConstants.CONNECTION_URL, toURL(settings));
-        p.put(HibernateConstants.CONNECTION_PROVIDER_CLASS, C3P0_CONNECTION_POOL);
         p.put(HibernateConstants.DIALECT, getDialectClass());
         p.put(HibernateConstants.DRIVER_CLASS, getDriverClass());
-        p.put(HibernateConstants.C3P0_MIN_SIZE, settings.get(MIN_POOL_SIZE_KEY).toString());
-        p.put(HibernateConstants.C3P0_MAX_SIZE, settings.get(MAX_POOL_SIZE_KEY).toString());
-        p.put(HibernateConstants.C3P0_IDLE_TEST_PERIOD, "30");
-        p.put(HibernateConstants.C3P0_ACQUIRE_INCREMENT, "1");
-        p.put(HibernateConstants.C3P0_TIMEOUT, "0");
-        p.put(HibernateConstants.C3P0_MAX_STATEMENTS, "0");
+        if (isHikariConnectionPool(settings)) {
+            p.put(HibernateConstants.CONNECTION_PROVIDER_CLASS, HIKARI_CONNECTION_POOL);
+            p.put(HibernateConstants.HIKARI_MINIMUM_IDLE, settings.get(MIN_POOL_SIZE_KEY).toString());
+            p.put(HibernateConstants.HIKARI_MAXIMUM_POOL_SIZE, settings.get(MAX_POOL_SIZE_KEY).toString());
+            p.put(HibernateConstants.HIKARI_IDLE_TIMEOUT, "600000");
+            p.put(HibernateConstants.HIKARI_CONNECTION_TIMEOUT, "30000");
+            p.put(HibernateConstants.HIKARI_LEAK_DETECTION_THRESHOLD, "60000");
+        } else {
+            p.put(HibernateConstants.CONNECTION_PROVIDER_CLASS, C3P0_CONNECTION_POOL);
+            p.put(HibernateConstants.C3P0_MIN_SIZE, settings.get(MIN_POOL_SIZE_KEY).toString());
+            p.put(HibernateConstants.C3P0_MAX_SIZE, settings.get(MAX_POOL_SIZE_KEY).toString());
+            p.put(HibernateConstants.C3P0_IDLE_TEST_PERIOD, "30");
+            p.put(HibernateConstants.C3P0_ACQUIRE_INCREMENT, "1");
+            p.put(HibernateConstants.C3P0_TIMEOUT, "0");
+            p.put(HibernateConstants.C3P0_MAX_STATEMENTS, "0");
+            p.put(HibernateConstants.C3P0_CHECKOUT_TIMEOUT, "30000");
+        }
         if (settings.containsKey(BATCH_SIZE_KEY)) {
             p.put(HibernateConstants.JDBC_BATCH_SIZE, settings.get(BATCH_SIZE_KEY).toString());
         }
+        String cache = String.valueOf(Boolean.TRUE.equals(settings.get(SECOND_LEVEL_CACHE_KEY)));
+        p.put(HibernateConstants.CACHE_USE_SECOND_LEVEL, cache);
+        p.put(HibernateConstants.CACHE_USE_QUERY, cache);
+        p.put(HibernateConstants.GENERATE_STATISTICS, cache);
         p.put(HibernateConstants.CONNECTION_AUTO_RECONNECT, "true");
         p.put(HibernateConstants.CONNECTION_AUTO_RECONNECT_FOR_POOLS, "true");
         p.put(HibernateConstants.CONNECTION_TEST_ON_BORROW, "true");
@@ -150,12 +172,22 @@ public abstract class AbstractHibernateFullDBDatasource extends AbstractHibernat
         settings.put(HIBERNATE_DIRECTORY, current.get(HIBERNATE_DIRECTORY));
         settings.put(USERNAME_KEY, current.getProperty(HibernateConstants.CONNECTION_USERNAME));
         settings.put(PASSWORD_KEY, current.getProperty(HibernateConstants.CONNECTION_PASSWORD));
-        settings.put(MIN_POOL_SIZE_KEY, current.getProperty(HibernateConstants.C3P0_MIN_SIZE));
-        settings.put(MAX_POOL_SIZE_KEY, current.getProperty(HibernateConstants.C3P0_MAX_SIZE));
+        if (isHikariConnectionPool(current)) {
+            settings.put(CONNECTION_POOL_KEY, CONNECTION_POOL_HIKARI);
+            settings.put(MIN_POOL_SIZE_KEY, current.getProperty(HibernateConstants.HIKARI_MINIMUM_IDLE));
+            settings.put(MAX_POOL_SIZE_KEY, current.getProperty(HibernateConstants.HIKARI_MAXIMUM_POOL_SIZE));
+        } else {
+            settings.put(CONNECTION_POOL_KEY, CONNECTION_POOL_C3P0);
+            settings.put(MIN_POOL_SIZE_KEY, current.getProperty(HibernateConstants.C3P0_MIN_SIZE));
+            settings.put(MAX_POOL_SIZE_KEY, current.getProperty(HibernateConstants.C3P0_MAX_SIZE));
+        }
         if (current.containsKey(HibernateConstants.JDBC_BATCH_SIZE)) {
             settings.put(BATCH_SIZE_KEY, current.getProperty(HibernateConstants.JDBC_BATCH_SIZE));
         }
         settings.put(TRANSACTIONAL_KEY, isTransactional(current));
+        settings.put(SECOND_LEVEL_CACHE_KEY,
+                Boolean.valueOf(current.getProperty(HibernateConstants.CACHE_USE_SECOND_LEVEL,
+                        SECOND_LEVEL_CACHE_DEFAULT_VALUE.toString())));
         settings.put(DATABASE_CONCEPT_KEY,  current.getProperty(DATABASE_CONCEPT_KEY));
         settings.put(PROVIDED_JDBC_DRIVER_KEY,
                 current.getProperty(PROVIDED_JDBC, PROVIDED_JDBC_DRIVER_DEFAULT_VALUE.toString()));
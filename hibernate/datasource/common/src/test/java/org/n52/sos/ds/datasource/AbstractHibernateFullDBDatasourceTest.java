@@ -54,9 +54,9 @@ import junit.framework.TestCase;
 public class AbstractHibernateFullDBDatasourceTest extends TestCase {
     private AbstractHibernateFullDBDatasource ds;
     
-    private static final int CHANGEABLE_COUNT = 10;
+    private static final int CHANGEABLE_COUNT = 12;
     
-    private static final int MAX_COUNT = 15;
+    private static final int MAX_COUNT = 17;
 
     @Override
     protected void setUp() throws Exception {
@@ -90,6 +90,20 @@ public class AbstractHibernateFullDBDatasourceTest extends TestCase {
         checkSettingKeys(settings.keySet(), false, false);
     }
 
+    public void testParseHikariDatasourceProperties() throws Exception {
+        final Properties current = new Properties();
+        current.put(HibernateConstants.CONNECTION_URL, "jdbc:postgresql://localhost:5432/test");
+        current.put(HibernateConstants.CONNECTION_PROVIDER_CLASS, AbstractHibernateDatasource.HIKARI_CONNECTION_POOL);
+        current.put(HibernateConstants.HIKARI_MINIMUM_IDLE, "5");
+        current.put(HibernateConstants.HIKARI_MAXIMUM_POOL_SIZE, "25");
+
+        final Map<String, Object> settings = ds.parseDatasourceProperties(current);
+        assertEquals(AbstractHibernateDatasource.CONNECTION_POOL_HIKARI,
+                settings.get(AbstractHibernateDatasource.CONNECTION_POOL_KEY));
+        assertEquals("5", settings.get(AbstractHibernateDatasource.MIN_POOL_SIZE_KEY));
+        assertEquals("25", settings.get(AbstractHibernateDatasource.MAX_POOL_SIZE_KEY));
+    }
+
     private void checkSettingDefinitionsTransactional(final Set<SettingDefinition<?, ?>> settings) {
         checkSettingDefinitions(settings, false, true);
     }
@@ -122,6 +136,8 @@ public class AbstractHibernateFullDBDatasourceTest extends TestCase {
         assertTrue(keys.contains(AbstractHibernateDatasource.MIN_POOL_SIZE_KEY));
         assertTrue(keys.contains(AbstractHibernateDatasource.MAX_POOL_SIZE_KEY));
         assertTrue(keys.contains(AbstractHibernateDatasource.BATCH_SIZE_KEY));
+        assertTrue(keys.contains(AbstractHibernateDatasource.SECOND_LEVEL_CACHE_KEY));
+        assertTrue(keys.contains(AbstractHibernateDatasource.CONNECTION_POOL_KEY));
         assertTrue(changeable || settingsDefinitions || keys.contains(HibernateDatasourceConstants.HIBERNATE_DIRECTORY));
         assertTrue(changeable || keys.contains(AbstractHibernateDatasource.PROVIDED_JDBC_DRIVER_KEY));
         assertTrue(!transactional || keys.contains(AbstractHibernateDatasource.TRANSACTIONAL_KEY));
@@ -32,6 +32,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 import oracle.jdbc.OracleConnection;
 
@@ -81,6 +82,14 @@ public class OracleC3P0ConnectionFinder implements ConnectionFinder {
                 return (OracleConnection) unwrappedCon;
             }
         }
+        try {
+            // JDBC 4 wrappers, e.g. HikariCP
+            if (conn.isWrapperFor(OracleConnection.class)) {
+                return conn.unwrap(OracleConnection.class);
+            }
+        } catch (SQLException ex) {
+            throw new FinderException(ex.getMessage());
+        }
         throw new FinderException("Couldn't get Oracle Connection in OracleConnectionFinder");
     }
 }
@@ -34,16 +34,22 @@ import java.util.Properties;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
+import org.hibernate.Cache;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.jdbc.Work;
 import org.hibernate.service.ServiceRegistry;
+import org.hibernate.stat.Statistics;
 import org.n52.sos.ds.ConnectionProviderException;
 import org.n52.sos.ds.DataConnectionProvider;
 import org.n52.sos.ds.Datasource;
 import org.n52.sos.ds.DatasourceCallback;
 import org.n52.sos.ds.HibernateDatasourceConstants;
+import org.n52.sos.ds.hibernate.pool.ConnectionPoolStatistics;
+import org.n52.sos.ds.hibernate.pool.ConnectionPoolStatisticsProvider;
 import org.n52.sos.ds.hibernate.type.ConfigurableTimestampType;
 import org.n52.sos.ds.hibernate.type.UtcTimestampType;
 import org.n52.sos.ds.hibernate.util.HibernateMetadataCache;
@@ -123,6 +129,52 @@ public abstract class UnspecifiedSessionFactoryProvider extends AbstractSessionF
         return this.sessionFactory;
     }
 
+    /**
+     * Get the statistics of the session factory. Second level and query cache
+     * hit/miss counts are only collected if the second level cache is enabled.
+     *
+     * @return the statistics or <code>null</code> if the session factory is
+     *         not initialized
+     */
+    public Statistics getStatistics() {
+        if (sessionFactory == null) {
+            return null;
+        }
+        return sessionFactory.getStatistics();
+    }
+
+    /**
+     * Get the state of the JDBC connection pool.
+     *
+     * @return the statistics or <code>null</code> if the session factory is
+     *         not initialized or the connection provider does not support
+     *         statistics
+     */
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        if (sessionFactory instanceof SessionFactoryImplementor) {
+            ConnectionProvider connectionProvider = ((SessionFactoryImplementor) sessionFactory).getServiceRegistry()
+                    .getService(ConnectionProvider.class);
+            if (connectionProvider instanceof ConnectionPoolStatisticsProvider) {
+                return ((ConnectionPoolStatisticsProvider) connectionProvider).getConnectionPoolStatistics();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evict all entities and query results from the second level and query
+     * cache, e.g. after the database was modified without Hibernate.
+     */
+    public void evictSecondLevelCache() {
+        if (sessionFactory != null) {
+            Cache cache = sessionFactory.getCache();
+            cache.evictEntityRegions();
+            cache.evictCollectionRegions();
+            cache.evictDefaultQueryRegion();
+            cache.evictQueryRegions();
+        }
+    }
+
     @Override
     public void initialize(Properties properties) throws ConfigurationException {
         final DatasourceCallback datasourceCallback = getDatasourceCallback(properties);
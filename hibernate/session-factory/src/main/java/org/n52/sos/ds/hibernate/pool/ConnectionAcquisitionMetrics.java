@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free recorder for the time threads spend waiting for a connection of
+ * the pool. The latencies are counted in fixed buckets so that recording is a
+ * single atomic increment and the distribution can be reported without
+ * keeping the samples.
+ *
+ * @since 4.4.0
+ */
+public class ConnectionAcquisitionMetrics {
+
+    /**
+     * Upper bounds (inclusive) of the histogram buckets in microseconds. The
+     * last bucket counts all acquisitions above the last bound.
+     */
+    private static final long[] BUCKET_BOUNDS_MICROS = { 100, 500, 1000, 5000, 10000, 50000, 100000, 500000,
+            1000000, 5000000 };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Record a successful acquisition.
+     *
+     * @param nanos
+     *            the time the acquisition took in nanoseconds
+     */
+    public void recordAcquisition(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Record an acquisition that failed, e.g. because the pool was exhausted
+     * and the timeout elapsed.
+     */
+    public void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    /**
+     * Copy the recorded values into the statistics snapshot.
+     *
+     * @param statistics
+     *            the statistics to fill
+     * @return the statistics
+     */
+    public ConnectionPoolStatistics fill(ConnectionPoolStatistics statistics) {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        long n = count.get();
+        statistics.setAcquisitions(n);
+        statistics.setAcquisitionFailures(failures.get());
+        statistics.setMeanAcquisitionMicros(n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.get() / n));
+        statistics.setMaxAcquisitionMicros(TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+        statistics.setAcquisitionHistogram(BUCKET_BOUNDS_MICROS.clone(), counts);
+        return statistics;
+    }
+
+}
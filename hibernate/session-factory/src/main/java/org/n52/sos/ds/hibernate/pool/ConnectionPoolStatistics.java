@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.pool;
+
+/**
+ * Snapshot of the state of a JDBC connection pool.
+ *
+ * @since 4.4.0
+ */
+public class ConnectionPoolStatistics {
+
+    private final String pool;
+
+    private int active = -1;
+
+    private int idle = -1;
+
+    private int total = -1;
+
+    private int waiting = -1;
+
+    private int maximum = -1;
+
+    private long acquisitions;
+
+    private long acquisitionFailures;
+
+    private long meanAcquisitionMicros;
+
+    private long maxAcquisitionMicros;
+
+    private long[] histogramBounds = new long[0];
+
+    private long[] histogramCounts = new long[0];
+
+    public ConnectionPoolStatistics(String pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the name of the pool implementation
+     */
+    public String getPool() {
+        return pool;
+    }
+
+    /**
+     * @return the number of connections in use or <code>-1</code> if unknown
+     */
+    public int getActive() {
+        return active;
+    }
+
+    public ConnectionPoolStatistics setActive(int active) {
+        this.active = active;
+        return this;
+    }
+
+    /**
+     * @return the number of idle connections or <code>-1</code> if unknown
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    public ConnectionPoolStatistics setIdle(int idle) {
+        this.idle = idle;
+        return this;
+    }
+
+    /**
+     * @return the number of open connections or <code>-1</code> if unknown
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public ConnectionPoolStatistics setTotal(int total) {
+        this.total = total;
+        return this;
+    }
+
+    /**
+     * @return the number of threads waiting for a connection or
+     *         <code>-1</code> if unknown
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public ConnectionPoolStatistics setWaiting(int waiting) {
+        this.waiting = waiting;
+        return this;
+    }
+
+    /**
+     * @return the maximum pool size or <code>-1</code> if unknown
+     */
+    public int getMaximum() {
+        return maximum;
+    }
+
+    public ConnectionPoolStatistics setMaximum(int maximum) {
+        this.maximum = maximum;
+        return this;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public ConnectionPoolStatistics setAcquisitions(long acquisitions) {
+        this.acquisitions = acquisitions;
+        return this;
+    }
+
+    public long getAcquisitionFailures() {
+        return acquisitionFailures;
+    }
+
+    public ConnectionPoolStatistics setAcquisitionFailures(long acquisitionFailures) {
+        this.acquisitionFailures = acquisitionFailures;
+        return this;
+    }
+
+    public long getMeanAcquisitionMicros() {
+        return meanAcquisitionMicros;
+    }
+
+    public ConnectionPoolStatistics setMeanAcquisitionMicros(long meanAcquisitionMicros) {
+        this.meanAcquisitionMicros = meanAcquisitionMicros;
+        return this;
+    }
+
+    public long getMaxAcquisitionMicros() {
+        return maxAcquisitionMicros;
+    }
+
+    public ConnectionPoolStatistics setMaxAcquisitionMicros(long maxAcquisitionMicros) {
+        this.maxAcquisitionMicros = maxAcquisitionMicros;
+        return this;
+    }
+
+    /**
+     * @return the inclusive upper bounds of the acquisition latency buckets in
+     *         microseconds
+     */
+    public long[] getHistogramBounds() {
+        return histogramBounds;
+    }
+
+    /**
+     * @return the acquisition counts per bucket. The last element counts the
+     *         acquisitions above the last bound.
+     */
+    public long[] getHistogramCounts() {
+        return histogramCounts;
+    }
+
+    public ConnectionPoolStatistics setAcquisitionHistogram(long[] bounds, long[] counts) {
+        this.histogramBounds = bounds;
+        this.histogramCounts = counts;
+        return this;
+    }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.internal.ConnectionProviderInitiator;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+import org.n52.sos.ds.hibernate.util.HibernateConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Hibernate {@link ConnectionProvider} backed by a HikariCP pool. All
+ * properties prefixed with {@value HibernateConstants#HIKARI_PREFIX} are
+ * passed to the {@link HikariConfig}, the remaining
+ * <code>hibernate.connection.*</code> properties are passed to the JDBC
+ * driver.
+ *
+ * @since 4.4.0
+ */
+public class HikariConnectionProvider
+        implements ConnectionProvider, Configurable, Stoppable, ConnectionPoolStatisticsProvider {
+
+    private static final long serialVersionUID = 4476536224938470413L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HikariConnectionProvider.class);
+
+    private static final String POOL = "HikariCP";
+
+    private static final String DEFAULT_POOL_NAME = "52n-sos";
+
+    private final ConnectionAcquisitionMetrics metrics = new ConnectionAcquisitionMetrics();
+
+    private HikariDataSource dataSource;
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void configure(Map props) {
+        try {
+            HikariConfig config = new HikariConfig(getHikariProperties(props));
+            config.setJdbcUrl((String) props.get(AvailableSettings.URL));
+            config.setDriverClassName((String) props.get(AvailableSettings.DRIVER));
+            config.setUsername((String) props.get(AvailableSettings.USER));
+            config.setPassword((String) props.get(AvailableSettings.PASS));
+            config.setAutoCommit(ConfigurationHelper.getBoolean(AvailableSettings.AUTOCOMMIT, props, false));
+            Integer isolation = ConfigurationHelper.getInteger(AvailableSettings.ISOLATION, props);
+            if (isolation != null) {
+                config.setTransactionIsolation(getIsolationName(isolation));
+            }
+            config.setDataSourceProperties(ConnectionProviderInitiator.getConnectionProperties(props));
+            if (config.getPoolName() == null) {
+                config.setPoolName(DEFAULT_POOL_NAME);
+            }
+            this.dataSource = new HikariDataSource(config);
+            LOGGER.info("HikariCP connection pool '{}' started (minimumIdle={}, maximumPoolSize={})",
+                    config.getPoolName(), config.getMinimumIdle(), config.getMaximumPoolSize());
+        } catch (RuntimeException e) {
+            throw new HibernateException("Could not create HikariCP connection pool", e);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Properties getHikariProperties(Map props) {
+        Properties properties = new Properties();
+        for (Object key : props.keySet()) {
+            if (key instanceof String && ((String) key).startsWith(HibernateConstants.HIKARI_PREFIX)) {
+                Object value = props.get(key);
+                if (value != null) {
+                    properties.setProperty(((String) key).substring(HibernateConstants.HIKARI_PREFIX.length()),
+                            value.toString());
+                }
+            }
+        }
+        return properties;
+    }
+
+    private String getIsolationName(int isolation) {
+        switch (isolation) {
+        case Connection.TRANSACTION_NONE:
+            return "TRANSACTION_NONE";
+        case Connection.TRANSACTION_READ_UNCOMMITTED:
+            return "TRANSACTION_READ_UNCOMMITTED";
+        case Connection.TRANSACTION_READ_COMMITTED:
+            return "TRANSACTION_READ_COMMITTED";
+        case Connection.TRANSACTION_REPEATABLE_READ:
+            return "TRANSACTION_REPEATABLE_READ";
+        case Connection.TRANSACTION_SERIALIZABLE:
+            return "TRANSACTION_SERIALIZABLE";
+        default:
+            throw new HibernateException("Unsupported transaction isolation level: " + isolation);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Connection connection = dataSource.getConnection();
+            metrics.recordAcquisition(System.nanoTime() - start);
+            return connection;
+        } catch (SQLException e) {
+            metrics.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeConnection(Connection conn) throws SQLException {
+        conn.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean isUnwrappableAs(Class unwrapType) {
+        return ConnectionProvider.class.equals(unwrapType)
+                || HikariConnectionProvider.class.isAssignableFrom(unwrapType)
+                || unwrapType.isAssignableFrom(HikariDataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (ConnectionProvider.class.equals(unwrapType)
+                || HikariConnectionProvider.class.isAssignableFrom(unwrapType)) {
+            return (T) this;
+        } else if (unwrapType.isAssignableFrom(HikariDataSource.class)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+
+    @Override
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        ConnectionPoolStatistics statistics = new ConnectionPoolStatistics(POOL);
+        HikariDataSource ds = this.dataSource;
+        if (ds != null) {
+            statistics.setMaximum(ds.getMaximumPoolSize());
+            HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+            if (pool != null) {
+                statistics.setActive(pool.getActiveConnections()).setIdle(pool.getIdleConnections())
+                        .setTotal(pool.getTotalConnections()).setWaiting(pool.getThreadsAwaitingConnection());
+            }
+        }
+        return metrics.fill(statistics);
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.c3p0.internal.C3P0ConnectionProvider;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mchange.v2.c3p0.PooledDataSource;
+
+/**
+ * {@link C3P0ConnectionProvider} that records the connection acquisition
+ * latency and exposes the state of the c3p0 pool.
+ *
+ * @since 4.4.0
+ */
+public class InstrumentedC3P0ConnectionProvider extends C3P0ConnectionProvider
+        implements ConnectionPoolStatisticsProvider {
+
+    private static final long serialVersionUID = -2389713702263434582L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentedC3P0ConnectionProvider.class);
+
+    private static final String POOL = "c3p0";
+
+    private final ConnectionAcquisitionMetrics metrics = new ConnectionAcquisitionMetrics();
+
+    private int maximum = -1;
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void configure(Map props) {
+        super.configure(props);
+        Integer max = ConfigurationHelper.getInteger(AvailableSettings.C3P0_MAX_SIZE, props);
+        if (max != null) {
+            this.maximum = max;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Connection connection = super.getConnection();
+            metrics.recordAcquisition(System.nanoTime() - start);
+            return connection;
+        } catch (SQLException e) {
+            metrics.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        ConnectionPoolStatistics statistics = new ConnectionPoolStatistics(POOL).setMaximum(maximum);
+        DataSource dataSource = unwrap(DataSource.class);
+        if (dataSource instanceof PooledDataSource) {
+            PooledDataSource pool = (PooledDataSource) dataSource;
+            try {
+                statistics.setActive(pool.getNumBusyConnectionsDefaultUser())
+                        .setIdle(pool.getNumIdleConnectionsDefaultUser())
+                        .setTotal(pool.getNumConnectionsDefaultUser())
+                        .setWaiting(pool.getNumThreadsAwaitingCheckoutDefaultUser());
+            } catch (SQLException e) {
+                LOGGER.warn("Error while querying the c3p0 pool state", e);
+            }
+        }
+        return metrics.fill(statistics);
+    }
+
+}
@@ -98,6 +98,22 @@ public interface HibernateConstants {
 
     String C3P0_PREFERRED_TEST_QUERY = "hibernate.c3p0.preferredTestQuery";
 
+    String C3P0_CHECKOUT_TIMEOUT = "hibernate.c3p0.checkoutTimeout";
+
+    String HIKARI_PREFIX = "hibernate.hikari.";
+
+    String HIKARI_MINIMUM_IDLE = HIKARI_PREFIX + "minimumIdle";
+
+    String HIKARI_MAXIMUM_POOL_SIZE = HIKARI_PREFIX + "maximumPoolSize";
+
+    String HIKARI_IDLE_TIMEOUT = HIKARI_PREFIX + "idleTimeout";
+
+    String HIKARI_CONNECTION_TIMEOUT = HIKARI_PREFIX + "connectionTimeout";
+
+    String HIKARI_LEAK_DETECTION_THRESHOLD = HIKARI_PREFIX + "leakDetectionThreshold";
+
+    String HIKARI_POOL_NAME = HIKARI_PREFIX + "poolName";
+
     String JDBC_BATCH_SIZE = AvailableSettings.STATEMENT_BATCH_SIZE;
 
     //FIXME Not a valid property, remove?
@@ -114,6 +130,12 @@ public interface HibernateConstants {
 
     String MAX_FETCH_DEPTH = AvailableSettings.MAX_FETCH_DEPTH;
 
+    String CACHE_USE_SECOND_LEVEL = AvailableSettings.USE_SECOND_LEVEL_CACHE;
+
+    String CACHE_USE_QUERY = AvailableSettings.USE_QUERY_CACHE;
+
+    String GENERATE_STATISTICS = AvailableSettings.GENERATE_STATISTICS;
+
     String CONNECION_FINDER = org.hibernate.spatial.HibernateSpatialConfiguration.AvailableSettings.CONNECTION_FINDER;
 
     int LIMIT_EXPRESSION_DEPTH = 1000;
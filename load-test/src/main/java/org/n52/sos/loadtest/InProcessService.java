@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+
+import org.n52.sos.ds.hibernate.H2Configuration;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.request.operator.RequestOperatorKey;
+import org.n52.sos.request.operator.RequestOperatorRepository;
+import org.n52.sos.service.Configurator;
+import org.n52.sos.service.SosService;
+import org.n52.sos.service.operator.ServiceOperatorKey;
+import org.n52.sos.util.http.HTTPMethods;
+import org.n52.sos.util.http.MediaTypes;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+
+/**
+ * The service stack of the webapp running in-process on the in-memory H2
+ * database of {@link H2Configuration}. Requests are passed to the
+ * {@link SosService} servlet as mock HTTP requests on the calling thread, so
+ * the latency and allocations of a request are those of the thread executing
+ * it.
+ *
+ * @since 4.4.0
+ */
+public class InProcessService {
+
+    public static final String KVP = "/kvp";
+
+    public static final String POX = "/pox";
+
+    public static final String JSON = "/json";
+
+    private static final String SERVICE_PATH = "/service";
+
+    private static final String EXCEPTION_REPORT = "ExceptionReport";
+
+    private static final String JSON_EXCEPTIONS = "\"exceptions\"";
+
+    private final SosService servlet = new SosService();
+
+    public InProcessService() throws ServletException {
+        H2Configuration.assertInitialized();
+        activateTransactionalOperations();
+        servlet.init(new MockServletConfig());
+    }
+
+    private void activateTransactionalOperations() {
+        ServiceOperatorKey sok = new ServiceOperatorKey(SosConstants.SOS, Sos2Constants.SERVICEVERSION);
+        RequestOperatorRepository repository = RequestOperatorRepository.getInstance();
+        for (String operation : new String[] { Sos2Constants.Operations.InsertSensor.name(),
+                SosConstants.Operations.InsertObservation.name(), Sos2Constants.Operations.InsertResultTemplate.name(),
+                Sos2Constants.Operations.InsertResult.name() }) {
+            repository.setActive(new RequestOperatorKey(sok, operation), true);
+        }
+    }
+
+    /**
+     * Update the content cache after the data set changed.
+     */
+    public void updateCache() throws OwsExceptionReport {
+        Configurator.getInstance().getCacheController().update();
+    }
+
+    public void destroy() {
+        servlet.destroy();
+        H2Configuration.truncate();
+    }
+
+    /**
+     * Execute a KVP request.
+     *
+     * @param parameters
+     *            the query parameters
+     * @return the response
+     */
+    public Response get(Map<String, String> parameters) throws ServletException, IOException {
+        MockHttpServletRequest request = createRequest(HTTPMethods.GET, KVP);
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            request.addParameter(parameter.getKey(), parameter.getValue());
+        }
+        return execute(request);
+    }
+
+    /**
+     * Execute a POX request.
+     *
+     * @param xml
+     *            the request document
+     * @return the response
+     */
+    public Response postXml(String xml) throws ServletException, IOException {
+        return post(POX, MediaTypes.APPLICATION_XML.toString(), xml);
+    }
+
+    /**
+     * Execute a JSON request.
+     *
+     * @param json
+     *            the request document
+     * @return the response
+     */
+    public Response postJson(String json) throws ServletException, IOException {
+        return post(JSON, MediaTypes.APPLICATION_JSON.toString(), json);
+    }
+
+    private Response post(String path, String contentType, String content) throws ServletException,
+            IOException {
+        MockHttpServletRequest request = createRequest(HTTPMethods.POST, path);
+        request.setContentType(contentType);
+        request.addHeader("Accept", contentType);
+        request.setContent(content.getBytes(StandardCharsets.UTF_8));
+        return execute(request);
+    }
+
+    private MockHttpServletRequest createRequest(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, SERVICE_PATH + path);
+        request.setServletPath(SERVICE_PATH);
+        request.setPathInfo(path);
+        request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return request;
+    }
+
+    private Response execute(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        return new Response(response.getStatus(), response.getContentAsByteArray());
+    }
+
+    /**
+     * Status and content of a response.
+     */
+    public static class Response {
+        private final int status;
+
+        private final byte[] content;
+
+        Response(int status, byte[] content) {
+            this.status = status;
+            this.content = content;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public int getLength() {
+            return content.length;
+        }
+
+        public String getContent() {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return <code>true</code> if the response is an error status or an
+         *         exception report
+         */
+        public boolean isError() {
+            if (status >= 300) {
+                return true;
+            }
+            String text = getContent();
+            return text.contains(EXCEPTION_REPORT) || text.contains(JSON_EXCEPTIONS);
+        }
+    }
+}
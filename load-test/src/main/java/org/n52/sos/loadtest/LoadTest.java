@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.loadtest;
+
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.n52.sos.util.JSONUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs a load test against the service stack on the in-memory H2 database:
+ * inserts a {@link SyntheticNetwork}, replays a weighted mix of
+ * {@link WorkloadOperation}s with concurrent client threads for a warmup and
+ * a measured phase and writes throughput, latency percentiles and allocation
+ * rates of the measured phase as JSON. Use the <code>label</code> property to
+ * tell the reports of different builds apart.
+ *
+ * @since 4.4.0
+ */
+public class LoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+    private final LoadTestConfiguration configuration;
+
+    private final InProcessService service;
+
+    private final SyntheticNetwork network;
+
+    private final WorkloadOperation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final com.sun.management.ThreadMXBean threads = getThreadMXBean();
+
+    public LoadTest(LoadTestConfiguration configuration, InProcessService service) {
+        this.configuration = configuration;
+        this.service = service;
+        this.network = new SyntheticNetwork(configuration);
+        Map<WorkloadOperation, Integer> mix = configuration.getMix();
+        this.operations = mix.keySet().toArray(new WorkloadOperation[mix.size()]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) bean;
+            if (threadMXBean.isThreadAllocatedMemorySupported()) {
+                threadMXBean.setThreadAllocatedMemoryEnabled(true);
+                return threadMXBean;
+            }
+        }
+        return null;
+    }
+
+    public ObjectNode run() throws Exception {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        network.insert(service);
+        long insertMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        LOGGER.info("Inserted {} values of {} series in {} ms", network.getValueCount(),
+                network.getSeries().size(), insertMillis);
+
+        if (configuration.getWarmupSeconds() > 0) {
+            execute(configuration.getWarmupSeconds(), configuration.getSeed() - 1);
+        }
+        System.gc();
+        Map<WorkloadOperation, OperationStatistics> statistics =
+                execute(configuration.getDurationSeconds(), configuration.getSeed());
+        return createReport(insertMillis, statistics);
+    }
+
+    private Map<WorkloadOperation, OperationStatistics> execute(int seconds, long seed) throws Exception {
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor =
+                Executors.newFixedThreadPool(configuration.getThreads(), new ThreadFactoryBuilder().setDaemon(true)
+                        .setNameFormat("load-test-client-%d").build());
+        try {
+            List<Future<Map<WorkloadOperation, OperationStatistics>>> futures = new ArrayList<>();
+            for (int i = 0; i < configuration.getThreads(); i++) {
+                final Random random = new Random(seed * 31 + i);
+                futures.add(executor.submit(new Callable<Map<WorkloadOperation, OperationStatistics>>() {
+                    @Override
+                    public Map<WorkloadOperation, OperationStatistics> call() throws Exception {
+                        return executeUntil(end, random);
+                    }
+                }));
+            }
+            Map<WorkloadOperation, OperationStatistics> statistics = new EnumMap<>(WorkloadOperation.class);
+            for (WorkloadOperation operation : operations) {
+                statistics.put(operation, new OperationStatistics());
+            }
+            for (Future<Map<WorkloadOperation, OperationStatistics>> future : futures) {
+                for (Map.Entry<WorkloadOperation, OperationStatistics> entry : future.get().entrySet()) {
+                    statistics.get(entry.getKey()).merge(entry.getValue());
+                }
+            }
+            return statistics;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<WorkloadOperation, OperationStatistics> executeUntil(long end, Random random) throws Exception {
+        Map<WorkloadOperation, OperationStatistics> statistics = new EnumMap<>(WorkloadOperation.class);
+        for (WorkloadOperation operation : operations) {
+            statistics.put(operation, new OperationStatistics());
+        }
+        long thread = Thread.currentThread().getId();
+        while (System.nanoTime() < end) {
+            WorkloadOperation operation = nextOperation(random);
+            long allocatedBefore = threads == null ? 0 : threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            InProcessService.Response response = operation.execute(service, network, random);
+            long latency = System.nanoTime() - start;
+            long allocated = threads == null ? 0 : threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            boolean error = response.isError();
+            if (error) {
+                LOGGER.debug("{} failed: {}", operation, response.getContent());
+            }
+            statistics.get(operation).record(latency, error, response.getLength(), allocated);
+        }
+        return statistics;
+    }
+
+    private WorkloadOperation nextOperation(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private ObjectNode createReport(long insertMillis, Map<WorkloadOperation, OperationStatistics> statistics) {
+        double seconds = configuration.getDurationSeconds();
+        ObjectNode report = JSONUtils.nodeFactory().objectNode();
+        report.put("label", configuration.getLabel());
+        report.put("timestamp", new DateTime().toString());
+        ObjectNode config = report.putObject("configuration");
+        config.put("stations", configuration.getStations());
+        config.put("properties", configuration.getProperties());
+        config.put("years", configuration.getYears());
+        config.put("interval", configuration.getInterval().toString());
+        config.put("values", network.getValueCount());
+        config.put("threads", configuration.getThreads());
+        config.put("warmupSeconds", configuration.getWarmupSeconds());
+        config.put("durationSeconds", configuration.getDurationSeconds());
+        config.put("seed", configuration.getSeed());
+        ObjectNode mix = config.putObject("mix");
+        for (Map.Entry<WorkloadOperation, Integer> entry : configuration.getMix().entrySet()) {
+            mix.put(entry.getKey().name(), entry.getValue());
+        }
+        report.put("insertMillis", insertMillis);
+        OperationStatistics total = new OperationStatistics();
+        ObjectNode operationsNode = report.putObject("operations");
+        for (Map.Entry<WorkloadOperation, OperationStatistics> entry : statistics.entrySet()) {
+            operationsNode.set(entry.getKey().name(), entry.getValue().toJSON(seconds, threads != null));
+            total.merge(entry.getValue());
+        }
+        report.set("total", total.toJSON(seconds, threads != null));
+        return report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfiguration configuration = LoadTestConfiguration.fromProperties(System.getProperties());
+        InProcessService service = new InProcessService();
+        try {
+            ObjectNode report = new LoadTest(configuration, service).run();
+            try (OutputStream out = new FileOutputStream(configuration.getOutput())) {
+                JSONUtils.print(out, report);
+            }
+            ObjectNode total = (ObjectNode) report.get("total");
+            System.out.printf("%d requests, %.1f requests/s, %d errors, p99 %.2f ms; report written to %s%n", total
+                    .get("count").asInt(), total.get("throughput").asDouble(), total.get("errors").asInt(), total
+                    .get("latencyMillis").get("p99").asDouble(), configuration.getOutput());
+        } finally {
+            service.destroy();
+        }
+        System.exit(0);
+    }
+}
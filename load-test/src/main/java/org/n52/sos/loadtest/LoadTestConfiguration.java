@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.loadtest;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Period;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+
+/**
+ * Configuration of a load test run, read from system properties with the
+ * prefix <code>loadtest.</code>.
+ *
+ * @since 4.4.0
+ */
+public class LoadTestConfiguration {
+
+    public static final String PREFIX = "loadtest.";
+
+    public static final String STATIONS = PREFIX + "stations";
+
+    public static final String PROPERTIES = PREFIX + "properties";
+
+    public static final String YEARS = PREFIX + "years";
+
+    public static final String INTERVAL = PREFIX + "interval";
+
+    public static final String START = PREFIX + "start";
+
+    public static final String BATCH_SIZE = PREFIX + "batchSize";
+
+    public static final String THREADS = PREFIX + "threads";
+
+    public static final String WARMUP_SECONDS = PREFIX + "warmupSeconds";
+
+    public static final String DURATION_SECONDS = PREFIX + "durationSeconds";
+
+    public static final String MIX = PREFIX + "mix";
+
+    public static final String SEED = PREFIX + "seed";
+
+    public static final String LABEL = PREFIX + "label";
+
+    public static final String OUTPUT = PREFIX + "output";
+
+    private static final String DEFAULT_MIX =
+            "GetCapabilities=1,GetObservationKvp=4,GetObservationPox=2,GetObservationJson=2,GetResult=2,InsertResult=1";
+
+    private int stations = 10;
+
+    private int properties = 3;
+
+    private int years = 1;
+
+    private Period interval = Period.hours(1);
+
+    private DateTime start = new DateTime(2015, 1, 1, 0, 0, DateTimeZone.UTC);
+
+    private int batchSize = 1000;
+
+    private int threads = 4;
+
+    private int warmupSeconds = 10;
+
+    private int durationSeconds = 60;
+
+    private Map<WorkloadOperation, Integer> mix = parseMix(DEFAULT_MIX);
+
+    private long seed = 42;
+
+    private String label = "";
+
+    private File output = new File("load-test-result.json");
+
+    public static LoadTestConfiguration fromProperties(Properties properties) {
+        LoadTestConfiguration configuration = new LoadTestConfiguration();
+        configuration.stations = getInt(properties, STATIONS, configuration.stations);
+        configuration.properties = getInt(properties, PROPERTIES, configuration.properties);
+        configuration.years = getInt(properties, YEARS, configuration.years);
+        if (properties.containsKey(INTERVAL)) {
+            configuration.interval = Period.parse(properties.getProperty(INTERVAL));
+        }
+        if (properties.containsKey(START)) {
+            configuration.start = new DateTime(properties.getProperty(START), DateTimeZone.UTC);
+        }
+        configuration.batchSize = getInt(properties, BATCH_SIZE, configuration.batchSize);
+        configuration.threads = getInt(properties, THREADS, configuration.threads);
+        configuration.warmupSeconds = getInt(properties, WARMUP_SECONDS, configuration.warmupSeconds);
+        configuration.durationSeconds = getInt(properties, DURATION_SECONDS, configuration.durationSeconds);
+        if (properties.containsKey(MIX)) {
+            configuration.mix = parseMix(properties.getProperty(MIX));
+        }
+        if (properties.containsKey(SEED)) {
+            configuration.seed = Long.parseLong(properties.getProperty(SEED));
+        }
+        configuration.label = Strings.nullToEmpty(properties.getProperty(LABEL));
+        if (properties.containsKey(OUTPUT)) {
+            configuration.output = new File(properties.getProperty(OUTPUT));
+        }
+        configuration.validate();
+        return configuration;
+    }
+
+    private static int getInt(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return Strings.isNullOrEmpty(value) ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static Map<WorkloadOperation, Integer> parseMix(String value) {
+        Map<WorkloadOperation, Integer> mix = new EnumMap<>(WorkloadOperation.class);
+        for (Map.Entry<String, String> entry : Splitter.on(',').trimResults().omitEmptyStrings()
+                .withKeyValueSeparator('=').split(value).entrySet()) {
+            int weight = Integer.parseInt(entry.getValue());
+            if (weight > 0) {
+                mix.put(WorkloadOperation.valueOf(entry.getKey()), weight);
+            }
+        }
+        return mix;
+    }
+
+    private void validate() {
+        if (stations < 1 || properties < 1 || years < 1 || batchSize < 1 || threads < 1 || durationSeconds < 1
+                || warmupSeconds < 0) {
+            throw new IllegalArgumentException("Sizes, threads and durations have to be positive");
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The workload mix is empty");
+        }
+    }
+
+    public int getStations() {
+        return stations;
+    }
+
+    public int getProperties() {
+        return properties;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public Period getInterval() {
+        return interval;
+    }
+
+    public DateTime getStart() {
+        return start;
+    }
+
+    public DateTime getEnd() {
+        return start.plusYears(years);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Map<WorkloadOperation, Integer> getMix() {
+        return Collections.unmodifiableMap(mix);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public File getOutput() {
+        return output;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.loadtest;
+
+import java.util.Arrays;
+
+import org.n52.sos.util.JSONUtils;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Latencies, errors and allocations of one operation recorded by a single
+ * client thread. Instances of all threads are merged after the run.
+ *
+ * @since 4.4.0
+ */
+public class OperationStatistics {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private long[] latencies = new long[1024];
+
+    private int count;
+
+    private int errors;
+
+    private long bytes;
+
+    private long allocated;
+
+    public void record(long latency, boolean error, int length, long allocation) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latency;
+        if (error) {
+            errors++;
+        }
+        bytes += length;
+        allocated += allocation;
+    }
+
+    public void merge(OperationStatistics other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], false, 0, 0);
+        }
+        errors += other.errors;
+        bytes += other.bytes;
+        allocated += other.allocated;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    /**
+     * @param seconds
+     *            the duration of the measured phase
+     * @param allocationSupported
+     *            if the allocations of the threads could be measured
+     * @return the statistics as JSON
+     */
+    public ObjectNode toJSON(double seconds, boolean allocationSupported) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        ObjectNode node = JSONUtils.nodeFactory().objectNode();
+        node.put("count", count);
+        node.put("errors", errors);
+        node.put("throughput", count / seconds);
+        node.put("bytesPerRequest", count == 0 ? 0 : bytes / count);
+        ObjectNode latency = node.putObject("latencyMillis");
+        latency.put("mean", count == 0 ? 0 : sum(sorted) / count / NANOS_PER_MILLI);
+        latency.put("p50", percentile(sorted, 0.5));
+        latency.put("p90", percentile(sorted, 0.9));
+        latency.put("p99", percentile(sorted, 0.99));
+        latency.put("p999", percentile(sorted, 0.999));
+        latency.put("max", count == 0 ? 0 : sorted[count - 1] / NANOS_PER_MILLI);
+        if (allocationSupported) {
+            node.put("allocatedBytesPerRequest", count == 0 ? 0 : allocated / count);
+            node.put("allocationRateMBPerSecond", allocated / seconds / (1024 * 1024));
+        } else {
+            node.putNull("allocatedBytesPerRequest");
+            node.putNull("allocationRateMBPerSecond");
+        }
+        return node;
+    }
+
+    private static double sum(long[] values) {
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / NANOS_PER_MILLI;
+    }
+}
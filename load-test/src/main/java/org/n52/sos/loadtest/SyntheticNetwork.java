@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Period;
+
+import com.google.common.io.Resources;
+
+/**
+ * A synthetic network of stations, each observing a number of properties at
+ * a fixed interval. The network is inserted through the transactional
+ * operations: one InsertSensor per station, one InsertResultTemplate per
+ * station and property and InsertResult requests carrying the values in
+ * batches. Values are deterministic for a given seed.
+ *
+ * @since 4.4.0
+ */
+public class SyntheticNetwork {
+
+    private static final String NAMESPACE = "http://www.52north.org/loadtest/";
+
+    private static final String UNIT = "degC";
+
+    private static final String TOKEN_SEPARATOR = "#";
+
+    private static final String BLOCK_SEPARATOR = "@";
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final LoadTestConfiguration configuration;
+
+    private final List<Series> series;
+
+    private final String insertSensor = template("InsertSensor.xml");
+
+    private final String insertResultTemplate = template("InsertResultTemplate.xml");
+
+    private final String insertResult = template("InsertResult.xml");
+
+    public SyntheticNetwork(LoadTestConfiguration configuration) {
+        this.configuration = configuration;
+        List<Series> list = new ArrayList<>(configuration.getStations() * configuration.getProperties());
+        long end = configuration.getEnd().getMillis();
+        for (int station = 0; station < configuration.getStations(); station++) {
+            for (int property = 0; property < configuration.getProperties(); property++) {
+                list.add(new Series(station, property, end));
+            }
+        }
+        this.series = Collections.unmodifiableList(list);
+    }
+
+    private static String template(String name) {
+        try {
+            return Resources.toString(Resources.getResource(SyntheticNetwork.class, name), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not load request template " + name, e);
+        }
+    }
+
+    public List<Series> getSeries() {
+        return series;
+    }
+
+    /**
+     * @return the total number of values inserted by {@link #insert}
+     */
+    public long getValueCount() {
+        long perSeries = 0;
+        Period interval = configuration.getInterval();
+        for (DateTime time = configuration.getStart(); time.isBefore(configuration.getEnd()); time =
+                time.plus(interval)) {
+            perSeries++;
+        }
+        return perSeries * series.size();
+    }
+
+    /**
+     * Insert sensors, result templates and values of the network.
+     *
+     * @param service
+     *            the service to insert into
+     */
+    public void insert(InProcessService service) throws Exception {
+        for (int station = 0; station < configuration.getStations(); station++) {
+            check(service.postXml(createInsertSensor(station)));
+        }
+        for (Series s : series) {
+            check(service.postXml(createInsertResultTemplate(s)));
+        }
+        for (Series s : series) {
+            Random random = new Random(configuration.getSeed() + s.hashCode());
+            StringBuilder values = new StringBuilder();
+            int count = 0;
+            for (DateTime time = configuration.getStart(); time.isBefore(configuration.getEnd()); time =
+                    time.plus(configuration.getInterval())) {
+                appendValue(values, time.getMillis(), random);
+                if (++count == configuration.getBatchSize()) {
+                    check(service.postXml(createInsertResult(s, count, values)));
+                    values.setLength(0);
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                check(service.postXml(createInsertResult(s, count, values)));
+            }
+        }
+        service.updateCache();
+    }
+
+    /**
+     * Create an InsertResult request appending values to the series after
+     * the end of the inserted data set.
+     *
+     * @param s
+     *            the series
+     * @param count
+     *            the number of values
+     * @param random
+     *            the source of the noise of the values
+     * @return the request document
+     */
+    public String createAppendingInsertResult(Series s, int count, Random random) {
+        long step = configuration.getInterval().toStandardDuration().getMillis();
+        long first = s.next.getAndAdd(step * count);
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            appendValue(values, first + i * step, random);
+        }
+        return createInsertResult(s, count, values);
+    }
+
+    /**
+     * Select a random day within the inserted data set.
+     *
+     * @param random
+     *            the source of randomness
+     * @return start and end of the day
+     */
+    public DateTime[] randomDay(Random random) {
+        long start = configuration.getStart().getMillis();
+        long days = Math.max(1, (configuration.getEnd().getMillis() - start) / DAY);
+        DateTime begin = new DateTime(start + (long) random.nextInt((int) days) * DAY, DateTimeZone.UTC);
+        return new DateTime[] { begin, begin.plusDays(1) };
+    }
+
+    private void appendValue(StringBuilder values, long time, Random random) {
+        double phase = 2 * Math.PI * (time % DAY) / DAY;
+        double value = 10 + 5 * Math.sin(phase) + random.nextGaussian();
+        values.append(new DateTime(time, DateTimeZone.UTC)).append(TOKEN_SEPARATOR)
+                .append(Math.round(value * 100) / 100.0).append(BLOCK_SEPARATOR);
+    }
+
+    private String createInsertSensor(int station) {
+        StringBuilder outputs = new StringBuilder();
+        StringBuilder observableProperties = new StringBuilder();
+        for (int property = 0; property < configuration.getProperties(); property++) {
+            String observableProperty = getObservableProperty(property);
+            outputs.append("<sml:output name=\"property").append(property).append("\">")
+                    .append("<swe:Quantity definition=\"").append(observableProperty).append("\">")
+                    .append("<swe:uom code=\"").append(UNIT).append("\"/>")
+                    .append("</swe:Quantity></sml:output>");
+            observableProperties.append("<swes:observableProperty>").append(observableProperty)
+                    .append("</swes:observableProperty>");
+        }
+        return String.format(insertSensor, getProcedure(station), getOffering(station), getFeature(station),
+                getLatitude(station), getLongitude(station), outputs, observableProperties);
+    }
+
+    private String createInsertResultTemplate(Series s) {
+        return String.format(insertResultTemplate, s.getTemplate(), s.getOffering(), s.getProcedure(),
+                s.getObservableProperty(), s.getFeature(), getLatitude(s.station), getLongitude(s.station), UNIT);
+    }
+
+    private String createInsertResult(Series s, int count, CharSequence values) {
+        return String.format(insertResult, s.getTemplate(), count + BLOCK_SEPARATOR + values);
+    }
+
+    private void check(InProcessService.Response response) {
+        if (response.isError()) {
+            throw new IllegalStateException("Inserting the network failed: " + response.getContent());
+        }
+    }
+
+    private static String getProcedure(int station) {
+        return NAMESPACE + "procedure/" + station;
+    }
+
+    private static String getOffering(int station) {
+        return NAMESPACE + "offering/" + station;
+    }
+
+    private static String getFeature(int station) {
+        return NAMESPACE + "featureOfInterest/" + station;
+    }
+
+    private static String getObservableProperty(int property) {
+        return NAMESPACE + "observableProperty/" + property;
+    }
+
+    private static String getLatitude(int station) {
+        return Double.toString(50 + (station / 100) * 0.01);
+    }
+
+    private static String getLongitude(int station) {
+        return Double.toString(7 + (station % 100) * 0.01);
+    }
+
+    /**
+     * The values of one property observed at one station.
+     */
+    public static class Series {
+        private final int station;
+
+        private final int property;
+
+        private final AtomicLong next;
+
+        Series(int station, int property, long next) {
+            this.station = station;
+            this.property = property;
+            this.next = new AtomicLong(next);
+        }
+
+        public String getProcedure() {
+            return SyntheticNetwork.getProcedure(station);
+        }
+
+        public String getOffering() {
+            return SyntheticNetwork.getOffering(station);
+        }
+
+        public String getFeature() {
+            return SyntheticNetwork.getFeature(station);
+        }
+
+        public String getObservableProperty() {
+            return SyntheticNetwork.getObservableProperty(property);
+        }
+
+        public String getTemplate() {
+            return getProcedure() + "/template/" + property;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * station + property;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Series)) {
+                return false;
+            }
+            Series other = (Series) obj;
+            return station == other.station && property == other.property;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.servlet.ServletException;
+
+import org.joda.time.DateTime;
+import org.n52.sos.util.JSONUtils;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.Resources;
+
+/**
+ * The operations of the workload mix. Each operation creates a request for a
+ * random series of the {@link SyntheticNetwork} and executes it.
+ *
+ * @since 4.4.0
+ */
+public enum WorkloadOperation {
+    GetCapabilities {
+        @Override
+        InProcessService.Response execute(InProcessService service, SyntheticNetwork network, Random random)
+                throws ServletException, IOException {
+            Map<String, String> parameters = kvp("GetCapabilities");
+            parameters.put("AcceptVersions", VERSION);
+            parameters.remove("version");
+            return service.get(parameters);
+        }
+    },
+    GetObservationKvp {
+        @Override
+        InProcessService.Response execute(InProcessService service, SyntheticNetwork network, Random random)
+                throws ServletException, IOException {
+            SyntheticNetwork.Series series = randomSeries(network, random);
+            DateTime[] day = network.randomDay(random);
+            Map<String, String> parameters = kvp("GetObservation");
+            parameters.put("procedure", series.getProcedure());
+            parameters.put("offering", series.getOffering());
+            parameters.put("observedProperty", series.getObservableProperty());
+            parameters.put("featureOfInterest", series.getFeature());
+            parameters.put("temporalFilter", temporalFilter(day));
+            return service.get(parameters);
+        }
+    },
+    GetObservationPox {
+        @Override
+        InProcessService.Response execute(InProcessService service, SyntheticNetwork network, Random random)
+                throws ServletException, IOException {
+            SyntheticNetwork.Series series = randomSeries(network, random);
+            DateTime[] day = network.randomDay(random);
+            return service.postXml(String.format(GET_OBSERVATION, series.getProcedure(), series.getOffering(),
+                    series.getObservableProperty(), series.getFeature(), day[0], day[1]));
+        }
+    },
+    GetObservationJson {
+        @Override
+        InProcessService.Response execute(InProcessService service, SyntheticNetwork network, Random random)
+                throws ServletException, IOException {
+            SyntheticNetwork.Series series = randomSeries(network, random);
+            DateTime[] day = network.randomDay(random);
+            ObjectNode request = JSONUtils.nodeFactory().objectNode();
+            request.put("request", "GetObservation");
+            request.put("service", SERVICE);
+            request.put("version", VERSION);
+            request.put("procedure", series.getProcedure());
+            request.put("offering", series.getOffering());
+            request.put("observedProperty", series.getObservableProperty());
+            request.put("featureOfInterest", series.getFeature());
+            ObjectNode during = request.putObject("temporalFilter").putObject("during");
+            during.put("ref", "om:phenomenonTime");
+            during.putArray("value").add(day[0].toString()).add(day[1].toString());
+            return service.postJson(JSONUtils.print(request));
+        }
+    },
+    GetResult {
+        @Override
+        InProcessService.Response execute(InProcessService service, SyntheticNetwork network, Random random)
+                throws ServletException, IOException {
+            SyntheticNetwork.Series series = randomSeries(network, random);
+            DateTime[] day = network.randomDay(random);
+            Map<String, String> parameters = kvp("GetResult");
+            parameters.put("offering", series.getOffering());
+            parameters.put("observedProperty", series.getObservableProperty());
+            parameters.put("featureOfInterest", series.getFeature());
+            parameters.put("temporalFilter", temporalFilter(day));
+            return service.get(parameters);
+        }
+    },
+    InsertResult {
+        @Override
+        InProcessService.Response execute(InProcessService service, SyntheticNetwork network, Random random)
+                throws ServletException, IOException {
+            SyntheticNetwork.Series series = randomSeries(network, random);
+            return service.postXml(network.createAppendingInsertResult(series, INSERT_RESULT_VALUES, random));
+        }
+    };
+
+    private static final String SERVICE = "SOS";
+
+    private static final String VERSION = "2.0.0";
+
+    private static final int INSERT_RESULT_VALUES = 10;
+
+    private static final String GET_OBSERVATION;
+
+    static {
+        try {
+            GET_OBSERVATION = Resources.toString(
+                    Resources.getResource(WorkloadOperation.class, "GetObservation.xml"), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Create and execute a request of this operation.
+     *
+     * @param service
+     *            the service to execute the request
+     * @param network
+     *            the network to select the request parameters from
+     * @param random
+     *            the source of randomness of the calling thread
+     * @return the response
+     */
+    abstract InProcessService.Response execute(InProcessService service, SyntheticNetwork network, Random random)
+            throws ServletException, IOException;
+
+    private static Map<String, String> kvp(String request) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("service", SERVICE);
+        parameters.put("version", VERSION);
+        parameters.put("request", request);
+        return parameters;
+    }
+
+    private static SyntheticNetwork.Series randomSeries(SyntheticNetwork network, Random random) {
+        List<SyntheticNetwork.Series> series = network.getSeries();
+        return series.get(random.nextInt(series.size()));
+    }
+
+    private static String temporalFilter(DateTime[] period) {
+        return "om:phenomenonTime," + period[0] + "/" + period[1];
+    }
+}
@@ -46,4 +46,7 @@ alter table sos.complexValue add constraint observationComplexValueFk foreign ke
 
 create table sos.compositeObservation (observationId bigint not null comment 'Foreign Key (FK) to the related parent complex observation. Contains "observation".observationid', childObservationId bigint not null comment 'Foreign Key (FK) to the related child complex observation. Contains "observation".observationid', primary key (observationId, childObservationId)) comment='Relation table for complex parent/child observations' ENGINE=InnoDB;
 alter table sos.compositeObservation add constraint observationChildFk foreign key (childObservationId) references sos.observation (observationId);
-alter table sos.compositeObservation add constraint observationParentFK foreign key (observationId) references sos.complexValue (observationId);
\ No newline at end of file
+alter table sos.compositeObservation add constraint observationParentFK foreign key (observationId) references sos.complexValue (observationId);
+-- composite series time indexes
+create index obsSeriesPhenTimeIdx on sos.observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on sos.observation (seriesId, resultTime);
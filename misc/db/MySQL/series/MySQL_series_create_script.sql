@@ -95,6 +95,8 @@ create index obsSeriesIdx on sos.observation (seriesId);
 create index obsPhenTimeStartIdx on sos.observation (phenomenonTimeStart);
 create index obsPhenTimeEndIdx on sos.observation (phenomenonTimeEnd);
 create index obsResultTimeIdx on sos.observation (resultTime);
+create index obsSeriesPhenTimeIdx on sos.observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on sos.observation (seriesId, resultTime);
 create spatial index samplingGeomIdx on sos.observation (samplingGeometry);
 alter table sos.observationConstellation add constraint obsnConstellationIdentity unique (observablePropertyId, procedureId, offeringId);
 create index obsConstObsPropIdx on sos.observationConstellation (observablePropertyId);
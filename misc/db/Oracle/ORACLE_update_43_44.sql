@@ -49,4 +49,7 @@ alter table compositeObservation add constraint observationParentFK foreign key
 
 -- spatial index
 create index featureGeomIdx on featureOfInterest (geom)  INDEXTYPE IS MDSYS.SPATIAL_INDEX;
-create index samplingGeomIdx on observation (samplingGeometry)  INDEXTYPE IS MDSYS.SPATIAL_INDEX;
\ No newline at end of file
+create index samplingGeomIdx on observation (samplingGeometry)  INDEXTYPE IS MDSYS.SPATIAL_INDEX;
+-- composite series time indexes
+create index obsSeriesPhenTimeIdx on observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on observation (seriesId, resultTime);
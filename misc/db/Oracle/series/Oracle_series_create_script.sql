@@ -312,6 +312,8 @@ create index obsSeriesIdx on observation (seriesId);
 create index obsPhenTimeStartIdx on observation (phenomenonTimeStart);
 create index obsPhenTimeEndIdx on observation (phenomenonTimeEnd);
 create index obsResultTimeIdx on observation (resultTime);
+create index obsSeriesPhenTimeIdx on observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on observation (seriesId, resultTime);
 create index samplingGeomIdx on observation (samplingGeometry)  INDEXTYPE IS MDSYS.SPATIAL_INDEX;
 alter table observationConstellation add constraint obsnConstellationIdentity unique (observablePropertyId, procedureId, offeringId);
 create index obsConstObsPropIdx on observationConstellation (observablePropertyId);
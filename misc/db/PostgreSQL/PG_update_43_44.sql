@@ -55,3 +55,6 @@ create index samplingGeomIdx on public.observation USING GIST (samplingGeometry)
 CREATE TABLE public.xmlparametervalue (parameterid bigint PRIMARY KEY, value text);
 ALTER TABLE public.xmlparametervalue ADD CONSTRAINT parameterxmlvaluefk FOREIGN KEY (parameterid) REFERENCES public.parameter (parameterid)
 CREATE INDEX xmlparamidx ON public.xmlparametervalue USING btree (value);
+-- composite series time indexes
+create index obsSeriesPhenTimeIdx on public.observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on public.observation (seriesId, resultTime);
@@ -312,6 +312,8 @@ create index obsSeriesIdx on public.observation (seriesId);
 create index obsPhenTimeStartIdx on public.observation (phenomenonTimeStart);
 create index obsPhenTimeEndIdx on public.observation (phenomenonTimeEnd);
 create index obsResultTimeIdx on public.observation (resultTime);
+create index obsSeriesPhenTimeIdx on public.observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on public.observation (seriesId, resultTime);
 create index samplingGeomIdx on public.observation USING GIST (samplingGeometry);
 alter table public.observationConstellation add constraint obsnConstellationIdentity unique (observablePropertyId, procedureId, offeringId);
 create index obsConstObsPropIdx on public.observationConstellation (observablePropertyId);
@@ -49,4 +49,7 @@ alter table dbo.compositeObservation add constraint observationParentFK foreign
 
 -- spatial index
 create spatial index featureGeomIdx on sdo.featureOfInterest (geom);
-create spatial index samplingGeomIdx on sdo.observation (samplingGeometry);
\ No newline at end of file
+create spatial index samplingGeomIdx on sdo.observation (samplingGeometry);
+-- composite series time indexes
+create index obsSeriesPhenTimeIdx on dbo.observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on dbo.observation (seriesId, resultTime);
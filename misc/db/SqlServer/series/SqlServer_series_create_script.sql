@@ -97,6 +97,8 @@ create index obsSeriesIdx on sdo.observation (seriesId);
 create index obsPhenTimeStartIdx on sdo.observation (phenomenonTimeStart);
 create index obsPhenTimeEndIdx on sdo.observation (phenomenonTimeEnd);
 create index obsResultTimeIdx on sdo.observation (resultTime);
+create index obsSeriesPhenTimeIdx on sdo.observation (seriesId, phenomenonTimeStart, phenomenonTimeEnd);
+create index obsSeriesResultTimeIdx on sdo.observation (seriesId, resultTime);
 create spatial index samplingGeomIdx on sdo.observation (samplingGeometry);
 alter table sdo.observationConstellation add constraint obsnConstellationIdentity unique (observablePropertyId, procedureId, offeringId);
 create index obsConstObsPropIdx on sdo.observationConstellation (observablePropertyId);
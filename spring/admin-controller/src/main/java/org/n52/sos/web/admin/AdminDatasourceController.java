@@ -46,9 +46,13 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.ModelAndView;
 
+import org.n52.sos.ds.ConnectionProvider;
 import org.n52.sos.ds.ConnectionProviderException;
 import org.n52.sos.ds.GeneralQueryDAO;
+import org.n52.sos.ds.hibernate.SessionFactoryProvider;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.cache.ObservationResponseCache;
+import org.n52.sos.service.Configurator;
 import org.n52.sos.util.JSONUtils;
 import org.n52.sos.web.ControllerConstants;
 
@@ -91,6 +95,7 @@ public class AdminDatasourceController extends AbstractDatasourceController {
             LOG.info("Query: {}", q);
             GeneralQueryDAO dao = daoServiceLoader.iterator().next();
             GeneralQueryDAO.QueryResult rs = dao.query(q);
+            evictCaches();
             ObjectNode j = JSONUtils.nodeFactory().objectNode();
             if (rs.getMessage() != null) {
                 j.put(rs.isError() ? "error" : "message", rs.getMessage());
@@ -130,6 +135,19 @@ public class AdminDatasourceController extends AbstractDatasourceController {
         	getDatasource().dropSchema(settings);
         	getDatasource().createSchema(settings);
         }
+        evictCaches();
         updateCache();
     }
+
+    /**
+     * The database was modified without Hibernate and without events, so
+     * cached entities and responses may be outdated.
+     */
+    private void evictCaches() {
+        ObservationResponseCache.getInstance().clear();
+        ConnectionProvider connectionProvider = Configurator.getInstance().getDataConnectionProvider();
+        if (connectionProvider instanceof SessionFactoryProvider) {
+            ((SessionFactoryProvider) connectionProvider).evictSecondLevelCache();
+        }
+    }
 }
@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.web.admin;
+
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import org.n52.sos.ds.ConnectionProvider;
+import org.n52.sos.ds.hibernate.SessionFactoryProvider;
+import org.n52.sos.ds.hibernate.pool.ConnectionPoolStatistics;
+import org.n52.sos.service.Configurator;
+import org.n52.sos.util.JSONUtils;
+import org.n52.sos.web.AbstractController;
+import org.n52.sos.web.ControllerConstants;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Provides the second level and query cache statistics and the connection pool
+ * state of the Hibernate datasource as JSON.
+ *
+ * @since 4.4.0
+ *
+ */
+@Controller
+@RequestMapping({ ControllerConstants.Paths.ADMIN_DATABASE_STATISTICS })
+public class AdminDatasourceStatisticsController extends AbstractController {
+
+    private static final String ENABLED = "enabled";
+
+    private static final String SECOND_LEVEL_CACHE = "secondLevelCache";
+
+    private static final String QUERY_CACHE = "queryCache";
+
+    private static final String REGIONS = "regions";
+
+    private static final String HITS = "hits";
+
+    private static final String MISSES = "misses";
+
+    private static final String PUTS = "puts";
+
+    private static final String ELEMENTS = "elements";
+
+    private static final String CONNECTION_POOL = "connectionPool";
+
+    private static final String POOL = "pool";
+
+    private static final String ACTIVE = "active";
+
+    private static final String IDLE = "idle";
+
+    private static final String TOTAL = "total";
+
+    private static final String WAITING = "waiting";
+
+    private static final String MAXIMUM = "maximum";
+
+    private static final String ACQUISITIONS = "acquisitions";
+
+    private static final String FAILURES = "failures";
+
+    private static final String MEAN_MICROS = "meanMicros";
+
+    private static final String MAX_MICROS = "maxMicros";
+
+    private static final String HISTOGRAM = "histogram";
+
+    private static final String UPPER_BOUND_MICROS = "upperBoundMicros";
+
+    private static final String COUNT = "count";
+
+    @RequestMapping(method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public String getStatistics() {
+        ObjectNode json = JSONUtils.nodeFactory().objectNode();
+        ConnectionProvider connectionProvider = Configurator.getInstance().getDataConnectionProvider();
+        Statistics statistics = null;
+        ConnectionPoolStatistics poolStatistics = null;
+        if (connectionProvider instanceof SessionFactoryProvider) {
+            statistics = ((SessionFactoryProvider) connectionProvider).getStatistics();
+            poolStatistics = ((SessionFactoryProvider) connectionProvider).getConnectionPoolStatistics();
+        }
+        if (poolStatistics != null) {
+            encodeConnectionPool(json.putObject(CONNECTION_POOL), poolStatistics);
+        }
+        json.put(ENABLED, statistics != null && statistics.isStatisticsEnabled());
+        if (statistics != null && statistics.isStatisticsEnabled()) {
+            ObjectNode secondLevelCache = json.putObject(SECOND_LEVEL_CACHE);
+            secondLevelCache.put(HITS, statistics.getSecondLevelCacheHitCount());
+            secondLevelCache.put(MISSES, statistics.getSecondLevelCacheMissCount());
+            secondLevelCache.put(PUTS, statistics.getSecondLevelCachePutCount());
+            ObjectNode regions = secondLevelCache.putObject(REGIONS);
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(region);
+                if (regionStatistics != null) {
+                    ObjectNode r = regions.putObject(region);
+                    r.put(HITS, regionStatistics.getHitCount());
+                    r.put(MISSES, regionStatistics.getMissCount());
+                    r.put(PUTS, regionStatistics.getPutCount());
+                    r.put(ELEMENTS, regionStatistics.getElementCountInMemory());
+                }
+            }
+            ObjectNode queryCache = json.putObject(QUERY_CACHE);
+            queryCache.put(HITS, statistics.getQueryCacheHitCount());
+            queryCache.put(MISSES, statistics.getQueryCacheMissCount());
+            queryCache.put(PUTS, statistics.getQueryCachePutCount());
+        }
+        return JSONUtils.print(json);
+    }
+
+    private void encodeConnectionPool(ObjectNode json, ConnectionPoolStatistics statistics) {
+        json.put(POOL, statistics.getPool());
+        json.put(ACTIVE, statistics.getActive());
+        json.put(IDLE, statistics.getIdle());
+        json.put(TOTAL, statistics.getTotal());
+        json.put(WAITING, statistics.getWaiting());
+        json.put(MAXIMUM, statistics.getMaximum());
+        json.put(ACQUISITIONS, statistics.getAcquisitions());
+        json.put(FAILURES, statistics.getAcquisitionFailures());
+        json.put(MEAN_MICROS, statistics.getMeanAcquisitionMicros());
+        json.put(MAX_MICROS, statistics.getMaxAcquisitionMicros());
+        ArrayNode histogram = json.putArray(HISTOGRAM);
+        long[] bounds = statistics.getHistogramBounds();
+        long[] counts = statistics.getHistogramCounts();
+        for (int i = 0; i < counts.length; i++) {
+            ObjectNode bucket = histogram.addObject();
+            if (i < bounds.length) {
+                bucket.put(UPPER_BOUND_MICROS, bounds[i]);
+            } else {
+                bucket.putNull(UPPER_BOUND_MICROS);
+            }
+            bucket.put(COUNT, counts[i]);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2012-2016 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.web.admin;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import org.n52.sos.metrics.RequestMetrics;
+import org.n52.sos.web.ControllerConstants;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Provides the request metrics in the Prometheus text exposition format.
+ *
+ * @since 4.4.0
+ *
+ */
+@Controller
+@RequestMapping(value = ControllerConstants.Paths.ADMIN_METRICS)
+public class AdminMetricsController {
+
+    @RequestMapping(method = RequestMethod.GET)
+    public void getMetrics(HttpServletResponse response) throws IOException {
+        if (!RequestMetrics.isEnabled()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Request metrics are disabled");
+            return;
+        }
+        response.setContentType(RequestMetrics.CONTENT_TYPE);
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), Charsets.UTF_8);
+        RequestMetrics.getInstance().write(writer);
+    }
+}
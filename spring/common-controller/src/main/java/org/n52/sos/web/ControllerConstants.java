@@ -162,6 +162,10 @@ public interface ControllerConstants {
 
         String ADMIN_DATABASE_UPDATE_SCRIPT = "/admin/datasource/updatescript";
 
+        String ADMIN_DATABASE_STATISTICS = "/admin/datasource/statistics";
+
+        String ADMIN_METRICS = "/admin/metrics";
+
         String ADMIN_DATABASE_REMOVE_TEST_DATA
                 = "/admin/datasource/testdata/remove";
 
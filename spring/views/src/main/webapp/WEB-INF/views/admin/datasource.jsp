@@ -74,6 +74,16 @@
 </form>
 <div id="result"></div>
 
+<div id="connection-pool" style="display: none;">
+    <h3>Connection Pool <button id="connection-pool-refresh" type="button" class="btn btn-small">Refresh</button></h3>
+    <table id="connection-pool-state" class="table table-striped table-bordered table-condensed">
+        <tr><th>Pool</th><th>Active</th><th>Idle</th><th>Total</th><th>Waiting</th><th>Maximum</th><th>Acquisitions</th><th>Failures</th><th>Mean acquisition (&micro;s)</th><th>Max acquisition (&micro;s)</th></tr>
+    </table>
+    <table id="connection-pool-histogram" class="table table-striped table-bordered table-condensed">
+        <tr><th>Acquisition latency</th><th>Count</th></tr>
+    </table>
+</div>
+
 
 <div class="modal hide fade in" id="confirmDialogClear">
     <div class="modal-header">
@@ -157,6 +167,43 @@
     });
 </script>
 
+<script type="text/javascript">
+$(function() {
+    function formatMicros(micros) {
+        return micros < 1000 ? micros + " &micro;s" : (micros / 1000) + " ms";
+    }
+    function loadConnectionPool() {
+        $.getJSON("<c:url value="/admin/datasource/statistics" />", function(statistics) {
+            var pool = statistics.connectionPool;
+            if (!pool) {
+                return;
+            }
+            var $state = $("#connection-pool-state");
+            $state.find("tr:gt(0)").remove();
+            var $row = $("<tr>");
+            $.each([pool.pool, pool.active, pool.idle, pool.total, pool.waiting, pool.maximum,
+                    pool.acquisitions, pool.failures, pool.meanMicros, pool.maxMicros], function(i, value) {
+                $("<td>").text(value < 0 ? "n/a" : value).appendTo($row);
+            });
+            $row.appendTo($state);
+            var $histogram = $("#connection-pool-histogram");
+            $histogram.find("tr:gt(0)").remove();
+            var lower = null;
+            $.each(pool.histogram, function(i, bucket) {
+                var label = bucket.upperBoundMicros === null
+                        ? "&gt; " + formatMicros(lower)
+                        : "&le; " + formatMicros(bucket.upperBoundMicros);
+                $("<tr>").append($("<td>").html(label)).append($("<td>").text(bucket.count)).appendTo($histogram);
+                lower = bucket.upperBoundMicros;
+            });
+            $("#connection-pool").show();
+        });
+    }
+    $("#connection-pool-refresh").click(loadConnectionPool);
+    loadConnectionPool();
+});
+</script>
+
 <script type="text/javascript">
 $(function() {
     var editor = CodeMirror.fromTextArea($("#editor").get(0), 
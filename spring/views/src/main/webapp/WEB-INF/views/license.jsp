@@ -119,6 +119,11 @@
 			<td>1.6</td>
 			<td><a href='http://www.apache.org/licenses/LICENSE-2.0.html'>Apache</a></td>
 		</tr>
+		<tr>
+			<td><a href='https://github.com/brettwooldridge/HikariCP'>com.zaxxer:HikariCP-java7</a></td>
+			<td>2.4.13</td>
+			<td><a href='http://www.apache.org/licenses/LICENSE-2.0.html'>Apache</a></td>
+		</tr>
 		<tr>
 			<td><a href='http://www.vividsolutions.com/jts/jtshome.htm'>com.vividsolutions:jts</a></td>
 			<td>1.13</td>